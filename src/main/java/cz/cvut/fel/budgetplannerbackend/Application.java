@@ -1,5 +1,21 @@
 package cz.cvut.fel.budgetplannerbackend;
 
+import cz.cvut.fel.budgetplannerbackend.config.AnomalyDetectionProperties;
+import cz.cvut.fel.budgetplannerbackend.config.BudgetAllocationProperties;
+import cz.cvut.fel.budgetplannerbackend.config.CacheInvalidationProperties;
+import cz.cvut.fel.budgetplannerbackend.config.CashFlowProperties;
+import cz.cvut.fel.budgetplannerbackend.config.CategorizationProperties;
+import cz.cvut.fel.budgetplannerbackend.config.DashboardEventsProperties;
+import cz.cvut.fel.budgetplannerbackend.config.DuplicateDetectionProperties;
+import cz.cvut.fel.budgetplannerbackend.config.GoalProjectionProperties;
+import cz.cvut.fel.budgetplannerbackend.config.IdempotencyProperties;
+import cz.cvut.fel.budgetplannerbackend.config.MetricsScrapeProperties;
+import cz.cvut.fel.budgetplannerbackend.config.RecordPartitionProperties;
+import cz.cvut.fel.budgetplannerbackend.config.RecurringTransactionProperties;
+import cz.cvut.fel.budgetplannerbackend.config.ReplicaDataSourceProperties;
+import cz.cvut.fel.budgetplannerbackend.config.ReportProperties;
+import cz.cvut.fel.budgetplannerbackend.config.StatementImportProperties;
+import cz.cvut.fel.budgetplannerbackend.config.TagProperties;
 import cz.cvut.fel.budgetplannerbackend.security.jwt.JwtProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -10,7 +26,12 @@ import org.springframework.web.bind.annotation.RestController;
 @SpringBootApplication
 @RestController
 @EnableScheduling
-@EnableConfigurationProperties(JwtProperties.class)
+@EnableConfigurationProperties({JwtProperties.class, IdempotencyProperties.class, DashboardEventsProperties.class,
+        CacheInvalidationProperties.class, ReplicaDataSourceProperties.class, TagProperties.class,
+        RecordPartitionProperties.class, CashFlowProperties.class, AnomalyDetectionProperties.class,
+        GoalProjectionProperties.class, BudgetAllocationProperties.class, RecurringTransactionProperties.class,
+        CategorizationProperties.class, DuplicateDetectionProperties.class, StatementImportProperties.class,
+        ReportProperties.class, MetricsScrapeProperties.class})
 public class Application {
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
@@ -0,0 +1,141 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton finding which of a set of patterns occur in a text, ignoring case.
+ * <p>
+ * The trie of the patterns is turned into a deterministic automaton over the characters that occur in the
+ * patterns; every other character falls into one shared class. A text is scanned once, in O(length + matches)
+ * regardless of the number of patterns, following one table entry per character. Every state lists the
+ * patterns ending there, including those ending in its suffixes, so no failure links are followed while scanning.
+ */
+public final class AhoCorasickAutomaton {
+
+    private static final int ASCII = 128;
+
+    private final int[] asciiClasses = new int[ASCII]; // Class 0 is every character not in a pattern.
+    private final Map<Character, Integer> otherClasses = new HashMap<>();
+    private final int width; // Number of character classes.
+    private final int[] transitions; // transitions[state * width + class]
+    private final int[][] outputs; // Patterns ending in every state.
+    private final int patternCount;
+
+    /**
+     * Builds the automaton of a set of patterns.
+     *
+     * @param patterns The patterns; empty patterns never match.
+     */
+    public AhoCorasickAutomaton(List<String> patterns) {
+        this.patternCount = patterns.size();
+        List<Map<Integer, Integer>> children = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        children.add(new HashMap<>());
+        ends.add(new ArrayList<>());
+        int classes = 1;
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = Character.toLowerCase(pattern.charAt(i));
+                int cls = classOf(c);
+                if (cls == 0) {
+                    cls = classes++;
+                    if (c < ASCII) {
+                        asciiClasses[c] = cls;
+                    } else {
+                        otherClasses.put(c, cls);
+                    }
+                }
+                Integer next = children.get(state).get(cls);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new HashMap<>());
+                    ends.add(new ArrayList<>());
+                    children.get(state).put(cls, next);
+                }
+                state = next;
+            }
+            ends.get(state).add(p);
+        }
+        this.width = classes;
+
+        // Breadth-first, so the failure state of every state is complete before the state itself.
+        int stateCount = children.size();
+        this.transitions = new int[stateCount * width];
+        this.outputs = new int[stateCount][];
+        int[] failure = new int[stateCount];
+        Queue<Integer> queue = new ArrayDeque<>();
+        outputs[0] = new int[0];
+        for (int cls = 0; cls < width; cls++) {
+            Integer child = children.get(0).get(cls);
+            if (child != null) {
+                transitions[cls] = child;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] inherited = outputs[failure[state]];
+            int[] own = ends.get(state).stream().mapToInt(Integer::intValue).toArray();
+            outputs[state] = own.length == 0 ? inherited : concat(own, inherited);
+            for (int cls = 0; cls < width; cls++) {
+                Integer child = children.get(state).get(cls);
+                int fallback = transitions[failure[state] * width + cls];
+                if (child == null) {
+                    transitions[state * width + cls] = fallback;
+                } else {
+                    failure[child] = fallback;
+                    transitions[state * width + cls] = child;
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param text The text to scan, or null.
+     * @return The indexes of the patterns occurring in the text.
+     */
+    public BitSet matches(CharSequence text) {
+        BitSet found = new BitSet(patternCount);
+        if (text == null) {
+            return found;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state * width + classOf(Character.toLowerCase(text.charAt(i)))];
+            for (int pattern : outputs[state]) {
+                found.set(pattern);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return The number of states of the automaton, including the start state.
+     */
+    public int stateCount() {
+        return outputs.length;
+    }
+
+    private int classOf(char c) {
+        return c < ASCII ? asciiClasses[c] : otherClasses.getOrDefault(c, 0);
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] joined = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+}
@@ -0,0 +1,121 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo simulation of saving towards a goal, bootstrapped from historical monthly net cash flows.
+ * <p>
+ * Every path starts at the current amount and adds, for every remaining month, a net cash flow drawn with
+ * replacement from the history. A path reaches the goal if its amount reaches the target in any month.
+ * Paths are split into ranges simulated in parallel on a fork/join pool; every range gets its own
+ * {@link SplittableRandom} split off before forking, so results only depend on the seed.
+ */
+public final class BootstrapGoalSimulation {
+
+    // Paths simulated by one task without splitting further.
+    private static final int PATHS_PER_TASK = 2048;
+
+    private BootstrapGoalSimulation() {
+    }
+
+    /**
+     * Simulates saving paths.
+     *
+     * @param history The historical monthly net cash flows, not empty.
+     * @param current The current amount.
+     * @param target  The target amount.
+     * @param months  The number of months until the deadline, at least 0.
+     * @param paths   The number of paths, at least 1.
+     * @param seed    The seed of the random draws.
+     * @param pool    The pool the paths are simulated on.
+     * @return The outcome of the paths.
+     * @throws IllegalArgumentException If the history is empty, or the months or paths are out of range.
+     */
+    public static Result simulate(double[] history, double current, double target, int months, int paths, long seed, ForkJoinPool pool) {
+        if (history.length == 0) {
+            throw new IllegalArgumentException("The history must not be empty");
+        }
+        if (months < 0 || paths < 1) {
+            throw new IllegalArgumentException("The months must not be negative and there must be at least one path");
+        }
+        double[] finalAmounts = new double[paths];
+        int reached = pool.invoke(new PathTask(history, current, target, months, finalAmounts, 0, paths, new SplittableRandom(seed)));
+        Arrays.sort(finalAmounts);
+        return new Result(paths, reached, finalAmounts);
+    }
+
+    /**
+     * @param paths        The number of simulated paths.
+     * @param reached      The number of paths that reached the target by the deadline.
+     * @param finalAmounts The amounts of the paths at the deadline, in ascending order.
+     */
+    public record Result(int paths, int reached, double[] finalAmounts) {
+
+        /**
+         * @return The fraction of paths that reached the target.
+         */
+        public double probability() {
+            return (double) reached / paths;
+        }
+
+        /**
+         * @param q The quantile, between 0 and 1.
+         * @return The amount at the deadline that the given fraction of paths did not exceed.
+         */
+        public double quantile(double q) {
+            return finalAmounts[(int) Math.min(finalAmounts.length - 1, Math.floor(q * finalAmounts.length))];
+        }
+    }
+
+    private static final class PathTask extends RecursiveTask<Integer> {
+        private final double[] history;
+        private final double current;
+        private final double target;
+        private final int months;
+        private final double[] finalAmounts; // Shared; every task writes its own range.
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        private PathTask(double[] history, double current, double target, int months, double[] finalAmounts,
+                         int from, int to, SplittableRandom random) {
+            this.history = history;
+            this.current = current;
+            this.target = target;
+            this.months = months;
+            this.finalAmounts = finalAmounts;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from > PATHS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                PathTask left = new PathTask(history, current, target, months, finalAmounts, from, middle, random.split());
+                PathTask right = new PathTask(history, current, target, months, finalAmounts, middle, to, random);
+                left.fork();
+                int rightReached = right.compute();
+                return left.join() + rightReached;
+            }
+            int reached = 0;
+            for (int path = from; path < to; path++) {
+                double amount = current;
+                boolean reachedTarget = amount >= target;
+                for (int month = 0; month < months; month++) {
+                    amount += history[random.nextInt(history.length)];
+                    reachedTarget |= amount >= target;
+                }
+                finalAmounts[path] = amount;
+                if (reachedTarget) {
+                    reached++;
+                }
+            }
+            return reached;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled categorization rules, finding the first rule matching a record.
+ * <p>
+ * The substrings of all "contains" rules are compiled into one {@link AhoCorasickAutomaton}, so a description is
+ * scanned once however many rules there are. Rules are then checked in order: the kind and the amount interval
+ * first, the pattern last; the automaton runs at most once per record and a regular expression only runs
+ * when every earlier rule failed and its own cheap checks passed. A regular expression may read at most
+ * {@link #REGEX_BUDGET} characters of a description and does not match if it needs more, so a pattern backtracking
+ * catastrophically, like {@code (a+)+$}, gives up after a few milliseconds. A matcher is immutable and thread-safe.
+ *
+ * @param <K> The type of the record kinds rules can be restricted to.
+ */
+public final class CategorizationMatcher<K> {
+
+    // Linear patterns read a few characters per character and start position of a description.
+    static final int REGEX_BUDGET = 1_000_000;
+
+    private final List<Rule<K>> rules;
+    private final int[] substringIndexes; // Index of the pattern in the automaton for every "contains" rule, -1 otherwise.
+    private final Pattern[] regexes; // Compiled pattern of every regular expression rule, null otherwise.
+    private final AhoCorasickAutomaton automaton;
+
+    /**
+     * Compiles rules.
+     *
+     * @param rules The rules, in the order they are tried.
+     * @throws java.util.regex.PatternSyntaxException If a regular expression is invalid.
+     */
+    public CategorizationMatcher(List<Rule<K>> rules) {
+        this.rules = List.copyOf(rules);
+        this.substringIndexes = new int[rules.size()];
+        this.regexes = new Pattern[rules.size()];
+        List<String> substrings = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            Rule<K> rule = rules.get(i);
+            substringIndexes[i] = -1;
+            if (rule.pattern() == null || rule.pattern().isEmpty()) {
+                continue;
+            }
+            if (rule.regex()) {
+                regexes[i] = Pattern.compile(rule.pattern(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+            } else {
+                substringIndexes[i] = substrings.size();
+                substrings.add(rule.pattern());
+            }
+        }
+        this.automaton = substrings.isEmpty() ? null : new AhoCorasickAutomaton(substrings);
+    }
+
+    /**
+     * Finds the first rule matching a record.
+     *
+     * @param description The description of the record, or null.
+     * @param kind        The kind of the record.
+     * @param amount      The amount of the record, or null.
+     * @return The index of the first matching rule, or -1 if none matches.
+     */
+    public int match(String description, K kind, BigDecimal amount) {
+        BitSet substrings = null;
+        for (int i = 0; i < rules.size(); i++) {
+            Rule<K> rule = rules.get(i);
+            if (rule.kind() != null && !rule.kind().equals(kind) || !inRange(rule, amount)) {
+                continue;
+            }
+            if (substringIndexes[i] >= 0) {
+                if (substrings == null) {
+                    substrings = automaton.matches(description);
+                }
+                if (!substrings.get(substringIndexes[i])) {
+                    continue;
+                }
+            } else if (regexes[i] != null && (description == null || !find(regexes[i], description))) {
+                continue;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return The number of rules.
+     */
+    public int size() {
+        return rules.size();
+    }
+
+    private static boolean find(Pattern regex, String description) {
+        try {
+            return regex.matcher(new BudgetedCharSequence(description)).find();
+        } catch (BudgetExhaustedException e) {
+            return false;
+        }
+    }
+
+    private static boolean inRange(Rule<?> rule, BigDecimal amount) {
+        if (rule.minAmount() == null && rule.maxAmount() == null) {
+            return true;
+        }
+        return amount != null
+                && (rule.minAmount() == null || amount.compareTo(rule.minAmount()) >= 0)
+                && (rule.maxAmount() == null || amount.compareTo(rule.maxAmount()) <= 0);
+    }
+
+    /**
+     * @param pattern   The substring or regular expression the description must contain, matched ignoring case;
+     *                  null or empty to match any description.
+     * @param regex     True if the pattern is a regular expression, false if it is a plain substring.
+     * @param kind      The kind of records the rule applies to, or null for all kinds.
+     * @param minAmount The smallest matching amount, inclusive, or null.
+     * @param maxAmount The largest matching amount, inclusive, or null.
+     * @param <K>       The type of the record kinds.
+     */
+    public record Rule<K>(String pattern, boolean regex, K kind, BigDecimal minAmount, BigDecimal maxAmount) {
+    }
+
+    // Characters of a description read through charAt, failing the match once the budget is spent.
+    private static final class BudgetedCharSequence implements CharSequence {
+
+        private final String text;
+        private int remaining = REGEX_BUDGET;
+
+        private BudgetedCharSequence(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--remaining < 0) {
+                throw new BudgetExhaustedException();
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end); // Only used for groups, never while matching.
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    private static final class BudgetExhaustedException extends RuntimeException {
+
+        private BudgetExhaustedException() {
+            super(null, null, false, false); // Thrown deep in the backtracking; no stack trace is needed.
+        }
+    }
+}
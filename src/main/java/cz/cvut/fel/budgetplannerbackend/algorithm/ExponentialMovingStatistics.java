@@ -0,0 +1,231 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+/**
+ * Exponentially weighted mean and variance per pair of long keys, kept in an open-addressing hash table of
+ * primitive arrays (about 50 bytes per entry, no boxing).
+ * <p>
+ * A value updates its entry in O(1): with smoothing factor {@code alpha}, {@code diff = value - mean},
+ * {@code mean += alpha * diff} and {@code variance = (1 - alpha) * (variance + alpha * diff * diff)}.
+ * Recent values thus weigh more, and the statistics follow slow drifts of the values.
+ * <p>
+ * Updated entries are marked dirty until {@link #drainDirty} hands them out for checkpointing.
+ * All methods are synchronized.
+ */
+public class ExponentialMovingStatistics {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] firstKeys = new long[INITIAL_CAPACITY];
+    private long[] secondKeys = new long[INITIAL_CAPACITY];
+    private double[] means = new double[INITIAL_CAPACITY];
+    private double[] variances = new double[INITIAL_CAPACITY];
+    private long[] counts = new long[INITIAL_CAPACITY]; // Zero marks an empty slot.
+    private boolean[] dirty = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @param first  The first key.
+     * @param second The second key.
+     * @return True if there are statistics for the keys.
+     */
+    public synchronized boolean contains(long first, long second) {
+        return counts[slot(first, second)] != 0;
+    }
+
+    /**
+     * Computes the z-score of a value: its distance from the mean in standard deviations.
+     * The standard deviation is at least {@code minDeviation}, so that values differing slightly from
+     * a history of identical values do not get an infinite score.
+     *
+     * @param first        The first key.
+     * @param second       The second key.
+     * @param value        The value.
+     * @param minCount     The number of values the statistics must have seen.
+     * @param minDeviation The smallest standard deviation used, greater than zero.
+     * @return The z-score, or NaN if there are no statistics for the keys or they have seen fewer values.
+     */
+    public synchronized double zScore(long first, long second, double value, long minCount, double minDeviation) {
+        int slot = slot(first, second);
+        if (counts[slot] == 0 || counts[slot] < minCount) {
+            return Double.NaN;
+        }
+        return (value - means[slot]) / Math.max(Math.sqrt(variances[slot]), minDeviation);
+    }
+
+    /**
+     * Adds a value to the statistics of the keys and marks them dirty.
+     * The first value of the keys becomes their mean, with zero variance.
+     *
+     * @param first  The first key.
+     * @param second The second key.
+     * @param value  The value.
+     * @param alpha  The smoothing factor, between 0 and 1; the weight of the new value.
+     */
+    public synchronized void update(long first, long second, double value, double alpha) {
+        int slot = slot(first, second);
+        if (counts[slot] == 0) {
+            insert(slot, first, second, value, 0, 1, true);
+            return;
+        }
+        double diff = value - means[slot];
+        double increment = alpha * diff;
+        means[slot] += increment;
+        variances[slot] = (1 - alpha) * (variances[slot] + diff * increment);
+        counts[slot]++;
+        dirty[slot] = true;
+    }
+
+    /**
+     * Sets the statistics of the keys, e.g. restored from a checkpoint. They are not marked dirty.
+     *
+     * @param first    The first key.
+     * @param second   The second key.
+     * @param mean     The mean.
+     * @param variance The variance.
+     * @param count    The number of values seen, at least 1.
+     */
+    public synchronized void put(long first, long second, double mean, double variance, long count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("The count must be at least 1");
+        }
+        int slot = slot(first, second);
+        if (counts[slot] == 0) {
+            insert(slot, first, second, mean, variance, count, false);
+            return;
+        }
+        means[slot] = mean;
+        variances[slot] = variance;
+        counts[slot] = count;
+        dirty[slot] = false;
+    }
+
+    /**
+     * Sets the statistics of the keys unless there already are some. They are not marked dirty.
+     *
+     * @param first    The first key.
+     * @param second   The second key.
+     * @param mean     The mean.
+     * @param variance The variance.
+     * @param count    The number of values seen, at least 1.
+     * @return True if the statistics were set.
+     */
+    public synchronized boolean putIfAbsent(long first, long second, double mean, double variance, long count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("The count must be at least 1");
+        }
+        int slot = slot(first, second);
+        if (counts[slot] != 0) {
+            return false;
+        }
+        insert(slot, first, second, mean, variance, count, false);
+        return true;
+    }
+
+    /**
+     * Removes the statistics of all keys with the given first key.
+     *
+     * @param first The first key.
+     */
+    public synchronized void removeAll(long first) {
+        ExponentialMovingStatistics kept = new ExponentialMovingStatistics();
+        for (int slot = 0; slot < counts.length; slot++) {
+            if (counts[slot] != 0 && firstKeys[slot] != first) {
+                kept.insert(kept.slot(firstKeys[slot], secondKeys[slot]), firstKeys[slot], secondKeys[slot],
+                        means[slot], variances[slot], counts[slot], dirty[slot]);
+            }
+        }
+        firstKeys = kept.firstKeys;
+        secondKeys = kept.secondKeys;
+        means = kept.means;
+        variances = kept.variances;
+        counts = kept.counts;
+        dirty = kept.dirty;
+        size = kept.size;
+    }
+
+    /**
+     * Hands out the dirty statistics and marks them clean.
+     *
+     * @param consumer Called for every dirty entry.
+     */
+    public synchronized void drainDirty(EntryConsumer consumer) {
+        for (int slot = 0; slot < counts.length; slot++) {
+            if (dirty[slot]) {
+                dirty[slot] = false;
+                consumer.accept(firstKeys[slot], secondKeys[slot], means[slot], variances[slot], counts[slot]);
+            }
+        }
+    }
+
+    /**
+     * @return The number of key pairs with statistics.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private void insert(int slot, long first, long second, double mean, double variance, long count, boolean isDirty) {
+        firstKeys[slot] = first;
+        secondKeys[slot] = second;
+        means[slot] = mean;
+        variances[slot] = variance;
+        counts[slot] = count;
+        dirty[slot] = isDirty;
+        size++;
+        if (size * 4 > counts.length * 3) {
+            grow();
+        }
+    }
+
+    private void grow() {
+        long[] oldFirstKeys = firstKeys;
+        long[] oldSecondKeys = secondKeys;
+        double[] oldMeans = means;
+        double[] oldVariances = variances;
+        long[] oldCounts = counts;
+        boolean[] oldDirty = dirty;
+        int capacity = oldCounts.length * 2;
+        firstKeys = new long[capacity];
+        secondKeys = new long[capacity];
+        means = new double[capacity];
+        variances = new double[capacity];
+        counts = new long[capacity];
+        dirty = new boolean[capacity];
+        for (int i = 0; i < oldCounts.length; i++) {
+            if (oldCounts[i] != 0) {
+                int slot = slot(oldFirstKeys[i], oldSecondKeys[i]);
+                firstKeys[slot] = oldFirstKeys[i];
+                secondKeys[slot] = oldSecondKeys[i];
+                means[slot] = oldMeans[i];
+                variances[slot] = oldVariances[i];
+                counts[slot] = oldCounts[i];
+                dirty[slot] = oldDirty[i];
+            }
+        }
+    }
+
+    // The slot holding the keys, or the empty slot where they belong (linear probing).
+    private int slot(long first, long second) {
+        int mask = counts.length - 1;
+        int slot = hash(first, second) & mask;
+        while (counts[slot] != 0 && (firstKeys[slot] != first || secondKeys[slot] != second)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long first, long second) {
+        long h = first * 0x9E3779B97F4A7C15L + second;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (h ^ (h >>> 33));
+    }
+
+    /**
+     * Receives the statistics of a pair of keys.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long first, long second, double mean, double variance, long count);
+    }
+}
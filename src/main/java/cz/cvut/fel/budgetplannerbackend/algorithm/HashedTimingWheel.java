@@ -0,0 +1,136 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel holding keys due at a deadline, after Varghese and Lauck.
+ * <p>
+ * Time is divided into ticks of a fixed duration and the wheel into a power-of-two number of slots; a key due
+ * at tick t is put into slot {@code t mod slots} with the number of full turns left until its tick. Scheduling
+ * and cancelling take O(1); advancing the wheel by one tick only visits the keys hashed to that slot.
+ * Deadlines further away than one turn of the wheel are allowed and simply wait for more turns.
+ * <p>
+ * A key is scheduled at most once: scheduling it again replaces its deadline. Replaced and cancelled entries
+ * are left in their slots and skipped when their slot comes up. Not thread-safe.
+ *
+ * @param <K> The type of the keys.
+ */
+public final class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<List<Entry<K>>> slots;
+    private final Map<K, Entry<K>> scheduled = new HashMap<>();
+    private long currentTick; // The next tick to expire; every tick before it has been expired.
+
+    /**
+     * Creates a wheel whose first tick starts at the given time.
+     *
+     * @param tickMillis  The duration of a tick in milliseconds, at least 1.
+     * @param slotCount   The number of slots, rounded up to a power of two.
+     * @param startMillis The current time in milliseconds.
+     * @throws IllegalArgumentException If the tick duration or the number of slots is not positive,
+     *                                  or there are more than 2^30 slots.
+     */
+    public HashedTimingWheel(long tickMillis, int slotCount, long startMillis) {
+        if (tickMillis < 1 || slotCount < 1 || slotCount > 1 << 30) {
+            throw new IllegalArgumentException("The tick duration and the number of slots must be positive");
+        }
+        int size = Integer.highestOneBit(slotCount);
+        size = size < slotCount ? size << 1 : size;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedules a key, replacing its previous deadline. A deadline in the past expires with the next tick.
+     *
+     * @param key            The key.
+     * @param deadlineMillis The time the key is due, in milliseconds.
+     */
+    public void schedule(K key, long deadlineMillis) {
+        long tick = Math.max(currentTick, Math.floorDiv(deadlineMillis, tickMillis));
+        Entry<K> entry = new Entry<>(key, (tick - currentTick) / slots.size());
+        slots.get((int) (tick & mask)).add(entry);
+        scheduled.put(key, entry);
+    }
+
+    /**
+     * Cancels a key.
+     *
+     * @param key The key.
+     * @return True if the key was scheduled.
+     */
+    public boolean cancel(K key) {
+        return scheduled.remove(key) != null;
+    }
+
+    /**
+     * @param key The key.
+     * @return True if the key is scheduled and has not expired yet.
+     */
+    public boolean contains(K key) {
+        return scheduled.containsKey(key);
+    }
+
+    /**
+     * @return The number of scheduled keys.
+     */
+    public int size() {
+        return scheduled.size();
+    }
+
+    /**
+     * Advances the wheel to the given time, passing every key due by then to the action in tick order.
+     * The action may schedule keys again; keys scheduled into an expired tick expire with the next advance.
+     *
+     * @param nowMillis The current time in milliseconds.
+     * @param action    The action receiving the expired keys.
+     */
+    public void advance(long nowMillis, Consumer<K> action) {
+        long lastTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick <= lastTick) {
+            if (scheduled.isEmpty()) {
+                currentTick = lastTick + 1; // Nothing can expire; stale entries are dropped when their slot comes up.
+                return;
+            }
+            List<Entry<K>> slot = slots.get((int) (currentTick & mask));
+            List<Entry<K>> expired = new ArrayList<>();
+            slot.removeIf(entry -> {
+                if (scheduled.get(entry.key) != entry) {
+                    return true; // Cancelled or replaced.
+                }
+                if (entry.rounds > 0) {
+                    entry.rounds--;
+                    return false;
+                }
+                expired.add(entry);
+                return true;
+            });
+            currentTick++;
+            for (Entry<K> entry : expired) {
+                scheduled.remove(entry.key);
+                action.accept(entry.key);
+            }
+        }
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private long rounds; // Full turns of the wheel left before the entry is due.
+
+        private Entry(K key, long rounds) {
+            this.key = key;
+            this.rounds = rounds;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index answering prefix queries over short texts.
+ * Every query term has to match a prefix of some word of a document; documents are ranked by the number of
+ * matching word occurrences, divided by one plus the logarithm of the document length like PostgreSQL's
+ * ts_rank with normalization 1.
+ * <p>
+ * Not thread-safe: build the index completely before sharing it for searching.
+ */
+public class InvertedIndex {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Word -> document ID -> number of occurrences of the word in the document.
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Integer> documentLengths = new HashMap<>();
+
+    /**
+     * Splits a text into lowercase words of letters and digits.
+     *
+     * @param text The text, may be null.
+     * @return The words in order of appearance.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Indexes a document. A document must be added at most once.
+     *
+     * @param id   The ID of the document.
+     * @param text The text of the document.
+     */
+    public void add(long id, String text) {
+        List<String> words = tokenize(text);
+        if (words.isEmpty()) {
+            return;
+        }
+        documentLengths.put(id, words.size());
+        for (String word : words) {
+            postings.computeIfAbsent(word, w -> new HashMap<>()).merge(id, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Finds the documents containing all query terms as word prefixes.
+     *
+     * @param terms The lowercase query terms.
+     * @return The matching documents, best ranked first and by descending ID among equal ranks.
+     */
+    public List<Hit> search(List<String> terms) {
+        Map<Long, Integer> matches = null;
+        for (String term : terms) {
+            Map<Long, Integer> termMatches = new HashMap<>();
+            // All words starting with the term form one contiguous range of the sorted dictionary.
+            for (Map<Long, Integer> documents : postings.subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+                documents.forEach((id, count) -> termMatches.merge(id, count, Integer::sum));
+            }
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                Map<Long, Integer> previous = matches;
+                matches = new HashMap<>();
+                for (Map.Entry<Long, Integer> entry : termMatches.entrySet()) {
+                    Integer count = previous.get(entry.getKey());
+                    if (count != null) {
+                        matches.put(entry.getKey(), count + entry.getValue());
+                    }
+                }
+            }
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        if (matches == null) {
+            return List.of();
+        }
+        List<Hit> hits = new ArrayList<>(matches.size());
+        matches.forEach((id, count) -> hits.add(new Hit(id, (float) (count / (1 + Math.log(documentLengths.get(id)))))));
+        hits.sort(Hit.ORDER);
+        return hits;
+    }
+
+    /**
+     * A matching document.
+     *
+     * @param id   The ID of the document.
+     * @param rank The relevance of the document; higher is better.
+     */
+    public record Hit(long id, float rank) {
+        public static final Comparator<Hit> ORDER = Comparator.comparingDouble(Hit::rank).reversed()
+                .thenComparing(Comparator.comparingLong(Hit::id).reversed());
+    }
+}
@@ -0,0 +1,94 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling of time series for charts.
+ * <p>
+ * The first and last points are always kept. The points in between are split into equally sized buckets,
+ * and from each bucket the point forming the largest triangle with the point selected from the previous
+ * bucket and the average of the next bucket is kept, which preserves the visual shape of the series.
+ * Several series sharing the same x values are downsampled together by summing their triangle areas,
+ * so that all of them keep the same points.
+ */
+public final class LargestTriangleThreeBuckets {
+
+    private LargestTriangleThreeBuckets() {
+    }
+
+    /**
+     * Selects the points to keep.
+     *
+     * @param x         The x values of the points in ascending order.
+     * @param series    The y values of every series, each as long as {@code x}.
+     * @param threshold The number of points to keep, at least 3.
+     * @return The ascending indices of the kept points; all indices if there are no more points than the threshold.
+     * @throws IllegalArgumentException If the threshold is less than 3 or a series does not match the x values.
+     */
+    public static int[] select(double[] x, double[][] series, int threshold) {
+        if (threshold < 3) {
+            throw new IllegalArgumentException("At least 3 points must be kept");
+        }
+        for (double[] y : series) {
+            if (y.length != x.length) {
+                throw new IllegalArgumentException("Every series must have a value for every x");
+            }
+        }
+        int size = x.length;
+        if (size <= threshold) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        int previous = 0;
+        double[] average = new double[series.length];
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = boundary(bucket, size, threshold);
+            int end = boundary(bucket + 1, size, threshold);
+            // The third corner of the triangles: the average of the next bucket (the last point for the last bucket).
+            int nextStart = end;
+            int nextEnd = Math.min(boundary(bucket + 2, size, threshold), size);
+            double averageX = 0;
+            Arrays.fill(average, 0);
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                for (int s = 0; s < series.length; s++) {
+                    average[s] += series[s][i];
+                }
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            for (int s = 0; s < series.length; s++) {
+                average[s] /= nextCount;
+            }
+
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = 0;
+                for (int s = 0; s < series.length; s++) {
+                    double[] y = series[s];
+                    area += Math.abs((x[previous] - averageX) * (y[i] - y[previous])
+                            - (x[previous] - x[i]) * (average[s] - y[previous]));
+                }
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        selected[threshold - 1] = size - 1;
+        return selected;
+    }
+
+    // Index of the first point of a bucket; the points between the first and the last are split into threshold - 2 buckets.
+    private static int boundary(int bucket, int size, int threshold) {
+        return (int) ((long) bucket * (size - 2) / (threshold - 2)) + 1;
+    }
+}
@@ -0,0 +1,188 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of texts by their MinHash signatures, finding the texts similar to a given one by locality-sensitive hashing.
+ * <p>
+ * A text is split into overlapping character shingles; its signature holds, for each of {@code bands * rows} hash
+ * functions, the minimum hash of its shingles. Two signatures agree in a position with a probability equal to the
+ * Jaccard similarity of the shingle sets. The signature is cut into bands of {@code rows} positions and every band is
+ * a bucket key, so texts with similarity {@code s} share a bucket with probability {@code 1 - (1 - s^rows)^bands}
+ * and a lookup only touches the texts in the buckets of the query.
+ * <p>
+ * Every entry also has a partition key that is part of its bucket keys, so only entries of the same partition
+ * (e.g. the same amount) are ever candidates. The index is not thread-safe.
+ *
+ * @param <T> The type of the values stored with the entries.
+ */
+public final class MinHashIndex<T> {
+
+    private static final int SHINGLE_LENGTH = 3;
+
+    private final int bands;
+    private final int rows;
+    private final Map<Long, List<Entry<T>>> buckets = new HashMap<>();
+    private final Map<Long, Entry<T>> entries = new HashMap<>();
+
+    /**
+     * @param bands The number of bands, at least 1.
+     * @param rows  The number of signature positions per band, at least 1.
+     * @throws IllegalArgumentException If the bands or rows are not positive.
+     */
+    public MinHashIndex(int bands, int rows) {
+        if (bands < 1 || rows < 1) {
+            throw new IllegalArgumentException("There must be at least one band and one row");
+        }
+        this.bands = bands;
+        this.rows = rows;
+    }
+
+    /**
+     * Computes the signature of a text from its shingles of {@value #SHINGLE_LENGTH} characters; a shorter text
+     * is a single shingle. Signatures only depend on the text and the signature length, so signatures computed
+     * by different indexes with the same bands and rows can be compared.
+     *
+     * @param text The text, normalized by the caller.
+     * @return The signature, or null if the text is empty.
+     */
+    public int[] signature(CharSequence text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[bands * rows];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, text.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = 0;
+            for (int i = start; i < Math.min(text.length(), start + SHINGLE_LENGTH); i++) {
+                shingle = shingle * 31 + text.charAt(i);
+            }
+            for (int i = 0; i < signature.length; i++) {
+                // Every position uses its own hash function, the shingle mixed with a seed derived from the position.
+                int hash = (int) (mix(shingle ^ mix(i + 0x9E3779B97F4A7C15L)) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of the shingle sets of two texts.
+     *
+     * @param a The signature of the first text.
+     * @param b The signature of the second text, of the same length.
+     * @return The fraction of positions in which the signatures agree.
+     */
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    /**
+     * Adds an entry, replacing the entry with the same ID.
+     *
+     * @param id        The ID of the entry.
+     * @param partition The partition of the entry.
+     * @param signature The signature of the text of the entry.
+     * @param value     The value stored with the entry.
+     */
+    public void add(long id, long partition, int[] signature, T value) {
+        remove(id);
+        Entry<T> entry = new Entry<>(id, partition, signature, value);
+        entries.put(id, entry);
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfAbsent(bucketKey(partition, signature, band), key -> new ArrayList<>(1)).add(entry);
+        }
+    }
+
+    /**
+     * @param id The ID of the entry.
+     * @return True if the entry was in the index.
+     */
+    public boolean remove(long id) {
+        Entry<T> entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        for (int band = 0; band < bands; band++) {
+            long key = bucketKey(entry.partition(), entry.signature(), band);
+            List<Entry<T>> bucket = buckets.get(key);
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the entries of a partition sharing at least one band with a signature.
+     *
+     * @param partition The partition.
+     * @param signature The signature.
+     * @return The candidates with their estimated similarity, each entry once.
+     */
+    public List<Match<T>> candidates(long partition, int[] signature) {
+        Map<Long, Entry<T>> found = new LinkedHashMap<>();
+        for (int band = 0; band < bands; band++) {
+            for (Entry<T> entry : buckets.getOrDefault(bucketKey(partition, signature, band), List.of())) {
+                // Different partitions or bands may collide in a bucket key.
+                if (entry.partition() == partition) {
+                    found.putIfAbsent(entry.id(), entry);
+                }
+            }
+        }
+        List<Match<T>> matches = new ArrayList<>(found.size());
+        for (Entry<T> entry : found.values()) {
+            matches.add(new Match<>(entry.id(), entry.value(), similarity(signature, entry.signature())));
+        }
+        return matches;
+    }
+
+    /**
+     * @return The number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private long bucketKey(long partition, int[] signature, int band) {
+        long key = mix(partition) ^ band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = mix(key + signature[i]);
+        }
+        return key;
+    }
+
+    // The finalizer of SplitMix64, spreading every input bit over the whole output.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @param id         The ID of the entry.
+     * @param value      The value stored with the entry.
+     * @param similarity The estimated Jaccard similarity of the entry to the query.
+     * @param <T>        The type of the value.
+     */
+    public record Match<T>(long id, T value, double similarity) {
+    }
+
+    private record Entry<T>(long id, long partition, int[] signature, T value) {
+    }
+}
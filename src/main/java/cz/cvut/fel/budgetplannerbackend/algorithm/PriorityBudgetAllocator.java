@@ -0,0 +1,118 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Splits a total amount between categories, maximizing the priority-weighted utility
+ * {@code sum(w[i] * log(x[i]))} subject to {@code sum(x[i]) = total} and {@code x[i] >= m[i]}.
+ * <p>
+ * The utility is concave, so the optimum is the water-filling solution {@code x[i] = max(m[i], lambda * w[i])}:
+ * every category whose minimum is not binding gets an amount proportional to its weight. With the categories
+ * ordered by {@code m[i] / w[i]}, the categories whose minimum binds are fixed greedily from the highest ratio
+ * until the ratio falls below {@code lambda}, in O(n log n). Amounts are then rounded to whole units
+ * (e.g. cents) by the largest remainder method, so they add up to the total exactly.
+ */
+public final class PriorityBudgetAllocator {
+
+    private PriorityBudgetAllocator() {
+    }
+
+    /**
+     * Allocates a total between categories.
+     * Categories with zero weight get their minimum; if no weight is positive, the categories are weighted equally.
+     *
+     * @param total    The amount to allocate, in whole units.
+     * @param weights  The non-negative weight of every category.
+     * @param minimums The non-negative minimum of every category, in whole units.
+     * @return The amount of every category, in whole units.
+     * @throws IllegalArgumentException If there are no categories, the arrays differ in length, a weight or minimum
+     *                                  is negative, or the minimums add up to more than the total.
+     */
+    public static long[] allocate(long total, double[] weights, long[] minimums) {
+        int n = weights.length;
+        if (n == 0 || minimums.length != n) {
+            throw new IllegalArgumentException("There must be a weight and a minimum for at least one category");
+        }
+        long minimumTotal = 0;
+        boolean weighted = false;
+        for (int i = 0; i < n; i++) {
+            if (!(weights[i] >= 0) || Double.isInfinite(weights[i]) || minimums[i] < 0) {
+                throw new IllegalArgumentException("Weights and minimums must be finite and not negative");
+            }
+            minimumTotal += minimums[i];
+            weighted |= weights[i] > 0;
+        }
+        if (minimumTotal > total) {
+            throw new IllegalArgumentException("The minimums add up to " + minimumTotal + ", more than the total of " + total);
+        }
+        double[] w = weighted ? weights : filled(n);
+
+        // Ratios at which the minimums stop binding; categories without weight always stay at their minimum.
+        double[] ratios = new double[n];
+        Integer[] order = new Integer[n];
+        double freeWeight = 0;
+        double fixedMinimums = 0;
+        int free = 0;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            ratios[i] = w[i] > 0 ? minimums[i] / w[i] : Double.POSITIVE_INFINITY;
+            if (w[i] > 0) {
+                freeWeight += w[i];
+                free++;
+            } else {
+                fixedMinimums += minimums[i];
+            }
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> ratios[i]).reversed());
+        double lambda = (total - fixedMinimums) / freeWeight;
+        for (int k = 0; k < n && ratios[order[k]] > lambda; k++) {
+            int i = order[k];
+            if (w[i] > 0 && free > 1) {
+                // Fixing a category whose minimum exceeds its share lowers lambda for the remaining ones.
+                free--;
+                freeWeight -= w[i];
+                fixedMinimums += minimums[i];
+                lambda = (total - fixedMinimums) / freeWeight;
+            }
+        }
+
+        long[] amounts = new long[n];
+        double[] remainders = new double[n];
+        long allocated = 0;
+        for (int i = 0; i < n; i++) {
+            double amount = Math.max(minimums[i], lambda * w[i]);
+            amounts[i] = Math.max(minimums[i], (long) Math.floor(amount));
+            remainders[i] = amount - amounts[i];
+            allocated += amounts[i];
+        }
+        distributeRemainder(total - allocated, amounts, remainders, minimums);
+        return amounts;
+    }
+
+    // Hands out the units lost to rounding to the largest remainders, or takes back units rounding added.
+    private static void distributeRemainder(long remainder, long[] amounts, double[] remainders, long[] minimums) {
+        int n = amounts.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> remainders[i]).reversed());
+        for (int k = 0; remainder > 0; k = (k + 1) % n) {
+            amounts[order[k]]++;
+            remainder--;
+        }
+        for (int k = n - 1; remainder < 0; k = (k + n - 1) % n) {
+            if (amounts[order[k]] > minimums[order[k]]) {
+                amounts[order[k]]--;
+                remainder++;
+            }
+        }
+    }
+
+    private static double[] filled(int n) {
+        double[] ones = new double[n];
+        Arrays.fill(ones, 1);
+        return ones;
+    }
+}
@@ -0,0 +1,72 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Plans the transfers that settle the balances of a group.
+ * <p>
+ * The member owed the most is repeatedly paid by the member owing the most, as much as the smaller of the two
+ * amounts; whoever is left with a balance goes back to its heap. Every transfer settles at least one member,
+ * so there are at most n - 1 transfers, in O(n log n). Finding the fewest possible transfers is NP-hard;
+ * the greedy plan is minimal in the common cases and never moves more money than the debts add up to.
+ */
+public final class SettlementPlanner {
+
+    private SettlementPlanner() {
+    }
+
+    /**
+     * Plans the transfers settling balances that add up to zero.
+     *
+     * @param balances The balance of every member in whole units: positive if the member is owed, negative if it owes.
+     * @return The transfers, in the order they were planned.
+     * @throws IllegalArgumentException If the balances do not add up to zero.
+     */
+    public static List<Transfer> settle(long[] balances) {
+        long sum = 0;
+        for (long balance : balances) {
+            sum += balance;
+        }
+        if (sum != 0) {
+            throw new IllegalArgumentException("The balances add up to " + sum + " instead of zero");
+        }
+        long[] remaining = balances.clone();
+        // Members are only modified while out of their heap, so the ordering by remaining balance stays valid.
+        PriorityQueue<Integer> creditors = new PriorityQueue<>((a, b) -> Long.compare(remaining[b], remaining[a]));
+        PriorityQueue<Integer> debtors = new PriorityQueue<>((a, b) -> Long.compare(remaining[a], remaining[b]));
+        for (int i = 0; i < remaining.length; i++) {
+            if (remaining[i] > 0) {
+                creditors.add(i);
+            } else if (remaining[i] < 0) {
+                debtors.add(i);
+            }
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            int creditor = creditors.poll();
+            int debtor = debtors.poll();
+            long amount = Math.min(remaining[creditor], -remaining[debtor]);
+            transfers.add(new Transfer(debtor, creditor, amount));
+            remaining[creditor] -= amount;
+            remaining[debtor] += amount;
+            if (remaining[creditor] > 0) {
+                creditors.add(creditor);
+            }
+            if (remaining[debtor] < 0) {
+                debtors.add(debtor);
+            }
+        }
+        return transfers;
+    }
+
+    /**
+     * @param from   The index of the paying member.
+     * @param to     The index of the paid member.
+     * @param amount The amount in whole units, greater than zero.
+     */
+    public record Transfer(int from, int to, long amount) {
+    }
+}
@@ -0,0 +1,250 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest: a compact, mergeable sketch of a distribution answering quantile queries.
+ * <p>
+ * Values are kept as centroids (mean and weight) ordered by mean. Centroids near the tails are kept small
+ * by the scale function {@code k(q) = compression / (2 pi) * asin(2q - 1)}: neighbouring values are only
+ * merged while the centroid spans at most one unit of k, so extreme quantiles stay accurate while the number
+ * of centroids stays bounded by roughly the compression. Minimum and maximum are tracked exactly.
+ * <p>
+ * Added values are buffered and merged in batches. Digests are not thread-safe.
+ */
+public class TDigest {
+
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    private int centroids;
+    private final double[] bufferedMeans;
+    private final double[] bufferedWeights;
+    private int buffered;
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public TDigest(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("The compression must be at least 10");
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression) * 2;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.bufferedMeans = new double[capacity * 5];
+        this.bufferedWeights = new double[capacity * 5];
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value The value.
+     */
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    private void add(double mean, double weight) {
+        if (buffered == bufferedMeans.length) {
+            merge();
+        }
+        bufferedMeans[buffered] = mean;
+        bufferedWeights[buffered] = weight;
+        buffered++;
+        totalWeight += weight;
+        min = Math.min(min, mean);
+        max = Math.max(max, mean);
+    }
+
+    /**
+     * Adds all values summarized by another digest.
+     *
+     * @param other The other digest; it is not modified apart from merging its buffer.
+     */
+    public void add(TDigest other) {
+        other.merge();
+        for (int i = 0; i < other.centroids; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        // The centroid means lie within the exact bounds of the other digest.
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return The number of added values.
+     */
+    public long size() {
+        return Math.round(totalWeight);
+    }
+
+    /**
+     * @return The smallest added value, or NaN if the digest is empty.
+     */
+    public double min() {
+        return totalWeight == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * @return The largest added value, or NaN if the digest is empty.
+     */
+    public double max() {
+        return totalWeight == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Estimates a quantile of the added values.
+     *
+     * @param q The quantile, between 0 and 1.
+     * @return The estimated value, or NaN if the digest is empty.
+     * @throws IllegalArgumentException If q is out of range.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("The quantile must be between 0 and 1");
+        }
+        merge();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1) {
+            return means[0];
+        }
+        double target = q * totalWeight;
+        // Each centroid is centred at the middle of its weight; values are interpolated between the centres,
+        // and towards the exact minimum and maximum beyond the outer centres.
+        if (target < weights[0] / 2) {
+            return interpolate(min, means[0], target / (weights[0] / 2));
+        }
+        double last = totalWeight - weights[centroids - 1] / 2;
+        if (target > last) {
+            return interpolate(means[centroids - 1], max, (target - last) / (weights[centroids - 1] / 2));
+        }
+        double centre = weights[0] / 2;
+        for (int i = 0; i < centroids - 1; i++) {
+            double nextCentre = centre + (weights[i] + weights[i + 1]) / 2;
+            if (target <= nextCentre) {
+                return interpolate(means[i], means[i + 1], (target - centre) / (nextCentre - centre));
+            }
+            centre = nextCentre;
+        }
+        return means[centroids - 1];
+    }
+
+    private static double interpolate(double from, double to, double fraction) {
+        return from + (to - from) * fraction;
+    }
+
+    private double k(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+
+    // Merges the buffer into the centroids in one pass over all of them, ordered by mean.
+    private void merge() {
+        if (buffered == 0) {
+            return;
+        }
+        int count = centroids + buffered;
+        double[][] all = new double[count][];
+        for (int i = 0; i < centroids; i++) {
+            all[i] = new double[]{means[i], weights[i]};
+        }
+        for (int i = 0; i < buffered; i++) {
+            all[centroids + i] = new double[]{bufferedMeans[i], bufferedWeights[i]};
+        }
+        Arrays.sort(all, (a, b) -> Double.compare(a[0], b[0]));
+
+        double[] mergedMeans = new double[Math.max(means.length, 16)];
+        double[] mergedWeights = new double[mergedMeans.length];
+        int merged = 0;
+        double weightBefore = 0; // Weight of the centroids before the current one.
+        double mean = all[0][0];
+        double weight = all[0][1];
+        for (int i = 1; i < count; i++) {
+            double[] next = all[i];
+            double kBefore = k(weightBefore / totalWeight);
+            double kAfter = k((weightBefore + weight + next[1]) / totalWeight);
+            if (kAfter - kBefore <= 1) {
+                weight += next[1];
+                mean += (next[0] - mean) * next[1] / weight;
+            } else {
+                if (merged == mergedMeans.length) {
+                    mergedMeans = Arrays.copyOf(mergedMeans, merged * 2);
+                    mergedWeights = Arrays.copyOf(mergedWeights, merged * 2);
+                }
+                mergedMeans[merged] = mean;
+                mergedWeights[merged] = weight;
+                merged++;
+                weightBefore += weight;
+                mean = next[0];
+                weight = next[1];
+            }
+        }
+        if (merged == mergedMeans.length) {
+            mergedMeans = Arrays.copyOf(mergedMeans, merged + 1);
+            mergedWeights = Arrays.copyOf(mergedWeights, merged + 1);
+        }
+        mergedMeans[merged] = mean;
+        mergedWeights[merged] = weight;
+        means = mergedMeans;
+        weights = mergedWeights;
+        centroids = merged + 1;
+        buffered = 0;
+    }
+
+    /**
+     * Serializes the digest: compression, minimum, maximum, the number of centroids and their means and weights.
+     *
+     * @return The serialized digest.
+     */
+    public byte[] toBytes() {
+        merge();
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 3 + 4 + centroids * 16);
+        buffer.putDouble(compression).putDouble(min).putDouble(max).putInt(centroids);
+        for (int i = 0; i < centroids; i++) {
+            buffer.putDouble(means[i]).putDouble(weights[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Restores a digest serialized by {@link #toBytes()}.
+     *
+     * @param bytes The serialized digest.
+     * @return The digest.
+     * @throws IllegalArgumentException If the bytes are not a serialized digest.
+     */
+    public static TDigest fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < 28) {
+            throw new IllegalArgumentException("Invalid serialized digest");
+        }
+        TDigest digest = new TDigest(buffer.getDouble());
+        double min = buffer.getDouble();
+        double max = buffer.getDouble();
+        int count = buffer.getInt();
+        if (count < 0 || buffer.remaining() != count * 16) {
+            throw new IllegalArgumentException("Invalid serialized digest");
+        }
+        digest.means = new double[Math.max(count, digest.means.length)];
+        digest.weights = new double[digest.means.length];
+        for (int i = 0; i < count; i++) {
+            digest.means[i] = buffer.getDouble();
+            digest.weights[i] = buffer.getDouble();
+            digest.totalWeight += digest.weights[i];
+        }
+        digest.centroids = count;
+        digest.min = min;
+        digest.max = max;
+        return digest;
+    }
+}
@@ -0,0 +1,104 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-tag compressed bitmaps of record IDs answering tag combination filters with bitmap operations.
+ * Records are added and replaced one by one, so the index can be kept up to date incrementally.
+ * All methods are synchronized; filter results are independent copies.
+ */
+public class TagBitmapIndex {
+
+    private final Roaring64Bitmap records = new Roaring64Bitmap();
+    private final Map<Long, Roaring64Bitmap> recordsByTag = new HashMap<>();
+
+    /**
+     * Adds a record, or replaces the tags of a record already in the index.
+     *
+     * @param recordId The ID of the record.
+     * @param tagIds   The IDs of the tags of the record.
+     */
+    public synchronized void put(long recordId, Collection<Long> tagIds) {
+        if (records.contains(recordId)) {
+            removeFromTags(recordId);
+        }
+        records.addLong(recordId);
+        for (Long tagId : tagIds) {
+            recordsByTag.computeIfAbsent(tagId, id -> new Roaring64Bitmap()).addLong(recordId);
+        }
+    }
+
+    /**
+     * Removes a record from the index.
+     *
+     * @param recordId The ID of the record.
+     */
+    public synchronized void remove(long recordId) {
+        if (records.contains(recordId)) {
+            records.removeLong(recordId);
+            removeFromTags(recordId);
+        }
+    }
+
+    private void removeFromTags(long recordId) {
+        // A dashboard has few tags compared to records, so scanning them beats keeping a reverse mapping.
+        recordsByTag.values().removeIf(bitmap -> {
+            bitmap.removeLong(recordId);
+            return bitmap.isEmpty();
+        });
+    }
+
+    /**
+     * Finds the records having all tags of {@code all}, at least one tag of {@code any} and none of {@code none}.
+     * An empty {@code all} or {@code any} does not restrict the result.
+     *
+     * @param all  The IDs of the tags a record must all have.
+     * @param any  The IDs of the tags a record must have at least one of.
+     * @param none The IDs of the tags a record must not have.
+     * @return The IDs of the matching records.
+     */
+    public synchronized Roaring64Bitmap filter(Collection<Long> all, Collection<Long> any, Collection<Long> none) {
+        Roaring64Bitmap result = copy(records);
+        for (Long tagId : all) {
+            result.and(recordsByTag.getOrDefault(tagId, new Roaring64Bitmap()));
+            if (result.isEmpty()) {
+                return result;
+            }
+        }
+        if (!any.isEmpty()) {
+            result.and(union(any));
+        }
+        if (!none.isEmpty()) {
+            result.andNot(union(none));
+        }
+        return result;
+    }
+
+    private Roaring64Bitmap union(Collection<Long> tagIds) {
+        Roaring64Bitmap union = new Roaring64Bitmap();
+        for (Long tagId : tagIds) {
+            Roaring64Bitmap bitmap = recordsByTag.get(tagId);
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        return union;
+    }
+
+    private static Roaring64Bitmap copy(Roaring64Bitmap bitmap) {
+        Roaring64Bitmap copy = new Roaring64Bitmap();
+        copy.or(bitmap);
+        return copy;
+    }
+
+    /**
+     * @return The number of records in the index.
+     */
+    public synchronized long size() {
+        return records.getLongCardinality();
+    }
+}
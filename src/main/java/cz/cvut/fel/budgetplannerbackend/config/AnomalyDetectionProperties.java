@@ -0,0 +1,24 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the detection of anomalous expenses.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "anomaly-detection".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "anomaly-detection")
+public class AnomalyDetectionProperties {
+    // Weight of a new expense in the moving mean and variance of its category.
+    private double alpha = 0.1;
+    // Expenses at least this many standard deviations away from the mean of their category are anomalous.
+    private double threshold = 3.0;
+    // Number of expenses a category must have seen before its expenses are scored.
+    private long minSamples = 10;
+    // Smallest standard deviation used for scoring, in currency units.
+    private double minDeviation = 1.0;
+}
@@ -0,0 +1,20 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the priority-driven budget allocation.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "budget-allocation".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "budget-allocation")
+public class BudgetAllocationProperties {
+    // Number of closed months before the current one whose expenses the minimum per category is derived from.
+    private int historyMonths = 6;
+    // Share of the historical spend of a category, scaled to the length of the period, it gets at least.
+    private double minimumSpendRatio = 0.8;
+}
@@ -0,0 +1,26 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the cross-node cache invalidation bus.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "cache-invalidation".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache-invalidation")
+public class CacheInvalidationProperties {
+    // The bus is only started against PostgreSQL.
+    private boolean enabled = true;
+    private String channel = "budget_planner_invalidate";
+    // How long the listener waits for notifications before checking its connection, in milliseconds.
+    private long pollTimeout = 10000;
+    // Reconnect delays of the listener, doubled after every failed attempt, in milliseconds.
+    private long initialBackoff = 1000;
+    private long maxBackoff = 60000;
+    // Messages with more IDs evict the whole region instead (NOTIFY payloads are limited to 8000 bytes).
+    private int maxIdsPerMessage = 200;
+}
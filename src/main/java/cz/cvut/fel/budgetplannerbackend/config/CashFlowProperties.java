@@ -0,0 +1,21 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for cash-flow time series.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "cash-flow".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cash-flow")
+public class CashFlowProperties {
+    // Number of dashboards whose closed buckets are kept in memory; the least recently charted are dropped.
+    private int cacheSize = 256;
+    // Series with more buckets are downsampled to this many points unless the request asks for another count.
+    private int defaultPoints = 500;
+    private int maxBuckets = 20000;
+}
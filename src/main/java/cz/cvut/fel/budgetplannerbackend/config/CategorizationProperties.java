@@ -0,0 +1,22 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the automatic categorization of records.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "categorization".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "categorization")
+public class CategorizationProperties {
+    // Maximum number of rules of a dashboard.
+    private int maxRules = 500;
+    // Number of dashboards whose compiled rules are kept in memory.
+    private int cacheSize = 1000;
+    // Records categorized in one transaction when applying the rules to the history.
+    private int chunkSize = 500;
+}
@@ -0,0 +1,22 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the server-sent dashboard change events.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "dashboard-events".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "dashboard-events")
+public class DashboardEventsProperties {
+    // Events buffered per subscriber; a subscriber whose buffer is full is disconnected.
+    private int bufferSize = 32;
+    // Lifetime of a subscription in milliseconds, after which the client reconnects.
+    private long timeout = 1800000;
+    // Number of threads writing events to subscribers.
+    private int dispatchThreads = 2;
+}
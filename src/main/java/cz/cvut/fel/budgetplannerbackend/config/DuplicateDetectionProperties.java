@@ -0,0 +1,26 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the detection of duplicate records.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "duplicate-detection".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "duplicate-detection")
+public class DuplicateDetectionProperties {
+    // Records at most this many days apart may duplicate each other.
+    private int windowDays = 3;
+    // Smallest estimated similarity of the descriptions of records with the same amount and type to be duplicates.
+    private double similarityThreshold = 0.7;
+    // Age in days of the oldest records kept in the in-memory index of a dashboard.
+    private int horizonDays = 120;
+    // Number of dashboards whose index is kept in memory.
+    private int cacheSize = 200;
+    // Milliseconds after which the index of a dashboard is rebuilt from the database.
+    private long indexTtl = 600000;
+}
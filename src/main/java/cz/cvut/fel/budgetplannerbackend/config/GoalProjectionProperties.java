@@ -0,0 +1,23 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the Monte Carlo projections of financial goals.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "goal-projection".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "goal-projection")
+public class GoalProjectionProperties {
+    private int paths = 20000;
+    // Number of closed months before the current one whose net cash flows are drawn from.
+    private int historyMonths = 36;
+    // Threads simulating the paths; 0 uses one per available processor.
+    private int parallelism = 0;
+    // Number of dashboards whose history and projections are kept in memory; the least recently projected are dropped.
+    private int cacheSize = 256;
+}
@@ -0,0 +1,24 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for idempotent create requests.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "idempotency".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+    // How long a stored response can be replayed, in milliseconds.
+    private long ttl = 86400000;
+    // Maximum number of recent keys kept in memory.
+    private int cacheSize = 10000;
+    // Number of locks that concurrent requests are spread over.
+    private int lockStripes = 64;
+    // Maximum number of expired keys deleted by one statement.
+    private int purgeBatchSize = 500;
+}
@@ -0,0 +1,18 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the credentials of the Prometheus scraper.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "metrics-scrape". Scraping is denied while no password is set.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "metrics-scrape")
+public class MetricsScrapeProperties {
+    private String username = "prometheus";
+    private String password;
+}
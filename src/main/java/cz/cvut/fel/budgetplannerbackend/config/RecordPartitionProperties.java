@@ -0,0 +1,22 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the monthly partitions of the financial_records table.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "record-partitions".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "record-partitions")
+public class RecordPartitionProperties {
+    // Partitions are only maintained on PostgreSQL; this switches the maintenance off there as well.
+    private boolean enabled = true;
+    // Number of months after the current one that must already have a partition.
+    private int monthsAhead = 3;
+    // Records dated up to this many months back get their own partition when they land in the default partition.
+    private int monthsBack = 120;
+}
@@ -0,0 +1,32 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the scheduler materializing recurring transactions.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "recurring-transactions".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "recurring-transactions")
+public class RecurringTransactionProperties {
+    // Recurring transactions are only materialized on PostgreSQL; this switches the scheduler off there as well.
+    private boolean enabled = true;
+    // Duration of a tick of the timing wheel in milliseconds.
+    private long tickDuration = 1000;
+    // Number of slots of the timing wheel.
+    private int wheelSize = 512;
+    // Templates due within this many milliseconds are loaded into the timing wheel.
+    private long horizon = 600000;
+    // Interval in milliseconds between loads of the horizon, shorter than the horizon.
+    private long loadInterval = 300000;
+    // Templates materialized in one transaction.
+    private int batchSize = 200;
+    // Occurrences of one template materialized in one transaction; further missed occurrences follow with the next tick.
+    private int maxCatchUp = 400;
+    // Delay in milliseconds before due templates locked by another transaction are retried.
+    private long retryDelay = 5000;
+}
@@ -0,0 +1,21 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the read replica used by read-only transactions.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "replica-datasource". Routing is only enabled when a URL is set.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "replica-datasource")
+public class ReplicaDataSourceProperties {
+    private String url;
+    private String username;
+    private String password;
+    // Read-only transactions go to the primary while the replica lags behind by more than this, in milliseconds.
+    private long maxLag = 5000;
+}
@@ -0,0 +1,28 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the reports generated by report jobs.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "report".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "report")
+public class ReportProperties {
+    // Number of reports generated at the same time.
+    private int threads = 2;
+    // Number of jobs waiting for a thread; further jobs are rejected.
+    private int maxQueuedJobs = 20;
+    // Number of unfinished jobs a user may have; further requests are rejected.
+    private int maxJobsPerUser = 2;
+    // Directory of the report files; shared by all nodes when there are several.
+    private String directory = System.getProperty("java.io.tmpdir") + "/budget-planner-reports";
+    // Milliseconds a finished report is kept before it and its file are deleted.
+    private long ttl = 86400000;
+    // Milliseconds without progress after which an unfinished job is failed, e.g. because its node stopped.
+    private long staleTimeout = 1800000;
+}
@@ -1,18 +1,25 @@
 package cz.cvut.fel.budgetplannerbackend.config;
 
+import cz.cvut.fel.budgetplannerbackend.metrics.BusinessMetrics;
+import cz.cvut.fel.budgetplannerbackend.metrics.TimedBCryptPasswordEncoder;
 import cz.cvut.fel.budgetplannerbackend.security.jwt.JwtAuthenticationFilter;
 import cz.cvut.fel.budgetplannerbackend.security.jwt.JwtTokenProvider;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -29,14 +36,52 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsService userDetailsService; // Service for loading user details during authentication.
 
+    @Autowired
+    private BusinessMetrics businessMetrics; // Records bcrypt timings.
+
     /**
      * Creates a BCryptPasswordEncoder bean for password hashing.
+     * The encoder records the time spent in bcrypt, which dominates login and registration latency.
      *
      * @return A BCryptPasswordEncoder instance.
      */
     @Bean
     public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedBCryptPasswordEncoder(businessMetrics);
+    }
+
+    /**
+     * Configures the security filter chain of the Prometheus scrape endpoint, checked before the one of the application.
+     * The scraper authenticates with HTTP basic as the configured user; without a configured password every
+     * request is denied.
+     *
+     * @param http       The HttpSecurity object used to configure security settings.
+     * @param properties The credentials of the scraper.
+     * @return The configured SecurityFilterChain.
+     * @throws Exception If an error occurs during configuration.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsScrapeFilterChain(HttpSecurity http, MetricsScrapeProperties properties) throws Exception {
+        http.securityMatcher("/actuator/prometheus")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        if (properties.getPassword() == null || properties.getPassword().isEmpty()) {
+            http.authorizeHttpRequests(authorize -> authorize.anyRequest().denyAll());
+            return http.build();
+        }
+        // A plain encoder, so that scrapes do not show up in the bcrypt timings of logins.
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(properties.getUsername())
+                .password(encoder.encode(properties.getPassword()))
+                .roles("METRICS")
+                .build()));
+        http.authorizeHttpRequests(authorize -> authorize.anyRequest().hasRole("METRICS"))
+                .authenticationManager(new ProviderManager(provider))
+                .httpBasic(Customizer.withDefaults());
+        return http.build();
     }
 
     /**
@@ -52,7 +97,9 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable()) // Disable CSRF protection.
                 .authorizeHttpRequests((authorize) -> authorize
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Event streams were authorized on the initial request.
                         .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll() // Allow unrestricted access to Swagger UI.
+                        .requestMatchers("/actuator/health").permitAll() // Allow health checks.
                         .requestMatchers("/", "/home", "/registration", "/api/auth/**").permitAll() // Allow unrestricted access to home, registration, and authentication endpoints.
                         .requestMatchers("/api/v1/dashboards/*/invite-links/use/**").permitAll() // Allow unrestricted access to invite link usage endpoints.
                         .anyRequest().authenticated() // All other requests require authentication.
@@ -0,0 +1,71 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EStatementFormat;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties for the import of bank statements.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "statement-import".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "statement-import")
+public class StatementImportProperties {
+    // Number of imports processed at the same time; every import uses a parsing and a writing thread.
+    private int threads = 2;
+    // Number of imports waiting for a thread; further imports are rejected.
+    private int maxQueuedImports = 10;
+    // Records written to the database in one transaction.
+    private int batchSize = 500;
+    // Parsed batches waiting to be written; parsing pauses while the queue is full.
+    private int queueCapacity = 4;
+    // Size of the buffer the statement files are read through, in bytes.
+    private int bufferSize = 65536;
+    // Number of invalid entries skipped before an import fails.
+    private int maxInvalidRecords = 100;
+    // Milliseconds without progress after which an unfinished import is failed, e.g. because its node stopped.
+    private long staleTimeout = 600000;
+    // Bank profiles by name.
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+
+    /**
+     * Layout of the statements of a bank. Only the format and charset apply to OFX statements.
+     */
+    @Getter
+    @Setter
+    public static class Profile {
+        // Format of the statements.
+        private EStatementFormat format = EStatementFormat.CSV;
+        // Charset of the statements.
+        private Charset charset = StandardCharsets.UTF_8;
+        // Separator of the fields of a row.
+        private char delimiter = ',';
+        // Rows skipped before the header or the first entry, e.g. account details.
+        private int skipLines = 0;
+        // True if the first row after the skipped ones names the columns.
+        private boolean header = true;
+        // Column of the date, by header name or by index from 0.
+        private String dateColumn = "date";
+        // Pattern of the dates, with or without time.
+        private String dateFormat = "yyyy-MM-dd";
+        // Column of the signed amount; if empty, the amount is the credit column minus the debit column.
+        private String amountColumn = "amount";
+        // Column of the amount debited, if the amount column is empty.
+        private String debitColumn;
+        // Column of the amount credited, if the amount column is empty.
+        private String creditColumn;
+        // Decimal separator of the amounts; the other one of '.' and ',' is taken as a grouping separator.
+        private char decimalSeparator = '.';
+        // Columns joined into the description of a record.
+        private List<String> descriptionColumns = List.of("description");
+    }
+}
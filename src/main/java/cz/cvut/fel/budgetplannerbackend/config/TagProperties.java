@@ -0,0 +1,19 @@
+package cz.cvut.fel.budgetplannerbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for record tags.
+ * These properties are loaded from the `application.properties` file
+ * using the prefix "tags".
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "tags")
+public class TagProperties {
+    // Number of dashboards whose tag bitmaps are kept in memory; the least recently filtered are dropped.
+    private int bitmapCacheSize = 256;
+    private int maxTagsPerRecord = 20;
+}
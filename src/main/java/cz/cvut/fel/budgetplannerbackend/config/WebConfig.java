@@ -1,6 +1,8 @@
 package cz.cvut.fel.budgetplannerbackend.config;
 
+import cz.cvut.fel.budgetplannerbackend.service.implementation.IdempotencyServiceImpl;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -16,6 +18,7 @@ public class WebConfig implements WebMvcConfigurer {
                         "http://localhost"
                         ) // Allowed Frontend Domain
                 .allowedMethods("GET", "POST", "PUT", "DELETE") // Allowed HTTP methods
+                .exposedHeaders(HttpHeaders.ETAG, IdempotencyServiceImpl.REPLAYED_HEADER) // Let the frontend read ETags and replay markers
                 .allowCredentials(true); // If you need to send cookies
     }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package cz.cvut.fel.budgetplannerbackend.config.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.SQLException;
+
+/**
+ * Hibernate dialect keeping the reads of a lagging replica out of the second-level cache.
+ * <p>
+ * Every read-only transaction chooses between the replica and the primary when it begins. Sessions reading from
+ * the replica bypass the cache when storing ({@link CacheMode#GET}): they read cached entities and query results,
+ * but never put what they load into the cache, where rows older than the primary's could outlive the invalidation
+ * of the newer ones. Sessions of the primary populate the cache as usual.
+ * <p>
+ * The store mode is set as the JPA property rather than the Hibernate cache mode, which
+ * {@link EntityManager#find} derives from the properties again.
+ */
+public class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    public ReplicaAwareJpaDialect(ReplicaRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        if (!definition.isReadOnly()) {
+            return super.beginTransaction(entityManager, definition);
+        }
+        Boolean previousTarget = routingDataSource.chooseReadOnlyTarget();
+        Object previousStoreMode = entityManager.getProperties().get(SpecHints.HINT_SPEC_CACHE_STORE_MODE);
+        try {
+            if (routingDataSource.isReplicaChosen()) {
+                entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+            }
+            return new ReadOnlyTransactionData(super.beginTransaction(entityManager, definition), entityManager,
+                    previousStoreMode != null ? previousStoreMode : CacheStoreMode.USE, previousTarget);
+        } catch (RuntimeException | SQLException e) {
+            entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, previousStoreMode != null ? previousStoreMode : CacheStoreMode.USE);
+            routingDataSource.restoreReadOnlyTarget(previousTarget);
+            throw e;
+        }
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransactionData readOnly) {
+            super.cleanupTransaction(readOnly.transactionData());
+            if (readOnly.entityManager().isOpen()) {
+                readOnly.entityManager().setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, readOnly.previousStoreMode());
+            }
+            routingDataSource.restoreReadOnlyTarget(readOnly.previousTarget());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record ReadOnlyTransactionData(Object transactionData, EntityManager entityManager, Object previousStoreMode,
+                                           Boolean previousTarget) {
+    }
+}
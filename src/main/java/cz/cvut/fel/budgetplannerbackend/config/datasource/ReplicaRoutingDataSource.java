@@ -0,0 +1,181 @@
+package cz.cvut.fel.budgetplannerbackend.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Routes connections of read-only transactions to a read replica and everything else to the primary.
+ * The routing decision is made when the connection is requested, so this data source has to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager requests
+ * the connection before the read-only flag of the transaction is exposed.
+ * <p>
+ * The replica lag is checked periodically. While the replica lags behind by more than the allowed maximum
+ * or cannot be reached, read-only transactions fall back to the primary.
+ * <p>
+ * A read-only transaction may choose its target when it begins, see {@link #chooseReadOnlyTarget()}, so that
+ * its session knows whether it reads from the replica before the first statement. Such a transaction uses the
+ * replica only if it was chosen and is still available when the connection is requested.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    // Zero on a primary and on a replica that replayed everything it received; seconds since the last replayed commit otherwise.
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long maxLagMillis;
+    private final Counter readWriteRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+    private final ThreadLocal<Boolean> replicaChosen = new ThreadLocal<>();
+    private volatile boolean replicaAvailable;
+    private volatile double replicaLagSeconds;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long maxLagMillis, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.readWriteRoutes = routes(meterRegistry, PRIMARY, "read-write");
+        this.replicaRoutes = routes(meterRegistry, REPLICA, "read-only");
+        this.fallbackRoutes = routes(meterRegistry, PRIMARY, "read-only");
+        Gauge.builder("budget_planner.datasource.replica.lag", this, dataSource -> dataSource.replicaLagSeconds)
+                .description("Replication lag of the read replica in seconds")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("budget_planner.datasource.replica.available", this, dataSource -> dataSource.replicaAvailable ? 1 : 0)
+                .description("Whether read-only transactions are routed to the read replica")
+                .register(meterRegistry);
+    }
+
+    private static Counter routes(MeterRegistry meterRegistry, String target, String transaction) {
+        return Counter.builder("budget_planner.datasource.routing")
+                .description("Number of connections obtained per target pool and transaction type")
+                .tag("target", target)
+                .tag("transaction", transaction)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicaLag();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readWriteRoutes.increment();
+            return PRIMARY;
+        }
+        if (!replicaAvailable || Boolean.FALSE.equals(replicaChosen.get())) {
+            fallbackRoutes.increment();
+            return PRIMARY;
+        }
+        replicaRoutes.increment();
+        return REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target != replica) {
+            return target.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            markReplicaUnavailable(e);
+            fallbackRoutes.increment();
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Measures the replication lag and decides whether read-only transactions may use the replica.
+     */
+    @Scheduled(fixedDelayString = "${replica-datasource.lag-check-interval:5000}")
+    public void checkReplicaLag() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            replicaLagSeconds = resultSet.getDouble(1);
+            boolean available = replicaLagSeconds * 1000 <= maxLagMillis;
+            if (available != replicaAvailable) {
+                LOG.info("Read replica {} (lag {} s)", available ? "is in use" : "lags behind, using the primary", replicaLagSeconds);
+            }
+            replicaAvailable = available;
+        } catch (SQLException e) {
+            markReplicaUnavailable(e);
+        }
+    }
+
+    private void markReplicaUnavailable(SQLException e) {
+        if (replicaAvailable) {
+            LOG.warn("Read replica is unavailable, using the primary: {}", e.getMessage());
+        }
+        replicaAvailable = false;
+    }
+
+    /**
+     * Chooses the target of the read-only transaction beginning on the current thread: the replica if it is
+     * available now, the primary otherwise.
+     *
+     * @return The choice of the enclosing transaction, to be restored with {@link #restoreReadOnlyTarget(Boolean)}.
+     */
+    public Boolean chooseReadOnlyTarget() {
+        Boolean previous = replicaChosen.get();
+        replicaChosen.set(replicaAvailable);
+        return previous;
+    }
+
+    /**
+     * @return True if the read-only transaction on the current thread chose the replica.
+     */
+    public boolean isReplicaChosen() {
+        return Boolean.TRUE.equals(replicaChosen.get());
+    }
+
+    public void restoreReadOnlyTarget(Boolean previous) {
+        if (previous == null) {
+            replicaChosen.remove();
+        } else {
+            replicaChosen.set(previous);
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : new DataSource[]{replica, primary}) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
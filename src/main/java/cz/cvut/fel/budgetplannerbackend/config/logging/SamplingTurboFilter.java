@@ -0,0 +1,62 @@
+package cz.cvut.fel.budgetplannerbackend.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that keeps only every n-th event of chatty hot-path loggers.
+ * Turbo filters run before the logging event is created, so a dropped message costs neither
+ * formatting nor a slot in the async appender queue.
+ * Events above the configured level and events carrying a throwable are never sampled.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final List<String> loggerPrefixes = new ArrayList<>();
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private Level level = Level.INFO;
+    private int sampleRate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level eventLevel, String format, Object[] params, Throwable t) {
+        if (!isStarted() || sampleRate <= 1 || eventLevel == null || t != null) {
+            return FilterReply.NEUTRAL;
+        }
+        // Leave events that are disabled anyway (or important enough) to the regular level check.
+        if (eventLevel.isGreaterOrEqual(Level.WARN) || !eventLevel.isGreaterOrEqual(logger.getEffectiveLevel())
+                || eventLevel.toInt() > level.toInt() || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        long sequence = counters.computeIfAbsent(logger.getName(), name -> new AtomicLong()).getAndIncrement();
+        return sequence % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean matches(String loggerName) {
+        for (String prefix : loggerPrefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void addLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefixes.add(loggerPrefix.trim());
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
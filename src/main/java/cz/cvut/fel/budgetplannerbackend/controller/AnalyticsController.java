@@ -0,0 +1,49 @@
+package cz.cvut.fel.budgetplannerbackend.controller;
+
+import cz.cvut.fel.budgetplannerbackend.dto.analytics.SpendingBreakdownDto;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.SpendingAnalyticsServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+/**
+ * REST controller for statistics over the financial records of a dashboard.
+ */
+@RestController
+@RequestMapping("/api/v1/dashboards/{dashboardId}/analytics") // Base URL for all analytics endpoints.
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final SpendingAnalyticsServiceImpl spendingAnalyticsService; // Service for expense statistics.
+    private static final Logger LOG = LoggerFactory.getLogger(AnalyticsController.class);
+
+    /**
+     * Retrieves the median, 90th percentile and maximum expense per category and per member over a range of months.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param from        The first month (inclusive), as yyyy-MM.
+     * @param to          The last month (inclusive), as yyyy-MM.
+     * @return A ResponseEntity containing the spending breakdown and an HTTP status of 200 OK,
+     *         or 400 Bad Request if the range is empty or too long.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping("/spending")
+    public ResponseEntity<SpendingBreakdownDto> getSpendingBreakdown(@PathVariable Long dashboardId,
+                                                                     @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                                                                     @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        LOG.info("Received request for the spending breakdown from {} to {} for dashboard id: {}", from, to, dashboardId);
+        try {
+            SpendingBreakdownDto breakdown = spendingAnalyticsService.findSpendingBreakdown(dashboardId, from, to);
+            return ResponseEntity.ok(breakdown); // Return the breakdown with an OK status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid spending breakdown request for dashboard id: {}: {}", dashboardId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for an invalid range.
+        }
+    }
+}
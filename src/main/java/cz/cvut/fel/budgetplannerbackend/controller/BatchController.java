@@ -0,0 +1,53 @@
+package cz.cvut.fel.budgetplannerbackend.controller;
+
+import cz.cvut.fel.budgetplannerbackend.dto.batch.BatchOperationDto;
+import cz.cvut.fel.budgetplannerbackend.dto.batch.BatchResultDto;
+import cz.cvut.fel.budgetplannerbackend.exceptions.BatchOperationException;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.BatchServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller applying several changes to the content of a dashboard in one request.
+ */
+@RestController
+@RequestMapping("/api/v1/dashboards/{dashboardId}/batch") // Base URL for the batch endpoint.
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchServiceImpl batchService;
+    private static final Logger LOG = LoggerFactory.getLogger(BatchController.class);
+
+    /**
+     * Executes an ordered list of create, update and delete operations on financial records, categories,
+     * budgets, financial goals and category priorities of a dashboard in a single transaction.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param operations  The operations to execute, in order.
+     * @return A ResponseEntity containing the result of each operation and an HTTP status of 200 OK,
+     *         400 Bad Request for an empty or too large batch, or the status of the first failed operation
+     *         with the results of the rolled back operations.
+     * @throws AccessDeniedException If the user does not have at least EDITOR access to the dashboard.
+     */
+    @PostMapping
+    public ResponseEntity<List<BatchResultDto>> executeBatch(@PathVariable Long dashboardId, @RequestBody List<BatchOperationDto> operations) {
+        LOG.info("Received batch request for dashboard id: {}", dashboardId);
+        try {
+            List<BatchResultDto> results = batchService.executeBatch(dashboardId, operations); // Execute all operations.
+            LOG.info("Executed {} batch operations for dashboard id: {}", results.size(), dashboardId);
+            return ResponseEntity.ok(results); // Return the per-operation results with an OK status.
+        } catch (BatchOperationException e) {
+            LOG.warn("Batch for dashboard id: {} rolled back: {}", dashboardId, e.getMessage());
+            return ResponseEntity.status(e.getStatus()).body(e.getResults()); // Nothing was applied.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid batch for dashboard id: {}: {}", dashboardId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for an empty or too large batch.
+        }
+    }
+}
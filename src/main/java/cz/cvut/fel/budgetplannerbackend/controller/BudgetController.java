@@ -1,7 +1,11 @@
 package cz.cvut.fel.budgetplannerbackend.controller;
 
 import cz.cvut.fel.budgetplannerbackend.dto.BudgetDto;
+import cz.cvut.fel.budgetplannerbackend.dto.allocation.BudgetAllocationRequestDto;
+import cz.cvut.fel.budgetplannerbackend.dto.allocation.CategoryAllocationDto;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.BudgetAllocationServiceImpl;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.DashboardServiceImpl;
 import cz.cvut.fel.budgetplannerbackend.service.implementation.BudgetServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -9,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.util.List;
@@ -23,21 +28,33 @@ import java.util.List;
 public class BudgetController {
 
     private final BudgetServiceImpl budgetService; // Service for handling budget operations.
+    private final DashboardServiceImpl dashboardService;
+    private final BudgetAllocationServiceImpl budgetAllocationService; // Service for splitting a total by category priorities.
     private static final Logger LOG = LoggerFactory.getLogger(BudgetController.class);
 
     /**
      * Retrieves all budgets associated with a specific dashboard.
      *
+     * The response carries an ETag derived from the dashboard version; a matching If-None-Match
+     * is answered with 304 Not Modified without loading the budgets.
+     *
      * @param dashboardId The ID of the dashboard.
-     * @return A ResponseEntity containing a list of BudgetDto objects and an HTTP status of 200 OK.
+     * @param webRequest  The current request, used to evaluate If-None-Match.
+     * @return A ResponseEntity containing a list of BudgetDto objects and an HTTP status of 200 OK,
+     *         or 304 Not Modified if the client's copy is current.
      * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
      */
     @GetMapping
-    public ResponseEntity<List<BudgetDto>> getAllBudgetsByDashboardId(@PathVariable Long dashboardId) {
+    public ResponseEntity<List<BudgetDto>> getAllBudgetsByDashboardId(@PathVariable Long dashboardId, WebRequest webRequest) {
         LOG.info("Received request to get all budgets for dashboard with id: {}", dashboardId);
+        String eTag = dashboardService.getDashboardETag(dashboardId); // Read the version before the data it describes.
+        if (webRequest.checkNotModified(eTag)) {
+            LOG.info("Budgets for dashboard with id: {} not modified", dashboardId);
+            return null; // The 304 status and ETag header are already set on the response.
+        }
         List<BudgetDto> budgetDtos = budgetService.findAllBudgetsByDashboardId(dashboardId); // Retrieve the budgets using the service.
         LOG.info("Returned all budgets for dashboard with id: {}", dashboardId);
-        return ResponseEntity.ok(budgetDtos); // Return the budgets with an OK status.
+        return ResponseEntity.ok().eTag(eTag).body(budgetDtos); // Return the budgets with an OK status and their ETag.
     }
 
     /**
@@ -79,6 +96,35 @@ public class BudgetController {
         return new ResponseEntity<>(createdBudgetDto, HttpStatus.CREATED); // Return the created budget with a Created status.
     }
 
+    /**
+     * Splits a total amount into one budget per category of a dashboard, weighted by the category priorities
+     * and with every category getting at least a share of its historical spend.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param request     The total amount and the period of the budgets.
+     * @param preview     True to only propose the split without creating the budgets.
+     * @return A ResponseEntity containing the allocation of every category and an HTTP status of 201 Created,
+     *         200 OK for a preview, 400 Bad Request if the request is invalid or the total does not cover the
+     *         minimums, or 404 Not Found if the dashboard is not found.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard, or viewer access for a preview.
+     */
+    @PostMapping("/allocation")
+    public ResponseEntity<List<CategoryAllocationDto>> allocateBudgets(@PathVariable Long dashboardId, @RequestBody BudgetAllocationRequestDto request,
+                                                                       @RequestParam(defaultValue = "false") boolean preview) {
+        LOG.info("Received request to allocate budgets for dashboard with id: {}", dashboardId);
+        try {
+            List<CategoryAllocationDto> allocations = budgetAllocationService.allocateBudgets(dashboardId, request, preview); // Split the total.
+            LOG.info("Allocated budgets of {} categories for dashboard with id: {}", allocations.size(), dashboardId);
+            return new ResponseEntity<>(allocations, preview ? HttpStatus.OK : HttpStatus.CREATED); // Budgets are only created without preview.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid budget allocation for dashboard with id: {}: {}", dashboardId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for an invalid request or too small a total.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error allocating budgets", e);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+
     /**
      * Updates an existing budget.
      *
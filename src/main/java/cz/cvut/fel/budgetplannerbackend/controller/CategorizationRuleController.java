@@ -0,0 +1,151 @@
+package cz.cvut.fel.budgetplannerbackend.controller;
+
+import cz.cvut.fel.budgetplannerbackend.dto.CategorizationRuleDto;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.CategorizationServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for managing the categorization rules of a dashboard, which assign a category
+ * to the records created without one.
+ */
+@RestController
+@RequestMapping("/api/v1/dashboards/{dashboardId}/categorization-rules") // Base URL for all categorization rule endpoints.
+@RequiredArgsConstructor
+public class CategorizationRuleController {
+
+    private final CategorizationServiceImpl categorizationService; // Service for handling categorization rule operations.
+    private static final Logger LOG = LoggerFactory.getLogger(CategorizationRuleController.class);
+
+    /**
+     * Retrieves all categorization rules of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A ResponseEntity containing a list of CategorizationRuleDto objects and an HTTP status of 200 OK.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @GetMapping
+    public ResponseEntity<List<CategorizationRuleDto>> getAllCategorizationRules(@PathVariable Long dashboardId) {
+        LOG.info("Received request to get all categorization rules for dashboard with id: {}", dashboardId);
+        List<CategorizationRuleDto> categorizationRules = categorizationService.findAllCategorizationRulesByDashboardId(dashboardId);
+        LOG.info("Returned {} categorization rules for dashboard with id: {}", categorizationRules.size(), dashboardId);
+        return ResponseEntity.ok(categorizationRules); // Return the categorization rules with an OK status.
+    }
+
+    /**
+     * Retrieves a specific categorization rule.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the categorization rule.
+     * @return A ResponseEntity containing the CategorizationRuleDto and an HTTP status of 200 OK if found,
+     *         or 404 Not Found if not found.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<CategorizationRuleDto> getCategorizationRule(@PathVariable Long dashboardId, @PathVariable Long id) {
+        LOG.info("Received request to get categorization rule with id: {} for dashboard with id: {}", id, dashboardId);
+        try {
+            return ResponseEntity.ok(categorizationService.findCategorizationRuleByIdAndDashboardId(id, dashboardId));
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error getting categorization rule", e);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+
+    /**
+     * Creates a categorization rule.
+     *
+     * @param dashboardId           The ID of the dashboard.
+     * @param categorizationRuleDto The CategorizationRuleDto with the data of the new categorization rule.
+     * @return A ResponseEntity containing the created CategorizationRuleDto and an HTTP status of 201 Created,
+     *         400 Bad Request if the rule is invalid, or 404 Not Found if the dashboard or category is not found.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @PostMapping
+    public ResponseEntity<CategorizationRuleDto> createCategorizationRule(@PathVariable Long dashboardId,
+                                                                          @RequestBody CategorizationRuleDto categorizationRuleDto) {
+        LOG.info("Received request to create categorization rule for dashboard with id: {}", dashboardId);
+        try {
+            CategorizationRuleDto created = categorizationService.createCategorizationRule(dashboardId, categorizationRuleDto);
+            LOG.info("Created categorization rule with id: {} for dashboard with id: {}", created.id(), dashboardId);
+            return new ResponseEntity<>(created, HttpStatus.CREATED); // Return the created categorization rule with a Created status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid categorization rule for dashboard with id: {}: {}", dashboardId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for an invalid rule.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error creating categorization rule", e);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+
+    /**
+     * Replaces a categorization rule.
+     *
+     * @param dashboardId           The ID of the dashboard.
+     * @param id                    The ID of the categorization rule.
+     * @param categorizationRuleDto The CategorizationRuleDto with the new fields of the rule.
+     * @return A ResponseEntity containing the updated CategorizationRuleDto and an HTTP status of 200 OK,
+     *         400 Bad Request if the rule is invalid, or 404 Not Found if the categorization rule or category is not found.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<CategorizationRuleDto> updateCategorizationRule(@PathVariable Long dashboardId, @PathVariable Long id,
+                                                                          @RequestBody CategorizationRuleDto categorizationRuleDto) {
+        LOG.info("Received request to update categorization rule with id: {} for dashboard with id: {}", id, dashboardId);
+        try {
+            CategorizationRuleDto updated = categorizationService.updateCategorizationRule(dashboardId, id, categorizationRuleDto);
+            LOG.info("Updated categorization rule with id: {} for dashboard with id: {}", id, dashboardId);
+            return ResponseEntity.ok(updated); // Return the updated categorization rule with an OK status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid categorization rule update for id: {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for an invalid rule.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error updating categorization rule", e);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+
+    /**
+     * Deletes a categorization rule; the records it categorized keep their category.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the categorization rule.
+     * @return A ResponseEntity with an HTTP status of 204 No Content if successful, or 404 Not Found if not found.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteCategorizationRule(@PathVariable Long dashboardId, @PathVariable Long id) {
+        LOG.info("Received request to delete categorization rule with id: {} for dashboard with id: {}", id, dashboardId);
+        try {
+            categorizationService.deleteCategorizationRule(dashboardId, id);
+            LOG.info("Deleted categorization rule with id: {} for dashboard with id: {}", id, dashboardId);
+            return ResponseEntity.noContent().build(); // Return a No Content status to indicate successful deletion.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error deleting categorization rule", e);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+
+    /**
+     * Applies the categorization rules of a dashboard to its uncategorized records.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A ResponseEntity containing the number of records categorized and an HTTP status of 200 OK.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @PostMapping("/apply")
+    public ResponseEntity<Integer> applyCategorizationRules(@PathVariable Long dashboardId) {
+        LOG.info("Received request to apply categorization rules for dashboard with id: {}", dashboardId);
+        int categorized = categorizationService.applyCategorizationRules(dashboardId);
+        LOG.info("Categorized {} records for dashboard with id: {}", categorized, dashboardId);
+        return ResponseEntity.ok(categorized); // Return the number of categorized records with an OK status.
+    }
+}
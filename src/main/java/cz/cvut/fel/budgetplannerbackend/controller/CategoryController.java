@@ -2,8 +2,10 @@ package cz.cvut.fel.budgetplannerbackend.controller;
 
 import cz.cvut.fel.budgetplannerbackend.dto.CategoryDto;
 import cz.cvut.fel.budgetplannerbackend.dto.CategoryPriorityDto;
+import cz.cvut.fel.budgetplannerbackend.dto.CategoryRollupDto;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.security.model.CustomUserDetails;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.DashboardServiceImpl;
 import cz.cvut.fel.budgetplannerbackend.service.implementation.CategoryPriorityServiceImpl;
 import cz.cvut.fel.budgetplannerbackend.service.implementation.CategoryServiceImpl;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.util.List;
@@ -28,21 +31,70 @@ public class CategoryController {
 
     private final CategoryServiceImpl categoryService;
     private final CategoryPriorityServiceImpl categoryPriorityService;
+    private final DashboardServiceImpl dashboardService;
     private static final Logger LOG = LoggerFactory.getLogger(CategoryController.class);
 
     /**
      * Retrieves all categories associated with a specific dashboard.
      *
+     * The response carries an ETag derived from the dashboard version; a matching If-None-Match
+     * is answered with 304 Not Modified without loading the categories.
+     *
      * @param dashboardId The ID of the dashboard.
-     * @return A ResponseEntity containing a list of CategoryDto objects and an HTTP status of 200 OK.
+     * @param webRequest  The current request, used to evaluate If-None-Match.
+     * @return A ResponseEntity containing a list of CategoryDto objects and an HTTP status of 200 OK,
+     *         or 304 Not Modified if the client's copy is current.
      * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
      */
     @GetMapping
-    public ResponseEntity<List<CategoryDto>> getAllCategoriesByDashboardId(@PathVariable Long dashboardId) {
+    public ResponseEntity<List<CategoryDto>> getAllCategoriesByDashboardId(@PathVariable Long dashboardId, WebRequest webRequest) {
         LOG.info("Received request to get all categories for dashboard with id: {}", dashboardId);
+        String eTag = dashboardService.getDashboardETag(dashboardId); // Read the version before the data it describes.
+        if (webRequest.checkNotModified(eTag)) {
+            LOG.info("Categories for dashboard with id: {} not modified", dashboardId);
+            return null; // The 304 status and ETag header are already set on the response.
+        }
         List<CategoryDto> categoryDtos = categoryService.findAllCategoriesByDashboardId(dashboardId); // Retrieve all categories for the dashboard.
         LOG.info("Returned all categories for dashboard with id: {}", dashboardId);
-        return ResponseEntity.ok(categoryDtos); // Return the categories with an OK status.
+        return ResponseEntity.ok().eTag(eTag).body(categoryDtos); // Return the categories with an OK status and their ETag.
+    }
+
+    /**
+     * Retrieves the income and expense totals of all categories of a dashboard,
+     * each including the records of all descendant categories.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A ResponseEntity containing a list of CategoryRollupDto objects and an HTTP status of 200 OK.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<List<CategoryRollupDto>> getCategoryRollups(@PathVariable Long dashboardId) {
+        LOG.info("Received request to get category rollups for dashboard with id: {}", dashboardId);
+        List<CategoryRollupDto> rollups = categoryService.findCategoryRollupsByDashboardId(dashboardId); // Sum the subtrees.
+        LOG.info("Returned category rollups for dashboard with id: {}", dashboardId);
+        return ResponseEntity.ok(rollups);
+    }
+
+    /**
+     * Retrieves the income and expense totals of a category, including the records of all descendant categories.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the category.
+     * @return A ResponseEntity containing the CategoryRollupDto object and an HTTP status of 200 OK if found,
+     *         or 404 Not Found if not found.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping("/{id}/rollup")
+    public ResponseEntity<CategoryRollupDto> getCategoryRollup(@PathVariable Long dashboardId, @PathVariable Long id) {
+        LOG.info("Received request to get rollup of category with id: {} for dashboard with id: {}", id, dashboardId);
+        try {
+            CategoryRollupDto rollup = categoryService.findCategoryRollup(dashboardId, id); // Sum the subtree.
+            LOG.info("Returned rollup of category with id: {} for dashboard with id: {}", id, dashboardId);
+            return ResponseEntity.ok(rollup);
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error getting category rollup", e); // Log the exception if the category is not found.
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
     }
 
     /**
@@ -73,7 +125,7 @@ public class CategoryController {
      * @param dashboardId The ID of the dashboard to associate the category with.
      * @param categoryDto The CategoryDto object containing the data for the new category.
      * @return A ResponseEntity containing the created CategoryDto object and an HTTP status of 201 Created.
-     * @throws EntityNotFoundException If the dashboard is not found.
+     * @throws EntityNotFoundException If the dashboard or the parent category is not found.
      * @throws AccessDeniedException If the user does not have at least EDITOR access to the dashboard.
      */
     @PostMapping
@@ -108,7 +160,34 @@ public class CategoryController {
     }
 
     /**
-     * Deletes a category.
+     * Moves a category, with all of its descendants, under another category.
+     *
+     * @param dashboardId The ID of the dashboard associated with the category.
+     * @param id          The ID of the category to move.
+     * @param parentId    The ID of the new parent category; when omitted, the category becomes top-level.
+     * @return A ResponseEntity containing the moved CategoryDto object and an HTTP status of 200 OK if successful,
+     *         400 Bad Request if the move would create a cycle, or 404 Not Found if a category is not found.
+     * @throws AccessDeniedException If the user does not have at least EDITOR access to the dashboard.
+     */
+    @PutMapping("/{id}/parent")
+    public ResponseEntity<CategoryDto> moveCategory(@PathVariable Long dashboardId, @PathVariable Long id,
+                                                    @RequestParam(required = false) Long parentId) {
+        LOG.info("Received request to move category with id: {} under parent id: {} for dashboard with id: {}", id, parentId, dashboardId);
+        try {
+            CategoryDto movedCategoryDto = categoryService.moveCategory(dashboardId, id, parentId); // Move the category.
+            LOG.info("Moved category with id: {} for dashboard with id: {}", id, dashboardId);
+            return ResponseEntity.ok(movedCategoryDto); // Return the moved category with an OK status.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error moving category", e); // Log the exception if a category is not found.
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Rejected move of category with id: {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return a Bad Request status for a cyclic move.
+        }
+    }
+
+    /**
+     * Deletes a category together with all of its descendants.
      *
      * @param dashboardId The ID of the dashboard associated with the category.
      * @param id          The ID of the category to delete.
@@ -0,0 +1,37 @@
+package cz.cvut.fel.budgetplannerbackend.controller;
+
+import cz.cvut.fel.budgetplannerbackend.service.implementation.DashboardEventServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller streaming change notifications of a dashboard, replacing polling of its collections.
+ */
+@RestController
+@RequestMapping("/api/v1/dashboards/{dashboardId}/events") // Base URL for the dashboard event stream.
+@RequiredArgsConstructor
+public class DashboardEventController {
+
+    private final DashboardEventServiceImpl dashboardEventService;
+    private static final Logger LOG = LoggerFactory.getLogger(DashboardEventController.class);
+
+    /**
+     * Opens a server-sent event stream of a dashboard.
+     * Every committed change produces a "change" event with the new change token and the changed entity types;
+     * clients then fetch the changes through the delta sync endpoint.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return The event stream.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@PathVariable Long dashboardId) {
+        LOG.info("Received request to stream events for dashboard id: {}", dashboardId);
+        return dashboardEventService.subscribe(dashboardId); // Register the subscriber.
+    }
+}
@@ -1,14 +1,21 @@
 package cz.cvut.fel.budgetplannerbackend.controller;
 
 import cz.cvut.fel.budgetplannerbackend.dto.FinancialGoalDto;
+import cz.cvut.fel.budgetplannerbackend.dto.GoalProjectionDto;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.exceptions.IdempotencyKeyReuseException;
+import cz.cvut.fel.budgetplannerbackend.service.IdempotencyService;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.DashboardServiceImpl;
 import cz.cvut.fel.budgetplannerbackend.service.implementation.FinancialGoalServiceImpl;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.GoalProjectionServiceImpl;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.IdempotencyServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.util.List;
@@ -23,21 +30,34 @@ import java.util.List;
 public class FinancialGoalController {
 
     private final FinancialGoalServiceImpl financialGoalService; // Service for handling financial goal operations.
+    private final DashboardServiceImpl dashboardService;
+    private final GoalProjectionServiceImpl goalProjectionService; // Service for simulating the progress of goals.
+    private final IdempotencyServiceImpl idempotencyService; // Service for replaying retried create requests.
     private static final Logger LOG = LoggerFactory.getLogger(FinancialGoalController.class);
 
     /**
      * Retrieves all financial goals associated with a specific dashboard.
      *
+     * The response carries an ETag derived from the dashboard version; a matching If-None-Match
+     * is answered with 304 Not Modified without loading the financial goals.
+     *
      * @param dashboardId The ID of the dashboard.
-     * @return A ResponseEntity containing a list of FinancialGoalDto objects and an HTTP status of 200 OK.
+     * @param webRequest  The current request, used to evaluate If-None-Match.
+     * @return A ResponseEntity containing a list of FinancialGoalDto objects and an HTTP status of 200 OK,
+     *         or 304 Not Modified if the client's copy is current.
      * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
      */
     @GetMapping
-    public ResponseEntity<List<FinancialGoalDto>> getAllFinancialGoalsByDashboardId(@PathVariable Long dashboardId) {
+    public ResponseEntity<List<FinancialGoalDto>> getAllFinancialGoalsByDashboardId(@PathVariable Long dashboardId, WebRequest webRequest) {
         LOG.info("Received request to get all financial goals for dashboard with id: {}", dashboardId);
+        String eTag = dashboardService.getDashboardETag(dashboardId); // Read the version before the data it describes.
+        if (webRequest.checkNotModified(eTag)) {
+            LOG.info("Financial goals for dashboard with id: {} not modified", dashboardId);
+            return null; // The 304 status and ETag header are already set on the response.
+        }
         List<FinancialGoalDto> financialGoalDtos = financialGoalService.findAllFinancialGoalsByDashboardId(dashboardId); // Retrieve all financial goals.
         LOG.info("Returned all financial goals for dashboard with id: {}", dashboardId);
-        return ResponseEntity.ok(financialGoalDtos); // Return the goals with an OK status.
+        return ResponseEntity.ok().eTag(eTag).body(financialGoalDtos); // Return the financial goals with an OK status and their ETag.
     }
 
     /**
@@ -62,21 +82,69 @@ public class FinancialGoalController {
         }
     }
 
+    /**
+     * Estimates the probability of reaching a financial goal by its deadline, simulated from the
+     * monthly net cash flow of the dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param goalId      The ID of the financial goal.
+     * @return A ResponseEntity containing the GoalProjectionDto and an HTTP status of 200 OK,
+     *         400 Bad Request if the goal has no target amount or deadline, or 404 Not Found if not found.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @GetMapping("/{goalId}/projection")
+    public ResponseEntity<GoalProjectionDto> getFinancialGoalProjection(@PathVariable Long dashboardId, @PathVariable Long goalId) {
+        LOG.info("Received request to project financial goal with id: {} for dashboard with id: {}", goalId, dashboardId);
+        try {
+            GoalProjectionDto projection = goalProjectionService.projectFinancialGoal(dashboardId, goalId); // Simulate the goal.
+            LOG.info("Returned projection of financial goal with id: {} for dashboard with id: {}", goalId, dashboardId);
+            return ResponseEntity.ok(projection); // Return the projection with an OK status.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error projecting financial goal", e); // Log the exception if the goal is not found.
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Cannot project financial goal with id: {}: {}", goalId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for a goal without target or deadline.
+        }
+    }
+
     /**
      * Creates a new financial goal for a dashboard.
      *
+     * With an Idempotency-Key header, a retried request is answered with the stored response of the first one
+     * (marked by the Idempotent-Replayed header) instead of creating the goal again.
+     *
      * @param dashboardId      The ID of the dashboard to associate the financial goal with.
      * @param financialGoalDto The FinancialGoalDto object containing the data for the new financial goal.
-     * @return A ResponseEntity containing the created FinancialGoalDto object and an HTTP status of 201 Created.
+     * @param idempotencyKey   The optional client generated key identifying the request across retries.
+     * @return A ResponseEntity containing the created FinancialGoalDto object and an HTTP status of 201 Created,
+     *         400 Bad Request for an invalid key, or 422 Unprocessable Entity if the key was used for a different request.
      * @throws EntityNotFoundException If the dashboard is not found.
      * @throws AccessDeniedException If the user does not have editor access to the dashboard.
      */
     @PostMapping
-    public ResponseEntity<FinancialGoalDto> createFinancialGoal(@PathVariable Long dashboardId, @RequestBody FinancialGoalDto financialGoalDto) {
+    public ResponseEntity<FinancialGoalDto> createFinancialGoal(@PathVariable Long dashboardId, @RequestBody FinancialGoalDto financialGoalDto,
+                                                                @RequestHeader(value = IdempotencyServiceImpl.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         LOG.info("Received request to create financial goal for dashboard with id: {}", dashboardId);
-        FinancialGoalDto createdFinancialGoalDto = financialGoalService.createFinancialGoal(dashboardId, financialGoalDto); // Create the financial goal.
-        LOG.info("Created financial goal for dashboard with id: {}", dashboardId);
-        return new ResponseEntity<>(createdFinancialGoalDto, HttpStatus.CREATED); // Return the created goal with a Created status.
+        if (idempotencyKey == null) {
+            FinancialGoalDto createdFinancialGoalDto = financialGoalService.createFinancialGoal(dashboardId, financialGoalDto); // Create the financial goal.
+            LOG.info("Created financial goal for dashboard with id: {}", dashboardId);
+            return new ResponseEntity<>(createdFinancialGoalDto, HttpStatus.CREATED); // Return the created goal with a Created status.
+        }
+        try {
+            IdempotencyService.Result<FinancialGoalDto> result = idempotencyService.execute("financial-goals:" + dashboardId,
+                    idempotencyKey, financialGoalDto, FinancialGoalDto.class,
+                    () -> financialGoalService.createFinancialGoal(dashboardId, financialGoalDto));
+            LOG.info("{} financial goal for dashboard with id: {}", result.replayed() ? "Replayed" : "Created", dashboardId);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IdempotencyServiceImpl.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                    .body(result.body());
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid idempotency key for dashboard with id: {}", dashboardId);
+            return ResponseEntity.badRequest().build(); // Return Bad Request for a blank or too long key.
+        } catch (IdempotencyKeyReuseException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build(); // The key belongs to a different request.
+        }
     }
 
     /**
@@ -1,17 +1,34 @@
 package cz.cvut.fel.budgetplannerbackend.controller;
 
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.exceptions.IdempotencyKeyReuseException;
 import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.dto.RecordTotalsDto;
+import cz.cvut.fel.budgetplannerbackend.dto.cashflow.CashFlowSeriesDto;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ETimeBucket;
+import cz.cvut.fel.budgetplannerbackend.dto.search.RecordSearchPageDto;
+import cz.cvut.fel.budgetplannerbackend.service.IdempotencyService;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.AnomalyDetectionServiceImpl;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.CashFlowServiceImpl;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.DashboardServiceImpl;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.DuplicateDetectionServiceImpl;
 import cz.cvut.fel.budgetplannerbackend.service.implementation.FinancialRecordServiceImpl;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.IdempotencyServiceImpl;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.RecordSearchServiceImpl;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.TagServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * REST controller for managing financial records within a dashboard.
@@ -23,21 +40,168 @@ import java.util.List;
 public class FinancialRecordController {
 
     private final FinancialRecordServiceImpl financialRecordService; // Service for handling financial record operations.
+    private final DashboardServiceImpl dashboardService;
+    private final IdempotencyServiceImpl idempotencyService; // Service for replaying retried create requests.
+    private final RecordSearchServiceImpl recordSearchService; // Service for full-text search over descriptions.
+    private final TagServiceImpl tagService; // Service for filtering records by tags.
+    private final CashFlowServiceImpl cashFlowService; // Service for cash-flow time series.
+    private final AnomalyDetectionServiceImpl anomalyDetectionService; // Service for scoring anomalous expenses.
+    private final DuplicateDetectionServiceImpl duplicateDetectionService; // Service for flagging duplicate records.
     private static final Logger LOG = LoggerFactory.getLogger(FinancialRecordController.class);
 
     /**
      * Retrieves a list of all financial records associated with a specific dashboard.
      *
+     * The response carries an ETag derived from the dashboard version; a matching If-None-Match
+     * is answered with 304 Not Modified without loading the financial records.
+     *
      * @param dashboardId The ID of the dashboard.
-     * @return A ResponseEntity containing a list of FinancialRecordDto objects and an HTTP status of 200 OK.
+     * @param webRequest  The current request, used to evaluate If-None-Match.
+     * @return A ResponseEntity containing a list of FinancialRecordDto objects and an HTTP status of 200 OK,
+     *         or 304 Not Modified if the client's copy is current.
      * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
      */
     @GetMapping
-    public ResponseEntity<List<FinancialRecordDto>> getAllFinancialRecordsByDashboardId(@PathVariable Long dashboardId) {
+    public ResponseEntity<List<FinancialRecordDto>> getAllFinancialRecordsByDashboardId(@PathVariable Long dashboardId, WebRequest webRequest) {
         LOG.info("Received request to list all financial records for dashboard id: {}", dashboardId);
+        String eTag = dashboardService.getDashboardETag(dashboardId); // Read the version before the data it describes.
+        if (webRequest.checkNotModified(eTag)) {
+            LOG.info("Financial records for dashboard with id: {} not modified", dashboardId);
+            return null; // The 304 status and ETag header are already set on the response.
+        }
         List<FinancialRecordDto> records = financialRecordService.findAllFinancialRecordsByDashboardId(dashboardId); // Retrieve the financial records.
         LOG.info("Returned all financial records for dashboard id: {}", dashboardId);
-        return ResponseEntity.ok(records); // Return the records with an OK status.
+        return ResponseEntity.ok().eTag(eTag).body(records); // Return the financial records with an OK status and their ETag.
+    }
+
+    /**
+     * Searches the financial records of a dashboard by description, best matching records first.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param query       The search text; every word has to match the beginning of a word of the description.
+     * @param cursor      The cursor returned with the previous page, omitted for the first page.
+     * @param limit       The maximum number of records per page.
+     * @return A ResponseEntity containing the page of matching records and an HTTP status of 200 OK,
+     *         or 400 Bad Request for an empty query, an invalid cursor or limit.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<RecordSearchPageDto> searchFinancialRecords(@PathVariable Long dashboardId, @RequestParam("q") String query,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "" + RecordSearchServiceImpl.DEFAULT_LIMIT) int limit) {
+        LOG.info("Received request to search financial records for dashboard id: {}", dashboardId);
+        try {
+            RecordSearchPageDto page = recordSearchService.searchFinancialRecords(dashboardId, query, cursor, limit); // Search the descriptions.
+            return ResponseEntity.ok(page); // Return the page with an OK status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid search request for dashboard id: {}: {}", dashboardId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for an invalid query, cursor or limit.
+        }
+    }
+
+    /**
+     * Filters the financial records of a dashboard by a combination of tags, newest records first.
+     * The conditions are combined: a record must have all tags of {@code all}, at least one of {@code any}
+     * and none of {@code none}.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param all         The tags a record must all have (AND).
+     * @param any         The tags a record must have at least one of (OR).
+     * @param none        The tags a record must not have (NOT).
+     * @return A ResponseEntity containing the matching FinancialRecordDto objects and an HTTP status of 200 OK,
+     *         or 400 Bad Request if no tag or an invalid tag name is given.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping("/by-tags")
+    public ResponseEntity<List<FinancialRecordDto>> getFinancialRecordsByTags(@PathVariable Long dashboardId,
+                                                                              @RequestParam(required = false) Set<String> all,
+                                                                              @RequestParam(required = false) Set<String> any,
+                                                                              @RequestParam(required = false) Set<String> none) {
+        LOG.info("Received request to filter financial records by tags for dashboard id: {}", dashboardId);
+        try {
+            List<FinancialRecordDto> records = tagService.filterFinancialRecordsByTags(dashboardId, all, any, none); // Filter by the tag bitmaps.
+            return ResponseEntity.ok(records); // Return the matching records with an OK status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid tag filter for dashboard id: {}: {}", dashboardId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for a missing or invalid tag.
+        }
+    }
+
+    /**
+     * Retrieves the financial records of a dashboard dated within a range, newest first.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param from        The start of the range (inclusive), as an ISO date-time.
+     * @param to          The end of the range (exclusive), as an ISO date-time.
+     * @return A ResponseEntity containing the FinancialRecordDto objects of the range and an HTTP status of 200 OK,
+     *         or 400 Bad Request if the range is empty.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping("/range")
+    public ResponseEntity<List<FinancialRecordDto>> getFinancialRecordsByDateRange(@PathVariable Long dashboardId,
+                                                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LOG.info("Received request to list financial records from {} to {} for dashboard id: {}", from, to, dashboardId);
+        try {
+            List<FinancialRecordDto> records = financialRecordService.findFinancialRecordsByDashboardIdAndDateRange(dashboardId, from, to);
+            return ResponseEntity.ok(records); // Return the records of the range with an OK status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid date range for dashboard id: {}: {}", dashboardId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for an empty range.
+        }
+    }
+
+    /**
+     * Sums the income and expenses of a dashboard dated within a range.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param from        The start of the range (inclusive), as an ISO date-time.
+     * @param to          The end of the range (exclusive), as an ISO date-time.
+     * @return A ResponseEntity containing the totals of the range and an HTTP status of 200 OK,
+     *         or 400 Bad Request if the range is empty.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping("/range/totals")
+    public ResponseEntity<RecordTotalsDto> getFinancialRecordTotalsByDateRange(@PathVariable Long dashboardId,
+                                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LOG.info("Received request to sum financial records from {} to {} for dashboard id: {}", from, to, dashboardId);
+        try {
+            RecordTotalsDto totals = financialRecordService.sumFinancialRecordsByDashboardIdAndDateRange(dashboardId, from, to);
+            return ResponseEntity.ok(totals); // Return the totals with an OK status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid date range for dashboard id: {}: {}", dashboardId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for an empty range.
+        }
+    }
+
+    /**
+     * Retrieves the income and expenses of a dashboard per day, week or month, for charts.
+     * The range is extended to whole buckets; buckets without records are included with zero totals.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param from        The start of the range (inclusive), as an ISO date-time.
+     * @param to          The end of the range (exclusive), as an ISO date-time.
+     * @param bucket      The size of the buckets: DAY, WEEK or MONTH.
+     * @param points      The maximum number of points; longer series are downsampled. Defaults to the configured count.
+     * @return A ResponseEntity containing the time series and an HTTP status of 200 OK,
+     *         or 400 Bad Request if the range is empty or too long, or too few points are requested.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping("/cash-flow")
+    public ResponseEntity<CashFlowSeriesDto> getCashFlowSeries(@PathVariable Long dashboardId,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                               @RequestParam(defaultValue = "MONTH") ETimeBucket bucket,
+                                                               @RequestParam(required = false) Integer points) {
+        LOG.info("Received request for the cash flow per {} from {} to {} for dashboard id: {}", bucket, from, to, dashboardId);
+        try {
+            CashFlowSeriesDto series = cashFlowService.findCashFlowSeries(dashboardId, from, to, bucket, points);
+            return ResponseEntity.ok(series); // Return the time series with an OK status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid cash flow request for dashboard id: {}: {}", dashboardId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for an invalid range or point count.
+        }
     }
 
     /**
@@ -60,18 +224,45 @@ public class FinancialRecordController {
     /**
      * Creates a new financial record within a dashboard.
      *
+     * With an Idempotency-Key header, a retried request is answered with the stored response of the first one
+     * (marked by the Idempotent-Replayed header) instead of creating the record again.
+     *
      * @param dashboardId          The ID of the dashboard.
      * @param financialRecordDto The FinancialRecordDto object containing the data for the new financial record.
-     * @return A ResponseEntity containing the created FinancialRecordDto and an HTTP status of 201 Created.
+     * @param idempotencyKey     The optional client generated key identifying the request across retries.
+     * @return A ResponseEntity containing the created FinancialRecordDto and an HTTP status of 201 Created,
+     *         400 Bad Request for an invalid key or invalid tags, or 422 Unprocessable Entity if the key was used for a different request.
      * @throws EntityNotFoundException If the dashboard or category (if provided) is not found.
      * @throws AccessDeniedException If the user does not have at least EDITOR access to the dashboard.
      */
     @PostMapping
-    public ResponseEntity<FinancialRecordDto> createFinancialRecord(@PathVariable Long dashboardId, @RequestBody FinancialRecordDto financialRecordDto) {
+    public ResponseEntity<FinancialRecordDto> createFinancialRecord(@PathVariable Long dashboardId, @RequestBody FinancialRecordDto financialRecordDto,
+                                                                    @RequestHeader(value = IdempotencyServiceImpl.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         LOG.info("Received request to create a new financial record for dashboard id: {}", dashboardId);
-        FinancialRecordDto createdRecord = financialRecordService.createFinancialRecord(dashboardId, financialRecordDto); // Create the financial record.
-        LOG.info("Created new financial record with id: {} for dashboard id: {}", createdRecord.id(), dashboardId);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdRecord); // Return the created record with a Created status.
+        if (idempotencyKey == null) {
+            try {
+                FinancialRecordDto createdRecord = financialRecordService.createFinancialRecord(dashboardId, financialRecordDto); // Create the financial record.
+                LOG.info("Created new financial record with id: {} for dashboard id: {}", createdRecord.id(), dashboardId);
+                return ResponseEntity.status(HttpStatus.CREATED).body(createdRecord); // Return the created record with a Created status.
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Invalid financial record for dashboard id: {}: {}", dashboardId, e.getMessage());
+                return ResponseEntity.badRequest().build(); // Return Bad Request for invalid tags.
+            }
+        }
+        try {
+            IdempotencyService.Result<FinancialRecordDto> result = idempotencyService.execute("financial-records:" + dashboardId,
+                    idempotencyKey, financialRecordDto, FinancialRecordDto.class,
+                    () -> financialRecordService.createFinancialRecord(dashboardId, financialRecordDto));
+            LOG.info("{} financial record with id: {} for dashboard id: {}", result.replayed() ? "Replayed" : "Created", result.body().id(), dashboardId);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IdempotencyServiceImpl.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                    .body(result.body());
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid request for dashboard id: {}: {}", dashboardId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for an invalid key or invalid tags.
+        } catch (IdempotencyKeyReuseException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build(); // The key belongs to a different request.
+        }
     }
 
     /**
@@ -80,16 +271,70 @@ public class FinancialRecordController {
      * @param dashboardId          The ID of the dashboard.
      * @param id                   The ID of the financial record to update.
      * @param financialRecordDto The FinancialRecordDto object containing the updated data for the financial record.
-     * @return A ResponseEntity containing the updated FinancialRecordDto and an HTTP status of 200 OK.
+     * @return A ResponseEntity containing the updated FinancialRecordDto and an HTTP status of 200 OK,
+     *         or 400 Bad Request for invalid tags.
      * @throws EntityNotFoundException If the financial record is not found.
      * @throws AccessDeniedException If the user does not have at least EDITOR access to the dashboard.
      */
     @PutMapping("/{id}")
     public ResponseEntity<FinancialRecordDto> updateFinancialRecord(@PathVariable Long dashboardId, @PathVariable Long id, @RequestBody FinancialRecordDto financialRecordDto) {
         LOG.info("Received request to update financial record with id: {} for dashboard id: {}", id, dashboardId);
-        FinancialRecordDto updatedRecord = financialRecordService.updateFinancialRecord(id, dashboardId, financialRecordDto); // Update the financial record.
-        LOG.info("Updated financial record with id: {} for dashboard id: {}", id, dashboardId);
-        return ResponseEntity.ok(updatedRecord); // Return the updated record with an OK status.
+        try {
+            FinancialRecordDto updatedRecord = financialRecordService.updateFinancialRecord(id, dashboardId, financialRecordDto); // Update the financial record.
+            LOG.info("Updated financial record with id: {} for dashboard id: {}", id, dashboardId);
+            return ResponseEntity.ok(updatedRecord); // Return the updated record with an OK status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid financial record with id: {} for dashboard id: {}: {}", id, dashboardId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for invalid tags.
+        }
+    }
+
+    /**
+     * Recomputes the anomaly statistics of the categories of a dashboard from all its expenses,
+     * and rescores every expense against the statistics of its category just before it.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A ResponseEntity with an HTTP status of 204 No Content.
+     * @throws AccessDeniedException If the user does not have at least EDITOR access to the dashboard.
+     */
+    @PostMapping("/anomalies/recompute")
+    public ResponseEntity<Void> recomputeAnomalyScores(@PathVariable Long dashboardId) {
+        LOG.info("Received request to recompute anomaly scores for dashboard id: {}", dashboardId);
+        int rescored = anomalyDetectionService.recomputeAnomalyScores(dashboardId); // Replay the expenses of the dashboard.
+        LOG.info("Rescored {} financial records for dashboard id: {}", rescored, dashboardId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Retrieves the financial records of a dashboard flagged as duplicates of another record, newest first.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A ResponseEntity containing the flagged records, each with the ID of the record it duplicates,
+     *         and an HTTP status of 200 OK.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping("/duplicates")
+    public ResponseEntity<List<FinancialRecordDto>> getDuplicateFinancialRecords(@PathVariable Long dashboardId) {
+        LOG.info("Received request to list duplicate financial records for dashboard id: {}", dashboardId);
+        List<FinancialRecordDto> records = duplicateDetectionService.findDuplicates(dashboardId); // Retrieve the flagged records.
+        LOG.info("Returned {} duplicate financial records for dashboard id: {}", records.size(), dashboardId);
+        return ResponseEntity.ok(records); // Return the flagged records with an OK status.
+    }
+
+    /**
+     * Scans all financial records of a dashboard for duplicates, flagging every record that duplicates
+     * an earlier one and clearing the flags that no longer apply.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A ResponseEntity with an HTTP status of 204 No Content.
+     * @throws AccessDeniedException If the user does not have at least EDITOR access to the dashboard.
+     */
+    @PostMapping("/duplicates/scan")
+    public ResponseEntity<Void> scanDuplicateFinancialRecords(@PathVariable Long dashboardId) {
+        LOG.info("Received request to scan for duplicate financial records in dashboard id: {}", dashboardId);
+        int updated = duplicateDetectionService.scanDuplicates(dashboardId); // Replay the records of the dashboard.
+        LOG.info("Updated {} financial records for dashboard id: {}", updated, dashboardId);
+        return ResponseEntity.noContent().build();
     }
 
     /**
@@ -0,0 +1,136 @@
+package cz.cvut.fel.budgetplannerbackend.controller;
+
+import cz.cvut.fel.budgetplannerbackend.dto.RecurringTransactionDto;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.RecurringTransactionServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for managing the recurring transactions of a dashboard, templates of records
+ * (rent, salaries, subscriptions) that are created automatically on a schedule.
+ */
+@RestController
+@RequestMapping("/api/v1/dashboards/{dashboardId}/recurring-transactions") // Base URL for all recurring transaction endpoints.
+@RequiredArgsConstructor
+public class RecurringTransactionController {
+
+    private final RecurringTransactionServiceImpl recurringTransactionService; // Service for handling recurring transaction operations.
+    private static final Logger LOG = LoggerFactory.getLogger(RecurringTransactionController.class);
+
+    /**
+     * Retrieves all recurring transactions of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A ResponseEntity containing a list of RecurringTransactionDto objects and an HTTP status of 200 OK.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @GetMapping
+    public ResponseEntity<List<RecurringTransactionDto>> getAllRecurringTransactions(@PathVariable Long dashboardId) {
+        LOG.info("Received request to get all recurring transactions for dashboard with id: {}", dashboardId);
+        List<RecurringTransactionDto> recurringTransactions = recurringTransactionService.findAllRecurringTransactionsByDashboardId(dashboardId);
+        LOG.info("Returned {} recurring transactions for dashboard with id: {}", recurringTransactions.size(), dashboardId);
+        return ResponseEntity.ok(recurringTransactions); // Return the recurring transactions with an OK status.
+    }
+
+    /**
+     * Retrieves a specific recurring transaction.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the recurring transaction.
+     * @return A ResponseEntity containing the RecurringTransactionDto and an HTTP status of 200 OK if found,
+     *         or 404 Not Found if not found.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<RecurringTransactionDto> getRecurringTransaction(@PathVariable Long dashboardId, @PathVariable Long id) {
+        LOG.info("Received request to get recurring transaction with id: {} for dashboard with id: {}", id, dashboardId);
+        try {
+            return ResponseEntity.ok(recurringTransactionService.findRecurringTransactionByIdAndDashboardId(id, dashboardId));
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error getting recurring transaction", e);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+
+    /**
+     * Creates a recurring transaction.
+     *
+     * @param dashboardId             The ID of the dashboard.
+     * @param recurringTransactionDto The RecurringTransactionDto with the data of the new recurring transaction.
+     * @return A ResponseEntity containing the created RecurringTransactionDto and an HTTP status of 201 Created,
+     *         400 Bad Request if the schedule is invalid, or 404 Not Found if the dashboard or category is not found.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @PostMapping
+    public ResponseEntity<RecurringTransactionDto> createRecurringTransaction(@PathVariable Long dashboardId,
+                                                                              @RequestBody RecurringTransactionDto recurringTransactionDto) {
+        LOG.info("Received request to create recurring transaction for dashboard with id: {}", dashboardId);
+        try {
+            RecurringTransactionDto created = recurringTransactionService.createRecurringTransaction(dashboardId, recurringTransactionDto);
+            LOG.info("Created recurring transaction with id: {} for dashboard with id: {}", created.id(), dashboardId);
+            return new ResponseEntity<>(created, HttpStatus.CREATED); // Return the created recurring transaction with a Created status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid recurring transaction for dashboard with id: {}: {}", dashboardId, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for an invalid schedule.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error creating recurring transaction", e);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+
+    /**
+     * Updates a recurring transaction; fields left null keep their value.
+     *
+     * @param dashboardId             The ID of the dashboard.
+     * @param id                      The ID of the recurring transaction.
+     * @param recurringTransactionDto The RecurringTransactionDto with the changed fields.
+     * @return A ResponseEntity containing the updated RecurringTransactionDto and an HTTP status of 200 OK,
+     *         400 Bad Request if the schedule is invalid, or 404 Not Found if the recurring transaction or category is not found.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<RecurringTransactionDto> updateRecurringTransaction(@PathVariable Long dashboardId, @PathVariable Long id,
+                                                                              @RequestBody RecurringTransactionDto recurringTransactionDto) {
+        LOG.info("Received request to update recurring transaction with id: {} for dashboard with id: {}", id, dashboardId);
+        try {
+            RecurringTransactionDto updated = recurringTransactionService.updateRecurringTransaction(dashboardId, id, recurringTransactionDto);
+            LOG.info("Updated recurring transaction with id: {} for dashboard with id: {}", id, dashboardId);
+            return ResponseEntity.ok(updated); // Return the updated recurring transaction with an OK status.
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid recurring transaction update for id: {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Return Bad Request for an invalid schedule.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error updating recurring transaction", e);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+
+    /**
+     * Deletes a recurring transaction; the records already created from it are kept.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the recurring transaction.
+     * @return A ResponseEntity with an HTTP status of 204 No Content if successful, or 404 Not Found if not found.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRecurringTransaction(@PathVariable Long dashboardId, @PathVariable Long id) {
+        LOG.info("Received request to delete recurring transaction with id: {} for dashboard with id: {}", id, dashboardId);
+        try {
+            recurringTransactionService.deleteRecurringTransaction(dashboardId, id);
+            LOG.info("Deleted recurring transaction with id: {} for dashboard with id: {}", id, dashboardId);
+            return ResponseEntity.noContent().build(); // Return a No Content status to indicate successful deletion.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error deleting recurring transaction", e);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+}
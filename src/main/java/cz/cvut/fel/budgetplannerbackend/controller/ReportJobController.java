@@ -0,0 +1,124 @@
+package cz.cvut.fel.budgetplannerbackend.controller;
+
+import cz.cvut.fel.budgetplannerbackend.dto.ReportJobDto;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EReportType;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.service.ReportJobService.ReportFile;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.ReportJobServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * REST controller for generating reports of a dashboard.
+ * Reports are generated in the background; their status is polled by ID and the finished file downloaded.
+ */
+@RestController
+@RequestMapping("/api/v1/dashboards/{dashboardId}/reports") // Base URL for all report endpoints.
+@RequiredArgsConstructor
+public class ReportJobController {
+
+    private final ReportJobServiceImpl reportJobService; // Service for handling report jobs.
+    private static final Logger LOG = LoggerFactory.getLogger(ReportJobController.class);
+
+    /**
+     * Requests a report of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param type        The type of the report.
+     * @param year        The year of a yearly category report.
+     * @return A ResponseEntity containing the queued ReportJobDto and an HTTP status of 202 Accepted,
+     *         400 Bad Request if the year is missing or invalid, 429 Too Many Requests if the user has too many
+     *         unfinished reports, or 503 Service Unavailable if too many reports are waiting.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @PostMapping
+    public ResponseEntity<ReportJobDto> startReport(@PathVariable Long dashboardId, @RequestParam EReportType type,
+                                                    @RequestParam(required = false) Integer year) {
+        LOG.info("Received request to generate {} report for year {} for dashboard with id: {}", type, year, dashboardId);
+        try {
+            ReportJobDto reportJob = reportJobService.startReport(dashboardId, type, year);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJob); // Return the queued job with an Accepted status.
+        } catch (IllegalArgumentException e) {
+            LOG.error("Error requesting report", e);
+            return ResponseEntity.badRequest().build(); // Return a Bad Request status.
+        } catch (IllegalStateException e) {
+            LOG.error("Error requesting report", e);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build(); // Return a Too Many Requests status.
+        } catch (RejectedExecutionException e) {
+            LOG.error("Error requesting report", e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build(); // Return a Service Unavailable status.
+        }
+    }
+
+    /**
+     * Retrieves the latest report jobs of the current user in a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A ResponseEntity containing a list of ReportJobDto objects, newest first, and an HTTP status of 200 OK.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @GetMapping
+    public ResponseEntity<List<ReportJobDto>> getReports(@PathVariable Long dashboardId) {
+        LOG.info("Received request to get reports for dashboard with id: {}", dashboardId);
+        return ResponseEntity.ok(reportJobService.findReportJobs(dashboardId)); // Return the jobs with an OK status.
+    }
+
+    /**
+     * Retrieves the status of a report job.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the job.
+     * @return A ResponseEntity containing the ReportJobDto and an HTTP status of 200 OK if found,
+     *         or 404 Not Found if not found.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJobDto> getReport(@PathVariable Long dashboardId, @PathVariable Long id) {
+        LOG.info("Received request to get report with id: {} for dashboard with id: {}", id, dashboardId);
+        try {
+            return ResponseEntity.ok(reportJobService.findReportJob(dashboardId, id)); // Return the job with an OK status.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error getting report", e);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+
+    /**
+     * Downloads the file of a completed report. Range requests are answered with the requested parts
+     * (206 Partial Content), so interrupted downloads can be resumed.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the job.
+     * @return A ResponseEntity containing the CSV file and an HTTP status of 200 OK if completed,
+     *         or 404 Not Found if not found, not completed or expired.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> getReportFile(@PathVariable Long dashboardId, @PathVariable Long id) {
+        LOG.info("Received request to download report with id: {} for dashboard with id: {}", id, dashboardId);
+        try {
+            ReportFile reportFile = reportJobService.findReportFile(dashboardId, id);
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(reportFile.fileName()).build().toString())
+                    .body(new FileSystemResource(reportFile.path())); // Return the file with an OK status.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error downloading report", e);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+}
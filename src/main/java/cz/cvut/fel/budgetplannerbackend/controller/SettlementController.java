@@ -0,0 +1,39 @@
+package cz.cvut.fel.budgetplannerbackend.controller;
+
+import cz.cvut.fel.budgetplannerbackend.dto.settlement.SettlementDto;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.SettlementServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for settling up the expenses shared by the members of a dashboard.
+ */
+@RestController
+@RequestMapping("/api/v1/dashboards/{dashboardId}/settlement") // Base URL for the settlement endpoints.
+@RequiredArgsConstructor
+public class SettlementController {
+
+    private final SettlementServiceImpl settlementService; // Service for member balances and transfers.
+    private static final Logger LOG = LoggerFactory.getLogger(SettlementController.class);
+
+    /**
+     * Retrieves what every member paid, their share of the expenses, and the transfers that settle the difference.
+     *
+     * @param dashboardId  The ID of the dashboard.
+     * @param roleWeighted True to share the expenses in proportion to the members' role weights instead of equally.
+     * @return A ResponseEntity containing the settlement and an HTTP status of 200 OK.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping
+    public ResponseEntity<SettlementDto> getSettlement(@PathVariable Long dashboardId,
+                                                       @RequestParam(defaultValue = "false") boolean roleWeighted) {
+        LOG.info("Received request for the settlement of dashboard id: {}", dashboardId);
+        SettlementDto settlement = settlementService.findSettlement(dashboardId, roleWeighted); // Compute balances and transfers.
+        LOG.info("Returned {} transfers settling dashboard id: {}", settlement.transfers().size(), dashboardId);
+        return ResponseEntity.ok(settlement); // Return the settlement with an OK status.
+    }
+}
@@ -0,0 +1,106 @@
+package cz.cvut.fel.budgetplannerbackend.controller;
+
+import cz.cvut.fel.budgetplannerbackend.dto.StatementImportDto;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.StatementImportServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * REST controller for importing bank statements into the records of a dashboard.
+ * Imports run in the background; their progress is polled by ID.
+ */
+@RestController
+@RequestMapping("/api/v1/dashboards/{dashboardId}/statement-imports") // Base URL for all statement import endpoints.
+@RequiredArgsConstructor
+public class StatementImportController {
+
+    private final StatementImportServiceImpl statementImportService; // Service for handling statement imports.
+    private static final Logger LOG = LoggerFactory.getLogger(StatementImportController.class);
+
+    /**
+     * Starts importing a statement file.
+     *
+     * @param dashboardId    The ID of the dashboard.
+     * @param file           The statement file.
+     * @param profile        The name of the bank profile describing the statement.
+     * @param skipDuplicates True to skip records duplicating existing ones, false to import and flag them.
+     * @return A ResponseEntity containing the queued StatementImportDto and an HTTP status of 202 Accepted,
+     *         400 Bad Request if the profile is unknown or the file is empty,
+     *         or 503 Service Unavailable if too many imports are waiting.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @PostMapping
+    public ResponseEntity<StatementImportDto> startImport(@PathVariable Long dashboardId, @RequestParam MultipartFile file,
+                                                          @RequestParam String profile,
+                                                          @RequestParam(defaultValue = "false") boolean skipDuplicates) {
+        LOG.info("Received request to import statement {} with profile {} for dashboard with id: {}", file.getOriginalFilename(), profile, dashboardId);
+        try (InputStream content = file.getInputStream()) {
+            StatementImportDto statementImport = statementImportService.startImport(dashboardId, profile, file.getOriginalFilename(), content, skipDuplicates);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(statementImport); // Return the queued import with an Accepted status.
+        } catch (IllegalArgumentException e) {
+            LOG.error("Error importing statement", e);
+            return ResponseEntity.badRequest().build(); // Return a Bad Request status.
+        } catch (IllegalStateException e) {
+            LOG.error("Error importing statement", e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build(); // Return a Service Unavailable status.
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Retrieves the latest statement imports of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A ResponseEntity containing a list of StatementImportDto objects, newest first, and an HTTP status of 200 OK.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @GetMapping
+    public ResponseEntity<List<StatementImportDto>> getImports(@PathVariable Long dashboardId) {
+        LOG.info("Received request to get statement imports for dashboard with id: {}", dashboardId);
+        return ResponseEntity.ok(statementImportService.findImports(dashboardId)); // Return the imports with an OK status.
+    }
+
+    /**
+     * Retrieves the status and progress of a statement import.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the import.
+     * @return A ResponseEntity containing the StatementImportDto and an HTTP status of 200 OK if found,
+     *         or 404 Not Found if not found.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<StatementImportDto> getImport(@PathVariable Long dashboardId, @PathVariable Long id) {
+        LOG.info("Received request to get statement import with id: {} for dashboard with id: {}", id, dashboardId);
+        try {
+            return ResponseEntity.ok(statementImportService.findImport(dashboardId, id)); // Return the import with an OK status.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error getting statement import", e);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+
+    /**
+     * Retrieves the names of the bank profiles statements can be imported with.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A ResponseEntity containing the profile names and an HTTP status of 200 OK.
+     */
+    @GetMapping("/profiles")
+    public ResponseEntity<List<String>> getProfiles(@PathVariable Long dashboardId) {
+        return ResponseEntity.ok(statementImportService.findProfiles()); // Return the profiles with an OK status.
+    }
+}
@@ -0,0 +1,46 @@
+package cz.cvut.fel.budgetplannerbackend.controller;
+
+import cz.cvut.fel.budgetplannerbackend.dto.DashboardChangesDto;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.SyncServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for delta synchronization of dashboard content by offline and mobile clients.
+ */
+@RestController
+@RequestMapping("/api/v1/dashboards/{dashboardId}/changes") // Base URL for the sync endpoint.
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncServiceImpl syncService;
+    private static final Logger LOG = LoggerFactory.getLogger(SyncController.class);
+
+    /**
+     * Retrieves the financial records, categories, budgets and financial goals changed after a change token,
+     * together with tombstones of deleted entities.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param since       The token returned by the previous sync; omit it to get a full snapshot.
+     * @return A ResponseEntity containing the changes and the next token and an HTTP status of 200 OK,
+     *         or 404 Not Found if the dashboard does not exist.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping
+    public ResponseEntity<DashboardChangesDto> getChanges(@PathVariable Long dashboardId, @RequestParam(required = false) Long since) {
+        LOG.info("Received request to get changes for dashboard id: {} since token: {}", dashboardId, since);
+        try {
+            DashboardChangesDto changes = syncService.findChangesSince(dashboardId, since); // Retrieve the changes.
+            LOG.info("Returned changes for dashboard id: {} up to token: {}", dashboardId, changes.token());
+            return ResponseEntity.ok(changes); // Return the changes with an OK status.
+        } catch (EntityNotFoundException e) {
+            LOG.error("Error getting changes", e); // Log the exception if the dashboard is not found.
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package cz.cvut.fel.budgetplannerbackend.controller;
+
+import cz.cvut.fel.budgetplannerbackend.dto.TagDto;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.service.implementation.TagServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for the tag dictionary of a dashboard.
+ * Tags are created implicitly when they are assigned to financial records.
+ */
+@RestController
+@RequestMapping("/api/v1/dashboards/{dashboardId}/tags") // Base URL for all tag endpoints.
+@RequiredArgsConstructor
+public class TagController {
+
+    private final TagServiceImpl tagService;
+    private static final Logger LOG = LoggerFactory.getLogger(TagController.class);
+
+    /**
+     * Retrieves all tags of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A ResponseEntity containing a list of TagDto objects ordered by name and an HTTP status of 200 OK.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @GetMapping
+    public ResponseEntity<List<TagDto>> getAllTagsByDashboardId(@PathVariable Long dashboardId) {
+        LOG.info("Received request to list all tags for dashboard id: {}", dashboardId);
+        List<TagDto> tags = tagService.findAllTagsByDashboardId(dashboardId); // Retrieve the tags.
+        return ResponseEntity.ok(tags); // Return the tags with an OK status.
+    }
+
+    /**
+     * Deletes a tag and removes it from all financial records.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the tag to delete.
+     * @return A ResponseEntity with an HTTP status of 204 No Content if successful,
+     *         or 404 Not Found if the tag is not found.
+     * @throws AccessDeniedException If the user does not have at least EDITOR access to the dashboard.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTag(@PathVariable Long dashboardId, @PathVariable Long id) {
+        LOG.info("Received request to delete tag with id: {} for dashboard id: {}", id, dashboardId);
+        try {
+            tagService.deleteTag(dashboardId, id); // Delete the tag.
+            LOG.info("Deleted tag with id: {} for dashboard id: {}", id, dashboardId);
+            return ResponseEntity.noContent().build(); // Return a No Content status to indicate successful deletion.
+        } catch (EntityNotFoundException e) {
+            LOG.warn("Tag with id: {} not found for dashboard id: {}", id, dashboardId);
+            return ResponseEntity.notFound().build(); // Return a Not Found status.
+        }
+    }
+}
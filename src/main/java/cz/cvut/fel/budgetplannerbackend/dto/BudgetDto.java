@@ -8,6 +8,7 @@ public record BudgetDto(
         String title,
         Double totalAmount,
         LocalDate startDate,
-        LocalDate endDate
+        LocalDate endDate,
+        Long categoryId
 ) {
 }
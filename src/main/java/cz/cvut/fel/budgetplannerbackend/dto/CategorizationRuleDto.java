@@ -0,0 +1,19 @@
+package cz.cvut.fel.budgetplannerbackend.dto;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECategorizationMatchType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+
+import java.math.BigDecimal;
+
+public record CategorizationRuleDto(
+        Long id,
+        Long dashboardId,
+        Long categoryId,
+        ECategorizationMatchType matchType, // CONTAINS by default.
+        String pattern, // Null to match any description.
+        ERecordType recordType, // Null to match both income and expenses.
+        BigDecimal minAmount,
+        BigDecimal maxAmount,
+        Integer priority // Lower priorities are tried first; 0 by default.
+) {
+}
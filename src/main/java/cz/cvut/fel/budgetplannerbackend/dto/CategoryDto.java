@@ -4,6 +4,7 @@ public record CategoryDto(
         Long id,
         String name,
         String description,
-        DashboardDto dashboard
+        DashboardDto dashboard,
+        Long parentId // Can be null; set on creation and changed by moving the category
 ) {
 }
@@ -0,0 +1,11 @@
+package cz.cvut.fel.budgetplannerbackend.dto;
+
+import java.math.BigDecimal;
+
+public record CategoryRollupDto(
+        Long categoryId,
+        Long parentId, // Null for top-level categories
+        BigDecimal totalIncome, // Including all descendant categories
+        BigDecimal totalExpense // Including all descendant categories
+) {
+}
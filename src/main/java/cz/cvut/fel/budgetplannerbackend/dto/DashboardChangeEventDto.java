@@ -0,0 +1,13 @@
+package cz.cvut.fel.budgetplannerbackend.dto;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+
+import java.util.Set;
+
+public record DashboardChangeEventDto(
+        Long dashboardId,
+        Long token, // Null if only the members changed
+        Set<ESyncEntityType> entities,
+        boolean members
+) {
+}
@@ -0,0 +1,25 @@
+package cz.cvut.fel.budgetplannerbackend.dto;
+
+import java.util.List;
+
+/**
+ * Entities of a dashboard changed after a client's change token.
+ *
+ * @param token            Token to send as {@code since} on the next sync.
+ * @param fullSync         Whether the response is a full snapshot the client should replace its copy with.
+ * @param financialRecords Inserted or updated financial records.
+ * @param categories       Inserted or updated categories.
+ * @param budgets          Inserted or updated budgets.
+ * @param financialGoals   Inserted or updated financial goals.
+ * @param deleted          Entities deleted since the token; empty for a full snapshot.
+ */
+public record DashboardChangesDto(
+        Long token,
+        boolean fullSync,
+        List<FinancialRecordDto> financialRecords,
+        List<CategoryDto> categories,
+        List<BudgetDto> budgets,
+        List<FinancialGoalDto> financialGoals,
+        List<SyncTombstoneDto> deleted
+) {
+}
@@ -14,6 +14,10 @@ public record FinancialRecordDto(
         CategoryDto category, // Can be null
         ERecordType type,
         LocalDateTime date,
-        String description // Can be null
+        String description, // Can be null
+        Set<String> tags, // Can be null; on update, null keeps the current tags
+        Double anomalyScore, // Read-only; null if the record was not scored
+        boolean anomalous, // Read-only
+        Long duplicateOfId // Read-only; the earlier record this one is suspected to duplicate, or null
 ) {
 }
@@ -0,0 +1,25 @@
+package cz.cvut.fel.budgetplannerbackend.dto;
+
+/**
+ * Monte Carlo projection of a financial goal from the historical monthly net cash flow of its dashboard.
+ *
+ * @param goalId        The ID of the goal.
+ * @param probability   The estimated probability of reaching the target amount by the deadline, between 0 and 1.
+ * @param months        The number of whole months until the deadline.
+ * @param historyMonths The number of past months the net cash flows were drawn from; 0 if there are no records.
+ * @param paths         The number of simulated paths.
+ * @param p10Amount     The amount at the deadline exceeded by 90% of the paths.
+ * @param medianAmount  The median amount at the deadline.
+ * @param p90Amount     The amount at the deadline exceeded by 10% of the paths.
+ */
+public record GoalProjectionDto(
+        Long goalId,
+        double probability,
+        int months,
+        int historyMonths,
+        int paths,
+        Double p10Amount,
+        Double medianAmount,
+        Double p90Amount
+) {
+}
@@ -0,0 +1,12 @@
+package cz.cvut.fel.budgetplannerbackend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record RecordTotalsDto(
+        LocalDateTime from, // Inclusive
+        LocalDateTime to, // Exclusive
+        BigDecimal totalIncome,
+        BigDecimal totalExpense
+) {
+}
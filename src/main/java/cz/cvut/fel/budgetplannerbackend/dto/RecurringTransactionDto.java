@@ -0,0 +1,22 @@
+package cz.cvut.fel.budgetplannerbackend.dto;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecurrenceFrequency;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record RecurringTransactionDto(
+        Long id,
+        Long dashboardId,
+        Long categoryId,
+        BigDecimal amount,
+        ERecordType type,
+        String description,
+        ERecurrenceFrequency frequency,
+        Integer interval,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        LocalDateTime nextRunAt // Read-only; null once the schedule has ended.
+) {
+}
@@ -0,0 +1,22 @@
+package cz.cvut.fel.budgetplannerbackend.dto;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EReportJobStatus;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EReportType;
+
+import java.time.LocalDateTime;
+
+public record ReportJobDto(
+        Long id,
+        Long dashboardId,
+        EReportType type,
+        Integer year,
+        EReportJobStatus status,
+        Long fileSize,
+        int rowsWritten,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime finishedAt,
+        LocalDateTime expiresAt // The report can be downloaded until then once completed.
+) {
+}
@@ -0,0 +1,25 @@
+package cz.cvut.fel.budgetplannerbackend.dto;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EStatementImportStatus;
+
+import java.time.LocalDateTime;
+
+public record StatementImportDto(
+        Long id,
+        Long dashboardId,
+        String profile,
+        String fileName,
+        EStatementImportStatus status,
+        boolean skipDuplicates,
+        long bytesTotal,
+        long bytesRead, // Progress of the import; equal to bytesTotal once completed.
+        int recordsImported,
+        int recordsInvalid,
+        int duplicatesFlagged,
+        int duplicatesSkipped,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime finishedAt
+) {
+}
@@ -0,0 +1,13 @@
+package cz.cvut.fel.budgetplannerbackend.dto;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+
+import java.time.LocalDateTime;
+
+public record SyncTombstoneDto(
+        ESyncEntityType entityType,
+        Long entityId,
+        Long changeSeq,
+        LocalDateTime deletedAt
+) {
+}
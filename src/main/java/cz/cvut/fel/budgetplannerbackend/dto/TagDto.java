@@ -0,0 +1,7 @@
+package cz.cvut.fel.budgetplannerbackend.dto;
+
+public record TagDto(
+        Long id,
+        String name
+) {
+}
@@ -0,0 +1,17 @@
+package cz.cvut.fel.budgetplannerbackend.dto.allocation;
+
+import java.time.LocalDate;
+
+/**
+ * A total amount to split into per-category budgets for a period.
+ *
+ * @param totalAmount The amount to split, greater than zero.
+ * @param startDate   The first day of the period.
+ * @param endDate     The last day of the period.
+ */
+public record BudgetAllocationRequestDto(
+        Double totalAmount,
+        LocalDate startDate,
+        LocalDate endDate
+) {
+}
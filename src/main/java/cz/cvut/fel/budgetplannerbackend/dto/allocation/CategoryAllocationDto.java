@@ -0,0 +1,21 @@
+package cz.cvut.fel.budgetplannerbackend.dto.allocation;
+
+/**
+ * The share of a budget allocation proposed for one category.
+ *
+ * @param categoryId    The ID of the category.
+ * @param categoryName  The name of the category.
+ * @param priority      The weighted average priority of the category; 0 if nobody set one.
+ * @param minimumAmount The least amount the category gets, derived from its historical spend.
+ * @param amount        The amount allocated to the category.
+ * @param budgetId      The ID of the budget created for the category, or null for a preview.
+ */
+public record CategoryAllocationDto(
+        Long categoryId,
+        String categoryName,
+        double priority,
+        Double minimumAmount,
+        Double amount,
+        Long budgetId
+) {
+}
@@ -0,0 +1,20 @@
+package cz.cvut.fel.budgetplannerbackend.dto.analytics;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Expense statistics of a dashboard per category and per member.
+ *
+ * @param from       The first month, inclusive.
+ * @param to         The last month, inclusive.
+ * @param categories The statistics per category, uncategorized expenses first.
+ * @param members    The statistics per member who recorded expenses.
+ */
+public record SpendingBreakdownDto(
+        YearMonth from,
+        YearMonth to,
+        List<SpendingStatisticsDto> categories,
+        List<SpendingStatisticsDto> members
+) {
+}
@@ -0,0 +1,24 @@
+package cz.cvut.fel.budgetplannerbackend.dto.analytics;
+
+import java.math.BigDecimal;
+
+/**
+ * Distribution of the expenses of one category or one member. Median and p90 are t-digest estimates,
+ * the count and maximum are exact.
+ *
+ * @param categoryId The ID of the category (null for uncategorized expenses), or null in a member breakdown.
+ * @param userId     The ID of the member, or null in a category breakdown.
+ * @param count      The number of expenses.
+ * @param median     The estimated median expense.
+ * @param p90        The estimated 90th percentile of the expenses.
+ * @param max        The largest expense.
+ */
+public record SpendingStatisticsDto(
+        Long categoryId,
+        Long userId,
+        long count,
+        BigDecimal median,
+        BigDecimal p90,
+        BigDecimal max
+) {
+}
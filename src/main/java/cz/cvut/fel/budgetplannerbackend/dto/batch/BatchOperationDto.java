@@ -0,0 +1,19 @@
+package cz.cvut.fel.budgetplannerbackend.dto.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EBatchEntityType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EBatchOperationType;
+
+/**
+ * One operation of a batch request.
+ * The payload has the shape of the DTO of the entity; a string value "$name" in it is replaced
+ * with the ID of the entity created by an earlier operation of the batch with ref "name".
+ */
+public record BatchOperationDto(
+        String ref, // Can be null
+        EBatchEntityType entity,
+        EBatchOperationType operation,
+        Long id, // Required for UPDATE and DELETE, except for category priorities
+        JsonNode payload // Can be null for DELETE
+) {
+}
@@ -0,0 +1,10 @@
+package cz.cvut.fel.budgetplannerbackend.dto.batch;
+
+public record BatchResultDto(
+        int index,
+        String ref, // Can be null
+        int status,
+        Object body, // Can be null
+        String error // Can be null
+) {
+}
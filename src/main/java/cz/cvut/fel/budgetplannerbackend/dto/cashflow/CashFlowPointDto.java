@@ -0,0 +1,18 @@
+package cz.cvut.fel.budgetplannerbackend.dto.cashflow;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Income and expenses of one time bucket.
+ *
+ * @param start   The start of the bucket.
+ * @param income  The sum of the income records dated within the bucket.
+ * @param expense The sum of the expense records dated within the bucket.
+ */
+public record CashFlowPointDto(
+        LocalDateTime start,
+        BigDecimal income,
+        BigDecimal expense
+) {
+}
@@ -0,0 +1,24 @@
+package cz.cvut.fel.budgetplannerbackend.dto.cashflow;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ETimeBucket;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cash-flow time series of a dashboard.
+ *
+ * @param bucket      The size of the buckets.
+ * @param from        The start of the first bucket, inclusive.
+ * @param to          The end of the last bucket, exclusive.
+ * @param downsampled Whether the points are a selection of the buckets rather than all of them.
+ * @param points      The buckets in chronological order; buckets without records have zero totals.
+ */
+public record CashFlowSeriesDto(
+        ETimeBucket bucket,
+        LocalDateTime from,
+        LocalDateTime to,
+        boolean downsampled,
+        List<CashFlowPointDto> points
+) {
+}
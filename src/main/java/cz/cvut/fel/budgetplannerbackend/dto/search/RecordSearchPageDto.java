@@ -0,0 +1,15 @@
+package cz.cvut.fel.budgetplannerbackend.dto.search;
+
+import java.util.List;
+
+/**
+ * One page of financial record search results.
+ *
+ * @param results    The matching records, best ranked first.
+ * @param nextCursor Cursor to request the next page with, or null if this is the last page.
+ */
+public record RecordSearchPageDto(
+        List<RecordSearchResultDto> results,
+        String nextCursor
+) {
+}
@@ -0,0 +1,15 @@
+package cz.cvut.fel.budgetplannerbackend.dto.search;
+
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+
+/**
+ * A financial record matching a search query.
+ *
+ * @param record The financial record.
+ * @param rank   The relevance of the record; higher is better.
+ */
+public record RecordSearchResultDto(
+        FinancialRecordDto record,
+        float rank
+) {
+}
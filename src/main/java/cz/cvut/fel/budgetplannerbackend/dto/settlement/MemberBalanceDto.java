@@ -0,0 +1,23 @@
+package cz.cvut.fel.budgetplannerbackend.dto.settlement;
+
+import java.math.BigDecimal;
+
+/**
+ * The balance of a member of a shared dashboard.
+ *
+ * @param userId   The ID of the member.
+ * @param userName The name of the member.
+ * @param weight   The weight of the member's share of the expenses.
+ * @param paid     The expenses the member paid.
+ * @param share    The member's share of all expenses.
+ * @param balance  Paid minus share: positive if the member is owed, negative if the member owes.
+ */
+public record MemberBalanceDto(
+        Long userId,
+        String userName,
+        double weight,
+        BigDecimal paid,
+        BigDecimal share,
+        BigDecimal balance
+) {
+}
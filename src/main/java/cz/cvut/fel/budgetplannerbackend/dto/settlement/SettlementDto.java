@@ -0,0 +1,20 @@
+package cz.cvut.fel.budgetplannerbackend.dto.settlement;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Who owes whom in a shared dashboard: every member's share of the expenses compared with what they paid.
+ *
+ * @param roleWeighted Whether shares are weighted by the members' roles rather than equal.
+ * @param totalPaid    The expenses paid by all members together.
+ * @param balances     The balance of every member and of former members who paid expenses.
+ * @param transfers    The transfers that settle all balances.
+ */
+public record SettlementDto(
+        boolean roleWeighted,
+        BigDecimal totalPaid,
+        List<MemberBalanceDto> balances,
+        List<SettlementTransferDto> transfers
+) {
+}
@@ -0,0 +1,21 @@
+package cz.cvut.fel.budgetplannerbackend.dto.settlement;
+
+import java.math.BigDecimal;
+
+/**
+ * A payment from one member to another that settles part of their balances.
+ *
+ * @param fromUserId   The ID of the paying member.
+ * @param fromUserName The name of the paying member.
+ * @param toUserId     The ID of the paid member.
+ * @param toUserName   The name of the paid member.
+ * @param amount       The amount to pay.
+ */
+public record SettlementTransferDto(
+        Long fromUserId,
+        String fromUserName,
+        Long toUserId,
+        String toUserName,
+        BigDecimal amount
+) {
+}
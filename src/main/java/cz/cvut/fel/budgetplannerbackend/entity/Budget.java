@@ -1,23 +1,31 @@
 package cz.cvut.fel.budgetplannerbackend.entity;
 
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.SyncEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
 @Entity
+@EntityListeners(SyncEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "budgets")
 @Table(name = "budgets")
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
-public class Budget {
+public class Budget implements DashboardScoped {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "budgetIdGenerator")
+    @SequenceGenerator(name = "budgetIdGenerator", sequenceName = "budgets_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -37,4 +45,12 @@ public class Budget {
     @Column(name = "end_date")
     private LocalDate endDate;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id")
+    private Category category; // Null for budgets not limited to one category
+
+    @Override
+    public ESyncEntityType getSyncEntityType() {
+        return ESyncEntityType.BUDGET;
+    }
 }
@@ -0,0 +1,64 @@
+package cz.cvut.fel.budgetplannerbackend.entity;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECategorizationMatchType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.math.BigDecimal;
+
+/**
+ * Rule assigning a category to the records of a dashboard created without one.
+ */
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categorization-rules")
+@Table(name = "categorization_rules")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class CategorizationRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categorizationRuleIdGenerator")
+    @SequenceGenerator(name = "categorizationRuleIdGenerator", sequenceName = "categorization_rules_id_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "dashboard_id", nullable = false)
+    private Dashboard dashboard;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "match_type", nullable = false)
+    private ECategorizationMatchType matchType;
+
+    // Null to match any description.
+    @Column(name = "pattern", length = 200)
+    private String pattern;
+
+    // Null to match both income and expenses.
+    @Enumerated(EnumType.STRING)
+    @Column(name = "record_type")
+    private ERecordType recordType;
+
+    @Column(name = "min_amount")
+    private BigDecimal minAmount;
+
+    @Column(name = "max_amount")
+    private BigDecimal maxAmount;
+
+    // Rules are tried in ascending priority, then ID.
+    @Column(name = "priority", nullable = false)
+    private int priority;
+}
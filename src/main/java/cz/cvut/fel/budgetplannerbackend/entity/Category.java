@@ -1,12 +1,19 @@
 package cz.cvut.fel.budgetplannerbackend.entity;
 
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.SyncEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@EntityListeners(SyncEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 @Table(name = "categories", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"name", "dashboard_id"})
 })
@@ -14,10 +21,11 @@ import lombok.Setter;
 @NoArgsConstructor
 @Getter
 @Setter
-public class Category {
+public class Category implements DashboardScoped {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categoryIdGenerator")
+    @SequenceGenerator(name = "categoryIdGenerator", sequenceName = "categories_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -31,4 +39,12 @@ public class Category {
     @JoinColumn(name = "dashboard_id", nullable = false)
     private Dashboard dashboard;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    private Category parent; // Null for top-level categories
+
+    @Override
+    public ESyncEntityType getSyncEntityType() {
+        return ESyncEntityType.CATEGORY;
+    }
 }
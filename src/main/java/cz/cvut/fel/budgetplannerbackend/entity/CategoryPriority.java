@@ -17,7 +17,8 @@ import lombok.Setter;
 public class CategoryPriority {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categoryPriorityIdGenerator")
+    @SequenceGenerator(name = "categoryPriorityIdGenerator", sequenceName = "category_priorities_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
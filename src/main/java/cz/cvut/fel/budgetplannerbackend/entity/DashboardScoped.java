@@ -0,0 +1,15 @@
+package cz.cvut.fel.budgetplannerbackend.entity;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+
+/**
+ * Entity that belongs to a single dashboard and is delivered to clients through delta synchronization.
+ */
+public interface DashboardScoped {
+
+    Long getId();
+
+    Dashboard getDashboard();
+
+    ESyncEntityType getSyncEntityType();
+}
@@ -1,23 +1,31 @@
 package cz.cvut.fel.budgetplannerbackend.entity;
 
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.SyncEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
 @Entity
+@EntityListeners(SyncEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "financial-goals")
 @Table(name = "financial_goals")
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
-public class FinancialGoal {
+public class FinancialGoal implements DashboardScoped {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "financialGoalIdGenerator")
+    @SequenceGenerator(name = "financialGoalIdGenerator", sequenceName = "financial_goals_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,4 +43,9 @@ public class FinancialGoal {
 
     @Column(name = "deadline")
     private LocalDate deadline;
-}
\ No newline at end of file
+
+    @Override
+    public ESyncEntityType getSyncEntityType() {
+        return ESyncEntityType.FINANCIAL_GOAL;
+    }
+}
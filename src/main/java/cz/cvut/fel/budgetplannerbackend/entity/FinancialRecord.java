@@ -1,25 +1,32 @@
 package cz.cvut.fel.budgetplannerbackend.entity;
 
 import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.SyncEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
+@EntityListeners(SyncEntityListener.class)
 @Table(name = "financial_records")
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
-public class FinancialRecord {
+public class FinancialRecord implements DashboardScoped {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "financialRecordIdGenerator")
+    @SequenceGenerator(name = "financialRecordIdGenerator", sequenceName = "financial_records_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -48,4 +55,36 @@ public class FinancialRecord {
     @Column(name = "description", length = 500)
     private String description;
 
-}
\ No newline at end of file
+    // Loaded for up to 100 records at once when a list of records is mapped.
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @JoinTable(name = "financial_record_tags",
+            joinColumns = @JoinColumn(name = "financial_record_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"))
+    private Set<Tag> tags = new HashSet<>();
+
+    // Z-score of the amount against the expenses of the category, null if the record was not scored.
+    @Column(name = "anomaly_score")
+    private Double anomalyScore;
+
+    @Column(name = "anomalous", nullable = false)
+    private boolean anomalous;
+
+    // The template the record was materialized from, null for records entered by hand.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recurring_transaction_id")
+    private RecurringTransaction recurringTransaction;
+
+    // Hash of the type, amount and normalized description, null for records without description.
+    @Column(name = "fingerprint")
+    private Long fingerprint;
+
+    // The earlier record this record is suspected to duplicate, null if none.
+    @Column(name = "duplicate_of_id")
+    private Long duplicateOfId;
+
+    @Override
+    public ESyncEntityType getSyncEntityType() {
+        return ESyncEntityType.FINANCIAL_RECORD;
+    }
+}
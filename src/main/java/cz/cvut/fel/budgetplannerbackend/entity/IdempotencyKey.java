@@ -0,0 +1,48 @@
+package cz.cvut.fel.budgetplannerbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response of a completed create request, stored under the client supplied idempotency key
+ * so that a retried request can be answered without executing it again.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "scope", nullable = false)
+    private String scope;
+
+    @Column(name = "idem_key", nullable = false)
+    private String key;
+
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    @Column(name = "response_body", nullable = false, columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
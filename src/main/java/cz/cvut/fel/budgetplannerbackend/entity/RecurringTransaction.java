@@ -0,0 +1,73 @@
+package cz.cvut.fel.budgetplannerbackend.entity;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecurrenceFrequency;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Template of a financial record repeating on a schedule.
+ * Every occurrence is materialized as a financial record referencing the template.
+ */
+@Entity
+@Table(name = "recurring_transactions")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RecurringTransaction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurringTransactionIdGenerator")
+    @SequenceGenerator(name = "recurringTransactionIdGenerator", sequenceName = "recurring_transactions_id_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "dashboard_id", nullable = false)
+    private Dashboard dashboard;
+
+    // The user the materialized records are attributed to.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id")
+    private Category category;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private ERecordType type;
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequency", nullable = false)
+    private ERecurrenceFrequency frequency;
+
+    // Number of frequency periods between occurrences.
+    @Column(name = "interval_count", nullable = false)
+    private int interval;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime startDate;
+
+    // Last possible occurrence, null for schedules without end.
+    @Column(name = "end_date")
+    private LocalDateTime endDate;
+
+    // Next occurrence not materialized yet, null once the schedule has ended.
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+}
@@ -0,0 +1,75 @@
+package cz.cvut.fel.budgetplannerbackend.entity;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EReportJobStatus;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EReportType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Report of a dashboard generated in the background for a user into a file on disk.
+ * The dashboard and user are kept as IDs, since reports are generated outside of the request that requested them.
+ */
+@Entity
+@Table(name = "report_jobs")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class ReportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "dashboard_id", nullable = false)
+    private Long dashboardId;
+
+    // The user who requested the report; only they can see and download it.
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private EReportType type;
+
+    // The year of yearly reports, null otherwise.
+    @Column(name = "year")
+    private Integer year;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private EReportJobStatus status;
+
+    // The name of the file of the report in the report directory, once completed.
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "rows_written", nullable = false)
+    private int rowsWritten;
+
+    // Why the job failed.
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    // When the job and its file are deleted; set when the job finishes.
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,82 @@
+package cz.cvut.fel.budgetplannerbackend.entity;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EStatementImportStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Import of a bank statement file into the records of a dashboard, with its progress.
+ * The dashboard and user are kept as IDs, since imports are processed outside of the request that started them.
+ */
+@Entity
+@Table(name = "statement_imports")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class StatementImport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "dashboard_id", nullable = false)
+    private Long dashboardId;
+
+    // The user the imported records are attributed to.
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "profile", nullable = false, length = 64)
+    private String profile;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private EStatementImportStatus status;
+
+    // True to skip records duplicating records that existed before the import, instead of flagging them.
+    @Column(name = "skip_duplicates", nullable = false)
+    private boolean skipDuplicates;
+
+    @Column(name = "bytes_total", nullable = false)
+    private long bytesTotal;
+
+    // Bytes of the file parsed into the records imported so far.
+    @Column(name = "bytes_read", nullable = false)
+    private long bytesRead;
+
+    @Column(name = "records_imported", nullable = false)
+    private int recordsImported;
+
+    @Column(name = "records_invalid", nullable = false)
+    private int recordsInvalid;
+
+    // Imported records flagged as duplicates.
+    @Column(name = "duplicates_flagged", nullable = false)
+    private int duplicatesFlagged;
+
+    @Column(name = "duplicates_skipped", nullable = false)
+    private int duplicatesSkipped;
+
+    // Why the import failed, or the first invalid entry.
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,30 @@
+package cz.cvut.fel.budgetplannerbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "tags", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"dashboard_id", "name"})
+})
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class Tag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "name", nullable = false, length = 64)
+    private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "dashboard_id", nullable = false)
+    private Dashboard dashboard;
+}
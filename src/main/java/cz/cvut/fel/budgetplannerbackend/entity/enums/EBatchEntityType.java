@@ -0,0 +1,12 @@
+package cz.cvut.fel.budgetplannerbackend.entity.enums;
+
+/**
+ * Dashboard content that can be modified through the batch endpoint.
+ */
+public enum EBatchEntityType {
+    FINANCIAL_RECORD,
+    CATEGORY,
+    BUDGET,
+    FINANCIAL_GOAL,
+    CATEGORY_PRIORITY
+}
@@ -0,0 +1,7 @@
+package cz.cvut.fel.budgetplannerbackend.entity.enums;
+
+public enum EBatchOperationType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,36 @@
+package cz.cvut.fel.budgetplannerbackend.entity.enums;
+
+import cz.cvut.fel.budgetplannerbackend.entity.Budget;
+import cz.cvut.fel.budgetplannerbackend.entity.CategorizationRule;
+import cz.cvut.fel.budgetplannerbackend.entity.Category;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.DashboardRole;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialGoal;
+
+/**
+ * Entity types held in the second-level cache, with their entity class and query cache region.
+ */
+public enum ECachedEntityType {
+    DASHBOARD(Dashboard.class, "dashboards-query"),
+    DASHBOARD_ROLE(DashboardRole.class, "dashboard-roles-query"),
+    CATEGORY(Category.class, "categories-query"),
+    BUDGET(Budget.class, "budgets-query"),
+    FINANCIAL_GOAL(FinancialGoal.class, "financial-goals-query"),
+    CATEGORIZATION_RULE(CategorizationRule.class, "categorization-rules-query");
+
+    private final Class<?> entityClass;
+    private final String queryRegion;
+
+    ECachedEntityType(Class<?> entityClass, String queryRegion) {
+        this.entityClass = entityClass;
+        this.queryRegion = queryRegion;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public String getQueryRegion() {
+        return queryRegion;
+    }
+}
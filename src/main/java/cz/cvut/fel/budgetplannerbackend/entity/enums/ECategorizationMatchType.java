@@ -0,0 +1,9 @@
+package cz.cvut.fel.budgetplannerbackend.entity.enums;
+
+/**
+ * How the pattern of a categorization rule is matched against the description of a record, ignoring case.
+ */
+public enum ECategorizationMatchType {
+    CONTAINS,
+    REGEX
+}
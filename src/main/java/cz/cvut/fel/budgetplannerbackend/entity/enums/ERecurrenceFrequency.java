@@ -0,0 +1,51 @@
+package cz.cvut.fel.budgetplannerbackend.entity.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Frequencies of recurring transactions, a subset of the iCalendar RRULE FREQ values.
+ * The n-th occurrence is always computed from the start, so a monthly schedule starting on the 31st
+ * falls on the last day of shorter months and returns to the 31st afterwards.
+ */
+public enum ERecurrenceFrequency {
+    DAILY(ChronoUnit.DAYS),
+    WEEKLY(ChronoUnit.WEEKS),
+    MONTHLY(ChronoUnit.MONTHS),
+    YEARLY(ChronoUnit.YEARS);
+
+    private final ChronoUnit unit;
+
+    ERecurrenceFrequency(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * @param start    The first occurrence.
+     * @param interval The number of periods between occurrences, at least 1.
+     * @param n        The index of the occurrence, 0 for the first one.
+     * @return The n-th occurrence.
+     */
+    public LocalDateTime occurrence(LocalDateTime start, int interval, long n) {
+        return start.plus(n * interval, unit);
+    }
+
+    /**
+     * @param start    The first occurrence.
+     * @param interval The number of periods between occurrences, at least 1.
+     * @param date     A date.
+     * @return The first occurrence after the date.
+     */
+    public LocalDateTime nextAfter(LocalDateTime start, int interval, LocalDateTime date) {
+        if (date.isBefore(start)) {
+            return start;
+        }
+        // Whole periods never overshoot, so at most a step or two is left after the estimate.
+        long n = unit.between(start, date) / interval;
+        LocalDateTime next = occurrence(start, interval, n);
+        while (!next.isAfter(date)) {
+            next = occurrence(start, interval, ++n);
+        }
+        return next;
+    }
+}
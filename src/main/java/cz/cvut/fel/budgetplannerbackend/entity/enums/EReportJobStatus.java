@@ -0,0 +1,11 @@
+package cz.cvut.fel.budgetplannerbackend.entity.enums;
+
+/**
+ * Status of a report job; COMPLETED and FAILED are final.
+ */
+public enum EReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
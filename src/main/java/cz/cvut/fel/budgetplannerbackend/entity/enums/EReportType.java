@@ -0,0 +1,9 @@
+package cz.cvut.fel.budgetplannerbackend.entity.enums;
+
+/**
+ * Type of a report generated by a report job.
+ */
+public enum EReportType {
+    CATEGORY_YEAR, // Monthly income and expense totals of every category over a year, as CSV.
+    RECORDS_CSV // All records of the dashboard, as CSV.
+}
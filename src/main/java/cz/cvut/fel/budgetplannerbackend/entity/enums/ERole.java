@@ -1,11 +1,24 @@
 package cz.cvut.fel.budgetplannerbackend.entity.enums;
 
 public enum ERole {
-    ENTREPRENEUR,
-    EMPLOYEE,
-    STUDENT,
-    RETIREE,
-    HOUSEMAKER,
-    CHILD,
-    NONE
-}
\ No newline at end of file
+    ENTREPRENEUR(0.8),
+    EMPLOYEE(0.7),
+    STUDENT(0.3),
+    RETIREE(0.5),
+    HOUSEMAKER(0.4),
+    CHILD(0.2),
+    NONE(0.1);
+
+    private final double weight;
+
+    ERole(double weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * @return The weight of a member with this role in category priorities and role-weighted settlements.
+     */
+    public double getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,9 @@
+package cz.cvut.fel.budgetplannerbackend.entity.enums;
+
+/**
+ * File format of the bank statements of an import profile.
+ */
+public enum EStatementFormat {
+    CSV,
+    OFX
+}
@@ -0,0 +1,11 @@
+package cz.cvut.fel.budgetplannerbackend.entity.enums;
+
+/**
+ * Status of a statement import; COMPLETED and FAILED are final.
+ */
+public enum EStatementImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
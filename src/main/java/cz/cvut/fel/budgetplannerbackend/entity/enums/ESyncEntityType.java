@@ -0,0 +1,21 @@
+package cz.cvut.fel.budgetplannerbackend.entity.enums;
+
+/**
+ * Dashboard-scoped entity types tracked for delta synchronization, with the table holding their change columns.
+ */
+public enum ESyncEntityType {
+    FINANCIAL_RECORD("financial_records"),
+    CATEGORY("categories"),
+    BUDGET("budgets"),
+    FINANCIAL_GOAL("financial_goals");
+
+    private final String tableName;
+
+    ESyncEntityType(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+}
@@ -0,0 +1,76 @@
+package cz.cvut.fel.budgetplannerbackend.entity.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket sizes of cash-flow time series, truncating dates the same way as PostgreSQL date_trunc
+ * (weeks start on Monday).
+ */
+public enum ETimeBucket {
+    DAY("day"),
+    WEEK("week"),
+    MONTH("month");
+
+    private final String sqlUnit;
+
+    ETimeBucket(String sqlUnit) {
+        this.sqlUnit = sqlUnit;
+    }
+
+    /**
+     * @return The field name accepted by date_trunc.
+     */
+    public String getSqlUnit() {
+        return sqlUnit;
+    }
+
+    /**
+     * @param date A date.
+     * @return The start of the bucket containing the date.
+     */
+    public LocalDateTime truncate(LocalDateTime date) {
+        LocalDateTime day = date.truncatedTo(ChronoUnit.DAYS);
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * @param bucketStart The start of a bucket.
+     * @return The start of the following bucket.
+     */
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+
+    /**
+     * @param date A date.
+     * @return The start of the first bucket starting at or after the date.
+     */
+    public LocalDateTime ceil(LocalDateTime date) {
+        LocalDateTime start = truncate(date);
+        return start.isBefore(date) ? next(start) : start;
+    }
+
+    /**
+     * @param start The start of a bucket.
+     * @param end   The start of a later bucket.
+     * @return The number of buckets from the first to the second one, excluding the second one.
+     */
+    public long count(LocalDateTime start, LocalDateTime end) {
+        return switch (this) {
+            case DAY -> ChronoUnit.DAYS.between(start, end);
+            case WEEK -> ChronoUnit.WEEKS.between(start, end);
+            case MONTH -> ChronoUnit.MONTHS.between(start, end);
+        };
+    }
+}
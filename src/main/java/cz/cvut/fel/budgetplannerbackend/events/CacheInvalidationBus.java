@@ -0,0 +1,114 @@
+package cz.cvut.fel.budgetplannerbackend.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.budgetplannerbackend.config.CacheInvalidationProperties;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECachedEntityType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Keeps the second-level caches of several application nodes consistent through PostgreSQL NOTIFY.
+ * Changes are announced with pg_notify inside the changing transaction, so PostgreSQL delivers them
+ * only after the commit (and drops them on rollback); every node's {@link CacheInvalidationListener}
+ * then evicts the affected entries from its local cache.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationProperties properties;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, EntityManagerFactory entityManagerFactory,
+                                CacheInvalidationProperties properties, DataSourceProperties dataSourceProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.properties = properties;
+        String url = dataSourceProperties.getUrl();
+        this.enabled = properties.isEnabled() && url != null && url.startsWith("jdbc:postgresql:");
+        if (!properties.getChannel().matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Invalid cache invalidation channel: " + properties.getChannel());
+        }
+    }
+
+    /**
+     * Announces changed entities of a dashboard to the other nodes.
+     * Must be called inside the changing transaction; the notification is delivered when it commits.
+     *
+     * @param type        The type of the changed entities.
+     * @param dashboardId The ID of the dashboard.
+     * @param ids         The IDs of the changed entities, or null if they are not known.
+     */
+    public void publish(ECachedEntityType type, Long dashboardId, Collection<Long> ids) {
+        if (!enabled) {
+            return;
+        }
+        boolean exact = ids != null && ids.size() <= properties.getMaxIdsPerMessage();
+        CacheInvalidationMessage message = new CacheInvalidationMessage(nodeId, type, dashboardId, exact ? new ArrayList<>(ids) : null);
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, properties.getChannel(), objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize cache invalidation message", e);
+        }
+    }
+
+    /**
+     * Evicts the local cache entries named by a notification from another node.
+     *
+     * @param payload The notification payload.
+     */
+    public void handle(String payload) {
+        CacheInvalidationMessage message;
+        try {
+            message = objectMapper.readValue(payload, CacheInvalidationMessage.class);
+        } catch (JsonProcessingException e) {
+            LOG.warn("Ignoring malformed cache invalidation message: {}", payload);
+            return;
+        }
+        if (nodeId.equals(message.origin()) || message.entity() == null) {
+            return; // Hibernate already keeps the cache of the changing node up to date.
+        }
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        Class<?> entityClass = message.entity().getEntityClass();
+        if (message.ids() != null) {
+            message.ids().forEach(id -> cache.evictEntityData(entityClass, id));
+        } else {
+            cache.evictEntityData(entityClass);
+        }
+        cache.evictQueryRegion(message.entity().getQueryRegion());
+        LOG.debug("Evicted {} of dashboard {} after a change on another node", message.entity(), message.dashboardId());
+    }
+
+    /**
+     * Evicts all cached entities and query results, used when notifications may have been missed.
+     */
+    public void evictAll() {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictAllRegions();
+        LOG.info("Evicted the whole second-level cache");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getChannel() {
+        return properties.getChannel();
+    }
+}
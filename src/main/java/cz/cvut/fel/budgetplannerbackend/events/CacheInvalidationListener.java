@@ -0,0 +1,150 @@
+package cz.cvut.fel.budgetplannerbackend.events;
+
+import cz.cvut.fel.budgetplannerbackend.config.CacheInvalidationProperties;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.postgresql.PGProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Receives cache invalidation notifications on a dedicated PostgreSQL connection outside of the connection pool.
+ * A lost connection is re-established with exponential backoff; since notifications sent in the meantime
+ * are lost, the whole local cache is evicted after every reconnect.
+ */
+@Component
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    public static final String APPLICATION_NAME = "budget-planner-invalidation-listener";
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final CacheInvalidationProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    public CacheInvalidationListener(CacheInvalidationBus cacheInvalidationBus, CacheInvalidationProperties properties,
+                                     DataSourceProperties dataSourceProperties) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.properties = properties;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @Override
+    public void start() {
+        if (!cacheInvalidationBus.isEnabled()) {
+            LOG.info("Cache invalidation bus is disabled");
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeConnection();
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        long backoff = properties.getInitialBackoff();
+        boolean listenedBefore = false;
+        while (running) {
+            try {
+                connection = connect();
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + cacheInvalidationBus.getChannel());
+                }
+                if (listenedBefore) {
+                    cacheInvalidationBus.evictAll(); // Changes made while disconnected were not announced to this node.
+                }
+                listenedBefore = true;
+                backoff = properties.getInitialBackoff();
+                LOG.info("Listening for cache invalidations on channel {}", cacheInvalidationBus.getChannel());
+                receive(connection.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                long delay = backoff + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+                LOG.warn("Cache invalidation listener lost its connection ({}), reconnecting in {} ms", e.getMessage(), delay);
+                closeConnection();
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff = Math.min(backoff * 2, properties.getMaxBackoff());
+            }
+        }
+        closeConnection();
+    }
+
+    private void receive(PGConnection pgConnection) throws SQLException {
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications((int) properties.getPollTimeout());
+            if (notifications == null || notifications.length == 0) {
+                // No traffic: make sure the connection is still alive, otherwise notifications would be missed silently.
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                try {
+                    cacheInvalidationBus.handle(notification.getParameter());
+                } catch (RuntimeException e) {
+                    LOG.error("Failed to apply cache invalidation {}", notification.getParameter(), e);
+                }
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties connectionProperties = new Properties();
+        connectionProperties.setProperty(PGProperty.USER.getName(), dataSourceProperties.determineUsername());
+        String password = dataSourceProperties.determinePassword();
+        if (password != null) {
+            connectionProperties.setProperty(PGProperty.PASSWORD.getName(), password);
+        }
+        connectionProperties.setProperty(PGProperty.APPLICATION_NAME.getName(), APPLICATION_NAME);
+        connectionProperties.setProperty(PGProperty.TCP_KEEP_ALIVE.getName(), "true");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), connectionProperties);
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                LOG.debug("Failed to close cache invalidation connection: {}", e.getMessage());
+            }
+        }
+    }
+}
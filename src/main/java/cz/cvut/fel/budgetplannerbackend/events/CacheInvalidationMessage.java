@@ -0,0 +1,16 @@
+package cz.cvut.fel.budgetplannerbackend.events;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECachedEntityType;
+
+import java.util.List;
+
+/**
+ * Payload of a cache invalidation notification.
+ *
+ * @param origin      The ID of the node that made the change; it does not evict its own cache.
+ * @param entity      The type of the changed entities.
+ * @param dashboardId The ID of the dashboard the entities belong to.
+ * @param ids         The IDs of the changed entities, or null if the whole region has to be evicted.
+ */
+public record CacheInvalidationMessage(String origin, ECachedEntityType entity, Long dashboardId, List<Long> ids) {
+}
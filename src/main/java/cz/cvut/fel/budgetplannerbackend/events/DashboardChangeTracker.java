@@ -0,0 +1,293 @@
+package cz.cvut.fel.budgetplannerbackend.events;
+
+import cz.cvut.fel.budgetplannerbackend.entity.SyncTombstone;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECachedEntityType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardVersionRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.SyncTombstoneRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Collects the dashboards modified by the current transaction and bumps their version once, right before commit.
+ * Versions are incremented in ascending dashboard order so that concurrent transactions touching several
+ * dashboards lock the rows in the same order.
+ * <p>
+ * The new version also serves as the change token of delta synchronization: every entity inserted, updated or
+ * deleted in the transaction is stamped with it while the dashboard row is locked, so per dashboard the tokens
+ * are assigned in commit order and a client syncing from a token never misses a later commit.
+ * <p>
+ * After commit, a {@link DashboardChangedEvent} is published for every changed dashboard so that
+ * subscribed clients are notified without polling, followed by a {@link FinancialRecordsChangedEvent}
+ * if financial records changed.
+ * <p>
+ * The changed cached entities are announced on the {@link CacheInvalidationBus} from within the transaction,
+ * so that other application nodes evict them from their second-level caches once it commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardChangeTracker {
+
+    private final DashboardRepository dashboardRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * Marks a dashboard as changed by the current transaction.
+     * Outside of a transaction the version is incremented immediately.
+     *
+     * @param dashboardId The ID of the modified dashboard.
+     */
+    public void markChanged(Long dashboardId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dashboardRepository.incrementVersion(dashboardId);
+            return;
+        }
+        pendingChanges().changedDashboards.add(dashboardId);
+    }
+
+    /**
+     * Records an inserted or updated dashboard-scoped entity and marks its dashboard as changed.
+     *
+     * @param type        The type of the entity.
+     * @param entityId    The ID of the entity.
+     * @param dashboardId The ID of the dashboard the entity belongs to.
+     */
+    public void markUpserted(ESyncEntityType type, Long entityId, Long dashboardId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        PendingChanges changes = pendingChanges();
+        changes.changedDashboards.add(dashboardId);
+        changes.upserted.computeIfAbsent(dashboardId, id -> new EnumMap<>(ESyncEntityType.class))
+                .computeIfAbsent(type, t -> new TreeSet<>())
+                .add(entityId);
+    }
+
+    /**
+     * Records that entities of a dashboard were updated by a bulk statement marking them with
+     * {@link DashboardVersionRepository#PENDING_CHANGE_SEQ}, and marks the dashboard as changed.
+     * They are stamped with a single statement before commit, without tracking their IDs.
+     * Outside of a transaction they are stamped immediately.
+     *
+     * @param type        The type of the entities.
+     * @param dashboardId The ID of the dashboard the entities belong to.
+     */
+    public void markBulkUpserted(ESyncEntityType type, Long dashboardId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dashboardRepository.incrementVersion(dashboardId);
+            dashboardRepository.findVersion(dashboardId)
+                    .ifPresent(version -> dashboardRepository.stampPendingChanges(type, dashboardId, version));
+            return;
+        }
+        PendingChanges changes = pendingChanges();
+        changes.changedDashboards.add(dashboardId);
+        changes.bulkUpserted.computeIfAbsent(dashboardId, id -> EnumSet.noneOf(ESyncEntityType.class)).add(type);
+    }
+
+    /**
+     * Records a deleted dashboard-scoped entity and marks its dashboard as changed.
+     *
+     * @param type        The type of the entity.
+     * @param entityId    The ID of the entity.
+     * @param dashboardId The ID of the dashboard the entity belonged to.
+     */
+    public void markDeleted(ESyncEntityType type, Long entityId, Long dashboardId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        PendingChanges changes = pendingChanges();
+        changes.changedDashboards.add(dashboardId);
+        changes.deleted.computeIfAbsent(dashboardId, id -> new ArrayList<>())
+                .add(new DeletedEntity(type, entityId));
+    }
+
+    /**
+     * Records the date of a financial record inserted, updated or deleted by the current transaction.
+     * A record moved to another date is reported with both dates. The earliest reported date is published
+     * with the {@link FinancialRecordsChangedEvent}, so that totals of periods before it can stay cached.
+     *
+     * @param dashboardId The ID of the dashboard the record belongs to.
+     * @param date        The date of the record.
+     */
+    public void markRecordDate(Long dashboardId, LocalDateTime date) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || date == null) {
+            return;
+        }
+        pendingChanges().earliestRecordDates.merge(dashboardId, date, (current, reported) -> reported.isBefore(current) ? reported : current);
+    }
+
+    /**
+     * Marks the members or access levels of a dashboard as changed by the current transaction.
+     * This does not change the dashboard version; it only notifies subscribed clients after commit.
+     *
+     * @param dashboardId The ID of the dashboard.
+     */
+    public void markMembersChanged(Long dashboardId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(new DashboardChangedEvent(dashboardId, null, Set.of(), true));
+            return;
+        }
+        pendingChanges().changedMembers.add(dashboardId);
+    }
+
+    /**
+     * Marks cached entities of a dashboard that are not tracked for synchronization as changed,
+     * so that other application nodes evict them after commit.
+     * Outside of a transaction the invalidation is announced immediately.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param types       The types of the changed entities.
+     */
+    public void markInvalidated(Long dashboardId, ECachedEntityType... types) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            for (ECachedEntityType type : types) {
+                cacheInvalidationBus.publish(type, dashboardId, type == ECachedEntityType.DASHBOARD ? List.of(dashboardId) : null);
+            }
+            return;
+        }
+        pendingChanges().invalidated.computeIfAbsent(dashboardId, id -> EnumSet.noneOf(ECachedEntityType.class))
+                .addAll(List.of(types));
+    }
+
+    private PendingChanges pendingChanges() {
+        PendingChanges changes = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            PendingChanges newChanges = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, newChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    apply(newChanges);
+                }
+
+                @Override
+                public void afterCommit() {
+                    publish(newChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DashboardChangeTracker.this);
+                }
+            });
+            changes = newChanges;
+        }
+        return changes;
+    }
+
+    private void apply(PendingChanges changes) {
+        // Flush first: pending updates fire @PostUpdate and must be stamped with this transaction's version.
+        entityManager.flush();
+        LocalDateTime now = LocalDateTime.now();
+        for (Long dashboardId : changes.changedDashboards) {
+            dashboardRepository.incrementVersion(dashboardId);
+            Optional<Long> version = dashboardRepository.findVersion(dashboardId);
+            if (version.isEmpty()) {
+                continue; // The dashboard itself was deleted in this transaction.
+            }
+            changes.versions.put(dashboardId, version.get());
+            changes.upserted.getOrDefault(dashboardId, Map.of())
+                    .forEach((type, ids) -> dashboardRepository.stampChanges(type, ids, version.get()));
+            changes.bulkUpserted.getOrDefault(dashboardId, Set.of())
+                    .forEach(type -> dashboardRepository.stampPendingChanges(type, dashboardId, version.get()));
+            for (DeletedEntity deleted : changes.deleted.getOrDefault(dashboardId, List.of())) {
+                syncTombstoneRepository.save(new SyncTombstone(null, dashboardId, deleted.type(), deleted.entityId(), version.get(), now));
+            }
+        }
+        invalidateCaches(changes);
+    }
+
+    private void invalidateCaches(PendingChanges changes) {
+        Set<Long> dashboards = new TreeSet<>(changes.changedDashboards);
+        dashboards.addAll(changes.changedMembers);
+        dashboards.addAll(changes.invalidated.keySet());
+        for (Long dashboardId : dashboards) {
+            Map<ECachedEntityType, Set<Long>> ids = new EnumMap<>(ECachedEntityType.class);
+            changes.upserted.getOrDefault(dashboardId, Map.of())
+                    .forEach((type, upserted) -> cachedType(type).ifPresent(cached -> ids.computeIfAbsent(cached, t -> new TreeSet<>()).addAll(upserted)));
+            for (DeletedEntity deleted : changes.deleted.getOrDefault(dashboardId, List.of())) {
+                cachedType(deleted.type()).ifPresent(cached -> ids.computeIfAbsent(cached, t -> new TreeSet<>()).add(deleted.entityId()));
+            }
+            Set<ECachedEntityType> wholeRegions = EnumSet.noneOf(ECachedEntityType.class);
+            changes.bulkUpserted.getOrDefault(dashboardId, Set.of())
+                    .forEach(type -> cachedType(type).ifPresent(wholeRegions::add)); // Their IDs are not known.
+            if (changes.changedMembers.contains(dashboardId)) {
+                wholeRegions.add(ECachedEntityType.DASHBOARD_ROLE);
+            }
+            for (ECachedEntityType type : changes.invalidated.getOrDefault(dashboardId, Set.of())) {
+                if (type == ECachedEntityType.DASHBOARD) {
+                    ids.put(ECachedEntityType.DASHBOARD, new TreeSet<>(Set.of(dashboardId))); // Only the dashboard itself.
+                } else {
+                    wholeRegions.add(type);
+                }
+            }
+            wholeRegions.forEach(ids::remove);
+            ids.forEach((type, entityIds) -> cacheInvalidationBus.publish(type, dashboardId, entityIds));
+            wholeRegions.forEach(type -> cacheInvalidationBus.publish(type, dashboardId, null));
+        }
+    }
+
+    private static Optional<ECachedEntityType> cachedType(ESyncEntityType type) {
+        return switch (type) {
+            case CATEGORY -> Optional.of(ECachedEntityType.CATEGORY);
+            case BUDGET -> Optional.of(ECachedEntityType.BUDGET);
+            case FINANCIAL_GOAL -> Optional.of(ECachedEntityType.FINANCIAL_GOAL);
+            case FINANCIAL_RECORD -> Optional.empty();
+        };
+    }
+
+    private void publish(PendingChanges changes) {
+        Set<Long> dashboards = new TreeSet<>(changes.versions.keySet());
+        dashboards.addAll(changes.changedMembers);
+        for (Long dashboardId : dashboards) {
+            Set<ESyncEntityType> entities = EnumSet.noneOf(ESyncEntityType.class);
+            entities.addAll(changes.upserted.getOrDefault(dashboardId, Map.of()).keySet());
+            entities.addAll(changes.bulkUpserted.getOrDefault(dashboardId, Set.of()));
+            changes.deleted.getOrDefault(dashboardId, List.of()).forEach(deleted -> entities.add(deleted.type()));
+            eventPublisher.publishEvent(new DashboardChangedEvent(dashboardId, changes.versions.get(dashboardId),
+                    entities, changes.changedMembers.contains(dashboardId)));
+            if (entities.contains(ESyncEntityType.FINANCIAL_RECORD)) {
+                Set<Long> recordIds = new TreeSet<>(changes.upserted.getOrDefault(dashboardId, Map.of())
+                        .getOrDefault(ESyncEntityType.FINANCIAL_RECORD, Set.of()));
+                changes.deleted.getOrDefault(dashboardId, List.of()).stream()
+                        .filter(deleted -> deleted.type() == ESyncEntityType.FINANCIAL_RECORD)
+                        .forEach(deleted -> recordIds.add(deleted.entityId()));
+                eventPublisher.publishEvent(new FinancialRecordsChangedEvent(dashboardId, changes.versions.get(dashboardId), recordIds,
+                        changes.earliestRecordDates.get(dashboardId)));
+            }
+        }
+    }
+
+    private static final class PendingChanges {
+        private final Set<Long> changedDashboards = new TreeSet<>();
+        private final Map<Long, Map<ESyncEntityType, Set<Long>>> upserted = new HashMap<>();
+        private final Map<Long, Set<ESyncEntityType>> bulkUpserted = new HashMap<>();
+        private final Map<Long, List<DeletedEntity>> deleted = new HashMap<>();
+        private final Set<Long> changedMembers = new TreeSet<>();
+        private final Map<Long, Long> versions = new HashMap<>();
+        private final Map<Long, Set<ECachedEntityType>> invalidated = new HashMap<>();
+        private final Map<Long, LocalDateTime> earliestRecordDates = new HashMap<>();
+    }
+
+    private record DeletedEntity(ESyncEntityType type, Long entityId) {
+    }
+}
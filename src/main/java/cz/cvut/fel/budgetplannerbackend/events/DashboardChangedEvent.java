@@ -0,0 +1,16 @@
+package cz.cvut.fel.budgetplannerbackend.events;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+
+import java.util.Set;
+
+/**
+ * Published after a transaction that changed the content or the members of a dashboard has committed.
+ *
+ * @param dashboardId    The ID of the changed dashboard.
+ * @param token          The new dashboard version (change token), or null if only the members changed.
+ * @param entities       The types of the inserted, updated or deleted entities.
+ * @param membersChanged Whether members were added or removed or their access level changed.
+ */
+public record DashboardChangedEvent(Long dashboardId, Long token, Set<ESyncEntityType> entities, boolean membersChanged) {
+}
@@ -0,0 +1,16 @@
+package cz.cvut.fel.budgetplannerbackend.events;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Published after a transaction that inserted, updated or deleted financial records has committed.
+ *
+ * @param dashboardId The ID of the dashboard the records belong to.
+ * @param token       The dashboard version (change token) assigned by the transaction.
+ * @param recordIds   The IDs of the inserted, updated or deleted records.
+ * @param earliestDate The earliest date of the changed records (before and after the change),
+ *                     or null if records changed without reporting their dates.
+ */
+public record FinancialRecordsChangedEvent(Long dashboardId, Long token, Set<Long> recordIds, LocalDateTime earliestDate) {
+}
@@ -0,0 +1,38 @@
+package cz.cvut.fel.budgetplannerbackend.events;
+
+import cz.cvut.fel.budgetplannerbackend.entity.DashboardScoped;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreRemove;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA entity listener reporting inserted, updated and removed dashboard-scoped entities
+ * to the {@link DashboardChangeTracker}. Bulk JPQL statements bypass entity listeners.
+ * <p>
+ * Updates are only detected when the persistence context is flushed. Services therefore mark the dashboard
+ * as changed, which makes the tracker flush before commit and pick up the updated entities.
+ */
+public class SyncEntityListener {
+
+    private final ObjectProvider<DashboardChangeTracker> dashboardChangeTracker;
+
+    public SyncEntityListener(ObjectProvider<DashboardChangeTracker> dashboardChangeTracker) {
+        this.dashboardChangeTracker = dashboardChangeTracker;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        DashboardScoped scoped = (DashboardScoped) entity;
+        dashboardChangeTracker.ifAvailable(tracker ->
+                tracker.markUpserted(scoped.getSyncEntityType(), scoped.getId(), scoped.getDashboard().getId()));
+    }
+
+    @PreRemove
+    public void onRemoved(Object entity) {
+        DashboardScoped scoped = (DashboardScoped) entity;
+        dashboardChangeTracker.ifAvailable(tracker ->
+                tracker.markDeleted(scoped.getSyncEntityType(), scoped.getId(), scoped.getDashboard().getId()));
+    }
+}
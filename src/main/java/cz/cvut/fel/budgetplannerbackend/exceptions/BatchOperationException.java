@@ -0,0 +1,29 @@
+package cz.cvut.fel.budgetplannerbackend.exceptions;
+
+import cz.cvut.fel.budgetplannerbackend.dto.batch.BatchResultDto;
+
+import java.util.List;
+
+/**
+ * Thrown when an operation of a batch fails; the whole batch is rolled back.
+ * The results describe the rolled back operations and the failed one.
+ */
+public class BatchOperationException extends RuntimeException {
+
+    private final int status;
+    private final transient List<BatchResultDto> results;
+
+    public BatchOperationException(int index, int status, String message, List<BatchResultDto> results) {
+        super(String.format("Batch operation %d failed: %s", index, message));
+        this.status = status;
+        this.results = results;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public List<BatchResultDto> getResults() {
+        return results;
+    }
+}
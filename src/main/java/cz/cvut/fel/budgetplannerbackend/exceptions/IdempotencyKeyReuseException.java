@@ -0,0 +1,8 @@
+package cz.cvut.fel.budgetplannerbackend.exceptions;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException(String key) {
+        super(String.format("Idempotency key %s was already used for a different request", key));
+    }
+}
@@ -9,8 +9,10 @@ import org.mapstruct.Mapping;
 public interface BudgetMapper {
 
     @Mapping(source = "dashboard", target = "dashboard")
+    @Mapping(source = "category.id", target = "categoryId")
     BudgetDto toDto(Budget budget);
 
     @Mapping(target = "dashboard", ignore = true) // I'll set it manually in the service layer
+    @Mapping(target = "category", ignore = true) // Resolved from categoryId in the service layer
     Budget toEntity(BudgetDto budgetDto);
 }
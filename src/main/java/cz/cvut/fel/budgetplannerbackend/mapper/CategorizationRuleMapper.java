@@ -0,0 +1,14 @@
+package cz.cvut.fel.budgetplannerbackend.mapper;
+
+import cz.cvut.fel.budgetplannerbackend.dto.CategorizationRuleDto;
+import cz.cvut.fel.budgetplannerbackend.entity.CategorizationRule;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface CategorizationRuleMapper {
+
+    @Mapping(source = "dashboard.id", target = "dashboardId")
+    @Mapping(source = "category.id", target = "categoryId")
+    CategorizationRuleDto toDto(CategorizationRule categorizationRule);
+}
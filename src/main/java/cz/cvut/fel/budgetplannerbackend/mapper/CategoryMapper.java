@@ -9,8 +9,10 @@ import org.mapstruct.Mapping;
 public interface CategoryMapper {
 
     @Mapping(source = "dashboard", target = "dashboard")
+    @Mapping(source = "parent.id", target = "parentId")
     CategoryDto toDto(Category category);
 
     @Mapping(target = "dashboard", ignore = true) // I'll set it manually in the service layer
+    @Mapping(target = "parent", ignore = true)
     Category toEntity(CategoryDto categoryDto);
 }
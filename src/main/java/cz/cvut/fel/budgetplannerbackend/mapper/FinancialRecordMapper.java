@@ -2,9 +2,14 @@ package cz.cvut.fel.budgetplannerbackend.mapper;
 
 import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
 import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.Tag;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
 @Mapper(componentModel = "spring", uses = {DashboardMapper.class, CategoryMapper.class, UserMapper.class})
 public interface FinancialRecordMapper {
 
@@ -13,9 +18,22 @@ public interface FinancialRecordMapper {
     @Mapping(source = "category", target = "category")
     FinancialRecordDto toDto(FinancialRecord financialRecord);
 
+    default Set<String> toTagNames(Set<Tag> tags) {
+        if (tags == null) {
+            return null;
+        }
+        return tags.stream().map(Tag::getName).collect(Collectors.toCollection(TreeSet::new));
+    }
+
     @Mapping(source = "userId", target = "user")
     @Mapping(target = "dashboard", source = "dashboard")
     @Mapping(target = "category", source = "category")
+    @Mapping(target = "tags", ignore = true)
+    @Mapping(target = "anomalyScore", ignore = true)
+    @Mapping(target = "anomalous", ignore = true)
+    @Mapping(target = "recurringTransaction", ignore = true)
+    @Mapping(target = "fingerprint", ignore = true)
+    @Mapping(target = "duplicateOfId", ignore = true)
     FinancialRecord toEntity(FinancialRecordDto financialRecordDto);
 
 }
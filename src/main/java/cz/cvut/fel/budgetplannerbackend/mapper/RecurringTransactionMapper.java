@@ -0,0 +1,14 @@
+package cz.cvut.fel.budgetplannerbackend.mapper;
+
+import cz.cvut.fel.budgetplannerbackend.dto.RecurringTransactionDto;
+import cz.cvut.fel.budgetplannerbackend.entity.RecurringTransaction;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface RecurringTransactionMapper {
+
+    @Mapping(source = "dashboard.id", target = "dashboardId")
+    @Mapping(source = "category.id", target = "categoryId")
+    RecurringTransactionDto toDto(RecurringTransaction recurringTransaction);
+}
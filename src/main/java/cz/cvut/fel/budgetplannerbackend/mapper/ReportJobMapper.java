@@ -0,0 +1,11 @@
+package cz.cvut.fel.budgetplannerbackend.mapper;
+
+import cz.cvut.fel.budgetplannerbackend.dto.ReportJobDto;
+import cz.cvut.fel.budgetplannerbackend.entity.ReportJob;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface ReportJobMapper {
+
+    ReportJobDto toDto(ReportJob reportJob);
+}
@@ -0,0 +1,11 @@
+package cz.cvut.fel.budgetplannerbackend.mapper;
+
+import cz.cvut.fel.budgetplannerbackend.dto.StatementImportDto;
+import cz.cvut.fel.budgetplannerbackend.entity.StatementImport;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface StatementImportMapper {
+
+    StatementImportDto toDto(StatementImport statementImport);
+}
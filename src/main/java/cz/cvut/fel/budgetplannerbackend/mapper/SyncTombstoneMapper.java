@@ -0,0 +1,11 @@
+package cz.cvut.fel.budgetplannerbackend.mapper;
+
+import cz.cvut.fel.budgetplannerbackend.dto.SyncTombstoneDto;
+import cz.cvut.fel.budgetplannerbackend.entity.SyncTombstone;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface SyncTombstoneMapper {
+
+    SyncTombstoneDto toDto(SyncTombstone syncTombstone);
+}
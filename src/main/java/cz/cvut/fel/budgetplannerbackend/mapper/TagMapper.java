@@ -0,0 +1,11 @@
+package cz.cvut.fel.budgetplannerbackend.mapper;
+
+import cz.cvut.fel.budgetplannerbackend.dto.TagDto;
+import cz.cvut.fel.budgetplannerbackend.entity.Tag;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface TagMapper {
+
+    TagDto toDto(Tag tag);
+}
@@ -0,0 +1,90 @@
+package cz.cvut.fel.budgetplannerbackend.metrics;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Application-level meters published next to the JVM, HikariCP, Hibernate and repository metrics.
+ * Meters are registered eagerly so that they show up on the Prometheus endpoint with a zero value.
+ */
+@Component
+public class BusinessMetrics {
+
+    private final Map<ERecordType, Counter> recordsCreated = new EnumMap<>(ERecordType.class);
+    private final Counter loginSuccess;
+    private final Counter loginFailure;
+    private final Timer passwordEncode;
+    private final Timer passwordMatch;
+
+    public BusinessMetrics(MeterRegistry meterRegistry) {
+        for (ERecordType type : ERecordType.values()) {
+            recordsCreated.put(type, Counter.builder("budget_planner.records.created")
+                    .description("Number of financial records created")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        this.loginSuccess = Counter.builder("budget_planner.auth.logins")
+                .description("Number of login attempts")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.loginFailure = Counter.builder("budget_planner.auth.logins")
+                .description("Number of login attempts")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        this.passwordEncode = Timer.builder("budget_planner.password.bcrypt")
+                .description("Time spent hashing or verifying passwords with bcrypt")
+                .tag("operation", "encode")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.passwordMatch = Timer.builder("budget_planner.password.bcrypt")
+                .description("Time spent hashing or verifying passwords with bcrypt")
+                .tag("operation", "matches")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a newly created financial record.
+     *
+     * @param type The type of the created record.
+     */
+    public void recordCreated(ERecordType type) {
+        recordsCreated.get(type).increment();
+    }
+
+    /**
+     * Counts a login attempt.
+     *
+     * @param successful Whether the credentials were accepted.
+     */
+    public void loginAttempt(boolean successful) {
+        (successful ? loginSuccess : loginFailure).increment();
+    }
+
+    /**
+     * Times a bcrypt hash computation.
+     *
+     * @param encode The hashing operation.
+     * @return The value returned by the operation.
+     */
+    public String timePasswordEncode(Supplier<String> encode) {
+        return passwordEncode.record(encode);
+    }
+
+    /**
+     * Times a bcrypt hash verification.
+     *
+     * @param match The verification operation.
+     * @return The value returned by the operation.
+     */
+    public boolean timePasswordMatch(Supplier<Boolean> match) {
+        return Boolean.TRUE.equals(passwordMatch.record(match));
+    }
+}
@@ -0,0 +1,26 @@
+package cz.cvut.fel.budgetplannerbackend.metrics;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt password encoder that records the time spent in hashing and verification.
+ * BCrypt is deliberately slow, so it is usually the dominant cost of login and registration requests.
+ */
+public class TimedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private final BusinessMetrics businessMetrics;
+
+    public TimedBCryptPasswordEncoder(BusinessMetrics businessMetrics) {
+        this.businessMetrics = businessMetrics;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return businessMetrics.timePasswordEncode(() -> super.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return businessMetrics.timePasswordMatch(() -> super.matches(rawPassword, encodedPassword));
+    }
+}
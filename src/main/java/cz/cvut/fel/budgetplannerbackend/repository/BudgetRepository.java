@@ -1,9 +1,12 @@
 package cz.cvut.fel.budgetplannerbackend.repository;
 
 import cz.cvut.fel.budgetplannerbackend.entity.Budget;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +16,10 @@ import java.util.Optional;
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "budgets-query")
+    })
     List<Budget> findAllByDashboardId(Long dashboardId);
 
     Optional<Budget> findByIdAndDashboardId(Long id, Long dashboardId);
@@ -20,5 +27,7 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
     @Modifying
     @Query("DELETE FROM Budget b WHERE b.dashboard.id = :dashboardId")
     void deleteByDashboardId(@Param("dashboardId") Long dashboardId);
-}
 
+    @Query(value = "SELECT * FROM budgets WHERE dashboard_id = :dashboardId AND change_seq > :since ORDER BY change_seq", nativeQuery = true)
+    List<Budget> findChangedSince(@Param("dashboardId") Long dashboardId, @Param("since") Long since);
+}
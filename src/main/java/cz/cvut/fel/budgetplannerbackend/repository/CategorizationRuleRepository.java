@@ -0,0 +1,37 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.CategorizationRule;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CategorizationRuleRepository extends JpaRepository<CategorizationRule, Long> {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "categorization-rules-query")
+    })
+    List<CategorizationRule> findAllByDashboardIdOrderByPriorityAscIdAsc(Long dashboardId);
+
+    Optional<CategorizationRule> findByIdAndDashboardId(Long id, Long dashboardId);
+
+    long countByDashboardId(Long dashboardId);
+
+    @Modifying
+    @Query("DELETE FROM CategorizationRule r WHERE r.category.id IN :categoryIds")
+    void deleteByCategoryIdIn(@Param("categoryIds") Collection<Long> categoryIds);
+
+    @Modifying
+    @Query("DELETE FROM CategorizationRule r WHERE r.dashboard.id = :dashboardId")
+    void deleteByDashboardId(@Param("dashboardId") Long dashboardId);
+}
@@ -0,0 +1,76 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Maintenance and queries of the {@code category_closure} table, which stores every ancestor/descendant pair
+ * of the category hierarchy (including each category paired with itself at depth 0).
+ * Subtree lookups and rollups are a single indexed join instead of a recursive walk.
+ */
+public interface CategoryHierarchyRepository {
+
+    /**
+     * Locks the hierarchy of a dashboard until the end of the transaction by locking the dashboard row,
+     * so that concurrent moves cannot create a cycle or leave stale paths behind.
+     *
+     * @param dashboardId The ID of the dashboard.
+     */
+    void lockHierarchy(Long dashboardId);
+
+    /**
+     * Adds a new leaf category to the hierarchy. The category must not have any closure rows yet.
+     *
+     * @param categoryId The ID of the new category.
+     * @param parentId   The ID of its parent, or null for a top-level category.
+     */
+    void insertIntoHierarchy(Long categoryId, Long parentId);
+
+    /**
+     * Moves a category together with its whole subtree under a new parent.
+     * The caller must make sure that the new parent is not inside the moved subtree.
+     *
+     * @param categoryId  The ID of the moved category.
+     * @param newParentId The ID of the new parent, or null to make the category top-level.
+     */
+    void moveSubtree(Long categoryId, Long newParentId);
+
+    /**
+     * Finds the IDs of a category and all of its descendants.
+     *
+     * @param categoryId The ID of the subtree root.
+     * @return The IDs of the subtree, the root included.
+     */
+    List<Long> findSubtreeIds(Long categoryId);
+
+    /**
+     * Checks whether one category lies in the subtree of another (a category lies in its own subtree).
+     *
+     * @param ancestorId   The ID of the potential ancestor.
+     * @param descendantId The ID of the potential descendant.
+     * @return True if {@code descendantId} is {@code ancestorId} or one of its descendants.
+     */
+    boolean isInSubtree(Long ancestorId, Long descendantId);
+
+    /**
+     * Sums the financial records of a dashboard by category, counting each record towards its own category
+     * and all of that category's ancestors.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param categoryId  The ID of a single category to sum, or null for all categories of the dashboard.
+     * @return The totals per category and record type; combinations without records are omitted.
+     */
+    List<SubtreeTotal> sumSubtreeTotals(Long dashboardId, Long categoryId);
+
+    /**
+     * The total amount of one record type under a category, descendants included.
+     *
+     * @param categoryId The ID of the category.
+     * @param type       The record type.
+     * @param total      The sum of the amounts.
+     */
+    record SubtreeTotal(Long categoryId, ERecordType type, BigDecimal total) {
+    }
+}
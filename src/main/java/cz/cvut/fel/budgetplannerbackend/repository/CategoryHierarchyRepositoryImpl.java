@@ -0,0 +1,121 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Native implementation of {@link CategoryHierarchyRepository}.
+ */
+public class CategoryHierarchyRepositoryImpl implements CategoryHierarchyRepository {
+
+    /**
+     * Query space declared for the native updates, so that they do not clear the whole second-level cache.
+     * No entity is mapped to the closure table.
+     */
+    static final String CLOSURE_QUERY_SPACE = "category_closure";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void lockHierarchy(Long dashboardId) {
+        entityManager.createNativeQuery("SELECT id FROM dashboards WHERE id = :dashboardId FOR UPDATE")
+                .setParameter("dashboardId", dashboardId)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public void insertIntoHierarchy(Long categoryId, Long parentId) {
+        entityManager.flush(); // The category row must exist before the closure rows referencing it.
+        update("INSERT INTO category_closure (ancestor_id, descendant_id, depth) VALUES (:categoryId, :categoryId, 0)")
+                .setParameter("categoryId", categoryId)
+                .executeUpdate();
+        if (parentId != null) {
+            // The new category is a descendant of every ancestor of its parent, one level deeper.
+            update("INSERT INTO category_closure (ancestor_id, descendant_id, depth) "
+                    + "SELECT ancestor_id, :categoryId, depth + 1 FROM category_closure WHERE descendant_id = :parentId")
+                    .setParameter("categoryId", categoryId)
+                    .setParameter("parentId", parentId)
+                    .executeUpdate();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void moveSubtree(Long categoryId, Long newParentId) {
+        // Detach the subtree: drop the paths from the old ancestors into the subtree, keep the paths inside it.
+        update("DELETE FROM category_closure WHERE descendant_id IN "
+                + "(SELECT descendant_id FROM category_closure WHERE ancestor_id = :categoryId) "
+                + "AND ancestor_id NOT IN (SELECT descendant_id FROM category_closure WHERE ancestor_id = :categoryId)")
+                .setParameter("categoryId", categoryId)
+                .executeUpdate();
+        if (newParentId != null) {
+            // Attach it again: pair every ancestor of the new parent with every node of the subtree.
+            update("INSERT INTO category_closure (ancestor_id, descendant_id, depth) "
+                    + "SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1 "
+                    + "FROM category_closure above CROSS JOIN category_closure below "
+                    + "WHERE above.descendant_id = :newParentId AND below.ancestor_id = :categoryId")
+                    .setParameter("categoryId", categoryId)
+                    .setParameter("newParentId", newParentId)
+                    .executeUpdate();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findSubtreeIds(Long categoryId) {
+        List<?> rows = entityManager.createNativeQuery(
+                        "SELECT descendant_id FROM category_closure WHERE ancestor_id = :categoryId")
+                .setParameter("categoryId", categoryId)
+                .getResultList();
+        return rows.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isInSubtree(Long ancestorId, Long descendantId) {
+        return !entityManager.createNativeQuery(
+                        "SELECT 1 FROM category_closure WHERE ancestor_id = :ancestorId AND descendant_id = :descendantId")
+                .setParameter("ancestorId", ancestorId)
+                .setParameter("descendantId", descendantId)
+                .getResultList()
+                .isEmpty();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SubtreeTotal> sumSubtreeTotals(Long dashboardId, Long categoryId) {
+        Query query = entityManager.createNativeQuery("SELECT cc.ancestor_id, fr.type, SUM(fr.amount) "
+                        + "FROM categories c "
+                        + "JOIN category_closure cc ON cc.ancestor_id = c.id "
+                        + "JOIN financial_records fr ON fr.category_id = cc.descendant_id "
+                        + "WHERE c.dashboard_id = :dashboardId "
+                        + (categoryId != null ? "AND c.id = :categoryId " : "")
+                        + "GROUP BY cc.ancestor_id, fr.type")
+                .setParameter("dashboardId", dashboardId);
+        if (categoryId != null) {
+            query.setParameter("categoryId", categoryId);
+        }
+        List<?> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> (Object[]) row)
+                .map(row -> new SubtreeTotal(((Number) row[0]).longValue(), ERecordType.valueOf((String) row[1]),
+                        (BigDecimal) row[2]))
+                .toList();
+    }
+
+    private Query update(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(CLOSURE_QUERY_SPACE);
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +24,10 @@ public interface CategoryPriorityRepository extends JpaRepository<CategoryPriori
 
     void deleteByCategoryId (Long categoryId);
 
+    @Modifying
+    @Query("DELETE FROM CategoryPriority cp WHERE cp.category.id IN :categoryIds")
+    void deleteByCategoryIdIn(@Param("categoryIds") Collection<Long> categoryIds);
+
     @Modifying
     @Query("DELETE FROM CategoryPriority cp WHERE cp.dashboard.id = :dashboardId")
     void deleteByDashboardId(@Param("dashboardId") Long dashboardId);
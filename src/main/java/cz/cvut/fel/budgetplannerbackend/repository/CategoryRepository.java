@@ -1,23 +1,38 @@
 package cz.cvut.fel.budgetplannerbackend.repository;
 
 import cz.cvut.fel.budgetplannerbackend.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryHierarchyRepository {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "categories-query")
+    })
     List<Category> findAllByDashboardId(Long dashboardId);
 
     Optional<Category> findByIdAndDashboardId(Long id, Long dashboardId);
 
+    @Modifying
+    @Query("DELETE FROM Category c WHERE c.id IN :ids")
+    void deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
     @Modifying
     @Query("DELETE FROM Category c WHERE c.dashboard.id = :dashboardId")
     void deleteByDashboardId(@Param("dashboardId") Long dashboardId);
+
+    @Query(value = "SELECT * FROM categories WHERE dashboard_id = :dashboardId AND change_seq > :since ORDER BY change_seq", nativeQuery = true)
+    List<Category> findChangedSince(@Param("dashboardId") Long dashboardId, @Param("since") Long since);
 }
@@ -18,6 +18,9 @@ public interface DashboardAccessRepository extends JpaRepository<DashboardAccess
 
     List<DashboardAccess> findAllByDashboardId(Long dashboardId);
 
+    @Query("SELECT da FROM DashboardAccess da JOIN FETCH da.user WHERE da.dashboard.id = :dashboardId")
+    List<DashboardAccess> findAllWithUserByDashboardId(@Param("dashboardId") Long dashboardId);
+
     List<DashboardAccess> findAllByUserId(Long userId);
 
     @Modifying
@@ -1,17 +1,36 @@
 package cz.cvut.fel.budgetplannerbackend.repository;
 
 import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DashboardRepository extends JpaRepository<Dashboard, Long> {
+public interface DashboardRepository extends JpaRepository<Dashboard, Long>, DashboardVersionRepository {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "dashboards-query")
+    })
     List<Dashboard> findAllByUserId(Long userId);
 
     Optional<Dashboard> findByIdAndUserId(Long id, Long userId);
 
+    /**
+     * Reads the version of a dashboard if the user has at least viewer access to it.
+     * Served by the unique (user_id, dashboard_id) index and the primary key, without loading any entity.
+     */
+    @Query(value = "SELECT d.version FROM dashboards d " +
+            "JOIN dashboard_access da ON da.dashboard_id = d.id AND da.user_id = :userId " +
+            "JOIN access_levels al ON al.id = da.access_level_id " +
+            "WHERE d.id = :dashboardId AND al.level <> 'NONE'", nativeQuery = true)
+    Optional<Long> findVersionForMember(@Param("dashboardId") Long dashboardId, @Param("userId") Long userId);
+
 }
@@ -1,9 +1,12 @@
 package cz.cvut.fel.budgetplannerbackend.repository;
 
 import cz.cvut.fel.budgetplannerbackend.entity.DashboardRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,9 +17,17 @@ import java.util.Optional;
 @Repository
 public interface DashboardRoleRepository extends JpaRepository<DashboardRole, Long> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "dashboard-roles-query")
+    })
     @Query("SELECT dr FROM DashboardRole dr JOIN FETCH dr.role WHERE dr.user.id = :userId AND dr.dashboard.id = :dashboardId")
     Optional<DashboardRole> findByUserIdAndDashboardId(@Param("userId") Long userId, @Param("dashboardId") Long dashboardId);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "dashboard-roles-query")
+    })
     List<DashboardRole> findAllByDashboardId(Long dashboardId);
 
     @Modifying
@@ -0,0 +1,62 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Access to the {@code dashboards.version} change counter and the {@code change_seq} columns stamped with it.
+ * These columns are intentionally not mapped on the entities, so writing them neither dirties nor evicts
+ * cached entities.
+ */
+public interface DashboardVersionRepository {
+
+    /**
+     * Change token of entities changed by a bulk statement of the current transaction, replaced with the dashboard
+     * version by {@link #stampPendingChanges} before commit. It never becomes visible to other transactions.
+     */
+    long PENDING_CHANGE_SEQ = -2;
+
+    /**
+     * Atomically increments the version of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     */
+    void incrementVersion(Long dashboardId);
+
+    /**
+     * Reads the current version of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return The version, or empty if the dashboard does not exist.
+     */
+    Optional<Long> findVersion(Long dashboardId);
+
+    /**
+     * Stamps entities with the change token of the transaction that modified them.
+     *
+     * @param type      The type of the entities.
+     * @param ids       The IDs of the entities.
+     * @param changeSeq The dashboard version assigned to the change.
+     */
+    void stampChanges(ESyncEntityType type, Collection<Long> ids, long changeSeq);
+
+    /**
+     * Stamps the entities of a dashboard marked with {@link #PENDING_CHANGE_SEQ} with the change token of the transaction.
+     *
+     * @param type        The type of the entities.
+     * @param dashboardId The ID of the dashboard.
+     * @param changeSeq   The dashboard version assigned to the change.
+     */
+    void stampPendingChanges(ESyncEntityType type, Long dashboardId, long changeSeq);
+
+    /**
+     * Clears the category of the entities assigned to any of the given categories in one statement, marking them
+     * with {@link #PENDING_CHANGE_SEQ} instead of loading their IDs for stamping.
+     *
+     * @param type        The type of the entities, one having a category.
+     * @param categoryIds The IDs of the categories.
+     */
+    void clearCategories(ESyncEntityType type, Collection<Long> categoryIds);
+}
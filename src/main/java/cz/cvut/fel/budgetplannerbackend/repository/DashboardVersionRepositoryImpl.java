@@ -0,0 +1,84 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Native implementation of {@link DashboardVersionRepository}.
+ */
+public class DashboardVersionRepositoryImpl implements DashboardVersionRepository {
+
+    /**
+     * Query space declared for the native updates. Without it Hibernate treats a native update as touching
+     * every table and clears the whole second-level cache; no entity or cached query depends on this space.
+     */
+    static final String VERSION_QUERY_SPACE = "dashboard_versions";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void incrementVersion(Long dashboardId) {
+        entityManager.createNativeQuery("UPDATE dashboards SET version = version + 1 WHERE id = :dashboardId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(VERSION_QUERY_SPACE)
+                .setParameter("dashboardId", dashboardId)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long dashboardId) {
+        List<?> result = entityManager.createNativeQuery("SELECT version FROM dashboards WHERE id = :dashboardId")
+                .setParameter("dashboardId", dashboardId)
+                .getResultList();
+        return result.stream().findFirst().map(version -> ((Number) version).longValue());
+    }
+
+    @Override
+    @Transactional
+    public void stampChanges(ESyncEntityType type, Collection<Long> ids, long changeSeq) {
+        // The table name comes from the enum, never from user input.
+        entityManager.createNativeQuery("UPDATE " + type.getTableName()
+                        + " SET change_seq = :changeSeq, updated_at = CURRENT_TIMESTAMP WHERE id IN (:ids)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(VERSION_QUERY_SPACE)
+                .setParameter("changeSeq", changeSeq)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public void stampPendingChanges(ESyncEntityType type, Long dashboardId, long changeSeq) {
+        entityManager.createNativeQuery("UPDATE " + type.getTableName()
+                        + " SET change_seq = :changeSeq WHERE dashboard_id = :dashboardId AND change_seq = :pending")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(VERSION_QUERY_SPACE)
+                .setParameter("changeSeq", changeSeq)
+                .setParameter("dashboardId", dashboardId)
+                .setParameter("pending", PENDING_CHANGE_SEQ)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public void clearCategories(ESyncEntityType type, Collection<Long> categoryIds) {
+        // The category changes, so the entities of the table are evicted from the caches, unlike when only stamping.
+        entityManager.createNativeQuery("UPDATE " + type.getTableName()
+                        + " SET category_id = NULL, change_seq = :pending, updated_at = CURRENT_TIMESTAMP WHERE category_id IN (:categoryIds)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(type.getTableName())
+                .setParameter("pending", PENDING_CHANGE_SEQ)
+                .setParameterList("categoryIds", categoryIds)
+                .executeUpdate();
+    }
+}
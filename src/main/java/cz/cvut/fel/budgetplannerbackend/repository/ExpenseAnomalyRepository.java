@@ -0,0 +1,91 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage of the expense anomaly statistics created by the V11 migration and of the anomaly scores of records.
+ * Uncategorized expenses have the category ID {@link #UNCATEGORIZED}.
+ */
+public interface ExpenseAnomalyRepository {
+
+    long UNCATEGORIZED = 0;
+
+    /**
+     * Finds the checkpointed statistics of a category.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param categoryId  The ID of the category, or {@link #UNCATEGORIZED}.
+     * @return The statistics, if any were checkpointed.
+     */
+    Optional<AnomalyStatistics> findAnomalyStatistics(Long dashboardId, long categoryId);
+
+    /**
+     * Inserts or overwrites checkpointed statistics.
+     *
+     * @param statistics The statistics.
+     */
+    void saveAnomalyStatistics(Collection<AnomalyStatistics> statistics);
+
+    /**
+     * Replaces all checkpointed statistics of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param statistics  The new statistics of the dashboard.
+     */
+    void replaceAnomalyStatistics(Long dashboardId, Collection<AnomalyStatistics> statistics);
+
+    /**
+     * Streams the expenses of a dashboard ordered by date, without loading them all into memory.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param action      Called for every expense.
+     */
+    void forEachExpenseByDate(Long dashboardId, Consumer<ScoredExpense> action);
+
+    /**
+     * Sets the anomaly scores of records.
+     *
+     * @param scores The new scores.
+     */
+    void updateAnomalyScores(Collection<AnomalyScore> scores);
+
+    /**
+     * @return The IDs of the dashboards having expenses, in ascending order.
+     */
+    List<Long> findDashboardIdsWithExpenses();
+
+    /**
+     * @param dashboardId The ID of the dashboard.
+     * @param categoryId  The ID of the category, or {@link #UNCATEGORIZED}.
+     * @param mean        The exponentially weighted mean of the amounts.
+     * @param variance    The exponentially weighted variance of the amounts.
+     * @param sampleCount The number of expenses the statistics have seen.
+     */
+    record AnomalyStatistics(Long dashboardId, long categoryId, double mean, double variance, long sampleCount) {
+    }
+
+    /**
+     * @param id           The ID of the record.
+     * @param date         The date of the record.
+     * @param categoryId   The ID of the category, or {@link #UNCATEGORIZED}.
+     * @param amount       The amount.
+     * @param anomalyScore The stored anomaly score, or null.
+     * @param anomalous    The stored anomaly flag.
+     */
+    record ScoredExpense(Long id, LocalDateTime date, long categoryId, BigDecimal amount, Double anomalyScore, boolean anomalous) {
+    }
+
+    /**
+     * @param id           The ID of the record.
+     * @param date         The date of the record, locating its partition.
+     * @param anomalyScore The anomaly score, or null.
+     * @param anomalous    The anomaly flag.
+     */
+    record AnomalyScore(Long id, LocalDateTime date, Double anomalyScore, boolean anomalous) {
+    }
+}
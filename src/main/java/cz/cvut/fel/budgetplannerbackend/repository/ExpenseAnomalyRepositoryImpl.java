@@ -0,0 +1,157 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static cz.cvut.fel.budgetplannerbackend.repository.NativeQueryValues.toLocalDateTime;
+
+/**
+ * Implementation of {@link ExpenseAnomalyRepository} using native queries on the table of the V11 migration
+ * and on the anomaly columns of financial_records.
+ */
+public class ExpenseAnomalyRepositoryImpl implements ExpenseAnomalyRepository {
+
+    /**
+     * Query space declared for the native updates of the statistics, so that they do not clear the whole
+     * second-level cache. No entity is mapped to the statistics table.
+     */
+    static final String ANOMALY_QUERY_SPACE = "expense_anomaly_statistics";
+    private static final int FETCH_SIZE = 1000;
+    private static final int UPDATE_CHUNK_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AnomalyStatistics> findAnomalyStatistics(Long dashboardId, long categoryId) {
+        List<?> rows = entityManager.createNativeQuery("SELECT mean, variance, sample_count FROM expense_anomaly_statistics "
+                        + "WHERE dashboard_id = :dashboardId AND category_id = :categoryId")
+                .setParameter("dashboardId", dashboardId)
+                .setParameter("categoryId", categoryId)
+                .getResultList();
+        return rows.stream()
+                .map(row -> (Object[]) row)
+                .map(row -> new AnomalyStatistics(dashboardId, categoryId, ((Number) row[0]).doubleValue(),
+                        ((Number) row[1]).doubleValue(), ((Number) row[2]).longValue()))
+                .findFirst();
+    }
+
+    @Override
+    @Transactional
+    public void saveAnomalyStatistics(Collection<AnomalyStatistics> statistics) {
+        for (AnomalyStatistics entry : statistics) {
+            insert(entry, "ON CONFLICT (dashboard_id, category_id) DO UPDATE SET mean = EXCLUDED.mean, "
+                    + "variance = EXCLUDED.variance, sample_count = EXCLUDED.sample_count, updated_at = EXCLUDED.updated_at");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void replaceAnomalyStatistics(Long dashboardId, Collection<AnomalyStatistics> statistics) {
+        update("DELETE FROM expense_anomaly_statistics WHERE dashboard_id = :dashboardId")
+                .setParameter("dashboardId", dashboardId)
+                .executeUpdate();
+        for (AnomalyStatistics entry : statistics) {
+            insert(entry, "");
+        }
+    }
+
+    private void insert(AnomalyStatistics entry, String onConflict) {
+        update("INSERT INTO expense_anomaly_statistics (dashboard_id, category_id, mean, variance, sample_count, updated_at) "
+                        + "VALUES (:dashboardId, :categoryId, :mean, :variance, :sampleCount, :updatedAt) " + onConflict)
+                .setParameter("dashboardId", entry.dashboardId())
+                .setParameter("categoryId", entry.categoryId())
+                .setParameter("mean", entry.mean())
+                .setParameter("variance", entry.variance())
+                .setParameter("sampleCount", entry.sampleCount())
+                .setParameter("updatedAt", LocalDateTime.now())
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachExpenseByDate(Long dashboardId, Consumer<ScoredExpense> action) {
+        // With a fetch size, the PostgreSQL driver reads the rows in chunks through a cursor.
+        try (Stream<?> rows = entityManager.createNativeQuery("SELECT id, date, category_id, amount, anomaly_score, anomalous "
+                        + "FROM financial_records WHERE dashboard_id = :dashboardId AND type = 'EXPENSE' ORDER BY date, id")
+                .setParameter("dashboardId", dashboardId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream()) {
+            rows.map(row -> (Object[]) row)
+                    .forEach(row -> action.accept(new ScoredExpense(((Number) row[0]).longValue(), toLocalDateTime(row[1]),
+                            row[2] == null ? UNCATEGORIZED : ((Number) row[2]).longValue(), (BigDecimal) row[3],
+                            row[4] == null ? null : ((Number) row[4]).doubleValue(), Boolean.TRUE.equals(row[5]))));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void updateAnomalyScores(Collection<AnomalyScore> scores) {
+        List<AnomalyScore> chunk = new ArrayList<>(UPDATE_CHUNK_SIZE);
+        for (AnomalyScore score : scores) {
+            chunk.add(score);
+            if (chunk.size() == UPDATE_CHUNK_SIZE) {
+                updateChunk(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            updateChunk(chunk);
+        }
+    }
+
+    // One statement per chunk; the date lets PostgreSQL prune the partitions not containing the records.
+    private void updateChunk(List<AnomalyScore> chunk) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < chunk.size(); i++) {
+            // The types of VALUES columns are not inferred from the target table.
+            values.append(i == 0 ? "" : ", ")
+                    .append("(CAST(:id").append(i).append(" AS BIGINT), CAST(:date").append(i).append(" AS TIMESTAMP), ")
+                    .append("CAST(:score").append(i).append(" AS DOUBLE PRECISION), CAST(:anomalous").append(i).append(" AS BOOLEAN))");
+        }
+        Query query = entityManager.createNativeQuery("UPDATE financial_records r SET anomaly_score = v.score, anomalous = v.anomalous "
+                        + "FROM (VALUES " + values + ") AS v (id, date, score, anomalous) WHERE r.id = v.id AND r.date = v.date")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(FinancialRecord.class);
+        for (int i = 0; i < chunk.size(); i++) {
+            AnomalyScore score = chunk.get(i);
+            query.setParameter("id" + i, score.id())
+                    .setParameter("date" + i, score.date())
+                    .setParameter("score" + i, score.anomalyScore())
+                    .setParameter("anomalous" + i, score.anomalous());
+        }
+        query.executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findDashboardIdsWithExpenses() {
+        List<?> ids = entityManager.createNativeQuery("SELECT d.id FROM dashboards d "
+                        + "WHERE EXISTS (SELECT 1 FROM financial_records r WHERE r.dashboard_id = d.id AND r.type = 'EXPENSE') ORDER BY d.id")
+                .getResultList();
+        return ids.stream()
+                .map(id -> ((Number) id).longValue())
+                .toList();
+    }
+
+    private Query update(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(ANOMALY_QUERY_SPACE);
+    }
+}
@@ -0,0 +1,88 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage of the monthly expense sketches created by the V10 migration.
+ * <p>
+ * Every month of a dashboard has a generation, bumped by a trigger whenever its expenses change. Sketches of a
+ * month are valid while they were built from the current generation; stale months are rebuilt from the records.
+ */
+public interface ExpenseSketchRepository {
+
+    /**
+     * Finds the sketch state of the months of a dashboard that have one. Months without a state have never
+     * had their sketches built nor their expenses changed since the migration, i.e. they are at generation 0.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param from        The first month, inclusive.
+     * @param to          The last month, exclusive.
+     * @return The states of the months.
+     */
+    List<SketchMonth> findSketchMonths(Long dashboardId, LocalDate from, LocalDate to);
+
+    /**
+     * Streams the expenses of a dashboard dated within a range, without loading them all into memory.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param from        The first month, inclusive.
+     * @param to          The last month, exclusive.
+     * @param action      Called for every expense.
+     */
+    void forEachExpense(Long dashboardId, LocalDate from, LocalDate to, Consumer<Expense> action);
+
+    /**
+     * Marks the sketches of a month as built from a generation, unless the month changed since the generation
+     * was read or another transaction already built them. Locks the month until the end of the transaction.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param month       The month.
+     * @param generation  The generation the sketches were built from.
+     * @return True if the caller has to store the sketches with {@link #replaceSketches}.
+     */
+    boolean claimSketchMonth(Long dashboardId, LocalDate month, long generation);
+
+    /**
+     * Replaces the sketches of a month claimed by {@link #claimSketchMonth}.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param month       The month.
+     * @param sketches    The new sketches of the month.
+     */
+    void replaceSketches(Long dashboardId, LocalDate month, Collection<ExpenseSketch> sketches);
+
+    /**
+     * Finds the stored sketches of months of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param months      The months.
+     * @return The sketches of the months.
+     */
+    List<ExpenseSketch> findSketches(Long dashboardId, Collection<LocalDate> months);
+
+    /**
+     * @param month           The month.
+     * @param generation      The current generation of the month.
+     * @param builtGeneration The generation the stored sketches were built from, or null if there are none.
+     */
+    record SketchMonth(LocalDate month, long generation, Long builtGeneration) {
+    }
+
+    record Expense(LocalDate month, Long categoryId, Long userId, BigDecimal amount) {
+    }
+
+    /**
+     * @param month       The month.
+     * @param categoryId  The ID of the category, or null for uncategorized expenses.
+     * @param userId      The ID of the member who recorded the expenses.
+     * @param recordCount The number of expenses.
+     * @param maxAmount   The largest expense.
+     * @param digest      The serialized t-digest of the amounts.
+     */
+    record ExpenseSketch(LocalDate month, Long categoryId, Long userId, long recordCount, BigDecimal maxAmount, byte[] digest) {
+    }
+}
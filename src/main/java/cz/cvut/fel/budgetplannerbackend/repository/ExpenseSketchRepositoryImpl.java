@@ -0,0 +1,130 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of {@link ExpenseSketchRepository} using native queries on the tables of the V10 migration.
+ */
+public class ExpenseSketchRepositoryImpl implements ExpenseSketchRepository {
+
+    /**
+     * Query space declared for the native updates, so that they do not clear the whole second-level cache.
+     * No entity is mapped to the sketch tables.
+     */
+    static final String SKETCH_QUERY_SPACE = "expense_sketches";
+    private static final int FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SketchMonth> findSketchMonths(Long dashboardId, LocalDate from, LocalDate to) {
+        List<?> rows = entityManager.createNativeQuery("SELECT month, generation, built_generation FROM expense_sketch_months "
+                        + "WHERE dashboard_id = :dashboardId AND month >= :from AND month < :to")
+                .setParameter("dashboardId", dashboardId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+        return rows.stream()
+                .map(row -> (Object[]) row)
+                .map(row -> new SketchMonth(toLocalDate(row[0]), ((Number) row[1]).longValue(),
+                        row[2] == null ? null : ((Number) row[2]).longValue()))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachExpense(Long dashboardId, LocalDate from, LocalDate to, Consumer<Expense> action) {
+        // With a fetch size, the PostgreSQL driver reads the rows in chunks through a cursor.
+        try (Stream<?> rows = entityManager.createNativeQuery("SELECT CAST(date_trunc('month', date) AS DATE), category_id, user_id, amount "
+                        + "FROM financial_records WHERE dashboard_id = :dashboardId AND type = 'EXPENSE' AND date >= :from AND date < :to")
+                .setParameter("dashboardId", dashboardId)
+                .setParameter("from", from.atStartOfDay())
+                .setParameter("to", to.atStartOfDay())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream()) {
+            rows.map(row -> (Object[]) row)
+                    .forEach(row -> action.accept(new Expense(toLocalDate(row[0]), row[1] == null ? null : ((Number) row[1]).longValue(),
+                            ((Number) row[2]).longValue(), (BigDecimal) row[3])));
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean claimSketchMonth(Long dashboardId, LocalDate month, long generation) {
+        // Concurrent claims of the same generation are serialized by the row lock; only the first one updates the row.
+        int claimed = update("INSERT INTO expense_sketch_months (dashboard_id, month, generation, built_generation) "
+                        + "VALUES (:dashboardId, :month, :generation, :generation) ON CONFLICT (dashboard_id, month) "
+                        + "DO UPDATE SET built_generation = EXCLUDED.built_generation "
+                        + "WHERE expense_sketch_months.generation = EXCLUDED.generation "
+                        + "AND expense_sketch_months.built_generation IS DISTINCT FROM EXCLUDED.generation")
+                .setParameter("dashboardId", dashboardId)
+                .setParameter("month", month)
+                .setParameter("generation", generation)
+                .executeUpdate();
+        return claimed == 1;
+    }
+
+    @Override
+    @Transactional
+    public void replaceSketches(Long dashboardId, LocalDate month, Collection<ExpenseSketch> sketches) {
+        update("DELETE FROM expense_sketches WHERE dashboard_id = :dashboardId AND month = :month")
+                .setParameter("dashboardId", dashboardId)
+                .setParameter("month", month)
+                .executeUpdate();
+        for (ExpenseSketch sketch : sketches) {
+            update("INSERT INTO expense_sketches (dashboard_id, month, category_id, user_id, record_count, max_amount, digest) "
+                            + "VALUES (:dashboardId, :month, :categoryId, :userId, :recordCount, :maxAmount, :digest)")
+                    .setParameter("dashboardId", dashboardId)
+                    .setParameter("month", month)
+                    .setParameter("categoryId", sketch.categoryId())
+                    .setParameter("userId", sketch.userId())
+                    .setParameter("recordCount", sketch.recordCount())
+                    .setParameter("maxAmount", sketch.maxAmount())
+                    .setParameter("digest", sketch.digest())
+                    .executeUpdate();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ExpenseSketch> findSketches(Long dashboardId, Collection<LocalDate> months) {
+        if (months.isEmpty()) {
+            return List.of();
+        }
+        List<?> rows = entityManager.createNativeQuery("SELECT month, category_id, user_id, record_count, max_amount, digest "
+                        + "FROM expense_sketches WHERE dashboard_id = :dashboardId AND month IN (:months)")
+                .setParameter("dashboardId", dashboardId)
+                .setParameter("months", months)
+                .getResultList();
+        return rows.stream()
+                .map(row -> (Object[]) row)
+                .map(row -> new ExpenseSketch(toLocalDate(row[0]), row[1] == null ? null : ((Number) row[1]).longValue(),
+                        ((Number) row[2]).longValue(), ((Number) row[3]).longValue(), (BigDecimal) row[4], (byte[]) row[5]))
+                .toList();
+    }
+
+    private Query update(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(SKETCH_QUERY_SPACE);
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
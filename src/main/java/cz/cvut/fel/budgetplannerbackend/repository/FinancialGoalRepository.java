@@ -1,7 +1,12 @@
 package cz.cvut.fel.budgetplannerbackend.repository;
 
 import cz.cvut.fel.budgetplannerbackend.entity.FinancialGoal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,9 +15,16 @@ import java.util.Optional;
 @Repository
 public interface FinancialGoalRepository extends JpaRepository<FinancialGoal, Long> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "financial-goals-query")
+    })
     List<FinancialGoal> findByDashboardId(Long dashboardId);
 
     Optional<FinancialGoal> findByIdAndDashboardId(Long goalId, Long dashboardId);
 
     void deleteByDashboardId(Long dashboardId);
-}
\ No newline at end of file
+
+    @Query(value = "SELECT * FROM financial_goals WHERE dashboard_id = :dashboardId AND change_seq > :since ORDER BY change_seq", nativeQuery = true)
+    List<FinancialGoal> findChangedSince(@Param("dashboardId") Long dashboardId, @Param("since") Long since);
+}
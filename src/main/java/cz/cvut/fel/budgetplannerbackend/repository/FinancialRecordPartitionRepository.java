@@ -0,0 +1,28 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintenance of the monthly range partitions of the {@code financial_records} table (PostgreSQL only).
+ */
+public interface FinancialRecordPartitionRepository {
+
+    /**
+     * Creates the partition of a month unless it already exists.
+     * Records of that month held by the default partition are moved into the new partition.
+     *
+     * @param month Any day of the month.
+     * @return True if the partition was created, false if it already existed.
+     */
+    boolean ensureMonthlyPartition(LocalDate month);
+
+    /**
+     * Finds the months of records held by the default partition, i.e. dated in months without their own partition.
+     *
+     * @param from The first day of the earliest month to look for, inclusive.
+     * @param to   The first day of the month after the latest month to look for.
+     * @return The first days of the months found, in ascending order.
+     */
+    List<LocalDate> findMonthsInDefaultPartition(LocalDate from, LocalDate to);
+}
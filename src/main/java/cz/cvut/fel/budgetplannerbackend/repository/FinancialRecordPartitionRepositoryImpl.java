@@ -0,0 +1,41 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Implementation of {@link FinancialRecordPartitionRepository} delegating to the
+ * {@code ensure_financial_records_partition} database function created by the V9 migration.
+ */
+public class FinancialRecordPartitionRepositoryImpl implements FinancialRecordPartitionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public boolean ensureMonthlyPartition(LocalDate month) {
+        Object created = entityManager.createNativeQuery("SELECT ensure_financial_records_partition(:month)")
+                .setParameter("month", month)
+                .getSingleResult();
+        return Boolean.TRUE.equals(created);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LocalDate> findMonthsInDefaultPartition(LocalDate from, LocalDate to) {
+        List<?> months = entityManager.createNativeQuery("SELECT DISTINCT CAST(date_trunc('month', date) AS DATE) AS month "
+                        + "FROM financial_records_default WHERE date >= :from AND date < :to ORDER BY month")
+                .setParameter("from", from.atStartOfDay())
+                .setParameter("to", to.atStartOfDay())
+                .getResultList();
+        return months.stream()
+                .map(month -> ((Date) month).toLocalDate())
+                .toList();
+    }
+}
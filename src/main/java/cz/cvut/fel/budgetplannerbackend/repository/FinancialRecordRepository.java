@@ -8,16 +8,27 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface FinancialRecordRepository extends JpaRepository<FinancialRecord, String> {
+public interface FinancialRecordRepository extends JpaRepository<FinancialRecord, String>, FinancialRecordSearchRepository,
+        FinancialRecordPartitionRepository, ExpenseSketchRepository, ExpenseAnomalyRepository, RecordCategorizationRepository,
+        RecordDuplicateRepository, RecordReportRepository {
 
     List<FinancialRecord> findAllByDashboardId(Long dashboardId);
 
     Optional<FinancialRecord> findByIdAndDashboardId(Long id, Long dashboardId);
 
+    List<FinancialRecord> findAllByIdInAndDashboardId(Collection<Long> ids, Long dashboardId);
+
+    List<FinancialRecord> findAllByDashboardIdAndDuplicateOfIdIsNotNullOrderByDateDesc(Long dashboardId);
+
+    @Query("SELECT fr.id FROM FinancialRecord fr WHERE fr.category.id = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
     @Modifying
     @Query("UPDATE FinancialRecord fr SET fr.category = null WHERE fr.category.id = :categoryId")
     void setCategoryToNullByCategoryId(@Param("categoryId") Long categoryId);
@@ -26,9 +37,45 @@ public interface FinancialRecordRepository extends JpaRepository<FinancialRecord
     @Query("DELETE FROM FinancialRecord fr WHERE fr.dashboard.id = :dashboardId")
     void deleteByDashboardId(@Param("dashboardId") Long dashboardId);
 
+    // The date bounds let PostgreSQL skip the partitions outside the range.
+    @Query("SELECT fr FROM FinancialRecord fr WHERE fr.dashboard.id = :dashboardId AND fr.date >= :from AND fr.date < :to " +
+            "ORDER BY fr.date DESC, fr.id DESC")
+    List<FinancialRecord> findAllByDashboardIdAndDateRange(@Param("dashboardId") Long dashboardId,
+                                                           @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT fr.type, SUM(fr.amount) FROM FinancialRecord fr " +
+            "WHERE fr.dashboard.id = :dashboardId AND fr.date >= :from AND fr.date < :to GROUP BY fr.type")
+    List<Object[]> sumAmountsByTypeAndDateRange(@Param("dashboardId") Long dashboardId,
+                                                @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT fr.category.id, SUM(fr.amount) FROM FinancialRecord fr WHERE fr.dashboard.id = :dashboardId " +
+            "AND fr.type = 'EXPENSE' AND fr.category IS NOT NULL AND fr.date >= :from AND fr.date < :to GROUP BY fr.category.id")
+    List<Object[]> sumExpensesByCategoryAndDateRange(@Param("dashboardId") Long dashboardId,
+                                                     @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Rows of [recurring_transaction_id, date] of the occurrences of the given templates already materialized in a range.
+    @Query("SELECT fr.recurringTransaction.id, fr.date FROM FinancialRecord fr " +
+            "WHERE fr.recurringTransaction.id IN :recurringTransactionIds AND fr.date >= :from AND fr.date <= :to")
+    List<Object[]> findRecurringOccurrences(@Param("recurringTransactionIds") Collection<Long> recurringTransactionIds,
+                                            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Kept current by the triggers of the V13 migration; one row per member who ever recorded an expense.
+    @Query(value = "SELECT user_id, paid FROM dashboard_member_expenses WHERE dashboard_id = :dashboardId", nativeQuery = true)
+    List<Object[]> findMemberExpenses(@Param("dashboardId") Long dashboardId);
+
+    // Sums per date_trunc bucket, ordered by bucket; the unit is one of ETimeBucket's SQL units.
+    @Query(value = "SELECT date_trunc(:unit, fr.date), fr.type, SUM(fr.amount) FROM financial_records fr " +
+            "WHERE fr.dashboard_id = :dashboardId AND fr.date >= :from AND fr.date < :to GROUP BY 1, 2 ORDER BY 1",
+            nativeQuery = true)
+    List<Object[]> sumAmountsByBucketAndType(@Param("dashboardId") Long dashboardId, @Param("unit") String unit,
+                                             @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     @Query("SELECT SUM(fr.amount) FROM FinancialRecord fr WHERE fr.dashboard.id = :dashboardId AND fr.type = 'INCOME'")
     BigDecimal sumIncomeByDashboardId(@Param("dashboardId") Long dashboardId);
 
     @Query("SELECT SUM(fr.amount) FROM FinancialRecord fr WHERE fr.dashboard.id = :dashboardId AND fr.user.id = :userId AND fr.type = 'INCOME'")
     BigDecimal sumIncomeByUserIdAndDashboardId(@Param("userId") Long userId, @Param("dashboardId") Long dashboardId);
+
+    @Query(value = "SELECT * FROM financial_records WHERE dashboard_id = :dashboardId AND change_seq > :since ORDER BY change_seq", nativeQuery = true)
+    List<FinancialRecord> findChangedSince(@Param("dashboardId") Long dashboardId, @Param("since") Long since);
 }
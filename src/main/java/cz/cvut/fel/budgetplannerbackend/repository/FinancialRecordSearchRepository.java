@@ -0,0 +1,32 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import java.util.List;
+
+/**
+ * Full-text search over the {@code description_tsv} column of financial records (PostgreSQL only).
+ */
+public interface FinancialRecordSearchRepository {
+
+    /**
+     * Finds the records of a dashboard matching a text search query, best ranked first.
+     * Results are ordered by descending rank and ID; passing the rank and ID of the last record of a page
+     * continues after it.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param tsQuery     The query in {@code to_tsquery} syntax.
+     * @param afterRank   The rank of the last record of the previous page, or null for the first page.
+     * @param afterId     The ID of the last record of the previous page, or null for the first page.
+     * @param limit       The maximum number of results.
+     * @return The IDs and ranks of the matching records.
+     */
+    List<SearchHit> searchByDescription(Long dashboardId, String tsQuery, Float afterRank, Long afterId, int limit);
+
+    /**
+     * A record matching a search query.
+     *
+     * @param id   The ID of the record.
+     * @param rank The ts_rank of the record.
+     */
+    record SearchHit(Long id, float rank) {
+    }
+}
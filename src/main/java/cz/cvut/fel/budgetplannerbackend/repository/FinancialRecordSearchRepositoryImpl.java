@@ -0,0 +1,40 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Native implementation of {@link FinancialRecordSearchRepository}, served by the GIN index on {@code description_tsv}.
+ */
+public class FinancialRecordSearchRepositoryImpl implements FinancialRecordSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SearchHit> searchByDescription(Long dashboardId, String tsQuery, Float afterRank, Long afterId, int limit) {
+        boolean continuation = afterRank != null && afterId != null;
+        // ts_rank returns a real, so the rank taken from a cursor compares equal to the one computed again.
+        Query query = entityManager.createNativeQuery("SELECT fr.id, ts_rank(fr.description_tsv, q, 1) AS rank "
+                        + "FROM financial_records fr, to_tsquery('simple', :tsQuery) q "
+                        + "WHERE fr.dashboard_id = :dashboardId AND fr.description_tsv @@ q "
+                        + (continuation ? "AND (ts_rank(fr.description_tsv, q, 1), fr.id) < (CAST(:afterRank AS real), :afterId) " : "")
+                        + "ORDER BY rank DESC, fr.id DESC LIMIT :limit")
+                .setParameter("tsQuery", tsQuery)
+                .setParameter("dashboardId", dashboardId)
+                .setParameter("limit", limit);
+        if (continuation) {
+            query.setParameter("afterRank", afterRank).setParameter("afterId", afterId);
+        }
+        List<?> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> (Object[]) row)
+                .map(row -> new SearchHit(((Number) row[0]).longValue(), ((Number) row[1]).floatValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,21 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Converts the column values of native query rows.
+ */
+public final class NativeQueryValues {
+
+    private NativeQueryValues() {
+    }
+
+    /**
+     * @param value A timestamp column, returned as a {@link Timestamp} or a {@link LocalDateTime} depending on the driver.
+     * @return The value as a local date and time, or null.
+     */
+    public static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
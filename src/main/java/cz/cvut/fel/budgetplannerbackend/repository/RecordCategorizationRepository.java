@@ -0,0 +1,49 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bulk categorization of the financial records created without a category.
+ */
+public interface RecordCategorizationRepository {
+
+    /**
+     * Streams the uncategorized records of a dashboard, without loading them all into memory.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param action      Called for every uncategorized record.
+     */
+    void forEachUncategorizedRecord(Long dashboardId, Consumer<UncategorizedRecord> action);
+
+    /**
+     * Sets the categories of records that are still uncategorized; records categorized meanwhile keep their category.
+     *
+     * @param categories The new categories of the records, in chunks of at most a few hundred.
+     * @return The IDs of the records that were categorized.
+     */
+    List<Long> categorizeRecords(Collection<RecordCategory> categories);
+
+    /**
+     * @param id          The ID of the record.
+     * @param date        The date of the record.
+     * @param type        The type of the record.
+     * @param amount      The amount.
+     * @param description The description, or null.
+     */
+    record UncategorizedRecord(Long id, LocalDateTime date, ERecordType type, BigDecimal amount, String description) {
+    }
+
+    /**
+     * @param id         The ID of the record.
+     * @param date       The date of the record, locating its partition.
+     * @param categoryId The ID of the category.
+     */
+    record RecordCategory(Long id, LocalDateTime date, Long categoryId) {
+    }
+}
@@ -0,0 +1,78 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static cz.cvut.fel.budgetplannerbackend.repository.NativeQueryValues.toLocalDateTime;
+
+/**
+ * Implementation of {@link RecordCategorizationRepository} using native queries on financial_records,
+ * reading the partial index of the uncategorized records created by the V15 migration.
+ */
+public class RecordCategorizationRepositoryImpl implements RecordCategorizationRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachUncategorizedRecord(Long dashboardId, Consumer<UncategorizedRecord> action) {
+        // With a fetch size, the PostgreSQL driver reads the rows in chunks through a cursor.
+        try (Stream<?> rows = entityManager.createNativeQuery("SELECT id, date, type, amount, description FROM financial_records "
+                        + "WHERE dashboard_id = :dashboardId AND category_id IS NULL ORDER BY date, id")
+                .setParameter("dashboardId", dashboardId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream()) {
+            rows.map(row -> (Object[]) row)
+                    .forEach(row -> action.accept(new UncategorizedRecord(((Number) row[0]).longValue(), toLocalDateTime(row[1]),
+                            ERecordType.valueOf((String) row[2]), (BigDecimal) row[3], (String) row[4])));
+        }
+    }
+
+    // One statement for all records; the date lets PostgreSQL prune the partitions not containing them.
+    @Override
+    @Transactional
+    public List<Long> categorizeRecords(Collection<RecordCategory> categories) {
+        if (categories.isEmpty()) {
+            return List.of();
+        }
+        List<RecordCategory> records = List.copyOf(categories);
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < records.size(); i++) {
+            // The types of VALUES columns are not inferred from the target table.
+            values.append(i == 0 ? "" : ", ")
+                    .append("(CAST(:id").append(i).append(" AS BIGINT), CAST(:date").append(i).append(" AS TIMESTAMP), ")
+                    .append("CAST(:category").append(i).append(" AS BIGINT))");
+        }
+        Query query = entityManager.createNativeQuery("UPDATE financial_records r SET category_id = v.category_id "
+                        + "FROM (VALUES " + values + ") AS v (id, date, category_id) "
+                        + "WHERE r.id = v.id AND r.date = v.date AND r.category_id IS NULL RETURNING r.id")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(FinancialRecord.class);
+        for (int i = 0; i < records.size(); i++) {
+            RecordCategory record = records.get(i);
+            query.setParameter("id" + i, record.id())
+                    .setParameter("date" + i, record.date())
+                    .setParameter("category" + i, record.categoryId());
+        }
+        List<?> ids = query.getResultList();
+        return ids.stream()
+                .map(id -> ((Number) id).longValue())
+                .toList();
+    }
+}
@@ -0,0 +1,91 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage of the fingerprints and duplicate flags of financial records created by the V16 migration.
+ */
+public interface RecordDuplicateRepository {
+
+    /**
+     * Finds the earliest record with a fingerprint dated from a point in time that precedes a record,
+     * i.e. is dated before it, or on the same date with a lower ID.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param fingerprint The fingerprint.
+     * @param from        The earliest date, inclusive.
+     * @param date        The date of the record.
+     * @param id          The ID of the record, or null for an unsaved record, which follows all records of its date.
+     * @return The ID of the found record, if any.
+     */
+    Optional<Long> findEarliestByFingerprint(Long dashboardId, long fingerprint, LocalDateTime from, LocalDateTime date, Long id);
+
+    /**
+     * Finds the records with any of several fingerprints dated within a range, ordered by date and ID.
+     *
+     * @param dashboardId  The ID of the dashboard.
+     * @param fingerprints The fingerprints, not empty.
+     * @param from         The start of the range, inclusive.
+     * @param to           The end of the range, inclusive.
+     * @return The records, as duplicate flags with their fingerprint set.
+     */
+    List<DuplicateFlag> findAllByFingerprints(Long dashboardId, Collection<Long> fingerprints, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * @return The IDs of the dashboards having records with a description, in ascending order.
+     */
+    List<Long> findDashboardIdsWithDescribedRecords();
+
+    /**
+     * Streams the records of a dashboard with a description ordered by date, without loading them all into memory.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param since       The earliest date of the records, or null for all records.
+     * @param action      Called for every record.
+     */
+    void forEachDescribedRecordByDate(Long dashboardId, LocalDateTime since, Consumer<DescribedRecord> action);
+
+    /**
+     * Sets the fingerprints and duplicate flags of records.
+     *
+     * @param flags The new fingerprints and flags.
+     */
+    void updateDuplicateFlags(Collection<DuplicateFlag> flags);
+
+    /**
+     * Clears the duplicate flags of the records suspected to duplicate a record.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param recordId    The ID of the record.
+     */
+    void clearDuplicatesOf(Long dashboardId, Long recordId);
+
+    /**
+     * @param id            The ID of the record.
+     * @param date          The date of the record.
+     * @param type          The type of the record.
+     * @param amount        The amount.
+     * @param description   The description, not empty.
+     * @param fingerprint   The stored fingerprint, or null.
+     * @param duplicateOfId The stored ID of the record it duplicates, or null.
+     */
+    record DescribedRecord(Long id, LocalDateTime date, ERecordType type, BigDecimal amount, String description,
+                           Long fingerprint, Long duplicateOfId) {
+    }
+
+    /**
+     * @param id            The ID of the record.
+     * @param date          The date of the record, locating its partition.
+     * @param fingerprint   The fingerprint, or null.
+     * @param duplicateOfId The ID of the record it duplicates, or null.
+     */
+    record DuplicateFlag(Long id, LocalDateTime date, Long fingerprint, Long duplicateOfId) {
+    }
+}
@@ -0,0 +1,152 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static cz.cvut.fel.budgetplannerbackend.repository.NativeQueryValues.toLocalDateTime;
+
+/**
+ * Implementation of {@link RecordDuplicateRepository} using native queries on the duplicate detection columns
+ * and indexes of financial_records.
+ */
+public class RecordDuplicateRepositoryImpl implements RecordDuplicateRepository {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int UPDATE_CHUNK_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findEarliestByFingerprint(Long dashboardId, long fingerprint, LocalDateTime from, LocalDateTime date, Long id) {
+        List<?> ids = entityManager.createNativeQuery("SELECT id FROM financial_records WHERE dashboard_id = :dashboardId "
+                        + "AND fingerprint = :fingerprint AND date >= :from AND date <= :date AND (date < :date OR id < :id) "
+                        + "ORDER BY date, id LIMIT 1")
+                .setParameter("dashboardId", dashboardId)
+                .setParameter("fingerprint", fingerprint)
+                .setParameter("from", from)
+                .setParameter("date", date)
+                .setParameter("id", id != null ? id : Long.MAX_VALUE) // An unsaved record follows all others.
+                .getResultList();
+        return ids.stream()
+                .map(found -> ((Number) found).longValue())
+                .findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DuplicateFlag> findAllByFingerprints(Long dashboardId, Collection<Long> fingerprints, LocalDateTime from, LocalDateTime to) {
+        List<?> rows = entityManager.createNativeQuery("SELECT id, date, fingerprint, duplicate_of_id FROM financial_records "
+                        + "WHERE dashboard_id = :dashboardId AND fingerprint IN (:fingerprints) AND date >= :from AND date <= :to "
+                        + "ORDER BY date, id")
+                .setParameter("dashboardId", dashboardId)
+                .setParameter("fingerprints", fingerprints)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+        return rows.stream()
+                .map(row -> (Object[]) row)
+                .map(row -> new DuplicateFlag(((Number) row[0]).longValue(), toLocalDateTime(row[1]), ((Number) row[2]).longValue(),
+                        row[3] != null ? ((Number) row[3]).longValue() : null))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findDashboardIdsWithDescribedRecords() {
+        List<?> ids = entityManager.createNativeQuery("SELECT d.id FROM dashboards d "
+                        + "WHERE EXISTS (SELECT 1 FROM financial_records r WHERE r.dashboard_id = d.id AND r.description <> '') ORDER BY d.id")
+                .getResultList();
+        return ids.stream()
+                .map(id -> ((Number) id).longValue())
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachDescribedRecordByDate(Long dashboardId, LocalDateTime since, Consumer<DescribedRecord> action) {
+        // With a fetch size, the PostgreSQL driver reads the rows in chunks through a cursor.
+        Query query = entityManager.createNativeQuery("SELECT id, date, type, amount, description, fingerprint, duplicate_of_id "
+                        + "FROM financial_records WHERE dashboard_id = :dashboardId AND description <> ''"
+                        + (since != null ? " AND date >= :since" : "") + " ORDER BY date, id")
+                .setParameter("dashboardId", dashboardId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE);
+        if (since != null) {
+            query.setParameter("since", since);
+        }
+        try (Stream<?> rows = query.getResultStream()) {
+            rows.map(row -> (Object[]) row)
+                    .forEach(row -> action.accept(new DescribedRecord(((Number) row[0]).longValue(), toLocalDateTime(row[1]),
+                            ERecordType.valueOf((String) row[2]), (BigDecimal) row[3], (String) row[4],
+                            row[5] == null ? null : ((Number) row[5]).longValue(), row[6] == null ? null : ((Number) row[6]).longValue())));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void updateDuplicateFlags(Collection<DuplicateFlag> flags) {
+        List<DuplicateFlag> chunk = new ArrayList<>(UPDATE_CHUNK_SIZE);
+        for (DuplicateFlag flag : flags) {
+            chunk.add(flag);
+            if (chunk.size() == UPDATE_CHUNK_SIZE) {
+                updateChunk(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            updateChunk(chunk);
+        }
+    }
+
+    // One statement per chunk; the date lets PostgreSQL prune the partitions not containing the records.
+    private void updateChunk(List<DuplicateFlag> chunk) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < chunk.size(); i++) {
+            // The types of VALUES columns are not inferred from the target table.
+            values.append(i == 0 ? "" : ", ")
+                    .append("(CAST(:id").append(i).append(" AS BIGINT), CAST(:date").append(i).append(" AS TIMESTAMP), ")
+                    .append("CAST(:fingerprint").append(i).append(" AS BIGINT), CAST(:duplicateOf").append(i).append(" AS BIGINT))");
+        }
+        Query query = entityManager.createNativeQuery("UPDATE financial_records r SET fingerprint = v.fingerprint, "
+                        + "duplicate_of_id = v.duplicate_of_id FROM (VALUES " + values + ") AS v (id, date, fingerprint, duplicate_of_id) "
+                        + "WHERE r.id = v.id AND r.date = v.date")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(FinancialRecord.class);
+        for (int i = 0; i < chunk.size(); i++) {
+            DuplicateFlag flag = chunk.get(i);
+            query.setParameter("id" + i, flag.id())
+                    .setParameter("date" + i, flag.date())
+                    .setParameter("fingerprint" + i, flag.fingerprint())
+                    .setParameter("duplicateOf" + i, flag.duplicateOfId());
+        }
+        query.executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public void clearDuplicatesOf(Long dashboardId, Long recordId) {
+        entityManager.createNativeQuery("UPDATE financial_records SET duplicate_of_id = NULL "
+                        + "WHERE dashboard_id = :dashboardId AND duplicate_of_id = :recordId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(FinancialRecord.class)
+                .setParameter("dashboardId", dashboardId)
+                .setParameter("recordId", recordId)
+                .executeUpdate();
+    }
+}
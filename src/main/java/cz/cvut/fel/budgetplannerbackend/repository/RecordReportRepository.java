@@ -0,0 +1,56 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read-only queries of financial records for the reports generated by report jobs.
+ */
+public interface RecordReportRepository {
+
+    /**
+     * Streams the records of a dashboard ordered by date, without loading them all into memory.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param action      Called for every record.
+     */
+    void forEachReportRecord(Long dashboardId, Consumer<ReportRecord> action);
+
+    /**
+     * Sums the records of a dashboard dated within a range by category, type and month.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param from        The start of the range, inclusive.
+     * @param to          The end of the range, exclusive.
+     * @return The totals, ordered by category name with the uncategorized records first, type and month.
+     */
+    List<CategoryMonthTotal> findCategoryMonthTotals(Long dashboardId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * @param id          The ID of the record.
+     * @param date        The date of the record.
+     * @param type        The type of the record.
+     * @param amount      The amount.
+     * @param category    The name of the category, or null.
+     * @param description The description, or null.
+     * @param userName    The name of the user who created the record.
+     */
+    record ReportRecord(Long id, LocalDateTime date, ERecordType type, BigDecimal amount, String category, String description,
+                        String userName) {
+    }
+
+    /**
+     * @param categoryId The ID of the category, or null for uncategorized records.
+     * @param category   The name of the category, or null.
+     * @param type       The type of the records.
+     * @param month      The month, from 1 to 12.
+     * @param total      The sum of the amounts.
+     * @param count      The number of records.
+     */
+    record CategoryMonthTotal(Long categoryId, String category, ERecordType type, int month, BigDecimal total, long count) {
+    }
+}
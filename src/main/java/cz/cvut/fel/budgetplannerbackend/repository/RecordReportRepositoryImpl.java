@@ -0,0 +1,63 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static cz.cvut.fel.budgetplannerbackend.repository.NativeQueryValues.toLocalDateTime;
+
+/**
+ * Implementation of {@link RecordReportRepository} using native queries, so that reports read plain rows
+ * rather than managed entities.
+ */
+public class RecordReportRepositoryImpl implements RecordReportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachReportRecord(Long dashboardId, Consumer<ReportRecord> action) {
+        // With a fetch size, the PostgreSQL driver reads the rows in chunks through a cursor.
+        Stream<?> stream = entityManager.createNativeQuery("SELECT r.id, r.date, r.type, r.amount, c.name, r.description, u.user_name "
+                        + "FROM financial_records r LEFT JOIN categories c ON c.id = r.category_id JOIN users u ON u.id = r.user_id "
+                        + "WHERE r.dashboard_id = :dashboardId ORDER BY r.date, r.id")
+                .setParameter("dashboardId", dashboardId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream();
+        try (Stream<?> rows = stream) {
+            rows.map(row -> (Object[]) row)
+                    .forEach(row -> action.accept(new ReportRecord(((Number) row[0]).longValue(), toLocalDateTime(row[1]),
+                            ERecordType.valueOf((String) row[2]), (BigDecimal) row[3], (String) row[4], (String) row[5], (String) row[6])));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryMonthTotal> findCategoryMonthTotals(Long dashboardId, LocalDateTime from, LocalDateTime to) {
+        // The date range prunes the partitions outside of it.
+        List<?> rows = entityManager.createNativeQuery("SELECT r.category_id, c.name, r.type, CAST(EXTRACT(MONTH FROM r.date) AS INT), "
+                        + "SUM(r.amount), COUNT(*) FROM financial_records r LEFT JOIN categories c ON c.id = r.category_id "
+                        + "WHERE r.dashboard_id = :dashboardId AND r.date >= :from AND r.date < :to "
+                        + "GROUP BY r.category_id, c.name, r.type, 4 ORDER BY c.name NULLS FIRST, r.category_id, r.type, 4")
+                .setParameter("dashboardId", dashboardId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+        return rows.stream()
+                .map(row -> (Object[]) row)
+                .map(row -> new CategoryMonthTotal(row[0] != null ? ((Number) row[0]).longValue() : null, (String) row[1],
+                        ERecordType.valueOf((String) row[2]), ((Number) row[3]).intValue(), (BigDecimal) row[4], ((Number) row[5]).longValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,42 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.RecurringTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecurringTransactionRepository extends JpaRepository<RecurringTransaction, Long> {
+
+    List<RecurringTransaction> findAllByDashboardIdOrderById(Long dashboardId);
+
+    Optional<RecurringTransaction> findByIdAndDashboardId(Long id, Long dashboardId);
+
+    // Rows of [id, next_run_at] of the templates due before the given time, read from the partial next_run_at index.
+    @Query("SELECT r.id, r.nextRunAt FROM RecurringTransaction r WHERE r.nextRunAt < :until ORDER BY r.nextRunAt")
+    List<Object[]> findScheduledBefore(@Param("until") LocalDateTime until);
+
+    // Locks the given templates that are due; templates locked by another transaction are skipped, not waited for.
+    @Query(value = "SELECT * FROM recurring_transactions WHERE id IN (:ids) AND next_run_at <= :now ORDER BY id FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<RecurringTransaction> lockDue(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Rows of [id, next_run_at] of the given templates that are still scheduled; does not wait for locked rows.
+    @Query("SELECT r.id, r.nextRunAt FROM RecurringTransaction r WHERE r.id IN :ids AND r.nextRunAt IS NOT NULL")
+    List<Object[]> findNextRuns(@Param("ids") Collection<Long> ids);
+
+    // Transaction-level advisory lock making the caller the only node materializing occurrences until it commits.
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('recurring_transactions'))", nativeQuery = true)
+    boolean tryLockScheduler();
+
+    @Modifying
+    @Query("DELETE FROM RecurringTransaction r WHERE r.dashboard.id = :dashboardId")
+    void deleteByDashboardId(@Param("dashboardId") Long dashboardId);
+}
@@ -0,0 +1,52 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.ReportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+
+    List<ReportJob> findTop50ByDashboardIdAndUserIdOrderByCreatedAtDesc(Long dashboardId, Long userId);
+
+    Optional<ReportJob> findByIdAndDashboardIdAndUserId(Long id, Long dashboardId, Long userId);
+
+    long countByUserIdAndFinishedAtIsNull(Long userId);
+
+    List<ReportJob> findAllByExpiresAtBefore(LocalDateTime now);
+
+    // Serializes the requests of a user until the caller commits, so their unfinished jobs are counted reliably.
+    @Query(value = "SELECT id FROM users WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    Long lockUser(@Param("userId") Long userId);
+
+    /**
+     * Fails the unfinished jobs that made no progress since a point in time.
+     *
+     * @return The number of failed jobs.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE report_jobs SET status = 'FAILED', error = :error, updated_at = :now, finished_at = :now, " +
+            "expires_at = :expiresAt WHERE finished_at IS NULL AND updated_at < :before", nativeQuery = true)
+    int failUnfinishedBefore(@Param("before") LocalDateTime before, @Param("now") LocalDateTime now,
+                             @Param("expiresAt") LocalDateTime expiresAt, @Param("error") String error);
+
+    /**
+     * Marks the given jobs that are still queued as waiting at a point in time, so that they are not failed as stale.
+     *
+     * @return The number of touched jobs.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE report_jobs SET updated_at = :now WHERE id IN (:ids) AND status = 'QUEUED'", nativeQuery = true)
+    int touchQueued(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,43 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.StatementImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StatementImportRepository extends JpaRepository<StatementImport, Long> {
+
+    List<StatementImport> findTop50ByDashboardIdOrderByCreatedAtDesc(Long dashboardId);
+
+    Optional<StatementImport> findByIdAndDashboardId(Long id, Long dashboardId);
+
+    /**
+     * Fails the unfinished imports that made no progress since a point in time.
+     *
+     * @return The number of failed imports.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE statement_imports SET status = 'FAILED', error = :error, updated_at = :now, finished_at = :now " +
+            "WHERE finished_at IS NULL AND updated_at < :before", nativeQuery = true)
+    int failUnfinishedBefore(@Param("before") LocalDateTime before, @Param("now") LocalDateTime now, @Param("error") String error);
+
+    /**
+     * Marks the given imports that are still queued as waiting at a point in time, so that they are not failed as stale.
+     *
+     * @return The number of touched imports.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE statement_imports SET updated_at = :now WHERE id IN (:ids) AND status = 'QUEUED'", nativeQuery = true)
+    int touchQueued(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,47 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    List<Tag> findAllByDashboardIdOrderByName(Long dashboardId);
+
+    List<Tag> findAllByDashboardIdAndNameIn(Long dashboardId, Collection<String> names);
+
+    Optional<Tag> findByIdAndDashboardId(Long id, Long dashboardId);
+
+    @Query(value = "SELECT frt.financial_record_id FROM financial_record_tags frt WHERE frt.tag_id = :tagId", nativeQuery = true)
+    List<Long> findRecordIdsByTagId(@Param("tagId") Long tagId);
+
+    /**
+     * Reads the tag assignments of all records of a dashboard, one row of record ID and tag ID per assignment
+     * and a row with a null tag ID for every record without tags.
+     */
+    @Query(value = "SELECT fr.id, frt.tag_id FROM financial_records fr " +
+            "LEFT JOIN financial_record_tags frt ON frt.financial_record_id = fr.id " +
+            "WHERE fr.dashboard_id = :dashboardId", nativeQuery = true)
+    List<Object[]> findTagAssignmentsByDashboardId(@Param("dashboardId") Long dashboardId);
+
+    /**
+     * Reads the tag assignments of the given records, in the same form as {@link #findTagAssignmentsByDashboardId}.
+     * Records that no longer exist are missing from the result.
+     */
+    @Query(value = "SELECT fr.id, frt.tag_id FROM financial_records fr " +
+            "LEFT JOIN financial_record_tags frt ON frt.financial_record_id = fr.id " +
+            "WHERE fr.id IN (:recordIds)", nativeQuery = true)
+    List<Object[]> findTagAssignmentsByRecordIds(@Param("recordIds") Collection<Long> recordIds);
+
+    @Modifying
+    @Query("DELETE FROM Tag t WHERE t.dashboard.id = :dashboardId")
+    void deleteByDashboardId(@Param("dashboardId") Long dashboardId);
+}
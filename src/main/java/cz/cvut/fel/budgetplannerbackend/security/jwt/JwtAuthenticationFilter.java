@@ -47,12 +47,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Get the JWT token from the Authorization header of the request.
         String jwt = getJwtFromRequest(request);
 
-        LOG.info("JWT from request: {}", jwt);
-
         // If a JWT token is present and valid:
         if (jwt != null && tokenProvider.validateToken(jwt)) {
             String username = tokenProvider.getUsernameFromJWT(jwt); // Extract the username from the JWT.
-            LOG.info("Username from JWT: {}", username);
 
             // Load user details from the UserDetailsService using the extracted username.
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
@@ -63,10 +60,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             // Set the authentication in the Spring Security context.
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            LOG.info("Authentication set in security context for: {}", username);
+            LOG.debug("Authentication set in security context for: {}", username);
         } else {
-            // Log a warning if no valid JWT is found.
-            LOG.warn("No valid JWT found, continuing filter chain without authentication");
+            // Anonymous requests (login, registration, health checks) are expected, so this is not a warning.
+            LOG.debug("No valid JWT found, continuing filter chain without authentication");
         }
 
         // Continue processing the request through the filter chain.
@@ -5,6 +5,7 @@ import cz.cvut.fel.budgetplannerbackend.entity.User;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityAlreadyExistsException;
 import cz.cvut.fel.budgetplannerbackend.exceptions.InvalidCredentialsException;
 import cz.cvut.fel.budgetplannerbackend.mapper.UserMapper;
+import cz.cvut.fel.budgetplannerbackend.metrics.BusinessMetrics;
 import cz.cvut.fel.budgetplannerbackend.security.jwt.JwtTokenProvider;
 import cz.cvut.fel.budgetplannerbackend.security.model.authentication.AuthenticationRequest;
 import cz.cvut.fel.budgetplannerbackend.security.model.registration.RegistrationRequest;
@@ -32,6 +33,7 @@ public class AuthenticationService {
     private final CustomUserDetailsService userDetailsService;
     private final UserServiceImpl userService;
     private final UserMapper userMapper;
+    private final BusinessMetrics businessMetrics;
 
     private static final Logger LOG = LoggerFactory.getLogger(AuthenticationService.class);
 
@@ -51,6 +53,7 @@ public class AuthenticationService {
             );
         } catch (BadCredentialsException e) {
             // Log the authentication failure and throw an InvalidCredentialsException.
+            businessMetrics.loginAttempt(false);
             LOG.error("Authentication failed for user {}", authenticationRequest.getUserName(), e);
             throw new InvalidCredentialsException("Incorrect username or password", e);
         }
@@ -60,6 +63,7 @@ public class AuthenticationService {
                 .loadUserByUsername(authenticationRequest.getUserName());
 
         String token = jwtTokenProvider.generateToken(userDetails);
+        businessMetrics.loginAttempt(true);
         LOG.info("Generated JWT token for user {}", authenticationRequest.getUserName());
         return token; // Return the generated JWT token.
     }
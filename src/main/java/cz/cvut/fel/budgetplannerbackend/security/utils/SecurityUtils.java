@@ -14,6 +14,11 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Utility class providing security-related operations and checks.
@@ -25,6 +30,7 @@ public class SecurityUtils {
     private final DashboardAccessRepository dashboardAccessRepository;
 
     private static final Logger LOG = LoggerFactory.getLogger(SecurityUtils.class);
+    private static final String GRANTED_LEVELS_RESOURCE = SecurityUtils.class.getName() + ".grantedLevels.";
 
     /**
      * Retrieves the currently authenticated user.
@@ -52,11 +58,13 @@ public class SecurityUtils {
             LOG.error("Security breach attempt: User with id {} tried to access resources for user with id {}", currentUser.getId(), userId);
             throw new AccessDeniedException("User with id " + currentUser.getId() + " is not authorized to perform this operation for user with id " + userId);
         }
-        LOG.info("User with id {} authorized successfully for access to user with id {}", currentUser.getId(), userId);
+        LOG.debug("User with id {} authorized successfully for access to user with id {}", currentUser.getId(), userId);
     }
 
     /**
      * Checks if the authenticated user has the required access level to a specific dashboard.
+     * Within a transaction the granted access level is remembered, so services called repeatedly
+     * for the same dashboard (e.g. by a batch request) look it up only once.
      *
      * @param dashboardId      The ID of the dashboard.
      * @param minimumAccessLevel The minimum access level required.
@@ -64,13 +72,45 @@ public class SecurityUtils {
      */
     public void checkDashboardAccess(Long dashboardId, EAccessLevel minimumAccessLevel) {
         User currentUser = getCurrentUser();
-        DashboardAccess access = dashboardAccessRepository.findByUserIdAndDashboardId(currentUser.getId(), dashboardId)
-                .orElseThrow(() -> new AccessDeniedException("Access to dashboard is denied"));
+        Map<Long, EAccessLevel> grantedLevels = transactionGrantedLevels(currentUser.getId());
+        EAccessLevel grantedLevel = grantedLevels != null ? grantedLevels.get(dashboardId) : null;
+        if (grantedLevel == null) {
+            DashboardAccess access = dashboardAccessRepository.findByUserIdAndDashboardId(currentUser.getId(), dashboardId)
+                    .orElseThrow(() -> new AccessDeniedException("Access to dashboard is denied"));
+            grantedLevel = access.getAccessLevel().getLevel();
+            if (grantedLevels != null) {
+                grantedLevels.put(dashboardId, grantedLevel);
+            }
+        }
 
-        if (access.getAccessLevel().getLevel().compareTo(minimumAccessLevel) < 0) {
+        if (grantedLevel.compareTo(minimumAccessLevel) < 0) {
             LOG.error("User with id {} tried to access dashboard with id {} with insufficient permission", currentUser.getId(), dashboardId);
             throw new AccessDeniedException("Insufficient permission");
         }
-        LOG.info("Access granted for user {} with access level {} on dashboard {}", currentUser.getId(), access.getAccessLevel().getLevel(), dashboardId);
+        LOG.debug("Access granted for user {} with access level {} on dashboard {}", currentUser.getId(), grantedLevel, dashboardId);
+    }
+
+    /**
+     * Returns the access levels already granted to the user in the current transaction,
+     * or null outside of a transaction.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, EAccessLevel> transactionGrantedLevels(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        String resourceKey = GRANTED_LEVELS_RESOURCE + userId;
+        Map<Long, EAccessLevel> grantedLevels = (Map<Long, EAccessLevel>) TransactionSynchronizationManager.getResource(resourceKey);
+        if (grantedLevels == null) {
+            grantedLevels = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(resourceKey, grantedLevels);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+                }
+            });
+        }
+        return grantedLevels;
     }
-}
\ No newline at end of file
+}
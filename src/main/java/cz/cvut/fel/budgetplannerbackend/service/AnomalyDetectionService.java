@@ -0,0 +1,14 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+
+public interface AnomalyDetectionService {
+
+    void scoreExpense(FinancialRecord financialRecord);
+
+    int recomputeAnomalyScores(Long dashboardId);
+
+    void recomputeAllAnomalyScores();
+
+    int checkpointStatistics();
+}
@@ -0,0 +1,11 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.batch.BatchOperationDto;
+import cz.cvut.fel.budgetplannerbackend.dto.batch.BatchResultDto;
+
+import java.util.List;
+
+public interface BatchService {
+
+    List<BatchResultDto> executeBatch(Long dashboardId, List<BatchOperationDto> operations);
+}
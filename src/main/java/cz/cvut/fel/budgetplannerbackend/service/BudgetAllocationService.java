@@ -0,0 +1,11 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.allocation.BudgetAllocationRequestDto;
+import cz.cvut.fel.budgetplannerbackend.dto.allocation.CategoryAllocationDto;
+
+import java.util.List;
+
+public interface BudgetAllocationService {
+
+    List<CategoryAllocationDto> allocateBudgets(Long dashboardId, BudgetAllocationRequestDto request, boolean preview);
+}
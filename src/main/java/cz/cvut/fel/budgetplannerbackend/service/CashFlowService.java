@@ -0,0 +1,11 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.cashflow.CashFlowSeriesDto;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ETimeBucket;
+
+import java.time.LocalDateTime;
+
+public interface CashFlowService {
+
+    CashFlowSeriesDto findCashFlowSeries(Long dashboardId, LocalDateTime from, LocalDateTime to, ETimeBucket bucket, Integer points);
+}
@@ -0,0 +1,25 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.CategorizationRuleDto;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CategorizationService {
+    List<CategorizationRuleDto> findAllCategorizationRulesByDashboardId(Long dashboardId);
+
+    CategorizationRuleDto findCategorizationRuleByIdAndDashboardId(Long id, Long dashboardId);
+
+    CategorizationRuleDto createCategorizationRule(Long dashboardId, CategorizationRuleDto categorizationRuleDto);
+
+    CategorizationRuleDto updateCategorizationRule(Long dashboardId, Long id, CategorizationRuleDto categorizationRuleDto);
+
+    void deleteCategorizationRule(Long dashboardId, Long id);
+
+    void categorize(FinancialRecord financialRecord);
+
+    void categorizeAll(Collection<FinancialRecord> financialRecords);
+
+    int applyCategorizationRules(Long dashboardId);
+}
@@ -3,6 +3,7 @@ package cz.cvut.fel.budgetplannerbackend.service;
 import cz.cvut.fel.budgetplannerbackend.dto.CategoryPriorityDto;
 
 import java.util.List;
+import java.util.Map;
 
 public interface CategoryPriorityService {
 
@@ -16,6 +17,8 @@ public interface CategoryPriorityService {
 
     double calculateCategoryPriority(Long categoryId, Long dashboardId);
 
+    Map<Long, Double> calculateCategoryPriorities(Long dashboardId);
+
     List<CategoryPriorityDto> getCategoryPriorities(Long dashboardId);
 
     List<CategoryPriorityDto> getCategoryPrioritiesByUserAndDashboard(Long userId, Long dashboardId);
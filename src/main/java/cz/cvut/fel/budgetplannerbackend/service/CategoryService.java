@@ -1,6 +1,7 @@
 package cz.cvut.fel.budgetplannerbackend.service;
 
 import cz.cvut.fel.budgetplannerbackend.dto.CategoryDto;
+import cz.cvut.fel.budgetplannerbackend.dto.CategoryRollupDto;
 
 import java.util.List;
 
@@ -13,6 +14,12 @@ public interface CategoryService {
 
     CategoryDto updateCategory(Long dashboardId, Long id, CategoryDto categoryDto);
 
+    CategoryDto moveCategory(Long dashboardId, Long id, Long parentId);
+
     void deleteCategory(Long dashboardId, Long id);
+
+    List<CategoryRollupDto> findCategoryRollupsByDashboardId(Long dashboardId);
+
+    CategoryRollupDto findCategoryRollup(Long dashboardId, Long id);
 }
 
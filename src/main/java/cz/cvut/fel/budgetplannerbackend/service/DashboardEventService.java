@@ -0,0 +1,13 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangedEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface DashboardEventService {
+
+    SseEmitter subscribe(Long dashboardId);
+
+    void onDashboardChanged(DashboardChangedEvent event);
+
+    void sendHeartbeats();
+}
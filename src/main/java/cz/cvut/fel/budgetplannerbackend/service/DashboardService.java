@@ -13,6 +13,8 @@ public interface DashboardService {
 
     DashboardDto findDashboardById(Long dashboardId);
 
+    String getDashboardETag(Long dashboardId);
+
     List<DashboardDto> findAccessibleDashboards();
 
     DashboardDto createDashboard(Long userId, DashboardDto dashboardDto);
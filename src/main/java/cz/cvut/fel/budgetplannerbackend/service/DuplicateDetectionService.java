@@ -0,0 +1,22 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+
+public interface DuplicateDetectionService {
+
+    void checkDuplicate(FinancialRecord financialRecord);
+
+    void checkDuplicates(List<FinancialRecord> financialRecords, LongPredicate ignored);
+
+    void forgetRecord(Long dashboardId, Long recordId);
+
+    List<FinancialRecordDto> findDuplicates(Long dashboardId);
+
+    int scanDuplicates(Long dashboardId);
+
+    void scanAllDuplicates();
+}
@@ -0,0 +1,6 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+public interface FinancialRecordPartitionService {
+
+    int maintainPartitions();
+}
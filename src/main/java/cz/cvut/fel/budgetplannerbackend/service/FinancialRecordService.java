@@ -1,12 +1,18 @@
 package cz.cvut.fel.budgetplannerbackend.service;
 
 import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.dto.RecordTotalsDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface FinancialRecordService {
     List<FinancialRecordDto> findAllFinancialRecordsByDashboardId(Long dashboardId);
 
+    List<FinancialRecordDto> findFinancialRecordsByDashboardIdAndDateRange(Long dashboardId, LocalDateTime from, LocalDateTime to);
+
+    RecordTotalsDto sumFinancialRecordsByDashboardIdAndDateRange(Long dashboardId, LocalDateTime from, LocalDateTime to);
+
     FinancialRecordDto findFinancialRecordByIdAndDashboardId(Long id, Long dashboardId);
 
     FinancialRecordDto createFinancialRecord(Long dashboardId, FinancialRecordDto financialRecordDto);
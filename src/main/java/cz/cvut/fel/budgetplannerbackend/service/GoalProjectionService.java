@@ -0,0 +1,8 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.GoalProjectionDto;
+
+public interface GoalProjectionService {
+
+    GoalProjectionDto projectFinancialGoal(Long dashboardId, Long goalId);
+}
@@ -0,0 +1,19 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Outcome of an idempotent request.
+     *
+     * @param body     The response body.
+     * @param replayed Whether the body is the stored response of an earlier request with the same key.
+     */
+    record Result<T>(T body, boolean replayed) {
+    }
+
+    <T> Result<T> execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action);
+
+    void purgeExpiredKeys();
+}
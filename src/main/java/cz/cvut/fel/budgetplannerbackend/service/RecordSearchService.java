@@ -0,0 +1,8 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.search.RecordSearchPageDto;
+
+public interface RecordSearchService {
+
+    RecordSearchPageDto searchFinancialRecords(Long dashboardId, String query, String cursor, int limit);
+}
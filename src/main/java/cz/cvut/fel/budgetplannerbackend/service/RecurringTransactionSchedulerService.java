@@ -0,0 +1,16 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface RecurringTransactionSchedulerService {
+    void schedule(Long recurringTransactionId, LocalDateTime nextRunAt);
+
+    void cancel(Long recurringTransactionId);
+
+    int loadHorizon();
+
+    int materializeDue();
+
+    int materialize(Collection<Long> recurringTransactionIds, LocalDateTime now);
+}
@@ -0,0 +1,17 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.RecurringTransactionDto;
+
+import java.util.List;
+
+public interface RecurringTransactionService {
+    List<RecurringTransactionDto> findAllRecurringTransactionsByDashboardId(Long dashboardId);
+
+    RecurringTransactionDto findRecurringTransactionByIdAndDashboardId(Long id, Long dashboardId);
+
+    RecurringTransactionDto createRecurringTransaction(Long dashboardId, RecurringTransactionDto recurringTransactionDto);
+
+    RecurringTransactionDto updateRecurringTransaction(Long dashboardId, Long id, RecurringTransactionDto recurringTransactionDto);
+
+    void deleteRecurringTransaction(Long dashboardId, Long id);
+}
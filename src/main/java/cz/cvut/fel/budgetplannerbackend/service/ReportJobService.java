@@ -0,0 +1,29 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.ReportJobDto;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EReportType;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public interface ReportJobService {
+
+    /**
+     * The file of a completed report.
+     *
+     * @param path     The file on disk.
+     * @param fileName The name the file is downloaded as.
+     */
+    record ReportFile(Path path, String fileName) {
+    }
+
+    ReportJobDto startReport(Long dashboardId, EReportType type, Integer year);
+
+    ReportJobDto findReportJob(Long dashboardId, Long id);
+
+    List<ReportJobDto> findReportJobs(Long dashboardId);
+
+    ReportFile findReportFile(Long dashboardId, Long id);
+
+    int cleanupReports();
+}
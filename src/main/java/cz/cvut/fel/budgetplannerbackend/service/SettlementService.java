@@ -0,0 +1,8 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.settlement.SettlementDto;
+
+public interface SettlementService {
+
+    SettlementDto findSettlement(Long dashboardId, boolean roleWeighted);
+}
@@ -0,0 +1,10 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.analytics.SpendingBreakdownDto;
+
+import java.time.YearMonth;
+
+public interface SpendingAnalyticsService {
+
+    SpendingBreakdownDto findSpendingBreakdown(Long dashboardId, YearMonth from, YearMonth to);
+}
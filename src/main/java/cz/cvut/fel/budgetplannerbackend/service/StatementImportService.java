@@ -0,0 +1,19 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.StatementImportDto;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface StatementImportService {
+
+    StatementImportDto startImport(Long dashboardId, String profile, String fileName, InputStream content, boolean skipDuplicates);
+
+    StatementImportDto findImport(Long dashboardId, Long id);
+
+    List<StatementImportDto> findImports(Long dashboardId);
+
+    List<String> findProfiles();
+
+    int failStaleImports();
+}
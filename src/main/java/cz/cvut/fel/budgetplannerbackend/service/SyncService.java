@@ -0,0 +1,8 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.DashboardChangesDto;
+
+public interface SyncService {
+
+    DashboardChangesDto findChangesSince(Long dashboardId, Long since);
+}
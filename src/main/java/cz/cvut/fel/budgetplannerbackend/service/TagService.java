@@ -0,0 +1,20 @@
+package cz.cvut.fel.budgetplannerbackend.service;
+
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.dto.TagDto;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.Tag;
+
+import java.util.List;
+import java.util.Set;
+
+public interface TagService {
+
+    List<TagDto> findAllTagsByDashboardId(Long dashboardId);
+
+    void deleteTag(Long dashboardId, Long tagId);
+
+    List<FinancialRecordDto> filterFinancialRecordsByTags(Long dashboardId, Set<String> all, Set<String> any, Set<String> none);
+
+    Set<Tag> resolveTags(Dashboard dashboard, Set<String> names);
+}
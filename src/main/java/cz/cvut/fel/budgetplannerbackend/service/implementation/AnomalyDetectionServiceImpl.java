@@ -0,0 +1,179 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.algorithm.ExponentialMovingStatistics;
+import cz.cvut.fel.budgetplannerbackend.config.AnomalyDetectionProperties;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.repository.ExpenseAnomalyRepository.AnomalyScore;
+import cz.cvut.fel.budgetplannerbackend.repository.ExpenseAnomalyRepository.AnomalyStatistics;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.AnomalyDetectionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static cz.cvut.fel.budgetplannerbackend.events.TransactionCallbacks.afterCommit;
+import static cz.cvut.fel.budgetplannerbackend.repository.ExpenseAnomalyRepository.UNCATEGORIZED;
+
+/**
+ * Service class flagging expenses far outside the usual amounts of their category.
+ * <p>
+ * The exponentially weighted mean and variance of the expense amounts of every (dashboard, category) are kept
+ * in memory in an {@link ExponentialMovingStatistics} map. A created or changed expense is scored against the
+ * statistics of its category, and the statistics are updated with its amount in O(1) once the transaction commits.
+ * Updated statistics are checkpointed to the expense_anomaly_statistics table periodically, and statistics missing
+ * in memory are restored from there. Each node keeps its own statistics, so with several nodes the checkpoints
+ * are approximate; the recompute job replays all expenses of a dashboard in date order to reset them exactly.
+ */
+@Service
+public class AnomalyDetectionServiceImpl implements AnomalyDetectionService {
+
+    private final FinancialRecordRepository financialRecordRepository;
+    private final SecurityUtils securityUtils;
+    private final TransactionTemplate transactionTemplate;
+    private final AnomalyDetectionProperties properties;
+    private final ExponentialMovingStatistics statistics = new ExponentialMovingStatistics();
+
+    private static final Logger LOG = LoggerFactory.getLogger(AnomalyDetectionServiceImpl.class);
+
+    public AnomalyDetectionServiceImpl(FinancialRecordRepository financialRecordRepository, SecurityUtils securityUtils,
+                                       PlatformTransactionManager transactionManager, AnomalyDetectionProperties properties) {
+        this.financialRecordRepository = financialRecordRepository;
+        this.securityUtils = securityUtils;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    /**
+     * Sets the anomaly score and flag of a record about to be saved. Expenses are scored against the statistics
+     * of their category, which take the amount into account after the transaction commits; income is not scored.
+     *
+     * @param financialRecord The record with its dashboard, category, type and amount set.
+     */
+    @Override
+    public void scoreExpense(FinancialRecord financialRecord) {
+        if (financialRecord.getType() != ERecordType.EXPENSE || financialRecord.getAmount() == null) {
+            financialRecord.setAnomalyScore(null);
+            financialRecord.setAnomalous(false);
+            return;
+        }
+        long dashboardId = financialRecord.getDashboard().getId();
+        long categoryId = financialRecord.getCategory() != null ? financialRecord.getCategory().getId() : UNCATEGORIZED;
+        double amount = financialRecord.getAmount().doubleValue();
+        if (!statistics.contains(dashboardId, categoryId)) {
+            financialRecordRepository.findAnomalyStatistics(dashboardId, categoryId).ifPresent(restored ->
+                    statistics.putIfAbsent(dashboardId, categoryId, restored.mean(), restored.variance(), restored.sampleCount()));
+        }
+        Double score = score(statistics, dashboardId, categoryId, amount);
+        financialRecord.setAnomalyScore(score);
+        financialRecord.setAnomalous(isAnomalous(score));
+        if (financialRecord.isAnomalous()) {
+            LOG.info("Expense of {} in category id: {} of dashboard id: {} is anomalous with score {}", amount, categoryId, dashboardId, score);
+        }
+        afterCommit(() -> statistics.update(dashboardId, categoryId, amount, properties.getAlpha()));
+    }
+
+    /**
+     * Recomputes the statistics of a dashboard by replaying all its expenses in date order, and rescores
+     * every expense against the statistics of its category just before it.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return The number of records whose score changed.
+     */
+    @Override
+    @Transactional
+    public int recomputeAnomalyScores(Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        return recompute(dashboardId);
+    }
+
+    /**
+     * Scheduled job recomputing the statistics and scores of every dashboard with expenses,
+     * each dashboard in its own transaction. Disabled unless a cron expression is configured.
+     */
+    @Override
+    @Scheduled(cron = "${anomaly-detection.recompute-cron:-}")
+    public void recomputeAllAnomalyScores() {
+        List<Long> dashboardIds = financialRecordRepository.findDashboardIdsWithExpenses();
+        LOG.info("Recomputing anomaly scores of {} dashboards", dashboardIds.size());
+        for (Long dashboardId : dashboardIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> recompute(dashboardId));
+            } catch (RuntimeException e) {
+                // The statistics of the dashboard stay as they were; the next run tries again.
+                LOG.error("Failed to recompute anomaly scores of dashboard id: {}", dashboardId, e);
+            }
+        }
+    }
+
+    private int recompute(Long dashboardId) {
+        LOG.info("Recomputing anomaly scores for dashboard id: {}", dashboardId);
+        ExponentialMovingStatistics replayed = new ExponentialMovingStatistics();
+        List<AnomalyScore> changed = new ArrayList<>();
+        financialRecordRepository.forEachExpenseByDate(dashboardId, expense -> {
+            double amount = expense.amount().doubleValue();
+            Double score = score(replayed, dashboardId, expense.categoryId(), amount);
+            boolean anomalous = isAnomalous(score);
+            if (!Objects.equals(score, expense.anomalyScore()) || anomalous != expense.anomalous()) {
+                changed.add(new AnomalyScore(expense.id(), expense.date(), score, anomalous));
+            }
+            replayed.update(dashboardId, expense.categoryId(), amount, properties.getAlpha());
+        });
+        financialRecordRepository.updateAnomalyScores(changed);
+
+        List<AnomalyStatistics> recomputed = new ArrayList<>();
+        replayed.drainDirty((dashboard, category, mean, variance, count) ->
+                recomputed.add(new AnomalyStatistics(dashboard, category, mean, variance, count)));
+        financialRecordRepository.replaceAnomalyStatistics(dashboardId, recomputed);
+        afterCommit(() -> {
+            statistics.removeAll(dashboardId);
+            recomputed.forEach(entry -> statistics.put(dashboardId, entry.categoryId(), entry.mean(), entry.variance(), entry.sampleCount()));
+        });
+        LOG.info("Rescored {} expenses in {} categories for dashboard id: {}", changed.size(), recomputed.size(), dashboardId);
+        return changed.size();
+    }
+
+    /**
+     * Scheduled task writing the statistics updated since the previous run to the database.
+     *
+     * @return The number of statistics written.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${anomaly-detection.checkpoint-interval:60000}")
+    public int checkpointStatistics() {
+        List<AnomalyStatistics> dirty = new ArrayList<>();
+        statistics.drainDirty((dashboardId, categoryId, mean, variance, count) ->
+                dirty.add(new AnomalyStatistics(dashboardId, categoryId, mean, variance, count)));
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        try {
+            financialRecordRepository.saveAnomalyStatistics(dirty);
+        } catch (RuntimeException e) {
+            // The statistics stay in memory and are written again with their next update.
+            LOG.error("Failed to checkpoint {} expense anomaly statistics", dirty.size(), e);
+            return 0;
+        }
+        LOG.debug("Checkpointed {} expense anomaly statistics", dirty.size());
+        return dirty.size();
+    }
+
+    private Double score(ExponentialMovingStatistics source, long dashboardId, long categoryId, double amount) {
+        double score = source.zScore(dashboardId, categoryId, amount, properties.getMinSamples(), properties.getMinDeviation());
+        return Double.isNaN(score) ? null : Math.round(score * 100) / 100.0;
+    }
+
+    private boolean isAnomalous(Double score) {
+        return score != null && Math.abs(score) >= properties.getThreshold();
+    }
+}
@@ -0,0 +1,145 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Runs the jobs of a service working in the background, e.g. statement imports or reports.
+ * <p>
+ * A job is stored as a QUEUED row before it is executed here, moved to RUNNING by the thread picking it up, and
+ * updated as it makes progress; a scheduled sweep fails the unfinished jobs that made no progress within a stale
+ * timeout, e.g. because their node stopped. The jobs waiting for a thread of this node are tracked, so that the
+ * sweep touches them first, and the files they were given are deleted when the executor drops them on shutdown.
+ */
+final class BackgroundJobs {
+
+    static final int MAX_ERROR_LENGTH = 500;
+
+    private final ExecutorService executor;
+    private final Set<Long> queuedJobIds = ConcurrentHashMap.newKeySet(); // Accepted by the executor, not started yet.
+
+    private static final Logger LOG = LoggerFactory.getLogger(BackgroundJobs.class);
+
+    BackgroundJobs(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Creates an executor of a fixed number of daemon threads, rejecting jobs once too many are waiting.
+     *
+     * @param threads   The number of threads.
+     * @param maxQueued The number of jobs that may wait for a thread.
+     * @param prefix    The prefix of the names of the threads.
+     * @return The executor.
+     */
+    static ExecutorService boundedExecutor(int threads, int maxQueued, String prefix) {
+        return new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxQueued)), threadFactory(prefix));
+    }
+
+    /**
+     * Queues a stored job.
+     *
+     * @param jobId The ID of the job.
+     * @param file  A file the job deletes once done, deleted here if the job never runs, or null.
+     * @param job   The job.
+     * @throws RejectedExecutionException If too many jobs are waiting.
+     */
+    void execute(Long jobId, Path file, Runnable job) {
+        queuedJobIds.add(jobId);
+        try {
+            executor.execute(new QueuedJob(jobId, file, job));
+        } catch (RejectedExecutionException e) {
+            queuedJobIds.remove(jobId);
+            throw e;
+        }
+    }
+
+    /**
+     * Touches the jobs waiting for a thread of this node, which make no progress while the jobs before them run,
+     * and then fails the unfinished jobs of all nodes that made no progress within the stale timeout.
+     *
+     * @param staleTimeout Milliseconds without progress after which an unfinished job is failed.
+     * @param touchQueued  Touches the given jobs that are still queued at a point in time.
+     * @param failStale    Fails the unfinished jobs not updated since the first point in time at the second one,
+     *                     returning their number.
+     * @return The number of failed jobs.
+     */
+    int failStale(long staleTimeout, BiConsumer<List<Long>, LocalDateTime> touchQueued,
+                  BiFunction<LocalDateTime, LocalDateTime, Integer> failStale) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!queuedJobIds.isEmpty()) {
+            touchQueued.accept(List.copyOf(queuedJobIds), now);
+        }
+        return failStale.apply(now.minusNanos(staleTimeout * 1_000_000), now);
+    }
+
+    /**
+     * Interrupts the running jobs and drops the waiting ones, deleting their files. The dropped jobs are failed
+     * as stale by another node.
+     */
+    void shutdown() {
+        for (Runnable job : executor.shutdownNow()) {
+            if (job instanceof QueuedJob queuedJob && queuedJob.file != null) {
+                delete(queuedJob.file);
+            }
+        }
+    }
+
+    static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Failed to delete file {}", file, e);
+        }
+    }
+
+    static String truncate(String text, int length) {
+        return text != null && text.length() > length ? text.substring(0, length) : text;
+    }
+
+    static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class QueuedJob implements Runnable {
+
+        private final Long jobId;
+        private final Path file;
+        private final Runnable job;
+
+        private QueuedJob(Long jobId, Path file, Runnable job) {
+            this.jobId = jobId;
+            this.file = file;
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            queuedJobIds.remove(jobId);
+            job.run();
+        }
+    }
+}
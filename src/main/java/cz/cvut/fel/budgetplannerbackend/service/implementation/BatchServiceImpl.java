@@ -0,0 +1,223 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import cz.cvut.fel.budgetplannerbackend.dto.BudgetDto;
+import cz.cvut.fel.budgetplannerbackend.dto.CategoryDto;
+import cz.cvut.fel.budgetplannerbackend.dto.CategoryPriorityDto;
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialGoalDto;
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.dto.batch.BatchOperationDto;
+import cz.cvut.fel.budgetplannerbackend.dto.batch.BatchResultDto;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EBatchEntityType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EBatchOperationType;
+import cz.cvut.fel.budgetplannerbackend.exceptions.BatchOperationException;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityAlreadyExistsException;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.BatchService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class executing an ordered list of create, update and delete operations on the content of one dashboard.
+ * All operations run in a single transaction, so the batch is applied completely or not at all. Access to the
+ * dashboard is checked once up front; the check is remembered for the transaction, so the per-entity services
+ * called for the operations do not query it again, and new rows are flushed to the database in JDBC batches.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchServiceImpl implements BatchService {
+
+    public static final int MAX_OPERATIONS = 500;
+
+    private final FinancialRecordServiceImpl financialRecordService;
+    private final CategoryServiceImpl categoryService;
+    private final BudgetServiceImpl budgetService;
+    private final FinancialGoalServiceImpl financialGoalService;
+    private final CategoryPriorityServiceImpl categoryPriorityService;
+    private final SecurityUtils securityUtils;
+    private final ObjectMapper objectMapper;
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchServiceImpl.class);
+
+    /**
+     * Executes the operations of a batch in order.
+     *
+     * @param dashboardId The ID of the dashboard all operations apply to.
+     * @param operations  The operations to execute.
+     * @return The result of each operation, in the order of the operations.
+     * @throws IllegalArgumentException If the batch is empty or larger than {@link #MAX_OPERATIONS}.
+     * @throws AccessDeniedException    If the user does not have at least EDITOR access to the dashboard.
+     * @throws BatchOperationException  If an operation fails; none of the operations is applied.
+     */
+    @Override
+    @Transactional
+    public List<BatchResultDto> executeBatch(Long dashboardId, List<BatchOperationDto> operations) {
+        if (operations == null || operations.isEmpty() || operations.size() > MAX_OPERATIONS) {
+            throw new IllegalArgumentException("A batch must contain between 1 and " + MAX_OPERATIONS + " operations");
+        }
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        LOG.info("Executing batch of {} operations for dashboard id: {}", operations.size(), dashboardId);
+
+        Map<String, Long> createdIds = new HashMap<>();
+        List<BatchResultDto> results = new ArrayList<>(operations.size());
+        for (int index = 0; index < operations.size(); index++) {
+            BatchOperationDto operation = operations.get(index);
+            try {
+                Object body = execute(dashboardId, operation, createdIds);
+                results.add(new BatchResultDto(index, operation.ref(), statusOf(operation.operation()).value(), body, null));
+            } catch (EntityNotFoundException | EntityAlreadyExistsException | IllegalArgumentException | AccessDeniedException e) {
+                throw failed(index, operation, e, results);
+            }
+        }
+        LOG.info("Executed batch of {} operations for dashboard id: {}", operations.size(), dashboardId);
+        return results;
+    }
+
+    private Object execute(Long dashboardId, BatchOperationDto operation, Map<String, Long> createdIds) {
+        if (operation.entity() == null || operation.operation() == null) {
+            throw new IllegalArgumentException("Entity and operation are required");
+        }
+        if (operation.operation() != EBatchOperationType.CREATE && operation.id() == null
+                && operation.entity() != EBatchEntityType.CATEGORY_PRIORITY) {
+            throw new IllegalArgumentException("ID is required for " + operation.operation());
+        }
+        JsonNode payload = resolveRefs(operation.payload(), createdIds);
+        Object body = switch (operation.entity()) {
+            case FINANCIAL_RECORD -> switch (operation.operation()) {
+                case CREATE -> financialRecordService.createFinancialRecord(dashboardId, read(payload, FinancialRecordDto.class));
+                case UPDATE -> financialRecordService.updateFinancialRecord(operation.id(), dashboardId, read(payload, FinancialRecordDto.class));
+                case DELETE -> {
+                    financialRecordService.deleteFinancialRecord(operation.id(), dashboardId);
+                    yield null;
+                }
+            };
+            case CATEGORY -> switch (operation.operation()) {
+                case CREATE -> categoryService.createCategory(dashboardId, read(payload, CategoryDto.class));
+                case UPDATE -> categoryService.updateCategory(dashboardId, operation.id(), read(payload, CategoryDto.class));
+                case DELETE -> {
+                    categoryService.deleteCategory(dashboardId, operation.id());
+                    yield null;
+                }
+            };
+            case BUDGET -> switch (operation.operation()) {
+                case CREATE -> budgetService.createBudget(dashboardId, read(payload, BudgetDto.class));
+                case UPDATE -> budgetService.updateBudget(dashboardId, operation.id(), read(payload, BudgetDto.class));
+                case DELETE -> {
+                    budgetService.deleteBudget(dashboardId, operation.id());
+                    yield null;
+                }
+            };
+            case FINANCIAL_GOAL -> switch (operation.operation()) {
+                case CREATE -> financialGoalService.createFinancialGoal(dashboardId, read(payload, FinancialGoalDto.class));
+                case UPDATE -> financialGoalService.updateFinancialGoal(dashboardId, operation.id(), read(payload, FinancialGoalDto.class));
+                case DELETE -> {
+                    financialGoalService.deleteFinancialGoal(dashboardId, operation.id());
+                    yield null;
+                }
+            };
+            case CATEGORY_PRIORITY -> {
+                // Priorities always belong to the current user and the dashboard of the batch.
+                CategoryPriorityDto priority = read(payload, CategoryPriorityDto.class);
+                Long userId = securityUtils.getCurrentUser().getId();
+                CategoryPriorityDto scoped = new CategoryPriorityDto(priority.id(), userId, priority.categoryId(), dashboardId, priority.priority());
+                yield switch (operation.operation()) {
+                    case CREATE -> categoryPriorityService.setCategoryPriority(scoped);
+                    case UPDATE -> categoryPriorityService.updateCategoryPriority(scoped);
+                    case DELETE -> {
+                        categoryPriorityService.deleteCategoryPriorityByUserCategoryAndDashboard(userId, priority.categoryId(), dashboardId);
+                        yield null;
+                    }
+                };
+            }
+        };
+        if (operation.operation() == EBatchOperationType.CREATE && operation.ref() != null) {
+            createdIds.put(operation.ref(), objectMapper.valueToTree(body).path("id").asLong());
+        }
+        return body;
+    }
+
+    /**
+     * Replaces "$ref" string values with the IDs of entities created earlier in the batch.
+     */
+    private JsonNode resolveRefs(JsonNode node, Map<String, Long> createdIds) {
+        if (node == null || createdIds.isEmpty()) {
+            return node;
+        }
+        if (node.isTextual() && node.asText().startsWith("$")) {
+            Long id = createdIds.get(node.asText().substring(1));
+            return id != null ? LongNode.valueOf(id) : node;
+        }
+        if (node.isObject()) {
+            ObjectNode copy = ((ObjectNode) node).deepCopy();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                copy.set(field.getKey(), resolveRefs(field.getValue(), createdIds));
+            }
+            return copy;
+        }
+        if (node.isArray()) {
+            ArrayNode copy = objectMapper.createArrayNode();
+            node.forEach(element -> copy.add(resolveRefs(element, createdIds)));
+            return copy;
+        }
+        return node;
+    }
+
+    private <T> T read(JsonNode payload, Class<T> type) {
+        if (payload == null || payload.isNull()) {
+            throw new IllegalArgumentException("Payload is required");
+        }
+        try {
+            return objectMapper.treeToValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid payload: " + e.getOriginalMessage());
+        }
+    }
+
+    private static HttpStatus statusOf(EBatchOperationType operation) {
+        return switch (operation) {
+            case CREATE -> HttpStatus.CREATED;
+            case UPDATE -> HttpStatus.OK;
+            case DELETE -> HttpStatus.NO_CONTENT;
+        };
+    }
+
+    private static BatchOperationException failed(int index, BatchOperationDto operation, RuntimeException e, List<BatchResultDto> completed) {
+        HttpStatus status;
+        if (e instanceof EntityNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+        } else if (e instanceof EntityAlreadyExistsException) {
+            status = HttpStatus.CONFLICT;
+        } else if (e instanceof AccessDeniedException) {
+            status = HttpStatus.FORBIDDEN;
+        } else {
+            status = HttpStatus.BAD_REQUEST;
+        }
+        LOG.warn("Batch operation {} ({} {}) failed: {}", index, operation.operation(), operation.entity(), e.getMessage());
+        List<BatchResultDto> results = new ArrayList<>(completed.size() + 1);
+        for (BatchResultDto result : completed) {
+            results.add(new BatchResultDto(result.index(), result.ref(), HttpStatus.FAILED_DEPENDENCY.value(), null, "Rolled back"));
+        }
+        results.add(new BatchResultDto(index, operation.ref(), status.value(), null, e.getMessage()));
+        return new BatchOperationException(index, status.value(), e.getMessage(), results);
+    }
+}
@@ -0,0 +1,140 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.algorithm.PriorityBudgetAllocator;
+import cz.cvut.fel.budgetplannerbackend.config.BudgetAllocationProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.allocation.BudgetAllocationRequestDto;
+import cz.cvut.fel.budgetplannerbackend.dto.allocation.CategoryAllocationDto;
+import cz.cvut.fel.budgetplannerbackend.entity.Budget;
+import cz.cvut.fel.budgetplannerbackend.entity.Category;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.repository.BudgetRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.BudgetAllocationService;
+import cz.cvut.fel.budgetplannerbackend.service.CategoryPriorityService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class proposing per-category budgets from the weighted category priorities.
+ * <p>
+ * Every category gets at least a configured share of its average spend over the last closed months, scaled to
+ * the length of the period; the rest of the total is split by {@link PriorityBudgetAllocator} so that the
+ * priority-weighted utility is maximal. Accepted allocations are saved as one budget per category, inserted
+ * together in JDBC batches.
+ */
+@Service
+@RequiredArgsConstructor
+public class BudgetAllocationServiceImpl implements BudgetAllocationService {
+
+    private final BudgetRepository budgetRepository;
+    private final CategoryRepository categoryRepository;
+    private final DashboardRepository dashboardRepository;
+    private final FinancialRecordRepository financialRecordRepository;
+    private final CategoryPriorityService categoryPriorityService;
+    private final SecurityUtils securityUtils;
+    private final DashboardChangeTracker dashboardChangeTracker;
+    private final BudgetAllocationProperties properties;
+
+    private static final Logger LOG = LoggerFactory.getLogger(BudgetAllocationServiceImpl.class);
+
+    /**
+     * Splits a total amount into budgets for all categories of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param request     The total amount and the period of the budgets.
+     * @param preview     True to only propose the split, false to also create the budgets.
+     * @return The allocation of every category, in the order of the categories.
+     * @throws IllegalArgumentException If the request is invalid, the dashboard has no categories, or the total
+     *                                  is less than the minimums of the categories.
+     * @throws EntityNotFoundException If the dashboard is not found.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard, or viewer access for a preview.
+     */
+    @Override
+    @Transactional
+    public List<CategoryAllocationDto> allocateBudgets(Long dashboardId, BudgetAllocationRequestDto request, boolean preview) {
+        securityUtils.checkDashboardAccess(dashboardId, preview ? EAccessLevel.VIEWER : EAccessLevel.EDITOR);
+        if (request.totalAmount() == null || !(request.totalAmount() > 0)) {
+            throw new IllegalArgumentException("The total amount must be greater than zero");
+        }
+        if (request.startDate() == null || request.endDate() == null || request.endDate().isBefore(request.startDate())) {
+            throw new IllegalArgumentException("The period must have a start date not after its end date");
+        }
+        List<Category> categories = categoryRepository.findAllByDashboardId(dashboardId);
+        if (categories.isEmpty()) {
+            throw new IllegalArgumentException("The dashboard has no categories to allocate the budget to");
+        }
+        LOG.info("Allocating {} between {} categories from {} to {} for dashboard id: {}",
+                request.totalAmount(), categories.size(), request.startDate(), request.endDate(), dashboardId);
+
+        Map<Long, Double> priorities = categoryPriorityService.calculateCategoryPriorities(dashboardId);
+        Map<Long, BigDecimal> spend = historicalSpend(dashboardId);
+        LocalDateTime historyEnd = YearMonth.now().atDay(1).atStartOfDay();
+        double historyDays = ChronoUnit.DAYS.between(historyEnd.minusMonths(properties.getHistoryMonths()), historyEnd);
+        double periodDays = ChronoUnit.DAYS.between(request.startDate(), request.endDate()) + 1;
+
+        // Amounts are allocated in cents, so the budgets add up to the total exactly.
+        double[] weights = new double[categories.size()];
+        long[] minimums = new long[categories.size()];
+        for (int i = 0; i < categories.size(); i++) {
+            Long categoryId = categories.get(i).getId();
+            weights[i] = priorities.getOrDefault(categoryId, 0.0);
+            double categorySpend = spend.getOrDefault(categoryId, BigDecimal.ZERO).doubleValue();
+            minimums[i] = (long) Math.floor(properties.getMinimumSpendRatio() * categorySpend * periodDays / historyDays * 100);
+        }
+        long[] amounts = PriorityBudgetAllocator.allocate(Math.round(request.totalAmount() * 100), weights, minimums);
+
+        List<Budget> budgets = preview ? List.of() : createBudgets(dashboardId, request, categories, amounts);
+        List<CategoryAllocationDto> allocations = new ArrayList<>(categories.size());
+        for (int i = 0; i < categories.size(); i++) {
+            Category category = categories.get(i);
+            allocations.add(new CategoryAllocationDto(category.getId(), category.getName(), weights[i],
+                    minimums[i] / 100.0, amounts[i] / 100.0, preview ? null : budgets.get(i).getId()));
+        }
+        LOG.info("{} budget allocation of {} categories for dashboard id: {}", preview ? "Proposed" : "Created", categories.size(), dashboardId);
+        return allocations;
+    }
+
+    private Map<Long, BigDecimal> historicalSpend(Long dashboardId) {
+        LocalDateTime to = YearMonth.now().atDay(1).atStartOfDay();
+        LocalDateTime from = to.minusMonths(properties.getHistoryMonths());
+        Map<Long, BigDecimal> spend = new HashMap<>();
+        for (Object[] row : financialRecordRepository.sumExpensesByCategoryAndDateRange(dashboardId, from, to)) {
+            spend.put((Long) row[0], (BigDecimal) row[1]);
+        }
+        return spend;
+    }
+
+    private List<Budget> createBudgets(Long dashboardId, BudgetAllocationRequestDto request, List<Category> categories, long[] amounts) {
+        Dashboard dashboard = dashboardRepository.findById(dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("Dashboard", dashboardId));
+        List<Budget> budgets = new ArrayList<>(categories.size());
+        for (int i = 0; i < categories.size(); i++) {
+            Category category = categories.get(i);
+            budgets.add(new Budget(null, dashboard, category.getName(), amounts[i] / 100.0,
+                    request.startDate(), request.endDate(), category));
+        }
+        // Sequence ids are allocated in blocks, so the inserts are sent in JDBC batches on flush.
+        List<Budget> savedBudgets = budgetRepository.saveAll(budgets);
+        dashboardChangeTracker.markChanged(dashboardId);
+        return savedBudgets;
+    }
+}
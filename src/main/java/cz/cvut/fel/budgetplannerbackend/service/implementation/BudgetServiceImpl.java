@@ -2,11 +2,14 @@ package cz.cvut.fel.budgetplannerbackend.service.implementation;
 
 import cz.cvut.fel.budgetplannerbackend.dto.BudgetDto;
 import cz.cvut.fel.budgetplannerbackend.entity.Budget;
+import cz.cvut.fel.budgetplannerbackend.entity.Category;
 import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.mapper.BudgetMapper;
 import cz.cvut.fel.budgetplannerbackend.repository.BudgetRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
 import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
 import cz.cvut.fel.budgetplannerbackend.service.BudgetService;
@@ -28,8 +31,10 @@ public class BudgetServiceImpl implements BudgetService {
 
     private final BudgetRepository budgetRepository;
     private final DashboardRepository dashboardRepository;
+    private final CategoryRepository categoryRepository;
     private final BudgetMapper budgetMapper;
     private final SecurityUtils securityUtils;
+    private final DashboardChangeTracker dashboardChangeTracker;
 
     private static final Logger LOG = LoggerFactory.getLogger(BudgetServiceImpl.class);
 
@@ -88,7 +93,9 @@ public class BudgetServiceImpl implements BudgetService {
                 .orElseThrow(() -> new EntityNotFoundException("Dashboard", dashboardId));
         Budget budget = budgetMapper.toEntity(budgetDto);
         budget.setDashboard(dashboard); // Associate the budget with the dashboard
+        if (budgetDto.categoryId() != null) budget.setCategory(findCategory(budgetDto.categoryId(), dashboardId));
         Budget savedBudget = budgetRepository.save(budget);
+        dashboardChangeTracker.markChanged(dashboardId);
         return budgetMapper.toDto(savedBudget);
     }
 
@@ -115,8 +122,10 @@ public class BudgetServiceImpl implements BudgetService {
         if (budgetDto.totalAmount() != null) budget.setTotalAmount(budgetDto.totalAmount());
         if (budgetDto.startDate() != null) budget.setStartDate(budgetDto.startDate());
         if (budgetDto.endDate() != null) budget.setEndDate(budgetDto.endDate());
+        if (budgetDto.categoryId() != null) budget.setCategory(findCategory(budgetDto.categoryId(), dashboardId));
 
         Budget updatedBudget = budgetRepository.save(budget);
+        dashboardChangeTracker.markChanged(dashboardId);
         LOG.info("Updated budget with id: {} for dashboard id: {}", id, dashboardId);
         return budgetMapper.toDto(updatedBudget);
     }
@@ -138,6 +147,12 @@ public class BudgetServiceImpl implements BudgetService {
                 .orElseThrow(() -> new EntityNotFoundException("Budget not found with id: " + id + " for dashboard id: " + dashboardId));
 
         budgetRepository.delete(budget); // Delete the budget.
+        dashboardChangeTracker.markChanged(dashboardId);
         LOG.info("Budget with id: {} successfully deleted, along with all its associated financial goals.", id);
     }
-}
\ No newline at end of file
+
+    private Category findCategory(Long categoryId, Long dashboardId) {
+        return categoryRepository.findByIdAndDashboardId(categoryId, dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("Category", categoryId));
+    }
+}
@@ -0,0 +1,235 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.algorithm.LargestTriangleThreeBuckets;
+import cz.cvut.fel.budgetplannerbackend.config.CashFlowProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.cashflow.CashFlowPointDto;
+import cz.cvut.fel.budgetplannerbackend.dto.cashflow.CashFlowSeriesDto;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ETimeBucket;
+import cz.cvut.fel.budgetplannerbackend.events.FinancialRecordsChangedEvent;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.CashFlowService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static cz.cvut.fel.budgetplannerbackend.repository.NativeQueryValues.toLocalDateTime;
+
+/**
+ * Service class for cash-flow time series: income and expenses of a dashboard per day, week or month.
+ * <p>
+ * Buckets are summed by the database with date_trunc and gaps are filled with zero buckets. Totals of closed
+ * buckets (ended before the current one began) only change when records are back-dated into them, so they are
+ * kept in memory for the most recently charted dashboards. Like the tag index, the cache is tagged with the
+ * dashboard version it reflects: committed record changes drop the cached buckets from the earliest changed
+ * record date on, and any gap in the versions (e.g. a change made on another node) drops the whole cache
+ * of the dashboard.
+ * <p>
+ * Series with more buckets than requested points are downsampled with {@link LargestTriangleThreeBuckets}.
+ */
+@Service
+public class CashFlowServiceImpl implements CashFlowService {
+
+    private final FinancialRecordRepository financialRecordRepository;
+    private final DashboardRepository dashboardRepository;
+    private final SecurityUtils securityUtils;
+    private final CashFlowProperties properties;
+    private final Map<Long, ClosedBuckets> caches;
+
+    private static final Logger LOG = LoggerFactory.getLogger(CashFlowServiceImpl.class);
+
+    public CashFlowServiceImpl(FinancialRecordRepository financialRecordRepository, DashboardRepository dashboardRepository,
+                               SecurityUtils securityUtils, CashFlowProperties properties) {
+        this.financialRecordRepository = financialRecordRepository;
+        this.dashboardRepository = dashboardRepository;
+        this.securityUtils = securityUtils;
+        this.properties = properties;
+        int cacheSize = properties.getCacheSize();
+        this.caches = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ClosedBuckets> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the income and expenses of a dashboard per time bucket.
+     * The range is extended to whole buckets.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param from        The start of the range, inclusive.
+     * @param to          The end of the range, exclusive.
+     * @param bucket      The size of the buckets.
+     * @param points      The maximum number of points to return, or null for the configured default.
+     * @return The time series; downsampled if the range has more buckets than points.
+     * @throws IllegalArgumentException If the range is empty or has too many buckets, or fewer than 3 points are requested.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CashFlowSeriesDto findCashFlowSeries(Long dashboardId, LocalDateTime from, LocalDateTime to, ETimeBucket bucket, Integer points) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("The start of the range must be before its end");
+        }
+        int threshold = points != null ? points : properties.getDefaultPoints();
+        if (threshold < 3) {
+            throw new IllegalArgumentException("At least 3 points must be requested");
+        }
+        LocalDateTime start = bucket.truncate(from);
+        LocalDateTime end = bucket.ceil(to);
+        if (bucket.count(start, end) > properties.getMaxBuckets()) {
+            throw new IllegalArgumentException("The range must not have more than " + properties.getMaxBuckets() + " buckets");
+        }
+        LOG.info("Fetching cash flow per {} from {} to {} for dashboard id: {}", bucket, start, end, dashboardId);
+
+        List<CashFlowPointDto> series = series(dashboardId, bucket, start, end);
+        boolean downsampled = series.size() > threshold;
+        return new CashFlowSeriesDto(bucket, start, end, downsampled, downsampled ? downsample(series, threshold) : series);
+    }
+
+    private List<CashFlowPointDto> series(Long dashboardId, ETimeBucket bucket, LocalDateTime start, LocalDateTime end) {
+        // The version is read before the totals, so the cached buckets are never newer than their version claims.
+        long version = dashboardRepository.findVersion(dashboardId).orElse(0L);
+        LocalDateTime open = bucket.truncate(LocalDateTime.now()); // Buckets starting before the current one are closed.
+        ClosedBuckets cache = cache(dashboardId, version);
+        Map<LocalDateTime, CashFlowPointDto> cached;
+        synchronized (cache) {
+            cached = start.isBefore(open) ? new HashMap<>(cache.of(bucket).subMap(start, end.isBefore(open) ? end : open)) : Map.of();
+        }
+
+        // A single query covers the buckets from the first to the last one missing in the cache.
+        LocalDateTime queryFrom = null;
+        LocalDateTime queryTo = null;
+        for (LocalDateTime bucketStart = start; bucketStart.isBefore(end); bucketStart = bucket.next(bucketStart)) {
+            if (!cached.containsKey(bucketStart)) {
+                queryFrom = queryFrom == null ? bucketStart : queryFrom;
+                queryTo = bucket.next(bucketStart);
+            }
+        }
+        List<Object[]> rows = queryFrom == null ? List.of()
+                : financialRecordRepository.sumAmountsByBucketAndType(dashboardId, bucket.getSqlUnit(), queryFrom, queryTo);
+
+        // Rows are ordered by bucket, so cached, loaded and empty buckets are merged in one pass.
+        List<CashFlowPointDto> series = new ArrayList<>();
+        Map<LocalDateTime, CashFlowPointDto> closed = new HashMap<>();
+        int row = 0;
+        for (LocalDateTime bucketStart = start; bucketStart.isBefore(end); bucketStart = bucket.next(bucketStart)) {
+            CashFlowPointDto point = cached.get(bucketStart);
+            if (point == null) {
+                while (row < rows.size() && toLocalDateTime(rows.get(row)[0]).isBefore(bucketStart)) {
+                    row++; // A bucket answered from the cache.
+                }
+                BigDecimal income = BigDecimal.ZERO;
+                BigDecimal expense = BigDecimal.ZERO;
+                while (row < rows.size() && toLocalDateTime(rows.get(row)[0]).equals(bucketStart)) {
+                    Object[] values = rows.get(row++);
+                    if (ERecordType.valueOf(String.valueOf(values[1])) == ERecordType.INCOME) {
+                        income = income.add((BigDecimal) values[2]);
+                    } else {
+                        expense = expense.add((BigDecimal) values[2]);
+                    }
+                }
+                point = new CashFlowPointDto(bucketStart, income, expense);
+                if (bucketStart.isBefore(open)) {
+                    closed.put(bucketStart, point);
+                }
+            }
+            series.add(point);
+        }
+
+        if (!closed.isEmpty()) {
+            synchronized (cache) {
+                if (cache.version == version) { // Otherwise a change was applied since the version was read.
+                    cache.of(bucket).putAll(closed);
+                }
+            }
+        }
+        return series;
+    }
+
+    private ClosedBuckets cache(Long dashboardId, long version) {
+        ClosedBuckets cache;
+        synchronized (caches) {
+            cache = caches.computeIfAbsent(dashboardId, id -> new ClosedBuckets(version));
+        }
+        synchronized (cache) {
+            if (cache.version < version) {
+                cache.buckets.clear(); // Changes were committed that were not applied to the cache.
+                cache.version = version;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Drops the cached buckets of a dashboard affected by committed record changes.
+     *
+     * @param event The committed record changes.
+     */
+    @EventListener
+    public void onFinancialRecordsChanged(FinancialRecordsChangedEvent event) {
+        ClosedBuckets cache;
+        synchronized (caches) {
+            cache = caches.get(event.dashboardId());
+        }
+        if (cache == null || event.token() == null) {
+            return;
+        }
+        synchronized (cache) {
+            if (cache.version >= event.token()) {
+                return; // The cached buckets were loaded after this change.
+            }
+            if (event.earliestDate() == null || cache.version != event.token() - 1) {
+                cache.buckets.clear(); // The affected periods are unknown, or another change was missed.
+            } else {
+                cache.buckets.forEach((bucket, closed) -> closed.tailMap(bucket.truncate(event.earliestDate())).clear());
+            }
+            cache.version = event.token();
+        }
+    }
+
+    private static List<CashFlowPointDto> downsample(List<CashFlowPointDto> series, int threshold) {
+        double[] x = new double[series.size()];
+        double[][] y = new double[2][series.size()];
+        for (int i = 0; i < series.size(); i++) {
+            CashFlowPointDto point = series.get(i);
+            x[i] = point.start().toEpochSecond(ZoneOffset.UTC); // Months differ in length.
+            y[0][i] = point.income().doubleValue();
+            y[1][i] = point.expense().doubleValue();
+        }
+        return Arrays.stream(LargestTriangleThreeBuckets.select(x, y, threshold))
+                .mapToObj(series::get)
+                .toList();
+    }
+
+    private static final class ClosedBuckets {
+        private final Map<ETimeBucket, TreeMap<LocalDateTime, CashFlowPointDto>> buckets = new EnumMap<>(ETimeBucket.class);
+        private long version;
+
+        private ClosedBuckets(long version) {
+            this.version = version;
+        }
+
+        private TreeMap<LocalDateTime, CashFlowPointDto> of(ETimeBucket bucket) {
+            return buckets.computeIfAbsent(bucket, b -> new TreeMap<>());
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.algorithm.CategorizationMatcher;
+import cz.cvut.fel.budgetplannerbackend.config.CategorizationProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.CategorizationRuleDto;
+import cz.cvut.fel.budgetplannerbackend.entity.CategorizationRule;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECachedEntityType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECategorizationMatchType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.mapper.CategorizationRuleMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.CategorizationRuleRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.RecordCategorizationRepository.RecordCategory;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.CategorizationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Service class assigning categories to records created without one, by the categorization rules of their dashboard.
+ * <p>
+ * The rules of a dashboard are compiled into a {@link CategorizationMatcher}, which finds the first matching rule
+ * scanning the description once. Rules are read through the second-level query cache, which other nodes evict
+ * when rules change; the compiled matcher of a dashboard is kept in memory and reused as long as the rules read
+ * are the ones it was compiled from, so any change of the rules recompiles it on first use.
+ * <p>
+ * Rules apply to records as they are created, including bulk operations and imports. Applying the rules to the
+ * history categorizes the existing uncategorized records with chunked set-based updates, each chunk in its own
+ * transaction, so a long history does not hold its locks until the end.
+ */
+@Service
+public class CategorizationServiceImpl implements CategorizationService {
+
+    private final CategorizationRuleRepository categorizationRuleRepository;
+    private final CategoryRepository categoryRepository;
+    private final DashboardRepository dashboardRepository;
+    private final FinancialRecordRepository financialRecordRepository;
+    private final CategorizationRuleMapper categorizationRuleMapper;
+    private final SecurityUtils securityUtils;
+    private final DashboardChangeTracker dashboardChangeTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final CategorizationProperties properties;
+    private final Map<Long, CompiledRules> matchers;
+
+    private static final Logger LOG = LoggerFactory.getLogger(CategorizationServiceImpl.class);
+
+    public CategorizationServiceImpl(CategorizationRuleRepository categorizationRuleRepository, CategoryRepository categoryRepository,
+                                     DashboardRepository dashboardRepository, FinancialRecordRepository financialRecordRepository,
+                                     CategorizationRuleMapper categorizationRuleMapper, SecurityUtils securityUtils,
+                                     DashboardChangeTracker dashboardChangeTracker, PlatformTransactionManager transactionManager,
+                                     CategorizationProperties properties) {
+        this.categorizationRuleRepository = categorizationRuleRepository;
+        this.categoryRepository = categoryRepository;
+        this.dashboardRepository = dashboardRepository;
+        this.financialRecordRepository = financialRecordRepository;
+        this.categorizationRuleMapper = categorizationRuleMapper;
+        this.securityUtils = securityUtils;
+        this.dashboardChangeTracker = dashboardChangeTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        int cacheSize = properties.getCacheSize();
+        this.matchers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CompiledRules> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the categorization rules of a dashboard in the order they are tried.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A list of categorization rule DTOs.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategorizationRuleDto> findAllCategorizationRulesByDashboardId(Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        LOG.info("Fetching all categorization rules for dashboard id: {}", dashboardId);
+        return categorizationRuleRepository.findAllByDashboardIdOrderByPriorityAscIdAsc(dashboardId).stream()
+                .map(categorizationRuleMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves a specific categorization rule by its ID and dashboard ID.
+     *
+     * @param id          The ID of the categorization rule.
+     * @param dashboardId The ID of the dashboard.
+     * @return The categorization rule DTO.
+     * @throws EntityNotFoundException If the categorization rule is not found.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CategorizationRuleDto findCategorizationRuleByIdAndDashboardId(Long id, Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        LOG.info("Fetching categorization rule with id: {} for dashboard id: {}", id, dashboardId);
+        return categorizationRuleMapper.toDto(findCategorizationRule(id, dashboardId));
+    }
+
+    /**
+     * Creates a categorization rule.
+     *
+     * @param dashboardId           The ID of the dashboard.
+     * @param categorizationRuleDto The DTO with the category and optionally the match type (contains by default),
+     *                              pattern, record type, amount range and priority (0 by default).
+     * @return The created categorization rule DTO.
+     * @throws EntityNotFoundException If the dashboard or category is not found.
+     * @throws IllegalArgumentException If the category is missing, the pattern is too long or not a valid regular
+     *                                  expression, the amount range is empty, or the dashboard has too many rules.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @Override
+    @Transactional
+    public CategorizationRuleDto createCategorizationRule(Long dashboardId, CategorizationRuleDto categorizationRuleDto) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        LOG.info("Creating categorization rule for dashboard id: {}", dashboardId);
+        if (categorizationRuleRepository.countByDashboardId(dashboardId) >= properties.getMaxRules()) {
+            throw new IllegalArgumentException("A dashboard can have at most " + properties.getMaxRules() + " categorization rules");
+        }
+        Dashboard dashboard = dashboardRepository.findById(dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("Dashboard", dashboardId));
+
+        CategorizationRule categorizationRule = new CategorizationRule();
+        categorizationRule.setDashboard(dashboard);
+        apply(categorizationRule, categorizationRuleDto, dashboardId);
+
+        CategorizationRule savedCategorizationRule = categorizationRuleRepository.save(categorizationRule);
+        dashboardChangeTracker.markInvalidated(dashboardId, ECachedEntityType.CATEGORIZATION_RULE);
+        LOG.info("Created categorization rule with id: {} for dashboard id: {}", savedCategorizationRule.getId(), dashboardId);
+        return categorizationRuleMapper.toDto(savedCategorizationRule);
+    }
+
+    /**
+     * Replaces a categorization rule. Records categorized by the previous version of the rule keep their category.
+     *
+     * @param dashboardId           The ID of the dashboard.
+     * @param id                    The ID of the categorization rule.
+     * @param categorizationRuleDto The DTO with the new fields of the rule.
+     * @return The updated categorization rule DTO.
+     * @throws EntityNotFoundException If the categorization rule or category is not found.
+     * @throws IllegalArgumentException If the category is missing, the pattern is too long or not a valid regular
+     *                                  expression, or the amount range is empty.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @Override
+    @Transactional
+    public CategorizationRuleDto updateCategorizationRule(Long dashboardId, Long id, CategorizationRuleDto categorizationRuleDto) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        LOG.info("Updating categorization rule with id: {} for dashboard id: {}", id, dashboardId);
+        CategorizationRule categorizationRule = findCategorizationRule(id, dashboardId);
+        apply(categorizationRule, categorizationRuleDto, dashboardId);
+
+        CategorizationRule updatedCategorizationRule = categorizationRuleRepository.save(categorizationRule);
+        dashboardChangeTracker.markInvalidated(dashboardId, ECachedEntityType.CATEGORIZATION_RULE);
+        LOG.info("Updated categorization rule with id: {} for dashboard id: {}", id, dashboardId);
+        return categorizationRuleMapper.toDto(updatedCategorizationRule);
+    }
+
+    /**
+     * Deletes a categorization rule. Records categorized by the rule keep their category.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the categorization rule.
+     * @throws EntityNotFoundException If the categorization rule is not found.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @Override
+    @Transactional
+    public void deleteCategorizationRule(Long dashboardId, Long id) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        LOG.info("Deleting categorization rule with id: {} for dashboard id: {}", id, dashboardId);
+        categorizationRuleRepository.delete(findCategorizationRule(id, dashboardId));
+        dashboardChangeTracker.markInvalidated(dashboardId, ECachedEntityType.CATEGORIZATION_RULE);
+    }
+
+    /**
+     * Sets the category of an uncategorized record about to be saved to the category of the first matching rule
+     * of its dashboard. Records with a category, or matching no rule, are left as they are.
+     *
+     * @param financialRecord The record with its dashboard, type, amount and description set.
+     */
+    @Override
+    public void categorize(FinancialRecord financialRecord) {
+        categorizeAll(List.of(financialRecord));
+    }
+
+    /**
+     * Categorizes records about to be saved like {@link #categorize(FinancialRecord)}, loading the rules
+     * of every dashboard once rather than once per record.
+     *
+     * @param financialRecords The records with their dashboard, type, amount and description set.
+     */
+    @Override
+    public void categorizeAll(Collection<FinancialRecord> financialRecords) {
+        Map<Long, List<FinancialRecord>> uncategorized = new LinkedHashMap<>();
+        for (FinancialRecord financialRecord : financialRecords) {
+            if (financialRecord.getCategory() == null) {
+                uncategorized.computeIfAbsent(financialRecord.getDashboard().getId(), id -> new ArrayList<>()).add(financialRecord);
+            }
+        }
+        uncategorized.forEach((dashboardId, records) -> {
+            List<CategorizationRule> rules = categorizationRuleRepository.findAllByDashboardIdOrderByPriorityAscIdAsc(dashboardId);
+            if (rules.isEmpty()) {
+                return;
+            }
+            CategorizationMatcher<ERecordType> matcher = compiled(dashboardId, rules).matcher();
+            for (FinancialRecord financialRecord : records) {
+                int match = matcher.match(financialRecord.getDescription(), financialRecord.getType(), financialRecord.getAmount());
+                if (match >= 0) {
+                    financialRecord.setCategory(rules.get(match).getCategory());
+                    LOG.debug("Record of dashboard id: {} categorized by rule id: {}", dashboardId, rules.get(match).getId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies the categorization rules of a dashboard to its uncategorized records.
+     * The records are matched in memory and categorized in chunks, each in its own transaction;
+     * records categorized by someone else meanwhile keep their category.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return The number of records categorized.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @Override
+    public int applyCategorizationRules(Long dashboardId) {
+        List<RuleSnapshot> rules = transactionTemplate.execute(status -> {
+            securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+            LOG.info("Applying categorization rules to the uncategorized records of dashboard id: {}", dashboardId);
+            return snapshot(categorizationRuleRepository.findAllByDashboardIdOrderByPriorityAscIdAsc(dashboardId));
+        });
+        if (rules == null || rules.isEmpty()) {
+            return 0;
+        }
+        CategorizationMatcher<ERecordType> matcher = compile(rules);
+        List<RecordCategory> matched = new ArrayList<>();
+        financialRecordRepository.forEachUncategorizedRecord(dashboardId, record -> {
+            int match = matcher.match(record.description(), record.type(), record.amount());
+            if (match >= 0) {
+                matched.add(new RecordCategory(record.id(), record.date(), rules.get(match).categoryId()));
+            }
+        });
+
+        int categorized = 0;
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        for (int from = 0; from < matched.size(); from += chunkSize) {
+            List<RecordCategory> chunk = matched.subList(from, Math.min(from + chunkSize, matched.size()));
+            Integer count = transactionTemplate.execute(status -> categorizeChunk(dashboardId, chunk));
+            categorized += count != null ? count : 0;
+        }
+        LOG.info("Categorized {} of {} matching records of dashboard id: {}", categorized, matched.size(), dashboardId);
+        return categorized;
+    }
+
+    // The chunk is ordered by date, so its first record has the earliest date.
+    private int categorizeChunk(Long dashboardId, List<RecordCategory> chunk) {
+        List<Long> ids = financialRecordRepository.categorizeRecords(chunk);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // The bulk statement bypasses entity listeners, so report the categorized records to delta sync explicitly.
+        ids.forEach(id -> dashboardChangeTracker.markUpserted(ESyncEntityType.FINANCIAL_RECORD, id, dashboardId));
+        dashboardChangeTracker.markChanged(dashboardId);
+        dashboardChangeTracker.markRecordDate(dashboardId, chunk.get(0).date());
+        return ids.size();
+    }
+
+    private CompiledRules compiled(Long dashboardId, List<CategorizationRule> rules) {
+        List<RuleSnapshot> snapshot = snapshot(rules);
+        synchronized (matchers) {
+            CompiledRules compiled = matchers.get(dashboardId);
+            if (compiled != null && compiled.rules().equals(snapshot)) {
+                return compiled;
+            }
+        }
+        // Compiled outside the lock; two threads may both compile the same rules, and either result is correct.
+        LOG.debug("Compiling {} categorization rules of dashboard id: {}", snapshot.size(), dashboardId);
+        CompiledRules compiled = new CompiledRules(snapshot, compile(snapshot));
+        synchronized (matchers) {
+            matchers.put(dashboardId, compiled);
+        }
+        return compiled;
+    }
+
+    private static List<RuleSnapshot> snapshot(List<CategorizationRule> rules) {
+        return rules.stream()
+                .map(rule -> new RuleSnapshot(rule.getId(), rule.getCategory().getId(), rule.getMatchType(), rule.getPattern(),
+                        rule.getRecordType(), rule.getMinAmount(), rule.getMaxAmount()))
+                .toList();
+    }
+
+    private static CategorizationMatcher<ERecordType> compile(List<RuleSnapshot> rules) {
+        return new CategorizationMatcher<>(rules.stream()
+                .map(rule -> new CategorizationMatcher.Rule<>(rule.pattern(), rule.matchType() == ECategorizationMatchType.REGEX,
+                        rule.recordType(), rule.minAmount(), rule.maxAmount()))
+                .toList());
+    }
+
+    private CategorizationRule findCategorizationRule(Long id, Long dashboardId) {
+        return categorizationRuleRepository.findByIdAndDashboardId(id, dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("CategorizationRule", id));
+    }
+
+    private void apply(CategorizationRule categorizationRule, CategorizationRuleDto dto, Long dashboardId) {
+        if (dto.categoryId() == null) {
+            throw new IllegalArgumentException("A categorization rule needs a category");
+        }
+        ECategorizationMatchType matchType = dto.matchType() != null ? dto.matchType() : ECategorizationMatchType.CONTAINS;
+        String pattern = dto.pattern() == null || dto.pattern().isEmpty() ? null : dto.pattern();
+        if (pattern != null && pattern.length() > 200) {
+            throw new IllegalArgumentException("The pattern of a categorization rule must not exceed 200 characters");
+        }
+        if (pattern != null && matchType == ECategorizationMatchType.REGEX) {
+            Pattern.compile(pattern); // Throws a PatternSyntaxException, an IllegalArgumentException, if invalid.
+        }
+        BigDecimal minAmount = dto.minAmount();
+        BigDecimal maxAmount = dto.maxAmount();
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+            throw new IllegalArgumentException("The minimum amount of a categorization rule must not exceed its maximum amount");
+        }
+        categorizationRule.setCategory(categoryRepository.findByIdAndDashboardId(dto.categoryId(), dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("Category", dto.categoryId())));
+        categorizationRule.setMatchType(matchType);
+        categorizationRule.setPattern(pattern);
+        categorizationRule.setRecordType(dto.recordType());
+        categorizationRule.setMinAmount(minAmount);
+        categorizationRule.setMaxAmount(maxAmount);
+        categorizationRule.setPriority(dto.priority() != null ? dto.priority() : 0);
+    }
+
+    // The fields of a rule the compiled matcher depends on.
+    private record RuleSnapshot(Long id, Long categoryId, ECategorizationMatchType matchType, String pattern,
+                                ERecordType recordType, BigDecimal minAmount, BigDecimal maxAmount) {
+    }
+
+    private record CompiledRules(List<RuleSnapshot> rules, CategorizationMatcher<ERecordType> matcher) {
+    }
+}
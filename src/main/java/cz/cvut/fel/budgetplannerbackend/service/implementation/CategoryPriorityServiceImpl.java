@@ -5,6 +5,7 @@ import cz.cvut.fel.budgetplannerbackend.entity.CategoryPriority;
 import cz.cvut.fel.budgetplannerbackend.entity.DashboardRole;
 import cz.cvut.fel.budgetplannerbackend.entity.User;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.mapper.CategoryPriorityMapper;
 import cz.cvut.fel.budgetplannerbackend.repository.*;
@@ -19,7 +20,9 @@ import org.springframework.security.access.AccessDeniedException;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -37,6 +40,7 @@ public class CategoryPriorityServiceImpl implements CategoryPriorityService {
     private final FinancialRecordRepository financialRecordRepository;
     private final CategoryPriorityMapper categoryPriorityMapper;
     private final SecurityUtils securityUtils;
+    private final DashboardChangeTracker dashboardChangeTracker;
 
     private static final Logger LOG = LoggerFactory.getLogger(CategoryPriorityServiceImpl.class);
 
@@ -79,6 +83,7 @@ public class CategoryPriorityServiceImpl implements CategoryPriorityService {
 
         LOG.debug("Saving new category priority");
         categoryPriority = categoryPriorityRepository.save(categoryPriority); // Save the new category priority.
+        dashboardChangeTracker.markChanged(categoryPriorityDto.dashboardId());
 
         LOG.info("Priority set successfully for userId: {}, categoryId: {}, dashboardId: {}", categoryPriorityDto.userId(), categoryPriorityDto.categoryId(), categoryPriorityDto.dashboardId());
         return categoryPriorityMapper.toDto(categoryPriority); // Return the DTO representation of the saved priority.
@@ -111,6 +116,7 @@ public class CategoryPriorityServiceImpl implements CategoryPriorityService {
         // Update the priority value.
         categoryPriority.setPriority(categoryPriorityDto.priority());
         categoryPriority = categoryPriorityRepository.save(categoryPriority); // Save the updated category priority.
+        dashboardChangeTracker.markChanged(categoryPriorityDto.dashboardId());
 
         LOG.info("Priority updated successfully for userId: {}, categoryId: {}, dashboardId: {}", categoryPriorityDto.userId(), categoryPriorityDto.categoryId(), categoryPriorityDto.dashboardId());
         return categoryPriorityMapper.toDto(categoryPriority); // Return the DTO representation of the updated priority.
@@ -130,6 +136,7 @@ public class CategoryPriorityServiceImpl implements CategoryPriorityService {
         CategoryPriority categoryPriority = categoryPriorityRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("CategoryPriority not found with id: " + id));
         categoryPriorityRepository.delete(categoryPriority); // Delete the category priority.
+        dashboardChangeTracker.markChanged(categoryPriority.getDashboard().getId());
         LOG.info("Priority deleted successfully for categoryPriorityId: {}", id);
     }
 
@@ -149,6 +156,7 @@ public class CategoryPriorityServiceImpl implements CategoryPriorityService {
         CategoryPriority categoryPriority = categoryPriorityRepository.findByUserIdAndCategoryIdAndDashboardId(userId, categoryId, dashboardId)
                 .orElseThrow(() -> new EntityNotFoundException("CategoryPriority not found for userId: " + userId + ", categoryId: " + categoryId + ", dashboardId: " + dashboardId));
         categoryPriorityRepository.delete(categoryPriority); // Delete the category priority.
+        dashboardChangeTracker.markChanged(dashboardId);
         LOG.info("Priority deleted successfully for userId: {}, categoryId: {}, dashboardId: {}", userId, categoryId, dashboardId);
     }
 
@@ -260,6 +268,40 @@ public class CategoryPriorityServiceImpl implements CategoryPriorityService {
         return calculatedPriority;
     }
 
+    /**
+     * Calculates the weighted average priorities of all categories of a dashboard with at least one priority,
+     * as {@link #calculateCategoryPriority} does for a single category. The role and income weights of every
+     * user are computed once.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return The weighted average priority by category ID.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Double> calculateCategoryPriorities(Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        LOG.info("Calculating priorities of all categories on dashboardId: {}", dashboardId);
+
+        Map<Long, Double> userWeights = new HashMap<>();
+        Map<Long, BigDecimal[]> totals = new HashMap<>(); // Weighted priority sum and weight sum per category.
+        for (CategoryPriority cp : categoryPriorityRepository.findByDashboardId(dashboardId)) {
+            Long userId = cp.getUser().getId();
+            double combinedWeight = userWeights.computeIfAbsent(userId,
+                    id -> (getRoleWeight(id, dashboardId) * 0.5) + (getIncomeWeight(id, dashboardId) * 0.5));
+            BigDecimal combinedWeightBD = BigDecimal.valueOf(combinedWeight);
+            BigDecimal[] total = totals.computeIfAbsent(cp.getCategory().getId(), id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            total[0] = total[0].add(BigDecimal.valueOf(cp.getPriority()).multiply(combinedWeightBD));
+            total[1] = total[1].add(combinedWeightBD);
+        }
+
+        Map<Long, Double> priorities = new HashMap<>();
+        totals.forEach((categoryId, total) -> priorities.put(categoryId, total[1].compareTo(BigDecimal.ZERO) == 0
+                ? 0 : total[0].divide(total[1], 2, RoundingMode.HALF_UP).doubleValue()));
+        LOG.info("Calculated priorities of {} categories on dashboardId: {}", priorities.size(), dashboardId);
+        return priorities;
+    }
+
     /**
      * Retrieves all category priorities for a given dashboard.
      *
@@ -294,16 +336,7 @@ public class CategoryPriorityServiceImpl implements CategoryPriorityService {
         DashboardRole role = dashboardRoleRepository.findByUserIdAndDashboardId(userId, dashboardId)
                 .orElseThrow(() -> new EntityNotFoundException("Role not found for userId: " + userId + " on dashboardId: " + dashboardId));
 
-        // Assign a weight based on the user's role in the dashboard.
-        double weight = switch (role.getRole().getName()) {
-            case ENTREPRENEUR -> 0.8;
-            case EMPLOYEE -> 0.7;
-            case RETIREE -> 0.5;
-            case HOUSEMAKER -> 0.4;
-            case STUDENT -> 0.3;
-            case CHILD -> 0.2;
-            case NONE -> 0.1;
-        };
+        double weight = role.getRole().getName().getWeight(); // Assign a weight based on the user's role in the dashboard.
 
         LOG.debug("Role weight for userId: {} is {}", userId, weight);
         return weight; // Return the calculated role weight.
@@ -1,15 +1,21 @@
 package cz.cvut.fel.budgetplannerbackend.service.implementation;
 
 import cz.cvut.fel.budgetplannerbackend.dto.CategoryDto;
+import cz.cvut.fel.budgetplannerbackend.dto.CategoryRollupDto;
 import cz.cvut.fel.budgetplannerbackend.entity.Category;
 import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECachedEntityType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.mapper.CategoryMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.CategorizationRuleRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.CategoryPriorityRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.CategoryHierarchyRepository.SubtreeTotal;
 import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
-import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
 import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
 import cz.cvut.fel.budgetplannerbackend.service.CategoryService;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +25,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing categories.
@@ -31,9 +41,10 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryPriorityRepository categoryPriorityRepository;
     private final DashboardRepository dashboardRepository;
-    private final FinancialRecordRepository financialRecordRepository;
+    private final CategorizationRuleRepository categorizationRuleRepository;
     private final CategoryMapper categoryMapper;
     private final SecurityUtils securityUtils;
+    private final DashboardChangeTracker dashboardChangeTracker;
 
     private static final Logger LOG = LoggerFactory.getLogger(CategoryServiceImpl.class);
 
@@ -79,8 +90,9 @@ public class CategoryServiceImpl implements CategoryService {
      *
      * @param dashboardId The ID of the dashboard to associate the category with.
      * @param categoryDto The Category DTO containing the data for the new category.
+     *                    A parent ID places the category under another category of the same dashboard.
      * @return The Category DTO representing the created category.
-     * @throws EntityNotFoundException If the dashboard is not found.
+     * @throws EntityNotFoundException If the dashboard or the parent category is not found.
      * @throws AccessDeniedException If the user does not have at least EDITOR access to the dashboard.
      */
     @Override
@@ -92,7 +104,14 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new EntityNotFoundException("Dashboard", dashboardId));
         Category category = categoryMapper.toEntity(categoryDto);
         category.setDashboard(dashboard); // Associate the category with the dashboard.
+        if (categoryDto.parentId() != null) {
+            categoryRepository.lockHierarchy(dashboardId); // The parent's ancestors must not move while they are copied.
+            category.setParent(categoryRepository.findByIdAndDashboardId(categoryDto.parentId(), dashboardId)
+                    .orElseThrow(() -> new EntityNotFoundException("Category", categoryDto.parentId())));
+        }
         Category savedCategory = categoryRepository.save(category);
+        categoryRepository.insertIntoHierarchy(savedCategory.getId(), categoryDto.parentId());
+        dashboardChangeTracker.markChanged(dashboardId);
         return categoryMapper.toDto(savedCategory);
     }
 
@@ -123,12 +142,55 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         Category updatedCategory = categoryRepository.save(category);
+        dashboardChangeTracker.markChanged(dashboardId);
         LOG.info("Updated category with id: {} for dashboard id: {}", id, dashboardId);
         return categoryMapper.toDto(updatedCategory);
     }
 
     /**
-     * Deletes a category and updates associated data.
+     * Moves a category, together with all of its descendants, under another category or to the top level.
+     * The closure table is updated with two set-based statements regardless of the size of the subtree.
+     *
+     * @param dashboardId The ID of the dashboard associated with the category.
+     * @param id          The ID of the category to move.
+     * @param parentId    The ID of the new parent category, or null to make the category top-level.
+     * @return The Category DTO representing the moved category.
+     * @throws EntityNotFoundException If the category or the new parent is not found.
+     * @throws IllegalArgumentException If the new parent is the category itself or one of its descendants.
+     * @throws AccessDeniedException If the user does not have at least EDITOR access to the dashboard.
+     */
+    @Override
+    @Transactional
+    public CategoryDto moveCategory(Long dashboardId, Long id, Long parentId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        LOG.info("Moving category with id: {} under parent id: {} for dashboard id: {}", id, parentId, dashboardId);
+        categoryRepository.lockHierarchy(dashboardId); // Concurrent moves could otherwise create a cycle.
+        Category category = categoryRepository.findByIdAndDashboardId(id, dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("Category", id));
+        Category parent = null;
+        if (parentId != null) {
+            parent = categoryRepository.findByIdAndDashboardId(parentId, dashboardId)
+                    .orElseThrow(() -> new EntityNotFoundException("Category", parentId));
+            if (categoryRepository.isInSubtree(id, parentId)) {
+                throw new IllegalArgumentException("A category cannot be moved under itself or its descendant");
+            }
+        }
+        Long currentParentId = category.getParent() != null ? category.getParent().getId() : null;
+        if (Objects.equals(currentParentId, parentId)) {
+            return categoryMapper.toDto(category);
+        }
+
+        category.setParent(parent);
+        categoryRepository.moveSubtree(id, parentId);
+        Category movedCategory = categoryRepository.save(category);
+        dashboardChangeTracker.markChanged(dashboardId);
+        LOG.info("Moved category with id: {} under parent id: {} for dashboard id: {}", id, parentId, dashboardId);
+        return categoryMapper.toDto(movedCategory);
+    }
+
+    /**
+     * Deletes a category together with all of its descendants and updates associated data.
+     * The subtree is read from the closure table once and everything else is done with bulk statements.
      *
      * @param dashboardId The ID of the dashboard associated with the category.
      * @param id          The ID of the category to delete.
@@ -140,21 +202,89 @@ public class CategoryServiceImpl implements CategoryService {
     public void deleteCategory(Long dashboardId, Long id) {
         securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
         LOG.info("Initiating deletion of category with id: {} for dashboard id: {}", id, dashboardId);
+        categoryRepository.lockHierarchy(dashboardId); // No category may be created or moved into the subtree meanwhile.
 
-        // Retrieve the category entity to be deleted.
+        // Retrieve the category entity to be deleted, and the IDs of its subtree.
         Category category = categoryRepository.findByIdAndDashboardId(id, dashboardId)
                 .orElseThrow(() -> new EntityNotFoundException("Category", id));
+        List<Long> subtreeIds = categoryRepository.findSubtreeIds(category.getId());
+
+        // Delete all category priorities associated with the subtree.
+        LOG.info("Deleting all category priorities associated with {} categories under category id: {}", subtreeIds.size(), id);
+        categoryPriorityRepository.deleteByCategoryIdIn(subtreeIds);
+
+        // Set the category_id to null for all financial records associated with the subtree.
+        LOG.info("Setting category_id to null for all financial records associated with the subtree of category id: {}", id);
+        // The bulk statements bypass entity listeners; they mark the affected rows as pending for delta sync instead.
+        dashboardRepository.clearCategories(ESyncEntityType.FINANCIAL_RECORD, subtreeIds);
+        dashboardChangeTracker.markBulkUpserted(ESyncEntityType.FINANCIAL_RECORD, dashboardId);
 
-        // Delete all category priorities associated with the category.
-        LOG.info("Deleting all category priorities associated with category id: {}", id);
-        categoryPriorityRepository.deleteByCategoryId(category.getId());
+        // Budgets of the subtree stay, no longer limited to a category.
+        dashboardRepository.clearCategories(ESyncEntityType.BUDGET, subtreeIds);
+        dashboardChangeTracker.markBulkUpserted(ESyncEntityType.BUDGET, dashboardId);
+
+        // Categorization rules of the subtree go with it; other nodes drop their cached rules after commit.
+        categorizationRuleRepository.deleteByCategoryIdIn(subtreeIds);
+        dashboardChangeTracker.markInvalidated(dashboardId, ECachedEntityType.CATEGORIZATION_RULE);
+
+        // Delete the categories themselves; their closure rows are removed by the database.
+        subtreeIds.forEach(categoryId -> dashboardChangeTracker.markDeleted(ESyncEntityType.CATEGORY, categoryId, dashboardId));
+        categoryRepository.deleteAllByIdIn(subtreeIds);
+        dashboardChangeTracker.markChanged(dashboardId);
+        LOG.info("Category with id: {} and {} descendants successfully deleted, and all associated financial records are updated.",
+                id, subtreeIds.size() - 1);
+    }
+
+    /**
+     * Retrieves the income and expense totals of all categories of a dashboard.
+     * The total of a category includes the records of all of its descendants.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A list of rollups, one per category of the dashboard.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryRollupDto> findCategoryRollupsByDashboardId(Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        LOG.info("Fetching category rollups for dashboard id: {}", dashboardId);
+        Map<Long, List<SubtreeTotal>> totals = categoryRepository.sumSubtreeTotals(dashboardId, null).stream()
+                .collect(Collectors.groupingBy(SubtreeTotal::categoryId));
+        return categoryRepository.findAllByDashboardId(dashboardId).stream()
+                .map(category -> toRollup(category, totals.getOrDefault(category.getId(), List.of())))
+                .toList();
+    }
 
-        // Set the category_id to null for all financial records associated with the category.
-        LOG.info("Setting category_id to null for all financial records associated with category id: {}", id);
-        financialRecordRepository.setCategoryToNullByCategoryId(category.getId());
+    /**
+     * Retrieves the income and expense totals of a category, including the records of all of its descendants.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the category.
+     * @return The rollup of the category.
+     * @throws EntityNotFoundException If the category is not found.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CategoryRollupDto findCategoryRollup(Long dashboardId, Long id) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        LOG.info("Fetching rollup of category with id: {} for dashboard id: {}", id, dashboardId);
+        Category category = categoryRepository.findByIdAndDashboardId(id, dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("Category", id));
+        return toRollup(category, categoryRepository.sumSubtreeTotals(dashboardId, id));
+    }
 
-        // Delete the category entity itself.
-        categoryRepository.delete(category);
-        LOG.info("Category with id: {} successfully deleted, and all associated financial records are updated.", id);
+    private CategoryRollupDto toRollup(Category category, List<SubtreeTotal> totals) {
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expense = BigDecimal.ZERO;
+        for (SubtreeTotal total : totals) {
+            if (total.type() == ERecordType.INCOME) {
+                income = income.add(total.total());
+            } else {
+                expense = expense.add(total.total());
+            }
+        }
+        Long parentId = category.getParent() != null ? category.getParent().getId() : null;
+        return new CategoryRollupDto(category.getId(), parentId, income, expense);
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
 import cz.cvut.fel.budgetplannerbackend.entity.DashboardAccess;
 import cz.cvut.fel.budgetplannerbackend.entity.User;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.repository.AccessLevelRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.DashboardAccessRepository;
@@ -31,6 +32,7 @@ public class DashboardAccessServiceImpl implements DashboardAccessService {
     private final UserRepository userRepository;
     private final DashboardRepository dashboardRepository;
     private final AccessLevelRepository accessLevelRepository;
+    private final DashboardChangeTracker dashboardChangeTracker;
 
     private static final Logger LOG = LoggerFactory.getLogger(DashboardAccessServiceImpl.class);
 
@@ -70,6 +72,7 @@ public class DashboardAccessServiceImpl implements DashboardAccessService {
                     LOG.info("Granted new access for user {} on dashboard {}", userId, dashboardId);
                 }
         );
+        dashboardChangeTracker.markMembersChanged(dashboardId);
     }
 
     /**
@@ -0,0 +1,234 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.DashboardEventsProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.DashboardChangeEventDto;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangedEvent;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.DashboardEventService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class pushing dashboard change events to subscribed clients as server-sent events.
+ * Events are published after commit by {@link cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker}.
+ * The committing thread only offers the event to a bounded buffer of every subscriber and never blocks;
+ * a small pool of dispatch threads drains the buffers to the connections. A subscriber that falls so far
+ * behind that its buffer is full is disconnected and is expected to reconnect and catch up through delta sync.
+ */
+@Service
+public class DashboardEventServiceImpl implements DashboardEventService {
+
+    /** Queue marker asking the dispatcher to close the subscription once the preceding events are sent. */
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> CLOSE = Collections.emptySet();
+
+    private final SecurityUtils securityUtils;
+    private final DashboardEventsProperties properties;
+    private final Executor dispatchExecutor;
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private static final Logger LOG = LoggerFactory.getLogger(DashboardEventServiceImpl.class);
+
+    @Autowired
+    public DashboardEventServiceImpl(SecurityUtils securityUtils, DashboardEventsProperties properties) {
+        this(securityUtils, properties, Executors.newFixedThreadPool(Math.max(1, properties.getDispatchThreads()), dispatchThreadFactory()));
+    }
+
+    DashboardEventServiceImpl(SecurityUtils securityUtils, DashboardEventsProperties properties, Executor dispatchExecutor) {
+        this.securityUtils = securityUtils;
+        this.properties = properties;
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    /**
+     * Subscribes the current user to the change events of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return The emitter streaming the events.
+     * @throws AccessDeniedException If the user does not have at least VIEWER access to the dashboard.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        SseEmitter emitter = new SseEmitter(properties.getTimeout());
+        Subscriber subscriber = new Subscriber(dashboardId, emitter, new ArrayBlockingQueue<>(Math.max(1, properties.getBufferSize())));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.computeIfAbsent(dashboardId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        offer(subscriber, SseEmitter.event().comment("connected").build()); // Makes proxies flush the response headers.
+        LOG.debug("New subscriber for dashboard {}", dashboardId);
+        return emitter;
+    }
+
+    /**
+     * Offers a committed change to every subscriber of the dashboard.
+     * After a change of members, subscriptions are closed so that clients reconnect and their access is checked again.
+     *
+     * @param event The committed change.
+     */
+    @Override
+    @EventListener
+    public void onDashboardChanged(DashboardChangedEvent event) {
+        Set<Subscriber> dashboardSubscribers = subscribers.get(event.dashboardId());
+        if (dashboardSubscribers == null) {
+            return;
+        }
+        SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                .name("change")
+                .data(new DashboardChangeEventDto(event.dashboardId(), event.token(), event.entities(), event.membersChanged()),
+                        MediaType.APPLICATION_JSON);
+        if (event.token() != null) {
+            builder.id(String.valueOf(event.token())); // Lets clients resume delta sync from the Last-Event-ID.
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> data = builder.build();
+        for (Subscriber subscriber : dashboardSubscribers) {
+            offer(subscriber, data);
+            if (event.membersChanged()) {
+                offer(subscriber, CLOSE);
+            }
+        }
+    }
+
+    /**
+     * Scheduled task sending a comment to every subscriber, which keeps idle connections open
+     * and detects connections closed by the client.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${dashboard-events.heartbeat-interval:15000}")
+    public void sendHeartbeats() {
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        subscribers.values().forEach(dashboardSubscribers -> dashboardSubscribers.forEach(subscriber -> offer(subscriber, heartbeat)));
+    }
+
+    /**
+     * Returns the number of open subscriptions of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return The number of subscribers.
+     */
+    public int getSubscriberCount(Long dashboardId) {
+        Set<Subscriber> dashboardSubscribers = subscribers.get(dashboardId);
+        return dashboardSubscribers != null ? dashboardSubscribers.size() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(dashboardSubscribers -> new HashSet<>(dashboardSubscribers).forEach(this::close));
+        if (dispatchExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private void offer(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(data)) {
+            LOG.info("Disconnecting slow subscriber of dashboard {}", subscriber.dashboardId);
+            close(subscriber);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                dispatchExecutor.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+                close(subscriber);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Set<ResponseBodyEmitter.DataWithMediaType> data;
+            while ((data = subscriber.queue.poll()) != null) {
+                if (data == CLOSE) {
+                    close(subscriber);
+                    return;
+                }
+                try {
+                    subscriber.emitter.send(data);
+                } catch (IOException | IllegalStateException e) {
+                    LOG.debug("Subscriber of dashboard {} disconnected: {}", subscriber.dashboardId, e.getMessage());
+                    remove(subscriber);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // An event offered after the last poll but before the flag was cleared would otherwise wait for the next one.
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void close(Subscriber subscriber) {
+        remove(subscriber);
+        try {
+            subscriber.emitter.complete();
+        } catch (IllegalStateException e) {
+            LOG.debug("Subscription of dashboard {} was already completed", subscriber.dashboardId);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        subscriber.queue.clear();
+        subscribers.computeIfPresent(subscriber.dashboardId, (id, dashboardSubscribers) -> {
+            dashboardSubscribers.remove(subscriber);
+            return dashboardSubscribers.isEmpty() ? null : dashboardSubscribers;
+        });
+    }
+
+    private static ThreadFactory dispatchThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Subscriber {
+        private final Long dashboardId;
+        private final SseEmitter emitter;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long dashboardId, SseEmitter emitter, Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue) {
+            this.dashboardId = dashboardId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package cz.cvut.fel.budgetplannerbackend.service.implementation;
 
 import cz.cvut.fel.budgetplannerbackend.entity.*;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.ERole;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.DashboardRoleRepository;
@@ -27,6 +28,7 @@ public class DashboardRoleServiceImpl implements DashboardRoleService {
     private final UserRepository userRepository;
     private final DashboardRepository dashboardRepository;
     private final RoleRepository roleRepository;
+    private final DashboardChangeTracker dashboardChangeTracker;
 
     private static final Logger LOG = LoggerFactory.getLogger(DashboardRoleServiceImpl.class);
 
@@ -65,5 +67,6 @@ public class DashboardRoleServiceImpl implements DashboardRoleService {
                     LOG.info("Assigned new role for user {} on dashboard {}", userId, dashboardId);
                 }
         );
+        dashboardChangeTracker.markMembersChanged(dashboardId);
     }
 }
\ No newline at end of file
@@ -4,7 +4,9 @@ import cz.cvut.fel.budgetplannerbackend.dto.DashboardDto;
 import cz.cvut.fel.budgetplannerbackend.dto.members.DashboardMemberDto;
 import cz.cvut.fel.budgetplannerbackend.entity.*;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECachedEntityType;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.ERole;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.mapper.DashboardMapper;
 import cz.cvut.fel.budgetplannerbackend.repository.*;
@@ -38,13 +40,17 @@ public class DashboardServiceImpl implements DashboardService {
     private final DashboardAccessService dashboardAccessService;
     private final DashboardRoleService dashboardRoleService;
     private final BudgetRepository budgetRepository;
+    private final CategorizationRuleRepository categorizationRuleRepository;
     private final CategoryRepository categoryRepository;
     private final CategoryPriorityRepository categoryPriorityRepository;
     private final FinancialRecordRepository financialRecordRepository;
     private final FinancialGoalRepository financialGoalRepository;
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final TagRepository tagRepository;
     private final UserRepository userRepository;
     private final DashboardMapper dashboardMapper;
     private final SecurityUtils securityUtils;
+    private final DashboardChangeTracker dashboardChangeTracker;
 
     private static final Logger LOG = LoggerFactory.getLogger(DashboardServiceImpl.class);
 
@@ -102,6 +108,24 @@ public class DashboardServiceImpl implements DashboardService {
         return dashboardMapper.toDto(dashboard);
     }
 
+    /**
+     * Returns the entity tag of the dashboard content (records, categories, budgets, goals and priorities).
+     * The tag changes whenever a transaction modifying that content commits. Callers must read the tag
+     * before loading the data, so that a concurrent change can only make the tag older than the data.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return The entity tag value (without quotes).
+     * @throws AccessDeniedException If the authenticated user does not have at least VIEWER access.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getDashboardETag(Long dashboardId) {
+        User currentUser = securityUtils.getCurrentUser();
+        Long version = dashboardRepository.findVersionForMember(dashboardId, currentUser.getId())
+                .orElseThrow(() -> new AccessDeniedException("Access to dashboard is denied"));
+        return dashboardId + "-" + version;
+    }
+
     /**
      * Retrieves a list of dashboards that the currently authenticated user has access to,
      * excluding dashboards created by the user themselves.
@@ -190,6 +214,7 @@ public class DashboardServiceImpl implements DashboardService {
         }
 
         Dashboard updatedDashboard = dashboardRepository.save(existingDashboard);
+        dashboardChangeTracker.markInvalidated(dashboardId, ECachedEntityType.DASHBOARD);
         LOG.info("Updated dashboard with id: {} for user id: {}", updatedDashboard.getId(), userId);
         return dashboardMapper.toDto(updatedDashboard);
     }
@@ -218,10 +243,19 @@ public class DashboardServiceImpl implements DashboardService {
         LOG.info("Deleting financial records associated with dashboard id: {}", dashboardId);
         financialRecordRepository.deleteByDashboardId(dashboardId);
 
+        // Delete the recurring transactions once no record references them
+        LOG.info("Deleting recurring transactions associated with dashboard id: {}", dashboardId);
+        recurringTransactionRepository.deleteByDashboardId(dashboardId);
+
+        // Delete the tag dictionary once no record references it
+        LOG.info("Deleting tags associated with dashboard id: {}", dashboardId);
+        tagRepository.deleteByDashboardId(dashboardId);
+
         // Delete related data after deleting financial records
-        LOG.info("Deleting financial goals, budgets and categories associated with dashboard id: {}", dashboardId);
+        LOG.info("Deleting financial goals, budgets, categorization rules and categories associated with dashboard id: {}", dashboardId);
         financialGoalRepository.deleteByDashboardId(dashboardId);
         budgetRepository.deleteByDashboardId(dashboardId);
+        categorizationRuleRepository.deleteByDashboardId(dashboardId);
         categoryRepository.deleteByDashboardId(dashboardId);
 
         // Delete dashboard accesses and roles
@@ -231,6 +265,7 @@ public class DashboardServiceImpl implements DashboardService {
 
         // Finally, delete the dashboard itself
         dashboardRepository.delete(dashboard);
+        dashboardChangeTracker.markInvalidated(dashboardId, ECachedEntityType.values());
         LOG.info("Dashboard with id: {} successfully deleted, along with all its associated data.", dashboardId);
     }
 
@@ -275,6 +310,7 @@ public class DashboardServiceImpl implements DashboardService {
         // Create a new DashboardAccess object to represent the member's access
         DashboardAccess newAccess = new DashboardAccess(null, userToAdd, dashboard, viewerAccessLevel);
         dashboardAccessRepository.save(newAccess);
+        dashboardChangeTracker.markMembersChanged(dashboardId);
         LOG.info("User {} added to dashboard {} by {}", userToAdd.getUserName(), dashboard.getId(), user.getUserName());
 
         // Assign role NONE to the new user on this dashboard
@@ -389,6 +425,7 @@ public class DashboardServiceImpl implements DashboardService {
             // Update the access level and save the changes
             accessToChange.setAccessLevel(newAccessLevel);
             dashboardAccessRepository.save(accessToChange);
+            dashboardChangeTracker.markMembersChanged(dashboardId);
             LOG.info("Access level for user {} changed to {} on dashboard {} by {}", userToChangeAccess.getUserName(), newAccessLevelEnum, dashboard.getId(), user.getUserName());
         } else {
             // If no existing access is found for the user, throw an error
@@ -438,6 +475,7 @@ public class DashboardServiceImpl implements DashboardService {
             dashboardAccessRepository.findByUserIdAndDashboardId(userId, dashboardId)
                     .ifPresent(da -> {
                         dashboardAccessRepository.delete(da);
+                        dashboardChangeTracker.markMembersChanged(dashboardId);
                         LOG.info("User {} removed themselves from dashboard {}", userId, dashboardId);
                     });
             return; // Stop further processing after removing the user
@@ -454,6 +492,7 @@ public class DashboardServiceImpl implements DashboardService {
         dashboardAccessRepository.findByUserIdAndDashboardId(userToRemove.getId(), dashboardId)
                 .ifPresent(da -> {
                     dashboardAccessRepository.delete(da);
+                    dashboardChangeTracker.markMembersChanged(dashboardId);
                     LOG.info("User {} removed from dashboard {} by {}", userToRemove.getUserName(), dashboard.getId(), user.getUserName());
                 });
     }
@@ -0,0 +1,484 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.algorithm.MinHashIndex;
+import cz.cvut.fel.budgetplannerbackend.config.DuplicateDetectionProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.mapper.FinancialRecordMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.RecordDuplicateRepository.DuplicateFlag;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.DuplicateDetectionService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static cz.cvut.fel.budgetplannerbackend.events.TransactionCallbacks.afterCommit;
+
+/**
+ * Service class flagging records that duplicate another record of their dashboard.
+ * <p>
+ * A record duplicates a preceding one of the same type and amount, dated at most a few days before it or on the same
+ * date with a lower ID, if their descriptions are equal once normalized, or similar enough. A record is thus never
+ * flagged as a duplicate of a later one, whichever order the records are saved in. Equal descriptions are found by the fingerprint of the type, amount
+ * and normalized description, stored with every record and indexed in the database. Similar descriptions are found
+ * by the {@link MinHashIndex} of the recent records of every dashboard, partitioned by type and amount, so a check
+ * costs one indexed query and a few hash lookups. The indexes are kept in an LRU map and built lazily on a background
+ * thread, at most one build per dashboard at a time; until the index of a dashboard is ready, its checks only find
+ * equal descriptions. Indexes are rebuilt periodically, since every node only adds the records it saves itself,
+ * and an expired index keeps being used until its replacement is ready. The scan replays the whole history of a
+ * dashboard in date order with an index of a sliding window, flagging every record duplicating an earlier one.
+ */
+@Service
+public class DuplicateDetectionServiceImpl implements DuplicateDetectionService {
+
+    // With 16 bands of 2 rows, descriptions at similarity 0.7 share a bucket with a probability of 0.99998, at 0.1 of 0.15.
+    private static final int BANDS = 16;
+    private static final int ROWS = 2;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final FinancialRecordRepository financialRecordRepository;
+    private final FinancialRecordMapper financialRecordMapper;
+    private final SecurityUtils securityUtils;
+    private final TransactionTemplate transactionTemplate;
+    private final DuplicateDetectionProperties properties;
+    private final Executor indexExecutor;
+    private final Map<Long, DashboardIndex> indexes; // LRU by access; guarded by itself.
+    private final Set<Long> building = new HashSet<>(); // Dashboards whose index is being built; guarded by indexes.
+
+    private static final Logger LOG = LoggerFactory.getLogger(DuplicateDetectionServiceImpl.class);
+
+    @Autowired
+    public DuplicateDetectionServiceImpl(FinancialRecordRepository financialRecordRepository, FinancialRecordMapper financialRecordMapper,
+                                         SecurityUtils securityUtils, PlatformTransactionManager transactionManager,
+                                         DuplicateDetectionProperties properties) {
+        this(financialRecordRepository, financialRecordMapper, securityUtils, transactionManager, properties,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "duplicate-index");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    DuplicateDetectionServiceImpl(FinancialRecordRepository financialRecordRepository, FinancialRecordMapper financialRecordMapper,
+                                  SecurityUtils securityUtils, PlatformTransactionManager transactionManager,
+                                  DuplicateDetectionProperties properties, Executor indexExecutor) {
+        this.financialRecordRepository = financialRecordRepository;
+        this.financialRecordMapper = financialRecordMapper;
+        this.securityUtils = securityUtils;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.indexExecutor = indexExecutor;
+        int cacheSize = properties.getCacheSize();
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, DashboardIndex> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Sets the fingerprint and duplicate flag of a record about to be saved. A record without a description
+     * is never a duplicate. The record is added to the index of its dashboard after the transaction commits.
+     *
+     * @param financialRecord The record with its dashboard, type, amount, date and description set.
+     */
+    @Override
+    public void checkDuplicate(FinancialRecord financialRecord) {
+        Long fingerprint = fingerprint(financialRecord);
+        if (fingerprint == null) {
+            return;
+        }
+        LocalDateTime date = financialRecord.getDate();
+        Long duplicateOfId = financialRecordRepository.findEarliestByFingerprint(financialRecord.getDashboard().getId(), fingerprint,
+                date.minusDays(properties.getWindowDays()), date, financialRecord.getId()).orElse(null);
+        flag(financialRecord, duplicateOfId, id -> false);
+    }
+
+    /**
+     * Sets the fingerprints and duplicate flags of records of a dashboard about to be created, like
+     * {@link #checkDuplicate(FinancialRecord)} but with one query for the equal descriptions of all of them.
+     * The records are not compared with each other, nor with the ignored records.
+     *
+     * @param financialRecords The unsaved records of one dashboard, with their dashboard, type, amount, date and description set.
+     * @param ignored          Tells the IDs of the saved records the records must not duplicate, e.g. those of the same import.
+     */
+    @Override
+    public void checkDuplicates(List<FinancialRecord> financialRecords, LongPredicate ignored) {
+        List<FinancialRecord> fingerprinted = new ArrayList<>(financialRecords.size());
+        Set<Long> fingerprints = new HashSet<>();
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (FinancialRecord financialRecord : financialRecords) {
+            Long fingerprint = fingerprint(financialRecord);
+            if (fingerprint != null) {
+                fingerprinted.add(financialRecord);
+                fingerprints.add(fingerprint);
+                LocalDateTime date = financialRecord.getDate();
+                from = from == null || date.isBefore(from) ? date : from;
+                to = to == null || date.isAfter(to) ? date : to;
+            }
+        }
+        if (fingerprinted.isEmpty()) {
+            return;
+        }
+        Map<Long, List<DuplicateFlag>> existing = financialRecordRepository.findAllByFingerprints(fingerprinted.get(0).getDashboard().getId(),
+                        fingerprints, from.minusDays(properties.getWindowDays()), to).stream()
+                .collect(Collectors.groupingBy(DuplicateFlag::fingerprint));
+        for (FinancialRecord financialRecord : fingerprinted) {
+            LocalDateTime windowFrom = financialRecord.getDate().minusDays(properties.getWindowDays());
+            // Ordered by date, so the first one in the window is the earliest.
+            Long duplicateOfId = existing.getOrDefault(financialRecord.getFingerprint(), List.of()).stream()
+                    .filter(flag -> !flag.date().isBefore(windowFrom)
+                            && precedes(flag.date(), flag.id(), financialRecord.getDate(), financialRecord.getId()))
+                    .map(DuplicateFlag::id)
+                    .filter(id -> !ignored.test(id))
+                    .findFirst()
+                    .orElse(null);
+            flag(financialRecord, duplicateOfId, ignored);
+        }
+    }
+
+    // Sets the fingerprint of a record, or clears its fingerprint and flag if it has no description.
+    private Long fingerprint(FinancialRecord financialRecord) {
+        String description = normalize(financialRecord.getDescription());
+        if (description.isEmpty() || financialRecord.getAmount() == null) {
+            financialRecord.setFingerprint(null);
+            financialRecord.setDuplicateOfId(null);
+            if (financialRecord.getId() != null) {
+                long dashboardId = financialRecord.getDashboard().getId();
+                Long id = financialRecord.getId();
+                afterCommit(() -> withIndex(dashboardId, index -> index.remove(id)));
+            }
+            return null;
+        }
+        long fingerprint = fingerprint(financialRecord.getType(), cents(financialRecord.getAmount()), description);
+        financialRecord.setFingerprint(fingerprint);
+        return fingerprint;
+    }
+
+    // Whether a record precedes another one, i.e. is dated before it or on the same date with a lower ID; an unsaved one follows all.
+    private static boolean precedes(LocalDateTime date, long id, LocalDateTime otherDate, Long otherId) {
+        return date.isBefore(otherDate) || date.isEqual(otherDate) && (otherId == null || id < otherId);
+    }
+
+    // Flags a fingerprinted record as a duplicate of an equal record, or else of the most similar one in the index.
+    private void flag(FinancialRecord financialRecord, Long equalId, LongPredicate ignored) {
+        long dashboardId = financialRecord.getDashboard().getId();
+        long cents = cents(financialRecord.getAmount());
+        long partition = partition(financialRecord.getType(), cents);
+        LocalDateTime date = financialRecord.getDate();
+        LocalDateTime from = date.minusDays(properties.getWindowDays());
+
+        Long duplicateOfId = equalId;
+        MinHashIndex<LocalDateTime> index = index(dashboardId);
+        if (index == null) {
+            // Not indexed yet; only equal descriptions are found until the index is built.
+            financialRecord.setDuplicateOfId(duplicateOfId);
+            logDuplicate(financialRecord, dashboardId, duplicateOfId);
+            return;
+        }
+        int[] signature = index.signature(normalize(financialRecord.getDescription()));
+        if (duplicateOfId == null) {
+            List<MinHashIndex.Match<LocalDateTime>> candidates;
+            synchronized (index) {
+                candidates = similar(index.candidates(partition, signature), financialRecord.getId(), from, date);
+            }
+            candidates = candidates.stream().filter(match -> !ignored.test(match.id())).toList();
+            duplicateOfId = firstExisting(dashboardId, candidates);
+        }
+        financialRecord.setDuplicateOfId(duplicateOfId);
+        logDuplicate(financialRecord, dashboardId, duplicateOfId);
+        // The ID of a created record is only assigned when it is saved.
+        afterCommit(() -> {
+            if (financialRecord.getId() != null) {
+                withIndex(dashboardId, current -> current.add(financialRecord.getId(), partition, signature, date));
+            }
+        });
+    }
+
+    private static void logDuplicate(FinancialRecord financialRecord, long dashboardId, Long duplicateOfId) {
+        if (duplicateOfId != null) {
+            LOG.info("Financial record of {} dated {} in dashboard id: {} duplicates record id: {}",
+                    financialRecord.getAmount(), financialRecord.getDate(), dashboardId, duplicateOfId);
+        }
+    }
+
+    /**
+     * Clears the duplicate flags of the records duplicating a record about to be deleted,
+     * and removes the record from the index of its dashboard after the transaction commits.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param recordId    The ID of the record.
+     */
+    @Override
+    public void forgetRecord(Long dashboardId, Long recordId) {
+        financialRecordRepository.clearDuplicatesOf(dashboardId, recordId);
+        afterCommit(() -> withIndex(dashboardId, index -> index.remove(recordId)));
+    }
+
+    /**
+     * Retrieves the records of a dashboard flagged as duplicates, newest first.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A list of financial record DTOs, each with the ID of the record it duplicates.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<FinancialRecordDto> findDuplicates(Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        LOG.info("Fetching duplicate financial records for dashboard id: {}", dashboardId);
+        return financialRecordRepository.findAllByDashboardIdAndDuplicateOfIdIsNotNullOrderByDateDesc(dashboardId).stream()
+                .map(financialRecordMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Scans all records of a dashboard in date order, fingerprinting them and flagging every record that
+     * duplicates an earlier one; flags that no longer apply are cleared.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return The number of records whose fingerprint or flag changed.
+     */
+    @Override
+    @Transactional
+    public int scanDuplicates(Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        return scan(dashboardId);
+    }
+
+    /**
+     * Scheduled job scanning every dashboard with described records, each dashboard in its own transaction.
+     * Disabled unless a cron expression is configured.
+     */
+    @Override
+    @Scheduled(cron = "${duplicate-detection.scan-cron:-}")
+    public void scanAllDuplicates() {
+        List<Long> dashboardIds = financialRecordRepository.findDashboardIdsWithDescribedRecords();
+        LOG.info("Scanning {} dashboards for duplicate records", dashboardIds.size());
+        for (Long dashboardId : dashboardIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> scan(dashboardId));
+            } catch (RuntimeException e) {
+                // The flags of the dashboard stay as they were; the next run tries again.
+                LOG.error("Failed to scan dashboard id: {} for duplicate records", dashboardId, e);
+            }
+        }
+    }
+
+    private int scan(Long dashboardId) {
+        LOG.info("Scanning for duplicate records in dashboard id: {}", dashboardId);
+        // Only the records of the last window days before the current one are indexed, so memory stays bounded.
+        MinHashIndex<LocalDateTime> window = new MinHashIndex<>(BANDS, ROWS);
+        Deque<IndexedRecord> indexed = new ArrayDeque<>();
+        List<DuplicateFlag> changed = new ArrayList<>();
+        int[] duplicates = {0};
+        financialRecordRepository.forEachDescribedRecordByDate(dashboardId, null, record -> {
+            LocalDateTime from = record.date().minusDays(properties.getWindowDays());
+            while (!indexed.isEmpty() && indexed.peekFirst().date().isBefore(from)) {
+                window.remove(indexed.pollFirst().id());
+            }
+            String description = normalize(record.description());
+            Long fingerprint = null;
+            Long duplicateOfId = null;
+            if (!description.isEmpty()) {
+                long cents = cents(record.amount());
+                long partition = partition(record.type(), cents);
+                int[] signature = window.signature(description);
+                fingerprint = fingerprint(record.type(), cents, description);
+                // Equal descriptions have equal signatures, so the window also finds the records with the same fingerprint.
+                List<MinHashIndex.Match<LocalDateTime>> candidates = similar(window.candidates(partition, signature), record.id(), from, record.date());
+                duplicateOfId = candidates.isEmpty() ? null : candidates.get(0).id();
+                window.add(record.id(), partition, signature, record.date());
+                indexed.addLast(new IndexedRecord(record.id(), record.date()));
+            }
+            if (duplicateOfId != null) {
+                duplicates[0]++;
+            }
+            if (!Objects.equals(fingerprint, record.fingerprint()) || !Objects.equals(duplicateOfId, record.duplicateOfId())) {
+                changed.add(new DuplicateFlag(record.id(), record.date(), fingerprint, duplicateOfId));
+            }
+        });
+        financialRecordRepository.updateDuplicateFlags(changed);
+        LOG.info("Found {} duplicate records and updated {} records in dashboard id: {}", duplicates[0], changed.size(), dashboardId);
+        return changed.size();
+    }
+
+    // The candidates dated from a point in time, preceding a record and similar enough, the most similar and then the earliest first.
+    private List<MinHashIndex.Match<LocalDateTime>> similar(List<MinHashIndex.Match<LocalDateTime>> candidates, Long id,
+                                                            LocalDateTime from, LocalDateTime date) {
+        return candidates.stream()
+                .filter(match -> !match.value().isBefore(from) && precedes(match.value(), match.id(), date, id))
+                .filter(match -> match.similarity() >= properties.getSimilarityThreshold())
+                .sorted(Comparator.comparingDouble((MinHashIndex.Match<LocalDateTime> match) -> -match.similarity())
+                        .thenComparing(MinHashIndex.Match::value)
+                        .thenComparingLong(MinHashIndex.Match::id))
+                .toList();
+    }
+
+    // Records deleted on other nodes may still be in the index, so the candidates are looked up before one is chosen.
+    private Long firstExisting(long dashboardId, List<MinHashIndex.Match<LocalDateTime>> candidates) {
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        Set<Long> existing = financialRecordRepository.findAllByIdInAndDashboardId(
+                        candidates.stream().map(MinHashIndex.Match::id).toList(), dashboardId).stream()
+                .map(FinancialRecord::getId)
+                .collect(Collectors.toSet());
+        return candidates.stream()
+                .map(MinHashIndex.Match::id)
+                .filter(existing::contains)
+                .findFirst()
+                .orElse(null);
+    }
+
+    // The index of a dashboard, possibly expired, or null if it is not built yet. Missing and expired indexes are
+    // built in the background, never in the transaction of the caller.
+    private MinHashIndex<LocalDateTime> index(long dashboardId) {
+        DashboardIndex index;
+        boolean build;
+        synchronized (indexes) {
+            index = indexes.get(dashboardId);
+            build = (index == null || System.currentTimeMillis() - index.builtAt() >= properties.getIndexTtl()) && building.add(dashboardId);
+        }
+        if (build) {
+            try {
+                indexExecutor.execute(() -> build(dashboardId));
+            } catch (RejectedExecutionException e) {
+                synchronized (indexes) {
+                    building.remove(dashboardId);
+                }
+            }
+        }
+        if (index == null) {
+            synchronized (indexes) {
+                index = indexes.get(dashboardId); // Built in the meantime.
+            }
+        }
+        return index != null ? index.index() : null;
+    }
+
+    private void build(long dashboardId) {
+        try {
+            long builtAt = System.currentTimeMillis();
+            MinHashIndex<LocalDateTime> index = new MinHashIndex<>(BANDS, ROWS);
+            financialRecordRepository.forEachDescribedRecordByDate(dashboardId, LocalDateTime.now().minusDays(properties.getHorizonDays()), record -> {
+                String description = normalize(record.description());
+                if (!description.isEmpty()) {
+                    index.add(record.id(), partition(record.type(), cents(record.amount())), index.signature(description), record.date());
+                }
+            });
+            LOG.info("Indexed {} records of dashboard id: {} for duplicate detection", index.size(), dashboardId);
+            synchronized (indexes) {
+                indexes.put(dashboardId, new DashboardIndex(index, builtAt));
+            }
+        } catch (RuntimeException e) {
+            // An expired index stays in use; the next check tries again.
+            LOG.error("Failed to index the records of dashboard id: {} for duplicate detection", dashboardId, e);
+        } finally {
+            synchronized (indexes) {
+                building.remove(dashboardId);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (indexExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    // Indexes evicted or not built yet are left alone; they are built from the database when needed.
+    private void withIndex(long dashboardId, Consumer<MinHashIndex<LocalDateTime>> action) {
+        DashboardIndex index;
+        synchronized (indexes) {
+            index = indexes.get(dashboardId);
+        }
+        if (index != null) {
+            synchronized (index.index()) {
+                action.accept(index.index());
+            }
+        }
+    }
+
+    /**
+     * Normalizes a description for comparison: lower case, without diacritics and with every run of characters
+     * other than letters and digits replaced by a single space.
+     *
+     * @param description The description, or null.
+     * @return The normalized description, empty if there is nothing to compare.
+     */
+    static String normalize(String description) {
+        if (description == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(description, Normalizer.Form.NFKD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // FNV-1a over the type, amount and description; stored in the database, so it must never change.
+    static long fingerprint(ERecordType type, long cents, String normalizedDescription) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < type.name().length(); i++) {
+            hash = (hash ^ type.name().charAt(i)) * FNV_PRIME;
+        }
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((cents >>> shift) & 0xFF)) * FNV_PRIME;
+        }
+        for (int i = 0; i < normalizedDescription.length(); i++) {
+            hash = (hash ^ normalizedDescription.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long partition(ERecordType type, long cents) {
+        return cents * ERecordType.values().length + type.ordinal();
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private record DashboardIndex(MinHashIndex<LocalDateTime> index, long builtAt) {
+    }
+
+    private record IndexedRecord(long id, LocalDateTime date) {
+    }
+}
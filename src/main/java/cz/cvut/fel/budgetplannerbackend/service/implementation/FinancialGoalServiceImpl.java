@@ -4,6 +4,7 @@ import cz.cvut.fel.budgetplannerbackend.dto.FinancialGoalDto;
 import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
 import cz.cvut.fel.budgetplannerbackend.entity.FinancialGoal;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.mapper.FinancialGoalMapper;
 import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
@@ -30,6 +31,7 @@ public class FinancialGoalServiceImpl implements FinancialGoalService {
     private final DashboardRepository dashboardRepository;
     private final FinancialGoalMapper financialGoalMapper;
     private final SecurityUtils securityUtils;
+    private final DashboardChangeTracker dashboardChangeTracker;
 
     private static final Logger LOG = LoggerFactory.getLogger(FinancialGoalServiceImpl.class);
 
@@ -89,6 +91,7 @@ public class FinancialGoalServiceImpl implements FinancialGoalService {
         FinancialGoal financialGoal = financialGoalMapper.toEntity(financialGoalDto);
         financialGoal.setDashboard(dashboard);
         FinancialGoal savedFinancialGoal = financialGoalRepository.save(financialGoal);
+        dashboardChangeTracker.markChanged(dashboardId);
         return financialGoalMapper.toDto(savedFinancialGoal);
     }
 
@@ -116,6 +119,7 @@ public class FinancialGoalServiceImpl implements FinancialGoalService {
         if (financialGoalDto.deadline() != null) financialGoal.setDeadline(financialGoalDto.deadline());
 
         FinancialGoal updatedFinancialGoal = financialGoalRepository.save(financialGoal);
+        dashboardChangeTracker.markChanged(dashboardId);
         LOG.info("Updated financial goal with id: {} for dashboard id: {}", goalId, dashboardId);
         return financialGoalMapper.toDto(updatedFinancialGoal);
     }
@@ -136,5 +140,6 @@ public class FinancialGoalServiceImpl implements FinancialGoalService {
         FinancialGoal financialGoal = financialGoalRepository.findByIdAndDashboardId(goalId, dashboardId)
                 .orElseThrow(() -> new EntityNotFoundException("FinancialGoal not found with id: " + goalId + " for dashboard id: " + dashboardId));
         financialGoalRepository.delete(financialGoal);
+        dashboardChangeTracker.markChanged(dashboardId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.RecordPartitionProperties;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.service.FinancialRecordPartitionService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service maintaining the monthly partitions of the financial_records table.
+ * A record dated in a month without a partition lands in the default partition, which every range query
+ * has to read, so the default partition is kept small: partitions are created ahead of time, and back-dated
+ * records found in the default partition are moved into partitions of their own.
+ */
+@Service
+@RequiredArgsConstructor
+public class FinancialRecordPartitionServiceImpl implements FinancialRecordPartitionService {
+
+    private final FinancialRecordRepository financialRecordRepository;
+    private final RecordPartitionProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+
+    private static final Logger LOG = LoggerFactory.getLogger(FinancialRecordPartitionServiceImpl.class);
+
+    /**
+     * Scheduled task creating the partitions of the current month, of the configured number of following months,
+     * and of past months that have records in the default partition.
+     * Each partition is created in its own short transaction; other nodes running the task concurrently
+     * wait for each other in the database and skip partitions that already exist.
+     *
+     * @return The number of partitions created.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${record-partitions.maintenance-interval:3600000}")
+    public int maintainPartitions() {
+        if (!properties.isEnabled() || !isPostgres()) {
+            return 0;
+        }
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        List<LocalDate> months = new ArrayList<>(financialRecordRepository.findMonthsInDefaultPartition(
+                currentMonth.minusMonths(properties.getMonthsBack()), currentMonth));
+        for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+            months.add(currentMonth.plusMonths(i));
+        }
+
+        int created = 0;
+        for (LocalDate month : months) {
+            try {
+                if (financialRecordRepository.ensureMonthlyPartition(month)) {
+                    created++;
+                    LOG.info("Created financial records partition for {}", month);
+                }
+            } catch (RuntimeException e) {
+                // Records of the month stay in the default partition; the next run tries again.
+                LOG.error("Failed to create financial records partition for {}", month, e);
+            }
+        }
+        return created;
+    }
+
+    private boolean isPostgres() {
+        String url = dataSourceProperties.getUrl();
+        return url != null && url.startsWith("jdbc:postgresql:");
+    }
+}
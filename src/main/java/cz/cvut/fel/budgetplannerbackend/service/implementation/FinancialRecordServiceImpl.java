@@ -1,24 +1,34 @@
 package cz.cvut.fel.budgetplannerbackend.service.implementation;
 
 import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.dto.RecordTotalsDto;
 import cz.cvut.fel.budgetplannerbackend.entity.*;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.mapper.FinancialRecordMapper;
+import cz.cvut.fel.budgetplannerbackend.metrics.BusinessMetrics;
 import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
 import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.AnomalyDetectionService;
+import cz.cvut.fel.budgetplannerbackend.service.CategorizationService;
+import cz.cvut.fel.budgetplannerbackend.service.DuplicateDetectionService;
 import cz.cvut.fel.budgetplannerbackend.service.FinancialRecordService;
+import cz.cvut.fel.budgetplannerbackend.service.TagService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Service class for managing financial records.
@@ -32,6 +42,12 @@ public class FinancialRecordServiceImpl implements FinancialRecordService {
     private final FinancialRecordMapper financialRecordMapper;
     private final CategoryRepository categoryRepository;
     private final SecurityUtils securityUtils;
+    private final DashboardChangeTracker dashboardChangeTracker;
+    private final BusinessMetrics businessMetrics;
+    private final TagService tagService;
+    private final AnomalyDetectionService anomalyDetectionService;
+    private final CategorizationService categorizationService;
+    private final DuplicateDetectionService duplicateDetectionService;
 
     private static final Logger LOG = LoggerFactory.getLogger(FinancialRecordServiceImpl.class);
 
@@ -52,6 +68,60 @@ public class FinancialRecordServiceImpl implements FinancialRecordService {
                 .toList();
     }
 
+    /**
+     * Retrieves the financial records of a dashboard dated within a range, newest first.
+     * On PostgreSQL only the monthly partitions overlapping the range are read.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param from        The start of the range, inclusive.
+     * @param to          The end of the range, exclusive.
+     * @return A list of financial record DTOs.
+     * @throws IllegalArgumentException If the range is empty.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<FinancialRecordDto> findFinancialRecordsByDashboardIdAndDateRange(Long dashboardId, LocalDateTime from, LocalDateTime to) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        checkDateRange(from, to);
+        LOG.info("Fetching financial records from {} to {} for dashboard id: {}", from, to, dashboardId);
+        return financialRecordRepository.findAllByDashboardIdAndDateRange(dashboardId, from, to).stream()
+                .map(financialRecordMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Sums the income and expenses of a dashboard dated within a range.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param from        The start of the range, inclusive.
+     * @param to          The end of the range, exclusive.
+     * @return The totals of the range.
+     * @throws IllegalArgumentException If the range is empty.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public RecordTotalsDto sumFinancialRecordsByDashboardIdAndDateRange(Long dashboardId, LocalDateTime from, LocalDateTime to) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        checkDateRange(from, to);
+        LOG.info("Summing financial records from {} to {} for dashboard id: {}", from, to, dashboardId);
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expense = BigDecimal.ZERO;
+        for (Object[] row : financialRecordRepository.sumAmountsByTypeAndDateRange(dashboardId, from, to)) {
+            if (row[0] == ERecordType.INCOME) {
+                income = (BigDecimal) row[1];
+            } else {
+                expense = (BigDecimal) row[1];
+            }
+        }
+        return new RecordTotalsDto(from, to, income, expense);
+    }
+
+    private static void checkDateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("The start of the date range must be before its end");
+        }
+    }
+
     /**
      * Retrieves a specific financial record by its ID and dashboard ID.
      *
@@ -71,12 +141,14 @@ public class FinancialRecordServiceImpl implements FinancialRecordService {
     }
 
     /**
-     * Creates a new financial record.
+     * Creates a new financial record. A record without a category is categorized by the first matching
+     * categorization rule of the dashboard, and a record duplicating a recent one is flagged.
      *
      * @param dashboardId          The ID of the dashboard to associate the financial record with.
      * @param financialRecordDto The financial record DTO containing the data for the new record.
      * @return The created financial record DTO.
      * @throws EntityNotFoundException If the dashboard or category (if provided) is not found.
+     * @throws IllegalArgumentException If a tag name is invalid or there are too many tags.
      */
     @Override
     @Transactional
@@ -103,8 +175,17 @@ public class FinancialRecordServiceImpl implements FinancialRecordService {
         financialRecord.setType(financialRecordDto.type() != null ? financialRecordDto.type() : ERecordType.INCOME);
         financialRecord.setDate(financialRecordDto.date() != null ? financialRecordDto.date() : LocalDateTime.now());
         financialRecord.setDescription(financialRecordDto.description());
+        if (financialRecordDto.tags() != null) {
+            financialRecord.setTags(tagService.resolveTags(dashboard, financialRecordDto.tags()));
+        }
+        categorizationService.categorize(financialRecord); // Records created without a category get one by the rules of the dashboard.
+        anomalyDetectionService.scoreExpense(financialRecord);
+        duplicateDetectionService.checkDuplicate(financialRecord);
 
         FinancialRecord savedRecord = financialRecordRepository.save(financialRecord);
+        dashboardChangeTracker.markChanged(dashboardId);
+        dashboardChangeTracker.markRecordDate(dashboardId, savedRecord.getDate());
+        businessMetrics.recordCreated(savedRecord.getType());
         LOG.info("Created new financial record with id: {} for dashboard id: {}", savedRecord.getId(), dashboardId);
         return financialRecordMapper.toDto(savedRecord);
     }
@@ -114,9 +195,10 @@ public class FinancialRecordServiceImpl implements FinancialRecordService {
      *
      * @param id                   The ID of the financial record to update.
      * @param dashboardId          The ID of the dashboard associated with the financial record.
-     * @param financialRecordDto The financial record DTO containing the updated data.
+     * @param financialRecordDto The financial record DTO containing the updated data; null tags keep the current ones.
      * @return The updated financial record DTO.
      * @throws EntityNotFoundException If the financial record or category (if provided) is not found.
+     * @throws IllegalArgumentException If a tag name is invalid or there are too many tags.
      */
     @Override
     @Transactional
@@ -126,6 +208,12 @@ public class FinancialRecordServiceImpl implements FinancialRecordService {
         FinancialRecord financialRecord = financialRecordRepository.findByIdAndDashboardId(id, dashboardId)
                 .orElseThrow(() -> new EntityNotFoundException("FinancialRecord not found with id: " + id + " for dashboard id: " + dashboardId));
 
+        dashboardChangeTracker.markRecordDate(dashboardId, financialRecord.getDate()); // The period the record may be moved out of.
+        BigDecimal previousAmount = financialRecord.getAmount();
+        ERecordType previousType = financialRecord.getType();
+        LocalDateTime previousDate = financialRecord.getDate();
+        String previousDescription = financialRecord.getDescription();
+        Long previousCategoryId = financialRecord.getCategory() != null ? financialRecord.getCategory().getId() : null;
         financialRecord.setAmount(financialRecordDto.amount());
         financialRecord.setDescription(financialRecordDto.description());
         financialRecord.setDate(financialRecordDto.date() != null ? financialRecordDto.date() : financialRecord.getDate());
@@ -138,14 +226,31 @@ public class FinancialRecordServiceImpl implements FinancialRecordService {
         } else {
             financialRecord.setCategory(null);
         }
+        if (financialRecordDto.tags() != null) {
+            financialRecord.setTags(tagService.resolveTags(financialRecord.getDashboard(), financialRecordDto.tags()));
+            // Changing only the tags does not update the record row, so the change is reported explicitly.
+            dashboardChangeTracker.markUpserted(ESyncEntityType.FINANCIAL_RECORD, id, dashboardId);
+        }
+        // Only a changed amount, type or category is scored again, so that other edits do not count an expense twice.
+        if (!Objects.equals(previousAmount, financialRecord.getAmount()) || previousType != financialRecord.getType()
+                || !Objects.equals(previousCategoryId, financialRecord.getCategory() != null ? financialRecord.getCategory().getId() : null)) {
+            anomalyDetectionService.scoreExpense(financialRecord);
+        }
+        // Likewise, a record is only checked again when a field making it a duplicate changed.
+        if (!Objects.equals(previousAmount, financialRecord.getAmount()) || previousType != financialRecord.getType()
+                || !previousDate.equals(financialRecord.getDate()) || !Objects.equals(previousDescription, financialRecord.getDescription())) {
+            duplicateDetectionService.checkDuplicate(financialRecord);
+        }
 
         FinancialRecord updatedRecord = financialRecordRepository.save(financialRecord);
+        dashboardChangeTracker.markChanged(dashboardId);
+        dashboardChangeTracker.markRecordDate(dashboardId, updatedRecord.getDate());
         LOG.info("Updated financial record with id: {} for dashboard id: {}", id, dashboardId);
         return financialRecordMapper.toDto(updatedRecord);
     }
 
     /**
-     * Deletes a financial record.
+     * Deletes a financial record. Records flagged as its duplicates are no longer flagged.
      *
      * @param id          The ID of the financial record to delete.
      * @param dashboardId The ID of the dashboard associated with the financial record.
@@ -158,6 +263,9 @@ public class FinancialRecordServiceImpl implements FinancialRecordService {
         LOG.info("Deleting financial record with id: {} for dashboard id: {}", id, dashboardId);
         FinancialRecord financialRecord = financialRecordRepository.findByIdAndDashboardId(id, dashboardId)
                 .orElseThrow(() -> new EntityNotFoundException("FinancialRecord not found with id: " + id + " for dashboard id: " + dashboardId));
+        duplicateDetectionService.forgetRecord(dashboardId, id);
         financialRecordRepository.delete(financialRecord);
+        dashboardChangeTracker.markChanged(dashboardId);
+        dashboardChangeTracker.markRecordDate(dashboardId, financialRecord.getDate());
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.algorithm.BootstrapGoalSimulation;
+import cz.cvut.fel.budgetplannerbackend.config.GoalProjectionProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.GoalProjectionDto;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialGoal;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ETimeBucket;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialGoalRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.GoalProjectionService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static cz.cvut.fel.budgetplannerbackend.repository.NativeQueryValues.toLocalDateTime;
+
+/**
+ * Service class estimating the probability of reaching financial goals by their deadlines.
+ * <p>
+ * The monthly net cash flow (income minus expenses) of the closed months of a dashboard is the history that
+ * {@link BootstrapGoalSimulation} draws from, on a dedicated fork/join pool so projections do not compete with
+ * the common pool. The history and the projections of the most recently projected dashboards are kept in memory,
+ * tagged with the dashboard version and month they were computed in: new records and goal changes bump the
+ * version, and a new month closes another month of history, so either drops the cached entry of the dashboard.
+ */
+@Service
+public class GoalProjectionServiceImpl implements GoalProjectionService {
+
+    private final FinancialGoalRepository financialGoalRepository;
+    private final FinancialRecordRepository financialRecordRepository;
+    private final DashboardRepository dashboardRepository;
+    private final SecurityUtils securityUtils;
+    private final GoalProjectionProperties properties;
+    private final ForkJoinPool pool;
+    private final Map<Long, Projections> caches;
+
+    private static final Logger LOG = LoggerFactory.getLogger(GoalProjectionServiceImpl.class);
+
+    public GoalProjectionServiceImpl(FinancialGoalRepository financialGoalRepository, FinancialRecordRepository financialRecordRepository,
+                                     DashboardRepository dashboardRepository, SecurityUtils securityUtils, GoalProjectionProperties properties) {
+        this.financialGoalRepository = financialGoalRepository;
+        this.financialRecordRepository = financialRecordRepository;
+        this.dashboardRepository = dashboardRepository;
+        this.securityUtils = securityUtils;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(properties.getParallelism() > 0 ? properties.getParallelism() : Runtime.getRuntime().availableProcessors());
+        int cacheSize = properties.getCacheSize();
+        this.caches = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Projections> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Projects a financial goal: simulates the amount of the goal until its deadline, adding a net cash flow
+     * drawn from the history of the dashboard every month. Without history, or with the deadline in the
+     * current month, the goal is reached only if its current amount already meets the target.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param goalId      The ID of the financial goal.
+     * @return The projection of the goal.
+     * @throws EntityNotFoundException  If the goal is not found in the dashboard.
+     * @throws IllegalArgumentException If the goal has no target amount or deadline.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public GoalProjectionDto projectFinancialGoal(Long dashboardId, Long goalId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        // The version is read before the goal and history, so a cached projection is never newer than its version claims.
+        long version = dashboardRepository.findVersion(dashboardId).orElse(0L);
+        YearMonth month = YearMonth.now();
+        Projections cache = cache(dashboardId, version, month);
+        GoalProjectionDto cached;
+        synchronized (cache) {
+            cached = cache.projections.get(goalId);
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        FinancialGoal goal = financialGoalRepository.findByIdAndDashboardId(goalId, dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("FinancialGoal not found with id: " + goalId + " for dashboard id: " + dashboardId));
+        if (goal.getTargetAmount() == null || goal.getDeadline() == null) {
+            throw new IllegalArgumentException("The goal must have a target amount and a deadline to be projected");
+        }
+        double[] history;
+        synchronized (cache) {
+            history = cache.history;
+        }
+        if (history == null) {
+            history = history(dashboardId, month);
+        }
+        GoalProjectionDto projection = project(goal, history);
+
+        synchronized (cache) {
+            if (cache.version == version && cache.month.equals(month)) { // Otherwise a change was applied since the version was read.
+                cache.history = history;
+                cache.projections.put(goalId, projection);
+            }
+        }
+        return projection;
+    }
+
+    private GoalProjectionDto project(FinancialGoal goal, double[] history) {
+        double current = goal.getCurrentAmount() != null ? goal.getCurrentAmount() : 0;
+        double target = goal.getTargetAmount();
+        int months = (int) Math.max(0, ChronoUnit.MONTHS.between(LocalDate.now().withDayOfMonth(1), goal.getDeadline().withDayOfMonth(1)));
+        if (history.length == 0 || months == 0) {
+            return new GoalProjectionDto(goal.getId(), current >= target ? 1 : 0, months, history.length, 0, current, current, current);
+        }
+        LOG.info("Projecting financial goal id: {} over {} months from {} months of history with {} paths",
+                goal.getId(), months, history.length, properties.getPaths());
+        BootstrapGoalSimulation.Result result = BootstrapGoalSimulation.simulate(history, current, target, months,
+                properties.getPaths(), goal.getId(), pool); // Seeded by the goal, so repeated projections agree.
+        return new GoalProjectionDto(goal.getId(), result.probability(), months, history.length, result.paths(),
+                round(result.quantile(0.1)), round(result.quantile(0.5)), round(result.quantile(0.9)));
+    }
+
+    // Net cash flow of every closed month from the first month with records; months without records count as zero.
+    private double[] history(Long dashboardId, YearMonth month) {
+        LocalDateTime to = month.atDay(1).atStartOfDay();
+        LocalDateTime from = to.minusMonths(properties.getHistoryMonths());
+        List<Object[]> rows = financialRecordRepository.sumAmountsByBucketAndType(dashboardId, ETimeBucket.MONTH.getSqlUnit(), from, to);
+        if (rows.isEmpty()) {
+            return new double[0];
+        }
+        LocalDateTime first = toLocalDateTime(rows.get(0)[0]);
+        double[] history = new double[(int) ChronoUnit.MONTHS.between(first, to)];
+        for (Object[] row : rows) {
+            int index = (int) ChronoUnit.MONTHS.between(first, toLocalDateTime(row[0]));
+            double amount = ((BigDecimal) row[2]).doubleValue();
+            history[index] += ERecordType.valueOf(String.valueOf(row[1])) == ERecordType.INCOME ? amount : -amount;
+        }
+        return history;
+    }
+
+    private Projections cache(Long dashboardId, long version, YearMonth month) {
+        Projections cache;
+        synchronized (caches) {
+            cache = caches.computeIfAbsent(dashboardId, id -> new Projections(version, month));
+        }
+        synchronized (cache) {
+            if (cache.version < version || cache.month.isBefore(month)) {
+                cache.history = null; // Records or goals changed, or another month closed.
+                cache.projections.clear();
+                cache.version = Math.max(cache.version, version);
+                cache.month = cache.month.isBefore(month) ? month : cache.month;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Shuts down the simulation pool when the application context closes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    private static final class Projections {
+        private final Map<Long, GoalProjectionDto> projections = new HashMap<>();
+        private double[] history;
+        private long version;
+        private YearMonth month;
+
+        private Projections(long version, YearMonth month) {
+            this.version = version;
+            this.month = month;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.budgetplannerbackend.config.IdempotencyProperties;
+import cz.cvut.fel.budgetplannerbackend.entity.IdempotencyKey;
+import cz.cvut.fel.budgetplannerbackend.exceptions.IdempotencyKeyReuseException;
+import cz.cvut.fel.budgetplannerbackend.repository.IdempotencyKeyRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.IdempotencyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Service class making create requests safe to retry.
+ * The response of the first request carrying an idempotency key is stored in the idempotency_keys table
+ * in the same transaction as the created entity, and recent keys are also kept in a bounded in-memory LRU,
+ * so most retries are answered without touching the database. Concurrent requests with the same key
+ * are serialized on one of a fixed number of lock stripes, so only the first of them runs the action.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final SecurityUtils securityUtils;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyProperties properties;
+    private final ReentrantLock[] locks;
+    private final Map<String, StoredResponse> recentKeys;
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository, SecurityUtils securityUtils,
+                                  ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                  IdempotencyProperties properties) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.securityUtils = securityUtils;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.locks = new ReentrantLock[Math.max(1, properties.getLockStripes())];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        int cacheSize = properties.getCacheSize();
+        this.recentKeys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Executes a create request at most once per user, scope and idempotency key.
+     * A repeated request gets the stored response of the first one; the action is not executed again.
+     *
+     * @param scope        The kind of request, including the target dashboard.
+     * @param key          The idempotency key sent by the client.
+     * @param request      The request body, used to detect a key reused for a different request.
+     * @param responseType The type of the response body.
+     * @param action       The request handling, executed in the transaction that stores the key.
+     * @return The response body and whether it was replayed.
+     * @throws IllegalArgumentException      If the key is blank or too long.
+     * @throws IdempotencyKeyReuseException If the key was already used for a different request body.
+     */
+    @Override
+    public <T> Result<T> execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be between 1 and " + MAX_KEY_LENGTH + " characters long");
+        }
+        Long userId = securityUtils.getCurrentUser().getId();
+        String cacheKey = userId + ":" + scope + ":" + key;
+        String requestHash = hash(request);
+
+        Result<T> cached = replayFromCache(cacheKey, key, requestHash, responseType);
+        if (cached != null) {
+            return cached;
+        }
+
+        ReentrantLock lock = locks[Math.floorMod(cacheKey.hashCode(), locks.length)];
+        lock.lock();
+        try {
+            // A concurrent duplicate may have completed while this request waited for the lock.
+            cached = replayFromCache(cacheKey, key, requestHash, responseType);
+            if (cached != null) {
+                return cached;
+            }
+
+            Optional<IdempotencyKey> stored = idempotencyKeyRepository.findByUserIdAndScopeAndKey(userId, scope, key);
+            if (stored.isPresent() && stored.get().getExpiresAt().isAfter(LocalDateTime.now())) {
+                return replayFromStore(cacheKey, key, requestHash, responseType, stored.get());
+            }
+
+            StoredResponse response;
+            try {
+                response = transactionTemplate.execute(status -> {
+                    // An expired key that has not been purged yet is simply reused.
+                    stored.ifPresent(idempotencyKeyRepository::delete);
+                    T body = action.get();
+                    LocalDateTime now = LocalDateTime.now();
+                    LocalDateTime expiresAt = now.plusNanos(properties.getTtl() * 1_000_000);
+                    String responseBody = toJson(body);
+                    idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(null, userId, scope, key, requestHash, responseBody, now, expiresAt));
+                    return new StoredResponse(requestHash, responseBody, expiresAt);
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Another instance stored the same key first; its transaction won and ours was rolled back.
+                IdempotencyKey winner = idempotencyKeyRepository.findByUserIdAndScopeAndKey(userId, scope, key)
+                        .orElseThrow(() -> e);
+                LOG.debug("Idempotency key {} of user {} was stored concurrently by another request", key, userId);
+                return replayFromStore(cacheKey, key, requestHash, responseType, winner);
+            }
+            remember(cacheKey, response);
+            return new Result<>(fromJson(response.responseBody(), responseType), false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Scheduled task deleting expired idempotency keys in small batches.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:600000}")
+    public void purgeExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = properties.getPurgeBatchSize();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = idempotencyKeyRepository.deleteExpiredBatch(now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        synchronized (recentKeys) {
+            recentKeys.values().removeIf(response -> !response.expiresAt().isAfter(now));
+        }
+        if (total > 0) {
+            LOG.info("Purged {} expired idempotency keys", total);
+        }
+    }
+
+    private <T> Result<T> replayFromCache(String cacheKey, String key, String requestHash, Class<T> responseType) {
+        StoredResponse response;
+        synchronized (recentKeys) {
+            response = recentKeys.get(cacheKey);
+        }
+        if (response == null || !response.expiresAt().isAfter(LocalDateTime.now())) {
+            return null;
+        }
+        return replay(key, requestHash, responseType, response);
+    }
+
+    private <T> Result<T> replayFromStore(String cacheKey, String key, String requestHash, Class<T> responseType, IdempotencyKey stored) {
+        StoredResponse response = new StoredResponse(stored.getRequestHash(), stored.getResponseBody(), stored.getExpiresAt());
+        remember(cacheKey, response);
+        return replay(key, requestHash, responseType, response);
+    }
+
+    private <T> Result<T> replay(String key, String requestHash, Class<T> responseType, StoredResponse response) {
+        if (!response.requestHash().equals(requestHash)) {
+            LOG.warn("Idempotency key {} was reused for a different request", key);
+            throw new IdempotencyKeyReuseException(key);
+        }
+        LOG.debug("Replaying stored response for idempotency key {}", key);
+        return new Result<>(fromJson(response.responseBody(), responseType), true);
+    }
+
+    private void remember(String cacheKey, StoredResponse response) {
+        synchronized (recentKeys) {
+            recentKeys.put(cacheKey, response);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to hash request body", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize response body", e);
+        }
+    }
+
+    private <T> T fromJson(String body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to deserialize stored response body", e);
+        }
+    }
+
+    private record StoredResponse(String requestHash, String responseBody, LocalDateTime expiresAt) {
+    }
+}
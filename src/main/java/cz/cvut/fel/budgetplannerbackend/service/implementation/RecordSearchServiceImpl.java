@@ -0,0 +1,154 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.algorithm.InvertedIndex;
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.dto.search.RecordSearchPageDto;
+import cz.cvut.fel.budgetplannerbackend.dto.search.RecordSearchResultDto;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.mapper.FinancialRecordMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordSearchRepository.SearchHit;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.RecordSearchService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for full-text search over the descriptions of financial records.
+ * On PostgreSQL the search runs on the generated {@code description_tsv} column; on other databases (the H2 test
+ * profile) an in-memory inverted index of the dashboard is used, rebuilt whenever the dashboard version changes.
+ * <p>
+ * Pages are continued with an opaque cursor holding the rank and ID of the last returned record (keyset paging),
+ * so deep pages cost the same as the first one.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecordSearchServiceImpl implements RecordSearchService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    private static final int MAX_TERMS = 8;
+
+    private final FinancialRecordRepository financialRecordRepository;
+    private final DashboardRepository dashboardRepository;
+    private final FinancialRecordMapper financialRecordMapper;
+    private final SecurityUtils securityUtils;
+    private final DataSourceProperties dataSourceProperties;
+    private final Map<Long, VersionedIndex> memoryIndexes = new ConcurrentHashMap<>();
+
+    private static final Logger LOG = LoggerFactory.getLogger(RecordSearchServiceImpl.class);
+
+    /**
+     * Searches the financial records of a dashboard by description.
+     * Every word of the query has to match the beginning of a word of the description.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param query       The search text.
+     * @param cursor      The cursor returned with the previous page, or null for the first page.
+     * @param limit       The maximum number of results, at most {@value #MAX_LIMIT}.
+     * @return The matching records, best ranked first, and the cursor of the next page.
+     * @throws IllegalArgumentException If the query contains no words, or the cursor or limit is invalid.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public RecordSearchPageDto searchFinancialRecords(Long dashboardId, String query, String cursor, int limit) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        List<String> terms = InvertedIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one word");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        terms = terms.subList(0, Math.min(terms.size(), MAX_TERMS));
+        SearchHit after = cursor != null ? decodeCursor(cursor) : null;
+        LOG.info("Searching financial records of dashboard id: {} for {} terms", dashboardId, terms.size());
+
+        // Fetch one extra hit to find out whether another page follows.
+        List<SearchHit> hits = isPostgres()
+                ? searchDatabase(dashboardId, terms, after, limit + 1)
+                : searchMemory(dashboardId, terms, after, limit + 1);
+        boolean hasMore = hits.size() > limit;
+        if (hasMore) {
+            hits = hits.subList(0, limit);
+        }
+
+        Map<Long, FinancialRecord> records = financialRecordRepository
+                .findAllByIdInAndDashboardId(hits.stream().map(SearchHit::id).toList(), dashboardId).stream()
+                .collect(Collectors.toMap(FinancialRecord::getId, Function.identity()));
+        List<RecordSearchResultDto> results = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            FinancialRecord record = records.get(hit.id());
+            if (record != null) {
+                FinancialRecordDto recordDto = financialRecordMapper.toDto(record);
+                results.add(new RecordSearchResultDto(recordDto, hit.rank()));
+            }
+        }
+        String nextCursor = hasMore ? encodeCursor(hits.get(hits.size() - 1)) : null;
+        LOG.info("Found {} financial records for dashboard id: {}", results.size(), dashboardId);
+        return new RecordSearchPageDto(results, nextCursor);
+    }
+
+    private List<SearchHit> searchDatabase(Long dashboardId, List<String> terms, SearchHit after, int limit) {
+        // Terms consist of letters and digits only, so they cannot inject tsquery operators.
+        String tsQuery = terms.stream().map(term -> term + ":*").collect(Collectors.joining(" & "));
+        return financialRecordRepository.searchByDescription(dashboardId, tsQuery,
+                after != null ? after.rank() : null, after != null ? after.id() : null, limit);
+    }
+
+    private List<SearchHit> searchMemory(Long dashboardId, List<String> terms, SearchHit after, int limit) {
+        long version = dashboardRepository.findVersion(dashboardId).orElse(0L);
+        VersionedIndex index = memoryIndexes.get(dashboardId);
+        if (index == null || index.version() != version) {
+            InvertedIndex invertedIndex = new InvertedIndex();
+            financialRecordRepository.findAllByDashboardId(dashboardId)
+                    .forEach(record -> invertedIndex.add(record.getId(), record.getDescription()));
+            index = new VersionedIndex(version, invertedIndex);
+            memoryIndexes.put(dashboardId, index);
+        }
+        InvertedIndex.Hit afterHit = after != null ? new InvertedIndex.Hit(after.id(), after.rank()) : null;
+        return index.index().search(terms).stream()
+                .filter(hit -> afterHit == null || InvertedIndex.Hit.ORDER.compare(hit, afterHit) > 0)
+                .limit(limit)
+                .map(hit -> new SearchHit(hit.id(), hit.rank()))
+                .toList();
+    }
+
+    private boolean isPostgres() {
+        String url = dataSourceProperties.getUrl();
+        return url != null && url.startsWith("jdbc:postgresql:");
+    }
+
+    static String encodeCursor(SearchHit hit) {
+        String cursor = hit.rank() + ":" + hit.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SearchHit decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new SearchHit(Long.parseLong(decoded.substring(separator + 1)), Float.parseFloat(decoded.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid search cursor", e);
+        }
+    }
+
+    private record VersionedIndex(long version, InvertedIndex index) {
+    }
+}
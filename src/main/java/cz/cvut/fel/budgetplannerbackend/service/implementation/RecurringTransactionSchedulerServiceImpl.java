@@ -0,0 +1,284 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.algorithm.HashedTimingWheel;
+import cz.cvut.fel.budgetplannerbackend.config.RecurringTransactionProperties;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.RecurringTransaction;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
+import cz.cvut.fel.budgetplannerbackend.metrics.BusinessMetrics;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.RecurringTransactionRepository;
+import cz.cvut.fel.budgetplannerbackend.service.AnomalyDetectionService;
+import cz.cvut.fel.budgetplannerbackend.service.RecurringTransactionSchedulerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static cz.cvut.fel.budgetplannerbackend.events.TransactionCallbacks.afterCommit;
+
+/**
+ * Service materializing the occurrences of recurring transactions as financial records.
+ * <p>
+ * The templates due within the configured horizon are loaded from the indexed next_run_at column into a
+ * {@link HashedTimingWheel}, which every tick hands out the templates that have become due. Created and changed
+ * templates are scheduled directly. Templates whose next run is already past, e.g. after downtime, are due
+ * immediately and get all their missed occurrences, up to max-catch-up per transaction.
+ * <p>
+ * Due templates are materialized in batches, one transaction each. A transaction-level advisory lock makes the
+ * node holding it the only one materializing until it commits; the other nodes retry their due templates with
+ * the next tick. The templates are locked as well and must still be due, and the records of every template are
+ * unique per occurrence date, so an occurrence is never materialized twice, whichever node gets to it.
+ */
+@Service
+public class RecurringTransactionSchedulerServiceImpl implements RecurringTransactionSchedulerService {
+
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final FinancialRecordRepository financialRecordRepository;
+    private final AnomalyDetectionService anomalyDetectionService;
+    private final DashboardChangeTracker dashboardChangeTracker;
+    private final BusinessMetrics businessMetrics;
+    private final RecurringTransactionProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final HashedTimingWheel<Long> wheel; // Guarded by itself.
+
+    private static final Logger LOG = LoggerFactory.getLogger(RecurringTransactionSchedulerServiceImpl.class);
+
+    public RecurringTransactionSchedulerServiceImpl(RecurringTransactionRepository recurringTransactionRepository,
+                                                    FinancialRecordRepository financialRecordRepository,
+                                                    AnomalyDetectionService anomalyDetectionService,
+                                                    DashboardChangeTracker dashboardChangeTracker, BusinessMetrics businessMetrics,
+                                                    RecurringTransactionProperties properties, DataSourceProperties dataSourceProperties,
+                                                    PlatformTransactionManager transactionManager) {
+        this.recurringTransactionRepository = recurringTransactionRepository;
+        this.financialRecordRepository = financialRecordRepository;
+        this.anomalyDetectionService = anomalyDetectionService;
+        this.dashboardChangeTracker = dashboardChangeTracker;
+        this.businessMetrics = businessMetrics;
+        this.properties = properties;
+        this.dataSourceProperties = dataSourceProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wheel = new HashedTimingWheel<>(properties.getTickDuration(), properties.getWheelSize(), System.currentTimeMillis());
+    }
+
+    /**
+     * Schedules the next run of a template once the current transaction commits, if it falls within the horizon;
+     * later runs are picked up by a later {@link #loadHorizon()}. A null next run cancels the template.
+     *
+     * @param recurringTransactionId The ID of the template.
+     * @param nextRunAt              The next occurrence of the template, or null if the schedule has ended.
+     */
+    @Override
+    public void schedule(Long recurringTransactionId, LocalDateTime nextRunAt) {
+        afterCommit(() -> {
+            if (nextRunAt == null) {
+                cancelNow(recurringTransactionId);
+                return;
+            }
+            long deadline = toMillis(nextRunAt);
+            if (deadline < System.currentTimeMillis() + properties.getHorizon()) {
+                synchronized (wheel) {
+                    wheel.schedule(recurringTransactionId, deadline);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes a deleted template from the timing wheel once the current transaction commits.
+     *
+     * @param recurringTransactionId The ID of the template.
+     */
+    @Override
+    public void cancel(Long recurringTransactionId) {
+        afterCommit(() -> cancelNow(recurringTransactionId));
+    }
+
+    private void cancelNow(Long recurringTransactionId) {
+        synchronized (wheel) {
+            wheel.cancel(recurringTransactionId);
+        }
+    }
+
+    /**
+     * Scheduled task loading the templates due within the horizon into the timing wheel, including the templates
+     * whose next run was missed. The load interval is shorter than the horizon, so every template is loaded before it is due.
+     *
+     * @return The number of templates loaded.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${recurring-transactions.load-interval:300000}")
+    public int loadHorizon() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        List<Object[]> due;
+        try {
+            due = transactionTemplate.execute(status ->
+                    recurringTransactionRepository.findScheduledBefore(LocalDateTime.now().plus(Duration.ofMillis(properties.getHorizon()))));
+        } catch (RuntimeException e) {
+            // The wheel keeps the templates loaded before; the next run tries again.
+            LOG.error("Failed to load the recurring transactions due within the horizon", e);
+            return 0;
+        }
+        synchronized (wheel) {
+            for (Object[] row : due) {
+                wheel.schedule((Long) row[0], toMillis((LocalDateTime) row[1]));
+            }
+        }
+        LOG.debug("Loaded {} recurring transactions due within the horizon", due.size());
+        return due.size();
+    }
+
+    /**
+     * Scheduled task advancing the timing wheel and materializing the templates that have become due,
+     * in batches of one transaction each.
+     *
+     * @return The number of records created.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${recurring-transactions.tick-duration:1000}")
+    public int materializeDue() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        List<Long> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+        }
+        int created = 0;
+        for (int from = 0; from < due.size(); from += properties.getBatchSize()) {
+            List<Long> batch = due.subList(from, Math.min(due.size(), from + properties.getBatchSize()));
+            LocalDateTime now = LocalDateTime.now();
+            Integer batchCreated;
+            try {
+                batchCreated = transactionTemplate.execute(status ->
+                        recurringTransactionRepository.tryLockScheduler() ? materialize(batch, now) : null);
+            } catch (RuntimeException e) {
+                // The templates stay due in the database and are loaded again with the horizon.
+                LOG.error("Failed to materialize {} recurring transactions", batch.size(), e);
+                continue;
+            }
+            if (batchCreated == null) {
+                // Another node is materializing; whatever it leaves due is retried with the next tick.
+                LOG.debug("Recurring transactions are materialized by another node, retrying {} templates", due.size() - from);
+                synchronized (wheel) {
+                    due.subList(from, due.size()).forEach(id -> wheel.schedule(id, System.currentTimeMillis()));
+                }
+                break;
+            }
+            created += batchCreated;
+        }
+        return created;
+    }
+
+    /**
+     * Materializes the occurrences of the given templates due by a point in time as financial records
+     * and moves the templates to their next occurrence, in the transaction of the caller. Templates that are not due
+     * or are being materialized by another transaction are skipped, as are occurrences that already have a record;
+     * the skipped templates are scheduled again at their next run, or after the retry delay if they are still due.
+     *
+     * @param recurringTransactionIds The IDs of the templates.
+     * @param now                     The point in time up to which occurrences are due.
+     * @return The number of records created.
+     */
+    @Override
+    public int materialize(Collection<Long> recurringTransactionIds, LocalDateTime now) {
+        List<RecurringTransaction> templates = recurringTransactionRepository.lockDue(recurringTransactionIds, now);
+        if (templates.size() < recurringTransactionIds.size()) {
+            rescheduleSkipped(recurringTransactionIds, templates, now);
+        }
+        if (templates.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime earliest = templates.stream().map(RecurringTransaction::getNextRunAt).min(Comparator.naturalOrder()).orElseThrow();
+        Set<Occurrence> existing = new HashSet<>();
+        for (Object[] row : financialRecordRepository.findRecurringOccurrences(
+                templates.stream().map(RecurringTransaction::getId).toList(), earliest, now)) {
+            existing.add(new Occurrence((Long) row[0], (LocalDateTime) row[1]));
+        }
+
+        List<FinancialRecord> records = new ArrayList<>();
+        Map<Long, LocalDateTime> earliestByDashboard = new HashMap<>();
+        for (RecurringTransaction template : templates) {
+            LocalDateTime next = template.getNextRunAt();
+            for (int count = 0; next != null && !next.isAfter(now) && count < properties.getMaxCatchUp(); count++) {
+                if (!existing.contains(new Occurrence(template.getId(), next))) {
+                    records.add(toRecord(template, next));
+                    earliestByDashboard.merge(template.getDashboard().getId(), next,
+                            (current, date) -> date.isBefore(current) ? date : current);
+                }
+                next = template.getFrequency().nextAfter(template.getStartDate(), template.getInterval(), next);
+                if (template.getEndDate() != null && next.isAfter(template.getEndDate())) {
+                    next = null;
+                }
+            }
+            template.setNextRunAt(next);
+            schedule(template.getId(), next);
+        }
+        for (FinancialRecord record : records) {
+            anomalyDetectionService.scoreExpense(record);
+        }
+        financialRecordRepository.saveAll(records); // Sent in JDBC batches.
+        earliestByDashboard.forEach((dashboardId, date) -> {
+            dashboardChangeTracker.markChanged(dashboardId);
+            dashboardChangeTracker.markRecordDate(dashboardId, date);
+        });
+        records.forEach(record -> businessMetrics.recordCreated(record.getType()));
+        LOG.info("Materialized {} occurrences of {} recurring transactions", records.size(), templates.size());
+        return records.size();
+    }
+
+    private void rescheduleSkipped(Collection<Long> recurringTransactionIds, List<RecurringTransaction> locked, LocalDateTime now) {
+        Set<Long> lockedIds = new HashSet<>();
+        locked.forEach(template -> lockedIds.add(template.getId()));
+        List<Long> skipped = recurringTransactionIds.stream().filter(id -> !lockedIds.contains(id)).toList();
+        LocalDateTime retryAt = now.plus(Duration.ofMillis(properties.getRetryDelay()));
+        // A locked template still shows its old next run, which stays due until the other transaction commits.
+        for (Object[] row : recurringTransactionRepository.findNextRuns(skipped)) {
+            LocalDateTime nextRunAt = (LocalDateTime) row[1];
+            schedule((Long) row[0], nextRunAt.isAfter(now) ? nextRunAt : retryAt);
+        }
+    }
+
+    private static FinancialRecord toRecord(RecurringTransaction template, LocalDateTime date) {
+        FinancialRecord financialRecord = new FinancialRecord();
+        financialRecord.setDashboard(template.getDashboard());
+        financialRecord.setUser(template.getUser());
+        financialRecord.setAmount(template.getAmount());
+        financialRecord.setCategory(template.getCategory());
+        financialRecord.setType(template.getType());
+        financialRecord.setDate(date);
+        financialRecord.setDescription(template.getDescription());
+        financialRecord.setRecurringTransaction(template);
+        return financialRecord;
+    }
+
+    private boolean isEnabled() {
+        String url = dataSourceProperties.getUrl();
+        return properties.isEnabled() && url != null && url.startsWith("jdbc:postgresql:");
+    }
+
+    private static long toMillis(LocalDateTime date) {
+        return date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Occurrence(Long recurringTransactionId, LocalDateTime date) {
+    }
+}
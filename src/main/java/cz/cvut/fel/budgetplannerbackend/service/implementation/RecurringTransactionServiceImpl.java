@@ -0,0 +1,201 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.dto.RecurringTransactionDto;
+import cz.cvut.fel.budgetplannerbackend.entity.Category;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.RecurringTransaction;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.mapper.RecurringTransactionMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.RecurringTransactionRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.RecurringTransactionSchedulerService;
+import cz.cvut.fel.budgetplannerbackend.service.RecurringTransactionService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Service class for managing the templates of recurring transactions.
+ * The occurrences of the templates are materialized by the {@link RecurringTransactionSchedulerService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecurringTransactionServiceImpl implements RecurringTransactionService {
+
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final DashboardRepository dashboardRepository;
+    private final CategoryRepository categoryRepository;
+    private final RecurringTransactionMapper recurringTransactionMapper;
+    private final RecurringTransactionSchedulerService recurringTransactionSchedulerService;
+    private final SecurityUtils securityUtils;
+
+    private static final Logger LOG = LoggerFactory.getLogger(RecurringTransactionServiceImpl.class);
+
+    /**
+     * Retrieves all recurring transactions of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A list of recurring transaction DTOs.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<RecurringTransactionDto> findAllRecurringTransactionsByDashboardId(Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        LOG.info("Fetching all recurring transactions for dashboard id: {}", dashboardId);
+        return recurringTransactionRepository.findAllByDashboardIdOrderById(dashboardId).stream()
+                .map(recurringTransactionMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves a specific recurring transaction by its ID and dashboard ID.
+     *
+     * @param id          The ID of the recurring transaction.
+     * @param dashboardId The ID of the dashboard.
+     * @return The recurring transaction DTO.
+     * @throws EntityNotFoundException If the recurring transaction is not found.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public RecurringTransactionDto findRecurringTransactionByIdAndDashboardId(Long id, Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        LOG.info("Fetching recurring transaction with id: {} for dashboard id: {}", id, dashboardId);
+        return recurringTransactionMapper.toDto(findRecurringTransaction(id, dashboardId));
+    }
+
+    /**
+     * Creates a recurring transaction. Occurrences from the start date on are materialized by the scheduler,
+     * so a start date in the past creates the records of the past occurrences as well.
+     *
+     * @param dashboardId             The ID of the dashboard.
+     * @param recurringTransactionDto The DTO with the amount, frequency and optionally the type (income by default),
+     *                                category, description, interval (1 by default), start date (now by default) and end date.
+     * @return The created recurring transaction DTO.
+     * @throws EntityNotFoundException If the dashboard or category is not found.
+     * @throws IllegalArgumentException If the amount or frequency is missing, the interval is not positive,
+     *                                  or the end date is before the start date.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @Override
+    @Transactional
+    public RecurringTransactionDto createRecurringTransaction(Long dashboardId, RecurringTransactionDto recurringTransactionDto) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        LOG.info("Creating recurring transaction for dashboard id: {}", dashboardId);
+        if (recurringTransactionDto.amount() == null || recurringTransactionDto.frequency() == null) {
+            throw new IllegalArgumentException("A recurring transaction needs an amount and a frequency");
+        }
+        Dashboard dashboard = dashboardRepository.findById(dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("Dashboard", dashboardId));
+
+        RecurringTransaction recurringTransaction = new RecurringTransaction();
+        recurringTransaction.setDashboard(dashboard);
+        recurringTransaction.setUser(securityUtils.getCurrentUser());
+        recurringTransaction.setType(ERecordType.INCOME);
+        recurringTransaction.setInterval(1);
+        recurringTransaction.setStartDate(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        apply(recurringTransaction, recurringTransactionDto, dashboardId);
+        recurringTransaction.setNextRunAt(firstRun(recurringTransaction, recurringTransaction.getStartDate()));
+
+        RecurringTransaction savedRecurringTransaction = recurringTransactionRepository.save(recurringTransaction);
+        recurringTransactionSchedulerService.schedule(savedRecurringTransaction.getId(), savedRecurringTransaction.getNextRunAt());
+        LOG.info("Created recurring transaction with id: {} for dashboard id: {}", savedRecurringTransaction.getId(), dashboardId);
+        return recurringTransactionMapper.toDto(savedRecurringTransaction);
+    }
+
+    /**
+     * Updates a recurring transaction; null fields keep their current value. A changed schedule applies
+     * from now on: occurrences before the change are not materialized again or backfilled.
+     *
+     * @param dashboardId             The ID of the dashboard.
+     * @param id                      The ID of the recurring transaction.
+     * @param recurringTransactionDto The DTO with the changed fields.
+     * @return The updated recurring transaction DTO.
+     * @throws EntityNotFoundException If the recurring transaction or category is not found.
+     * @throws IllegalArgumentException If the interval is not positive or the end date is before the start date.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @Override
+    @Transactional
+    public RecurringTransactionDto updateRecurringTransaction(Long dashboardId, Long id, RecurringTransactionDto recurringTransactionDto) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        LOG.info("Updating recurring transaction with id: {} for dashboard id: {}", id, dashboardId);
+        RecurringTransaction recurringTransaction = findRecurringTransaction(id, dashboardId);
+        apply(recurringTransaction, recurringTransactionDto, dashboardId);
+        if (recurringTransactionDto.frequency() != null || recurringTransactionDto.interval() != null
+                || recurringTransactionDto.startDate() != null || recurringTransactionDto.endDate() != null) {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            LocalDateTime next = recurringTransaction.getFrequency().nextAfter(recurringTransaction.getStartDate(),
+                    recurringTransaction.getInterval(), now.minusSeconds(1));
+            recurringTransaction.setNextRunAt(firstRun(recurringTransaction, next));
+            recurringTransactionSchedulerService.schedule(id, recurringTransaction.getNextRunAt());
+        }
+
+        RecurringTransaction updatedRecurringTransaction = recurringTransactionRepository.save(recurringTransaction);
+        LOG.info("Updated recurring transaction with id: {} for dashboard id: {}", id, dashboardId);
+        return recurringTransactionMapper.toDto(updatedRecurringTransaction);
+    }
+
+    /**
+     * Deletes a recurring transaction. The records materialized from it are kept.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the recurring transaction.
+     * @throws EntityNotFoundException If the recurring transaction is not found.
+     * @throws AccessDeniedException If the user does not have editor access to the dashboard.
+     */
+    @Override
+    @Transactional
+    public void deleteRecurringTransaction(Long dashboardId, Long id) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        LOG.info("Deleting recurring transaction with id: {} for dashboard id: {}", id, dashboardId);
+        recurringTransactionRepository.delete(findRecurringTransaction(id, dashboardId));
+        recurringTransactionSchedulerService.cancel(id);
+    }
+
+    private RecurringTransaction findRecurringTransaction(Long id, Long dashboardId) {
+        return recurringTransactionRepository.findByIdAndDashboardId(id, dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("RecurringTransaction", id));
+    }
+
+    private void apply(RecurringTransaction recurringTransaction, RecurringTransactionDto dto, Long dashboardId) {
+        if (dto.interval() != null && dto.interval() < 1) {
+            throw new IllegalArgumentException("The interval of a recurring transaction must be at least 1");
+        }
+        if (dto.amount() != null) recurringTransaction.setAmount(dto.amount());
+        if (dto.type() != null) recurringTransaction.setType(dto.type());
+        if (dto.description() != null) recurringTransaction.setDescription(dto.description());
+        if (dto.frequency() != null) recurringTransaction.setFrequency(dto.frequency());
+        if (dto.interval() != null) recurringTransaction.setInterval(dto.interval());
+        // Occurrences are matched to their records by date, so they are kept to whole seconds.
+        if (dto.startDate() != null) recurringTransaction.setStartDate(dto.startDate().truncatedTo(ChronoUnit.SECONDS));
+        if (dto.endDate() != null) recurringTransaction.setEndDate(dto.endDate());
+        if (dto.categoryId() != null) recurringTransaction.setCategory(findCategory(dto.categoryId(), dashboardId));
+        if (recurringTransaction.getEndDate() != null && recurringTransaction.getEndDate().isBefore(recurringTransaction.getStartDate())) {
+            throw new IllegalArgumentException("The end date of a recurring transaction must not be before its start date");
+        }
+    }
+
+    // The given occurrence, or null if it is after the end date.
+    private static LocalDateTime firstRun(RecurringTransaction recurringTransaction, LocalDateTime occurrence) {
+        LocalDateTime endDate = recurringTransaction.getEndDate();
+        return endDate != null && occurrence.isAfter(endDate) ? null : occurrence;
+    }
+
+    private Category findCategory(Long categoryId, Long dashboardId) {
+        return categoryRepository.findByIdAndDashboardId(categoryId, dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("Category", categoryId));
+    }
+}
@@ -0,0 +1,430 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.ReportProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.ReportJobDto;
+import cz.cvut.fel.budgetplannerbackend.entity.ReportJob;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EReportJobStatus;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EReportType;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.mapper.ReportJobMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.RecordReportRepository.CategoryMonthTotal;
+import cz.cvut.fel.budgetplannerbackend.repository.ReportJobRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.ReportJobService;
+import cz.cvut.fel.budgetplannerbackend.service.ReportJobService.ReportFile;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static cz.cvut.fel.budgetplannerbackend.service.implementation.BackgroundJobs.MAX_ERROR_LENGTH;
+import static cz.cvut.fel.budgetplannerbackend.service.implementation.BackgroundJobs.delete;
+import static cz.cvut.fel.budgetplannerbackend.service.implementation.BackgroundJobs.truncate;
+
+/**
+ * Service generating reports of dashboards in the background into files on disk.
+ * <p>
+ * A requested report is stored as a queued job and generated by one of a fixed number of report threads; jobs
+ * beyond them wait in a bounded queue, and every user may have only a few unfinished jobs, counted under a lock
+ * of the user's row. Reports are written to a temporary file renamed into place once complete, so a downloaded
+ * file is never partial. The full dump of the records streams them from a database cursor, storing its progress
+ * every few thousand rows; the yearly category report is aggregated by the database. Finished jobs and their
+ * files expire after a TTL and are deleted by a scheduled cleanup, which also fails the jobs of stopped nodes.
+ */
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+
+    // Rows of the record dump written between two progress updates.
+    private static final int PROGRESS_INTERVAL = 10_000;
+    private static final String PART_SUFFIX = ".part";
+
+    private final ReportJobRepository reportJobRepository;
+    private final ReportJobMapper reportJobMapper;
+    private final FinancialRecordRepository financialRecordRepository;
+    private final SecurityUtils securityUtils;
+    private final ReportProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate progressTemplate; // Commits progress while the records are still being read.
+    private final BackgroundJobs jobs;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReportJobServiceImpl.class);
+
+    @Autowired
+    public ReportJobServiceImpl(ReportJobRepository reportJobRepository, ReportJobMapper reportJobMapper,
+                                FinancialRecordRepository financialRecordRepository, SecurityUtils securityUtils,
+                                ReportProperties properties, PlatformTransactionManager transactionManager) {
+        this(reportJobRepository, reportJobMapper, financialRecordRepository, securityUtils, properties, transactionManager,
+                BackgroundJobs.boundedExecutor(properties.getThreads(), properties.getMaxQueuedJobs(), "report-"));
+    }
+
+    ReportJobServiceImpl(ReportJobRepository reportJobRepository, ReportJobMapper reportJobMapper,
+                         FinancialRecordRepository financialRecordRepository, SecurityUtils securityUtils,
+                         ReportProperties properties, PlatformTransactionManager transactionManager, ExecutorService executor) {
+        this.reportJobRepository = reportJobRepository;
+        this.reportJobMapper = reportJobMapper;
+        this.financialRecordRepository = financialRecordRepository;
+        this.securityUtils = securityUtils;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.progressTemplate = new TransactionTemplate(transactionManager);
+        this.progressTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.jobs = new BackgroundJobs(executor);
+    }
+
+    /**
+     * Requests a report of a dashboard for the current user, generated in the background.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param type        The type of the report.
+     * @param year        The year of a yearly report, ignored otherwise.
+     * @return The queued job.
+     * @throws AccessDeniedException       If the user does not have viewer access to the dashboard.
+     * @throws IllegalArgumentException    If the type is missing, or the year of a yearly report is missing or invalid.
+     * @throws IllegalStateException       If the user has too many unfinished jobs.
+     * @throws RejectedExecutionException If too many jobs are waiting.
+     */
+    @Override
+    public ReportJobDto startReport(Long dashboardId, EReportType type, Integer year) {
+        if (type == null) {
+            throw new IllegalArgumentException("The type of the report is missing");
+        }
+        if (type == EReportType.CATEGORY_YEAR && (year == null || year < 1900 || year > 9999)) {
+            throw new IllegalArgumentException("The year of the report is missing or invalid: " + year);
+        }
+        // Committed before a thread picks the job up.
+        ReportJob reportJob = transactionTemplate.execute(status -> {
+            securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+            Long userId = securityUtils.getCurrentUser().getId();
+            reportJobRepository.lockUser(userId);
+            if (reportJobRepository.countByUserIdAndFinishedAtIsNull(userId) >= properties.getMaxJobsPerUser()) {
+                throw new IllegalStateException("The user has " + properties.getMaxJobsPerUser() + " unfinished reports already");
+            }
+            LocalDateTime now = LocalDateTime.now();
+            return reportJobRepository.save(new ReportJob(null, dashboardId, userId, type, type == EReportType.CATEGORY_YEAR ? year : null,
+                    EReportJobStatus.QUEUED, null, null, 0, null, now, now, null, null));
+        });
+        Objects.requireNonNull(reportJob);
+        LOG.info("Queued {} report job id: {} for dashboard id: {}", type, reportJob.getId(), dashboardId);
+
+        Long jobId = reportJob.getId();
+        try {
+            jobs.execute(jobId, null, () -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            finish(jobId, EReportJobStatus.FAILED, null, 0, "Too many reports are waiting");
+            throw e;
+        }
+        return reportJobMapper.toDto(reportJob);
+    }
+
+    /**
+     * Retrieves a report job of the current user with its status.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the job.
+     * @return The job DTO.
+     * @throws EntityNotFoundException If the job is not found.
+     * @throws AccessDeniedException   If the user does not have viewer access to the dashboard.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ReportJobDto findReportJob(Long dashboardId, Long id) {
+        return reportJobMapper.toDto(findOwnReportJob(dashboardId, id));
+    }
+
+    /**
+     * Retrieves the 50 latest report jobs of the current user in a dashboard, newest first.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A list of job DTOs.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReportJobDto> findReportJobs(Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        return reportJobRepository.findTop50ByDashboardIdAndUserIdOrderByCreatedAtDesc(dashboardId, securityUtils.getCurrentUser().getId())
+                .stream()
+                .map(reportJobMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves the file of a completed report of the current user.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the job.
+     * @return The file of the report.
+     * @throws EntityNotFoundException If the job is not found, not completed, or its file was deleted.
+     * @throws AccessDeniedException   If the user does not have viewer access to the dashboard.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ReportFile findReportFile(Long dashboardId, Long id) {
+        ReportJob reportJob = findOwnReportJob(dashboardId, id);
+        if (reportJob.getStatus() != EReportJobStatus.COMPLETED) {
+            throw new EntityNotFoundException("Report job with id: " + id + " is " + reportJob.getStatus());
+        }
+        Path path = directory().resolve(reportJob.getFileName());
+        if (!Files.isRegularFile(path)) {
+            throw new EntityNotFoundException("The file of report job with id: " + id + " was deleted");
+        }
+        String fileName = reportJob.getType() == EReportType.CATEGORY_YEAR
+                ? "categories-" + dashboardId + "-" + reportJob.getYear() + ".csv"
+                : "records-" + dashboardId + ".csv";
+        return new ReportFile(path, fileName);
+    }
+
+    /**
+     * Scheduled task failing the unfinished jobs that made no progress within the stale timeout, after touching
+     * the jobs waiting for a thread of this node, and deleting
+     * the expired jobs with their files. Files left behind by deleted jobs are deleted once older than the TTL
+     * and the stale timeout together, when no job can be using them any more.
+     *
+     * @return The number of deleted jobs.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${report.cleanup-interval:600000}")
+    public int cleanupReports() {
+        int failed = jobs.failStale(properties.getStaleTimeout(), reportJobRepository::touchQueued,
+                (before, now) -> reportJobRepository.failUnfinishedBefore(before, now, now.plusNanos(properties.getTtl() * 1_000_000),
+                        "The report stopped making progress"));
+        if (failed > 0) {
+            LOG.warn("Failed {} stale report jobs", failed);
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        List<ReportJob> expired = reportJobRepository.findAllByExpiresAtBefore(now);
+        expired.stream()
+                .map(ReportJob::getFileName)
+                .filter(Objects::nonNull)
+                .forEach(fileName -> delete(directory().resolve(fileName)));
+        reportJobRepository.deleteAll(expired);
+
+        FileTime orphaned = FileTime.fromMillis(System.currentTimeMillis() - properties.getTtl() - properties.getStaleTimeout());
+        Path directory = directory();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "report-*")) {
+                for (Path file : files) {
+                    if (Files.getLastModifiedTime(file).compareTo(orphaned) < 0) {
+                        delete(file);
+                    }
+                }
+            } catch (IOException e) {
+                LOG.warn("Failed to delete orphaned report files in {}", directory, e);
+            }
+        }
+        if (!expired.isEmpty()) {
+            LOG.info("Deleted {} expired report jobs", expired.size());
+        }
+        return expired.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdown();
+    }
+
+    private ReportJob findOwnReportJob(Long dashboardId, Long id) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        return reportJobRepository.findByIdAndDashboardIdAndUserId(id, dashboardId, securityUtils.getCurrentUser().getId())
+                .orElseThrow(() -> new EntityNotFoundException("Report job not found with id: " + id + " for dashboard id: " + dashboardId));
+    }
+
+    private void run(Long jobId) {
+        ReportJob reportJob = start(jobId);
+        if (reportJob == null) {
+            LOG.info("Report job id: {} is no longer queued", jobId);
+            return;
+        }
+        String fileName = "report-" + jobId + "-" + UUID.randomUUID() + ".csv";
+        Path file = directory().resolve(fileName);
+        Path part = directory().resolve(fileName + PART_SUFFIX);
+        try {
+            Files.createDirectories(part.getParent());
+            int rows;
+            try (Writer writer = Files.newBufferedWriter(part, StandardCharsets.UTF_8)) {
+                rows = switch (reportJob.getType()) {
+                    case CATEGORY_YEAR -> writeCategoryYear(reportJob, writer);
+                    case RECORDS_CSV -> writeRecords(reportJob, writer);
+                };
+            }
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+            if (!finish(jobId, EReportJobStatus.COMPLETED, fileName, rows, null)) {
+                delete(file); // The job was failed as stale or deleted with its dashboard meanwhile.
+            }
+        } catch (Exception e) {
+            LOG.error("Report job id: {} failed", jobId, e);
+            delete(part);
+            delete(file);
+            try {
+                finish(jobId, EReportJobStatus.FAILED, null, 0, e.getMessage() != null ? e.getMessage() : e.toString());
+            } catch (RuntimeException finishFailure) {
+                // The job is failed as stale later.
+                LOG.error("Failed to record the failure of report job id: {}", jobId, finishFailure);
+            }
+        }
+    }
+
+    // Monthly totals of every category and type over the year, one row per category and type.
+    private int writeCategoryYear(ReportJob reportJob, Writer writer) throws IOException {
+        LocalDateTime from = LocalDateTime.of(reportJob.getYear(), 1, 1, 0, 0);
+        List<CategoryMonthTotal> totals = financialRecordRepository.findCategoryMonthTotals(reportJob.getDashboardId(), from, from.plusYears(1));
+        writer.write("category,type");
+        for (Month month : Month.values()) {
+            writer.write(',');
+            writer.write(month.getDisplayName(TextStyle.SHORT, Locale.ENGLISH));
+        }
+        writer.write(",total,records\n");
+
+        int rows = 0;
+        int i = 0;
+        while (i < totals.size()) {
+            CategoryMonthTotal first = totals.get(i);
+            BigDecimal[] months = new BigDecimal[12];
+            BigDecimal total = BigDecimal.ZERO;
+            long count = 0;
+            // The totals are ordered by category and type, so the months of a row are adjacent.
+            for (; i < totals.size() && Objects.equals(totals.get(i).categoryId(), first.categoryId())
+                    && totals.get(i).type() == first.type(); i++) {
+                CategoryMonthTotal month = totals.get(i);
+                months[month.month() - 1] = month.total();
+                total = total.add(month.total());
+                count += month.count();
+            }
+            writer.write(csv(first.category()));
+            writer.write(',');
+            writer.write(first.type().name());
+            for (BigDecimal month : months) {
+                writer.write(',');
+                writer.write((month != null ? month : BigDecimal.ZERO).toPlainString());
+            }
+            writer.write(',' + total.toPlainString() + ',' + count + '\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    // All records of the dashboard ordered by date, streamed from a cursor.
+    private int writeRecords(ReportJob reportJob, Writer writer) throws IOException {
+        writer.write("id,date,type,amount,category,description,user\n");
+        int[] rows = new int[1];
+        try {
+            financialRecordRepository.forEachReportRecord(reportJob.getDashboardId(), record -> {
+                try {
+                    writer.write(record.id() + "," + record.date() + "," + record.type().name() + "," + record.amount().toPlainString()
+                            + "," + csv(record.category()) + "," + csv(record.description()) + "," + csv(record.userName()) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (++rows[0] % PROGRESS_INTERVAL == 0) {
+                    progress(reportJob.getId(), rows[0]);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    /**
+     * Formats a text field of a CSV row: fields with separators, quotes or line breaks are quoted, and fields
+     * a spreadsheet would evaluate as a formula are prefixed with an apostrophe.
+     *
+     * @param text The text, or null for an empty field.
+     * @return The field.
+     */
+    static String csv(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        char first = text.charAt(0);
+        String field = first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r' ? "'" + text : text;
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+    // Moves a queued job to RUNNING and returns it, unless it was failed as stale while waiting.
+    private ReportJob start(Long jobId) {
+        return transactionTemplate.execute(status -> reportJobRepository.findById(jobId)
+                .filter(reportJob -> reportJob.getStatus() == EReportJobStatus.QUEUED)
+                .map(reportJob -> {
+                    reportJob.setStatus(EReportJobStatus.RUNNING);
+                    reportJob.setUpdatedAt(LocalDateTime.now());
+                    return reportJob;
+                })
+                .orElse(null));
+    }
+
+    private void progress(Long jobId, int rows) {
+        progressTemplate.executeWithoutResult(status -> reportJobRepository.findById(jobId)
+                .filter(reportJob -> reportJob.getFinishedAt() == null)
+                .ifPresent(reportJob -> {
+                    reportJob.setRowsWritten(rows);
+                    reportJob.setUpdatedAt(LocalDateTime.now());
+                }));
+    }
+
+    // Finishes a job that is not finished yet, returning false if it was finished or deleted meanwhile.
+    private boolean finish(Long jobId, EReportJobStatus status, String fileName, int rows, String error) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(transaction -> reportJobRepository.findById(jobId)
+                .filter(reportJob -> reportJob.getFinishedAt() == null)
+                .map(reportJob -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    reportJob.setStatus(status);
+                    reportJob.setFileName(fileName);
+                    reportJob.setFileSize(fileName != null ? size(directory().resolve(fileName)) : null);
+                    reportJob.setRowsWritten(rows);
+                    reportJob.setError(truncate(error, MAX_ERROR_LENGTH));
+                    reportJob.setUpdatedAt(now);
+                    reportJob.setFinishedAt(now);
+                    reportJob.setExpiresAt(now.plusNanos(properties.getTtl() * 1_000_000));
+                    LOG.info("Report job id: {} {} with {} rows", jobId, status, rows);
+                    return true;
+                })
+                .orElse(false)));
+    }
+
+    private Path directory() {
+        return Path.of(properties.getDirectory());
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
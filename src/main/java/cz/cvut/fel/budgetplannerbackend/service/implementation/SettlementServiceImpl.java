@@ -0,0 +1,133 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.algorithm.PriorityBudgetAllocator;
+import cz.cvut.fel.budgetplannerbackend.algorithm.SettlementPlanner;
+import cz.cvut.fel.budgetplannerbackend.dto.settlement.MemberBalanceDto;
+import cz.cvut.fel.budgetplannerbackend.dto.settlement.SettlementDto;
+import cz.cvut.fel.budgetplannerbackend.dto.settlement.SettlementTransferDto;
+import cz.cvut.fel.budgetplannerbackend.entity.DashboardAccess;
+import cz.cvut.fel.budgetplannerbackend.entity.DashboardRole;
+import cz.cvut.fel.budgetplannerbackend.entity.User;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERole;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardAccessRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRoleRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.UserRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.SettlementService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class settling up the expenses of shared dashboards.
+ * <p>
+ * The expenses paid by every member are read from the dashboard_member_expenses table, which triggers keep
+ * current with every change of the records, so a settlement costs one row per member regardless of the history.
+ * All expenses are shared equally, or in proportion to the members' role weights; a member's balance is what
+ * they paid minus their share, and {@link SettlementPlanner} turns the balances into transfers.
+ */
+@Service
+@RequiredArgsConstructor
+public class SettlementServiceImpl implements SettlementService {
+
+    private final FinancialRecordRepository financialRecordRepository;
+    private final DashboardAccessRepository dashboardAccessRepository;
+    private final DashboardRoleRepository dashboardRoleRepository;
+    private final UserRepository userRepository;
+    private final SecurityUtils securityUtils;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SettlementServiceImpl.class);
+
+    /**
+     * Computes the balances of the members of a dashboard and the transfers settling them.
+     * Former members who paid expenses keep their balance but get no share of the expenses.
+     *
+     * @param dashboardId  The ID of the dashboard.
+     * @param roleWeighted True to share the expenses in proportion to the role weights, false to share them equally.
+     * @return The settlement of the dashboard.
+     * @throws AccessDeniedException If the user does not have viewer access to the dashboard.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public SettlementDto findSettlement(Long dashboardId, boolean roleWeighted) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        LOG.info("Settling up {} expenses for dashboard id: {}", roleWeighted ? "role-weighted" : "equally shared", dashboardId);
+
+        Map<Long, Long> paid = new HashMap<>(); // In cents, by user ID.
+        for (Object[] row : financialRecordRepository.findMemberExpenses(dashboardId)) {
+            paid.put(((Number) row[0]).longValue(), ((BigDecimal) row[1]).movePointRight(2).longValueExact());
+        }
+        Map<Long, ERole> roles = new HashMap<>();
+        if (roleWeighted) {
+            for (DashboardRole role : dashboardRoleRepository.findAllByDashboardId(dashboardId)) {
+                roles.put(role.getUser().getId(), role.getRole().getName());
+            }
+        }
+
+        // Current members share the expenses; former members only appear if they paid some.
+        Map<Long, User> members = new LinkedHashMap<>();
+        for (DashboardAccess access : dashboardAccessRepository.findAllWithUserByDashboardId(dashboardId)) {
+            members.put(access.getUser().getId(), access.getUser());
+        }
+        int memberCount = members.size();
+        List<Long> formerMemberIds = paid.keySet().stream().filter(userId -> !members.containsKey(userId)).sorted().toList();
+        userRepository.findAllById(formerMemberIds).forEach(user -> members.put(user.getId(), user));
+
+        List<User> users = new ArrayList<>(members.values());
+        int n = users.size();
+        long totalPaid = 0;
+        double[] weights = new double[n];
+        long[] balances = new long[n];
+        for (int i = 0; i < n; i++) {
+            Long userId = users.get(i).getId();
+            balances[i] = paid.getOrDefault(userId, 0L);
+            totalPaid += balances[i];
+            if (i < memberCount) {
+                weights[i] = roleWeighted ? roles.getOrDefault(userId, ERole.NONE).getWeight() : 1;
+            }
+        }
+        boolean shared = memberCount > 0 && totalPaid > 0; // Otherwise there is nobody to share with, or nothing to share.
+        long[] shares = shared ? shares(totalPaid, weights, memberCount) : new long[n];
+        for (int i = 0; i < n; i++) {
+            balances[i] -= shares[i];
+        }
+
+        List<MemberBalanceDto> memberBalances = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            User user = users.get(i);
+            memberBalances.add(new MemberBalanceDto(user.getId(), user.getUserName(), weights[i],
+                    toAmount(balances[i] + shares[i]), toAmount(shares[i]), toAmount(balances[i])));
+        }
+        List<SettlementTransferDto> transfers = new ArrayList<>();
+        for (SettlementPlanner.Transfer transfer : shared ? SettlementPlanner.settle(balances) : List.<SettlementPlanner.Transfer>of()) {
+            User from = users.get(transfer.from());
+            User to = users.get(transfer.to());
+            transfers.add(new SettlementTransferDto(from.getId(), from.getUserName(), to.getId(), to.getUserName(), toAmount(transfer.amount())));
+        }
+        LOG.info("Settled {} members of dashboard id: {} with {} transfers", n, dashboardId, transfers.size());
+        return new SettlementDto(roleWeighted, toAmount(totalPaid), memberBalances, transfers);
+    }
+
+    // Splits the total in proportion to the weights of the current members, rounded to cents adding up to the total.
+    private static long[] shares(long totalPaid, double[] weights, int memberCount) {
+        long[] memberShares = PriorityBudgetAllocator.allocate(totalPaid, Arrays.copyOf(weights, memberCount), new long[memberCount]);
+        return Arrays.copyOf(memberShares, weights.length);
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
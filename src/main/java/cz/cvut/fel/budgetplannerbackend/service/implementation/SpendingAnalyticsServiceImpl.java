@@ -0,0 +1,168 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.algorithm.TDigest;
+import cz.cvut.fel.budgetplannerbackend.dto.analytics.SpendingBreakdownDto;
+import cz.cvut.fel.budgetplannerbackend.dto.analytics.SpendingStatisticsDto;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.repository.ExpenseSketchRepository.ExpenseSketch;
+import cz.cvut.fel.budgetplannerbackend.repository.ExpenseSketchRepository.SketchMonth;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.SpendingAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Service class for the expense statistics of dashboards: median, 90th percentile and maximum expense
+ * per category and per member.
+ * <p>
+ * The expenses of every (month, category, member) are summarized in a mergeable t-digest sketch stored in the
+ * database, so a range of months is answered by merging the stored sketches instead of reading the records.
+ * A trigger bumps the generation of a month whenever its expenses change; sketches of stale months are rebuilt
+ * in one streamed pass over the records of those months and stored for the next request.
+ */
+@Service
+@RequiredArgsConstructor
+public class SpendingAnalyticsServiceImpl implements SpendingAnalyticsService {
+
+    public static final int MAX_MONTHS = 240;
+
+    private final FinancialRecordRepository financialRecordRepository;
+    private final SecurityUtils securityUtils;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpendingAnalyticsServiceImpl.class);
+
+    /**
+     * Computes the expense statistics of a dashboard per category and per member.
+     * Runs in a read-write transaction, since sketches of changed months are rebuilt and stored.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param from        The first month, inclusive.
+     * @param to          The last month, inclusive.
+     * @return The statistics per category and per member.
+     * @throws IllegalArgumentException If the range is empty or longer than {@link #MAX_MONTHS} months.
+     */
+    @Override
+    @Transactional
+    public SpendingBreakdownDto findSpendingBreakdown(Long dashboardId, YearMonth from, YearMonth to) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("The first month must not be after the last one");
+        }
+        if (ChronoUnit.MONTHS.between(from, to) >= MAX_MONTHS) {
+            throw new IllegalArgumentException("The range must not be longer than " + MAX_MONTHS + " months");
+        }
+        LOG.info("Computing spending breakdown from {} to {} for dashboard id: {}", from, to, dashboardId);
+        LocalDate start = from.atDay(1);
+        LocalDate end = to.plusMonths(1).atDay(1);
+
+        // The generations are read before the records, so sketches built from them are never newer than they claim.
+        Map<LocalDate, SketchMonth> states = new HashMap<>();
+        financialRecordRepository.findSketchMonths(dashboardId, start, end).forEach(state -> states.put(state.month(), state));
+        List<LocalDate> valid = new ArrayList<>();
+        TreeMap<LocalDate, Long> stale = new TreeMap<>();
+        for (LocalDate month = start; month.isBefore(end); month = month.plusMonths(1)) {
+            SketchMonth state = states.get(month);
+            long generation = state == null ? 0 : state.generation();
+            if (state != null && Objects.equals(state.builtGeneration(), generation)) {
+                valid.add(month);
+            } else {
+                stale.put(month, generation);
+            }
+        }
+        List<ExpenseSketch> sketches = new ArrayList<>(financialRecordRepository.findSketches(dashboardId, valid));
+        if (!stale.isEmpty()) {
+            sketches.addAll(rebuild(dashboardId, stale));
+        }
+
+        return new SpendingBreakdownDto(from, to,
+                statistics(sketches, ExpenseSketch::categoryId, (key, summary) -> summary.toDto(key, null)),
+                statistics(sketches, ExpenseSketch::userId, (key, summary) -> summary.toDto(null, key)));
+    }
+
+    private List<ExpenseSketch> rebuild(Long dashboardId, TreeMap<LocalDate, Long> stale) {
+        LocalDate first = stale.firstKey();
+        LocalDate last = stale.lastKey();
+        LOG.info("Rebuilding {} stale expense sketch months for dashboard id: {}", stale.size(), dashboardId);
+        Map<LocalDate, Map<SketchKey, Summary>> summaries = new TreeMap<>();
+        stale.keySet().forEach(month -> summaries.put(month, new HashMap<>()));
+        financialRecordRepository.forEachExpense(dashboardId, first, last.plusMonths(1), expense -> {
+            Map<SketchKey, Summary> month = summaries.get(expense.month());
+            if (month != null) { // Months between the stale ones may have valid sketches.
+                month.computeIfAbsent(new SketchKey(expense.categoryId(), expense.userId()), key -> new Summary()).add(expense.amount());
+            }
+        });
+
+        List<ExpenseSketch> sketches = new ArrayList<>();
+        summaries.forEach((month, monthSummaries) -> {
+            List<ExpenseSketch> monthSketches = new ArrayList<>();
+            monthSummaries.forEach((key, summary) -> monthSketches.add(new ExpenseSketch(month, key.categoryId(), key.userId(),
+                    summary.count, summary.max, summary.digest.toBytes())));
+            if (financialRecordRepository.claimSketchMonth(dashboardId, month, stale.get(month))) {
+                financialRecordRepository.replaceSketches(dashboardId, month, monthSketches);
+            }
+            sketches.addAll(monthSketches);
+        });
+        return sketches;
+    }
+
+    private static List<SpendingStatisticsDto> statistics(List<ExpenseSketch> sketches, Function<ExpenseSketch, Long> key,
+                                                          BiFunction<Long, Summary, SpendingStatisticsDto> toDto) {
+        Map<Long, Summary> summaries = new HashMap<>();
+        for (ExpenseSketch sketch : sketches) {
+            summaries.computeIfAbsent(key.apply(sketch), k -> new Summary()).add(sketch);
+        }
+        return summaries.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(entry -> toDto.apply(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private record SketchKey(Long categoryId, Long userId) {
+    }
+
+    // A digest with the exact count and maximum, which the digest only knows as doubles.
+    private static final class Summary {
+        private final TDigest digest = new TDigest();
+        private long count;
+        private BigDecimal max;
+
+        private void add(BigDecimal amount) {
+            digest.add(amount.doubleValue());
+            count++;
+            max = max == null || amount.compareTo(max) > 0 ? amount : max;
+        }
+
+        private void add(ExpenseSketch sketch) {
+            digest.add(TDigest.fromBytes(sketch.digest()));
+            count += sketch.recordCount();
+            max = max == null || sketch.maxAmount().compareTo(max) > 0 ? sketch.maxAmount() : max;
+        }
+
+        private SpendingStatisticsDto toDto(Long categoryId, Long userId) {
+            return new SpendingStatisticsDto(categoryId, userId, count, amount(digest.quantile(0.5)), amount(digest.quantile(0.9)), max);
+        }
+
+        private static BigDecimal amount(double value) {
+            return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.StatementImportProperties;
+import cz.cvut.fel.budgetplannerbackend.config.StatementImportProperties.Profile;
+import cz.cvut.fel.budgetplannerbackend.dto.StatementImportDto;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.StatementImport;
+import cz.cvut.fel.budgetplannerbackend.entity.User;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EStatementImportStatus;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.mapper.StatementImportMapper;
+import cz.cvut.fel.budgetplannerbackend.metrics.BusinessMetrics;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.StatementImportRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.UserRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.AnomalyDetectionService;
+import cz.cvut.fel.budgetplannerbackend.service.CategorizationService;
+import cz.cvut.fel.budgetplannerbackend.service.DuplicateDetectionService;
+import cz.cvut.fel.budgetplannerbackend.service.StatementImportService;
+import cz.cvut.fel.budgetplannerbackend.statement.StatementEntry;
+import cz.cvut.fel.budgetplannerbackend.statement.StatementFormatException;
+import cz.cvut.fel.budgetplannerbackend.statement.StatementParser;
+import cz.cvut.fel.budgetplannerbackend.statement.StatementParsers;
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static cz.cvut.fel.budgetplannerbackend.service.implementation.BackgroundJobs.MAX_ERROR_LENGTH;
+import static cz.cvut.fel.budgetplannerbackend.service.implementation.BackgroundJobs.delete;
+import static cz.cvut.fel.budgetplannerbackend.service.implementation.BackgroundJobs.truncate;
+
+/**
+ * Service importing bank statement files into the records of a dashboard in the background.
+ * <p>
+ * An uploaded statement is spooled to a temporary file and queued for one of the import threads. There, the
+ * statement is parsed on a parsing thread by the pull parser of its bank profile, reading the file through a
+ * buffered channel, while the import thread writes the parsed batches, each in a transaction of its own. The two
+ * are connected by a bounded queue: parsing runs ahead of writing by at most queue-capacity batches, so memory
+ * stays bounded whatever the size of the file. Imported records are categorized, checked for duplicates and scored
+ * like created ones, with the rules and fingerprints queried once per batch. Records of the same statement are never
+ * duplicates of each other, whichever batches they are in, since they are genuine repeated transactions. With
+ * skipDuplicates, records duplicating a record that existed before the import are skipped, so overlapping statements
+ * can be imported again. Every batch also updates the progress stored with the import.
+ */
+@Service
+public class StatementImportServiceImpl implements StatementImportService {
+
+    // How often the import thread checks whether parsing failed while it waits for a batch.
+    private static final long POLL_INTERVAL = 200;
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+
+    private final StatementImportRepository statementImportRepository;
+    private final StatementImportMapper statementImportMapper;
+    private final FinancialRecordRepository financialRecordRepository;
+    private final DashboardRepository dashboardRepository;
+    private final UserRepository userRepository;
+    private final CategorizationService categorizationService;
+    private final DuplicateDetectionService duplicateDetectionService;
+    private final AnomalyDetectionService anomalyDetectionService;
+    private final DashboardChangeTracker dashboardChangeTracker;
+    private final BusinessMetrics businessMetrics;
+    private final SecurityUtils securityUtils;
+    private final StatementImportProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final BackgroundJobs importJobs; // Writes the records; the queue of waiting imports is bounded.
+    private final ExecutorService parseExecutor; // Parses the statements, one thread per import thread.
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatementImportServiceImpl.class);
+
+    @Autowired
+    public StatementImportServiceImpl(StatementImportRepository statementImportRepository, StatementImportMapper statementImportMapper,
+                                      FinancialRecordRepository financialRecordRepository, DashboardRepository dashboardRepository,
+                                      UserRepository userRepository, CategorizationService categorizationService,
+                                      DuplicateDetectionService duplicateDetectionService, AnomalyDetectionService anomalyDetectionService,
+                                      DashboardChangeTracker dashboardChangeTracker, BusinessMetrics businessMetrics,
+                                      SecurityUtils securityUtils, StatementImportProperties properties,
+                                      PlatformTransactionManager transactionManager) {
+        this(statementImportRepository, statementImportMapper, financialRecordRepository, dashboardRepository, userRepository,
+                categorizationService, duplicateDetectionService, anomalyDetectionService, dashboardChangeTracker, businessMetrics,
+                securityUtils, properties, transactionManager,
+                BackgroundJobs.boundedExecutor(properties.getThreads(), properties.getMaxQueuedImports(), "statement-import-"),
+                Executors.newFixedThreadPool(Math.max(1, properties.getThreads()), BackgroundJobs.threadFactory("statement-parse-")));
+    }
+
+    StatementImportServiceImpl(StatementImportRepository statementImportRepository, StatementImportMapper statementImportMapper,
+                               FinancialRecordRepository financialRecordRepository, DashboardRepository dashboardRepository,
+                               UserRepository userRepository, CategorizationService categorizationService,
+                               DuplicateDetectionService duplicateDetectionService, AnomalyDetectionService anomalyDetectionService,
+                               DashboardChangeTracker dashboardChangeTracker, BusinessMetrics businessMetrics,
+                               SecurityUtils securityUtils, StatementImportProperties properties,
+                               PlatformTransactionManager transactionManager, ExecutorService importExecutor, ExecutorService parseExecutor) {
+        this.statementImportRepository = statementImportRepository;
+        this.statementImportMapper = statementImportMapper;
+        this.financialRecordRepository = financialRecordRepository;
+        this.dashboardRepository = dashboardRepository;
+        this.userRepository = userRepository;
+        this.categorizationService = categorizationService;
+        this.duplicateDetectionService = duplicateDetectionService;
+        this.anomalyDetectionService = anomalyDetectionService;
+        this.dashboardChangeTracker = dashboardChangeTracker;
+        this.businessMetrics = businessMetrics;
+        this.securityUtils = securityUtils;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importJobs = new BackgroundJobs(importExecutor);
+        this.parseExecutor = parseExecutor;
+    }
+
+    /**
+     * Starts importing a statement into the records of a dashboard. The content is stored before this method
+     * returns; the records are imported in the background, attributed to the current user.
+     *
+     * @param dashboardId    The ID of the dashboard.
+     * @param profile        The name of the bank profile describing the statement.
+     * @param fileName       The name of the uploaded file, or null.
+     * @param content        The content of the statement.
+     * @param skipDuplicates True to skip records duplicating records that existed before the import, false to flag them.
+     * @return The queued import.
+     * @throws AccessDeniedException    If the user does not have editor access to the dashboard.
+     * @throws IllegalArgumentException If the profile is unknown or the statement is empty.
+     * @throws IllegalStateException    If too many imports are waiting already.
+     * @throws UncheckedIOException     If the statement cannot be stored.
+     */
+    @Override
+    public StatementImportDto startImport(Long dashboardId, String profile, String fileName, InputStream content, boolean skipDuplicates) {
+        // Not transactional, so that the import is committed before a thread picks it up.
+        Long userId = transactionTemplate.execute(status -> {
+            securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+            return securityUtils.getCurrentUser().getId();
+        });
+        Profile bankProfile = properties.getProfiles().get(profile);
+        if (bankProfile == null) {
+            throw new IllegalArgumentException("Unknown statement profile: " + profile);
+        }
+        LOG.info("Importing statement {} with profile {} into dashboard id: {}", fileName, profile, dashboardId);
+
+        Path file = store(content);
+        StatementImport statementImport;
+        try {
+            long size = Files.size(file);
+            if (size == 0) {
+                throw new IllegalArgumentException("The statement is empty");
+            }
+            LocalDateTime now = LocalDateTime.now();
+            statementImport = statementImportRepository.save(new StatementImport(null, dashboardId, userId, profile,
+                    fileName != null && fileName.length() > 255 ? fileName.substring(0, 255) : fileName,
+                    EStatementImportStatus.QUEUED, skipDuplicates, size, 0, 0, 0, 0, 0, null, now, now, null));
+        } catch (IOException | RuntimeException e) {
+            delete(file);
+            throw e instanceof IOException ioException ? new UncheckedIOException(ioException) : (RuntimeException) e;
+        }
+
+        Long importId = statementImport.getId();
+        try {
+            importJobs.execute(importId, file, () -> run(importId, bankProfile, file));
+        } catch (RejectedExecutionException e) {
+            delete(file);
+            finish(importId, EStatementImportStatus.FAILED, "Too many statement imports are waiting");
+            throw new IllegalStateException("Too many statement imports are waiting", e);
+        }
+        LOG.info("Queued statement import id: {} of {} bytes for dashboard id: {}", importId, statementImport.getBytesTotal(), dashboardId);
+        return statementImportMapper.toDto(statementImport);
+    }
+
+    /**
+     * Retrieves an import of a dashboard with its progress.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param id          The ID of the import.
+     * @return The import DTO.
+     * @throws EntityNotFoundException If the import is not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public StatementImportDto findImport(Long dashboardId, Long id) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        return statementImportRepository.findByIdAndDashboardId(id, dashboardId)
+                .map(statementImportMapper::toDto)
+                .orElseThrow(() -> new EntityNotFoundException("Statement import not found with id: " + id + " for dashboard id: " + dashboardId));
+    }
+
+    /**
+     * Retrieves the 50 latest imports of a dashboard, newest first.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return A list of import DTOs.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<StatementImportDto> findImports(Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        return statementImportRepository.findTop50ByDashboardIdOrderByCreatedAtDesc(dashboardId).stream()
+                .map(statementImportMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * @return The names of the configured bank profiles, sorted.
+     */
+    @Override
+    public List<String> findProfiles() {
+        return properties.getProfiles().keySet().stream().sorted().toList();
+    }
+
+    /**
+     * Scheduled task failing the unfinished imports that made no progress within the stale timeout,
+     * e.g. because the node processing them stopped. Imports waiting for a thread of this node are
+     * touched first, since they make no progress while the imports before them run.
+     *
+     * @return The number of failed imports.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${statement-import.stale-check-interval:60000}")
+    public int failStaleImports() {
+        int failed = importJobs.failStale(properties.getStaleTimeout(), statementImportRepository::touchQueued,
+                (before, now) -> statementImportRepository.failUnfinishedBefore(before, now, "The import stopped making progress"));
+        if (failed > 0) {
+            LOG.warn("Failed {} stale statement imports", failed);
+        }
+        return failed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importJobs.shutdown();
+        parseExecutor.shutdownNow();
+    }
+
+    private void run(Long importId, Profile profile, Path file) {
+        try {
+            if (!start(importId)) {
+                LOG.info("Statement import id: {} is no longer queued", importId);
+                return;
+            }
+            process(importId, profile, file);
+            finish(importId, EStatementImportStatus.COMPLETED, null);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            LOG.error("Statement import id: {} failed", importId, cause);
+            try {
+                finish(importId, EStatementImportStatus.FAILED, cause.getMessage() != null ? cause.getMessage() : cause.toString());
+            } catch (RuntimeException finishFailure) {
+                // The import is failed as stale later.
+                LOG.error("Failed to record the failure of statement import id: {}", importId, finishFailure);
+            }
+        } finally {
+            delete(file);
+        }
+    }
+
+    // Parses the file on a parsing thread and writes the parsed batches on this one.
+    private void process(Long importId, Profile profile, Path file) throws Exception {
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        Roaring64Bitmap importedIds = new Roaring64Bitmap();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Future<?> parsing = parseExecutor.submit(() -> {
+                parse(channel, profile, queue);
+                return null;
+            });
+            try {
+                while (true) {
+                    Batch batch = queue.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                    if (batch == null) {
+                        if (parsing.isDone() && queue.isEmpty()) {
+                            parsing.get(); // Throws the failure of parsing.
+                            throw new IllegalStateException("Parsing ended without the last batch");
+                        }
+                        continue;
+                    }
+                    transactionTemplate.executeWithoutResult(status -> write(importId, batch, importedIds));
+                    if (batch.last()) {
+                        break;
+                    }
+                }
+            } finally {
+                parsing.cancel(true); // Unblocks parsing waiting for space in the queue if writing failed.
+            }
+        }
+    }
+
+    private void parse(FileChannel channel, Profile profile, BlockingQueue<Batch> queue) throws IOException, InterruptedException {
+        StatementParser parser = StatementParsers.open(channel, profile, properties.getBufferSize());
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<StatementEntry> entries = new ArrayList<>(batchSize);
+        int invalid = 0;
+        int totalInvalid = 0;
+        String firstError = null;
+        while (true) {
+            StatementEntry entry;
+            try {
+                entry = parser.next();
+            } catch (StatementFormatException e) {
+                invalid++;
+                firstError = firstError != null ? firstError : e.getMessage();
+                if (++totalInvalid > properties.getMaxInvalidRecords()) {
+                    throw new IOException("Too many invalid entries, the first one: " + firstError);
+                }
+                continue;
+            }
+            if (entry == null) {
+                break;
+            }
+            entries.add(entry);
+            if (entries.size() == batchSize) {
+                queue.put(new Batch(entries, channel.position(), invalid, firstError, false));
+                entries = new ArrayList<>(batchSize);
+                invalid = 0;
+            }
+        }
+        queue.put(new Batch(entries, channel.size(), invalid, firstError, true));
+    }
+
+    private void write(Long importId, Batch batch, Roaring64Bitmap importedIds) {
+        StatementImport statementImport = statementImportRepository.findById(importId)
+                .orElseThrow(() -> new EntityNotFoundException("Statement import not found with id: " + importId));
+        if (statementImport.getStatus() != EStatementImportStatus.RUNNING) {
+            throw new IllegalStateException("The import is no longer running");
+        }
+        Long dashboardId = statementImport.getDashboardId();
+        Dashboard dashboard = dashboardRepository.findById(dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("Dashboard not found with id: " + dashboardId));
+        User user = userRepository.getReferenceById(statementImport.getUserId());
+
+        List<FinancialRecord> parsed = batch.entries().stream().map(entry -> toRecord(dashboard, user, entry)).toList();
+        categorizationService.categorizeAll(parsed);
+        // Records of the same batch are not compared either, so the flags do not depend on the batch boundaries.
+        duplicateDetectionService.checkDuplicates(parsed, importedIds::contains);
+        List<FinancialRecord> records = new ArrayList<>(parsed.size());
+        LocalDateTime earliest = null;
+        int flagged = 0;
+        int skipped = 0;
+        for (FinancialRecord financialRecord : parsed) {
+            if (financialRecord.getDuplicateOfId() != null) {
+                if (statementImport.isSkipDuplicates()) {
+                    skipped++;
+                    continue;
+                }
+                flagged++;
+            }
+            anomalyDetectionService.scoreExpense(financialRecord);
+            records.add(financialRecord);
+            earliest = earliest == null || financialRecord.getDate().isBefore(earliest) ? financialRecord.getDate() : earliest;
+        }
+        financialRecordRepository.saveAll(records); // Sent in JDBC batches.
+        records.forEach(financialRecord -> importedIds.addLong(financialRecord.getId()));
+        if (!records.isEmpty()) {
+            dashboardChangeTracker.markChanged(dashboardId);
+            dashboardChangeTracker.markRecordDate(dashboardId, earliest);
+        }
+        records.forEach(financialRecord -> businessMetrics.recordCreated(financialRecord.getType()));
+
+        statementImport.setBytesRead(batch.position());
+        statementImport.setRecordsImported(statementImport.getRecordsImported() + records.size());
+        statementImport.setRecordsInvalid(statementImport.getRecordsInvalid() + batch.invalid());
+        statementImport.setDuplicatesFlagged(statementImport.getDuplicatesFlagged() + flagged);
+        statementImport.setDuplicatesSkipped(statementImport.getDuplicatesSkipped() + skipped);
+        if (statementImport.getError() == null && batch.firstError() != null) {
+            statementImport.setError(truncate(batch.firstError(), MAX_ERROR_LENGTH));
+        }
+        statementImport.setUpdatedAt(LocalDateTime.now());
+        LOG.debug("Statement import id: {} wrote {} records, skipped {} duplicates", importId, records.size(), skipped);
+    }
+
+    private static FinancialRecord toRecord(Dashboard dashboard, User user, StatementEntry entry) {
+        FinancialRecord financialRecord = new FinancialRecord();
+        financialRecord.setDashboard(dashboard);
+        financialRecord.setUser(user);
+        financialRecord.setAmount(entry.amount().abs());
+        financialRecord.setType(entry.amount().signum() < 0 ? ERecordType.EXPENSE : ERecordType.INCOME);
+        financialRecord.setDate(entry.date());
+        financialRecord.setDescription(entry.description().isEmpty() ? null : truncate(entry.description(), MAX_DESCRIPTION_LENGTH));
+        return financialRecord;
+    }
+
+    // Moves a queued import to RUNNING, unless it was failed as stale while waiting.
+    private boolean start(Long importId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> statementImportRepository.findById(importId)
+                .filter(statementImport -> statementImport.getStatus() == EStatementImportStatus.QUEUED)
+                .map(statementImport -> {
+                    statementImport.setStatus(EStatementImportStatus.RUNNING);
+                    statementImport.setUpdatedAt(LocalDateTime.now());
+                    return true;
+                })
+                .orElse(false)));
+    }
+
+    // Finishes an import that is not finished yet; imports of deleted dashboards are gone.
+    private void finish(Long importId, EStatementImportStatus status, String error) {
+        transactionTemplate.executeWithoutResult(transaction -> statementImportRepository.findById(importId)
+                .filter(statementImport -> statementImport.getFinishedAt() == null)
+                .ifPresent(statementImport -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    statementImport.setStatus(status);
+                    if (status == EStatementImportStatus.COMPLETED) {
+                        statementImport.setBytesRead(statementImport.getBytesTotal());
+                    } else {
+                        statementImport.setError(truncate(error, MAX_ERROR_LENGTH));
+                    }
+                    statementImport.setUpdatedAt(now);
+                    statementImport.setFinishedAt(now);
+                    LOG.info("Statement import id: {} {} with {} records imported", importId, status, statementImport.getRecordsImported());
+                }));
+    }
+
+    private static Path store(InputStream content) {
+        try {
+            Path file = Files.createTempFile("statement-import-", ".tmp");
+            try {
+                Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+                return file;
+            } catch (IOException e) {
+                delete(file);
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store the statement", e);
+        }
+    }
+
+    /**
+     * @param entries    The parsed entries, possibly none.
+     * @param position   The number of bytes of the file read when the batch was complete.
+     * @param invalid    The number of invalid entries skipped since the previous batch.
+     * @param firstError The message of the first invalid entry of the statement so far, or null.
+     * @param last       True for the last batch of the statement.
+     */
+    private record Batch(List<StatementEntry> entries, long position, int invalid, String firstError, boolean last) {
+    }
+}
@@ -0,0 +1,315 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.algorithm.TagBitmapIndex;
+import cz.cvut.fel.budgetplannerbackend.config.TagProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.dto.TagDto;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.Tag;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
+import cz.cvut.fel.budgetplannerbackend.events.FinancialRecordsChangedEvent;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.mapper.FinancialRecordMapper;
+import cz.cvut.fel.budgetplannerbackend.mapper.TagMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.TagRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.TagService;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for managing the tag dictionary of dashboards and filtering financial records by tags.
+ * <p>
+ * Tag filters are answered from a {@link TagBitmapIndex} per dashboard, kept in memory for the most recently
+ * filtered dashboards. An index is tagged with the dashboard version it reflects: committed record changes are
+ * applied incrementally when they directly follow that version, and any gap (e.g. a change made on another node)
+ * makes the next filter rebuild the index from the database.
+ */
+@Service
+public class TagServiceImpl implements TagService {
+
+    public static final int MAX_TAG_LENGTH = 64;
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final TagRepository tagRepository;
+    private final FinancialRecordRepository financialRecordRepository;
+    private final DashboardRepository dashboardRepository;
+    private final TagMapper tagMapper;
+    private final FinancialRecordMapper financialRecordMapper;
+    private final SecurityUtils securityUtils;
+    private final DashboardChangeTracker dashboardChangeTracker;
+    private final TagProperties properties;
+    private final Map<Long, VersionedIndex> indexes;
+
+    private static final Logger LOG = LoggerFactory.getLogger(TagServiceImpl.class);
+
+    public TagServiceImpl(TagRepository tagRepository, FinancialRecordRepository financialRecordRepository,
+                          DashboardRepository dashboardRepository, TagMapper tagMapper,
+                          FinancialRecordMapper financialRecordMapper, SecurityUtils securityUtils,
+                          DashboardChangeTracker dashboardChangeTracker, TagProperties properties) {
+        this.tagRepository = tagRepository;
+        this.financialRecordRepository = financialRecordRepository;
+        this.dashboardRepository = dashboardRepository;
+        this.tagMapper = tagMapper;
+        this.financialRecordMapper = financialRecordMapper;
+        this.securityUtils = securityUtils;
+        this.dashboardChangeTracker = dashboardChangeTracker;
+        this.properties = properties;
+        int cacheSize = properties.getBitmapCacheSize();
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, VersionedIndex> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the tag dictionary of a dashboard.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @return The tags of the dashboard ordered by name.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TagDto> findAllTagsByDashboardId(Long dashboardId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        LOG.info("Fetching all tags for dashboard id: {}", dashboardId);
+        return tagRepository.findAllByDashboardIdOrderByName(dashboardId).stream()
+                .map(tagMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Deletes a tag from the dictionary of a dashboard and from all records having it.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param tagId       The ID of the tag.
+     * @throws EntityNotFoundException If the tag is not found in the dashboard.
+     */
+    @Override
+    @Transactional
+    public void deleteTag(Long dashboardId, Long tagId) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        LOG.info("Deleting tag with id: {} for dashboard id: {}", tagId, dashboardId);
+        Tag tag = tagRepository.findByIdAndDashboardId(tagId, dashboardId)
+                .orElseThrow(() -> new EntityNotFoundException("Tag", tagId));
+        // The assignments are removed by the database, so the affected records are reported explicitly.
+        tagRepository.findRecordIdsByTagId(tagId)
+                .forEach(recordId -> dashboardChangeTracker.markUpserted(ESyncEntityType.FINANCIAL_RECORD, recordId, dashboardId));
+        tagRepository.delete(tag);
+        dashboardChangeTracker.markChanged(dashboardId);
+    }
+
+    /**
+     * Finds the financial records of a dashboard having all tags of {@code all}, at least one tag of {@code any}
+     * and none of the tags of {@code none}. Empty or null sets do not restrict the result.
+     *
+     * @param dashboardId The ID of the dashboard.
+     * @param all         The names of the tags a record must all have.
+     * @param any         The names of the tags a record must have at least one of.
+     * @param none        The names of the tags a record must not have.
+     * @return The matching financial records, newest first.
+     * @throws IllegalArgumentException If no tag is given at all.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<FinancialRecordDto> filterFinancialRecordsByTags(Long dashboardId, Set<String> all, Set<String> any, Set<String> none) {
+        securityUtils.checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        Set<String> allNames = normalize(all);
+        Set<String> anyNames = normalize(any);
+        Set<String> noneNames = normalize(none);
+        if (allNames.isEmpty() && anyNames.isEmpty() && noneNames.isEmpty()) {
+            throw new IllegalArgumentException("At least one tag must be given");
+        }
+        LOG.info("Filtering financial records of dashboard id: {} by tags", dashboardId);
+
+        Set<String> names = new HashSet<>(allNames);
+        names.addAll(anyNames);
+        names.addAll(noneNames);
+        Map<String, Long> tagIds = tagRepository.findAllByDashboardIdAndNameIn(dashboardId, names).stream()
+                .collect(Collectors.toMap(Tag::getName, Tag::getId));
+        List<Long> anyIds = ids(anyNames, tagIds);
+        if (!tagIds.keySet().containsAll(allNames) || (!anyNames.isEmpty() && anyIds.isEmpty())) {
+            return List.of(); // A required tag does not exist.
+        }
+
+        Roaring64Bitmap matches = index(dashboardId).filter(ids(allNames, tagIds), anyIds, ids(noneNames, tagIds));
+        List<FinancialRecord> records = new ArrayList<>((int) matches.getLongCardinality());
+        long[] recordIds = matches.toArray();
+        for (int from = 0; from < recordIds.length; from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = new ArrayList<>(LOAD_CHUNK_SIZE);
+            for (int i = from; i < Math.min(recordIds.length, from + LOAD_CHUNK_SIZE); i++) {
+                chunk.add(recordIds[i]);
+            }
+            records.addAll(financialRecordRepository.findAllByIdInAndDashboardId(chunk, dashboardId));
+        }
+        LOG.info("Found {} financial records for dashboard id: {}", records.size(), dashboardId);
+        return records.stream()
+                .sorted(Comparator.comparing(FinancialRecord::getDate, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(FinancialRecord::getId, Comparator.reverseOrder()))
+                .map(financialRecordMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Looks up tags of a dashboard by name, adding the missing ones to its dictionary.
+     *
+     * @param dashboard The dashboard.
+     * @param names     The names of the tags; they are trimmed and lowercased.
+     * @return The tags.
+     * @throws IllegalArgumentException If a name is blank or too long, or there are too many tags.
+     */
+    @Override
+    @Transactional
+    public Set<Tag> resolveTags(Dashboard dashboard, Set<String> names) {
+        Set<String> normalized = normalize(names);
+        if (normalized.size() > properties.getMaxTagsPerRecord()) {
+            throw new IllegalArgumentException("A record can have at most " + properties.getMaxTagsPerRecord() + " tags");
+        }
+        if (normalized.isEmpty()) {
+            return new HashSet<>();
+        }
+        Map<String, Tag> tags = tagRepository.findAllByDashboardIdAndNameIn(dashboard.getId(), normalized).stream()
+                .collect(Collectors.toMap(Tag::getName, Function.identity()));
+        for (String name : normalized) {
+            if (!tags.containsKey(name)) {
+                LOG.info("Adding tag {} to dashboard id: {}", name, dashboard.getId());
+                tags.put(name, tagRepository.save(new Tag(null, name, dashboard)));
+            }
+        }
+        return new HashSet<>(tags.values());
+    }
+
+    /**
+     * Applies committed record changes to the cached index of their dashboard.
+     *
+     * @param event The committed record changes.
+     */
+    @EventListener
+    public void onFinancialRecordsChanged(FinancialRecordsChangedEvent event) {
+        VersionedIndex cached;
+        synchronized (indexes) {
+            cached = indexes.get(event.dashboardId());
+        }
+        if (cached == null || event.token() == null) {
+            return;
+        }
+        synchronized (cached) {
+            if (cached.version >= event.token()) {
+                return; // The index was built after this change.
+            }
+            if (cached.version != event.token() - 1) {
+                evict(event.dashboardId(), cached); // Another change was missed; rebuild on the next filter.
+                return;
+            }
+            try {
+                Map<Long, List<Long>> assignments = assignments(tagRepository.findTagAssignmentsByRecordIds(event.recordIds()));
+                for (Long recordId : event.recordIds()) {
+                    List<Long> tagIds = assignments.get(recordId);
+                    if (tagIds != null) {
+                        cached.index.put(recordId, tagIds);
+                    } else {
+                        cached.index.remove(recordId);
+                    }
+                }
+                cached.version = event.token();
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to update tag index of dashboard id: {}, dropping it", event.dashboardId(), e);
+                evict(event.dashboardId(), cached);
+            }
+        }
+    }
+
+    private TagBitmapIndex index(Long dashboardId) {
+        long version = dashboardRepository.findVersion(dashboardId).orElse(0L);
+        VersionedIndex cached;
+        synchronized (indexes) {
+            cached = indexes.get(dashboardId);
+        }
+        if (cached != null) {
+            synchronized (cached) {
+                // A newer index is fine as well: it was built from data at least as recent as the version read here.
+                if (cached.version >= version) {
+                    return cached.index;
+                }
+            }
+        }
+        // The version is read before the assignments, so the index is never newer than its version claims.
+        TagBitmapIndex index = new TagBitmapIndex();
+        assignments(tagRepository.findTagAssignmentsByDashboardId(dashboardId)).forEach(index::put);
+        LOG.info("Built tag index of dashboard id: {} with {} records", dashboardId, index.size());
+        synchronized (indexes) {
+            indexes.put(dashboardId, new VersionedIndex(version, index));
+        }
+        return index;
+    }
+
+    private void evict(Long dashboardId, VersionedIndex cached) {
+        synchronized (indexes) {
+            indexes.remove(dashboardId, cached);
+        }
+    }
+
+    private static Map<Long, List<Long>> assignments(List<Object[]> rows) {
+        Map<Long, List<Long>> assignments = new HashMap<>();
+        for (Object[] row : rows) {
+            List<Long> tagIds = assignments.computeIfAbsent(((Number) row[0]).longValue(), id -> new ArrayList<>());
+            if (row[1] != null) {
+                tagIds.add(((Number) row[1]).longValue());
+            }
+        }
+        return assignments;
+    }
+
+    private static List<Long> ids(Set<String> names, Map<String, Long> tagIds) {
+        return names.stream().map(tagIds::get).filter(id -> id != null).toList();
+    }
+
+    private static Set<String> normalize(Collection<String> names) {
+        Set<String> normalized = new HashSet<>();
+        if (names == null) {
+            return normalized;
+        }
+        for (String name : names) {
+            String tag = name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+            if (tag.isEmpty() || tag.length() > MAX_TAG_LENGTH) {
+                throw new IllegalArgumentException("Tag names must be between 1 and " + MAX_TAG_LENGTH + " characters long");
+            }
+            normalized.add(tag);
+        }
+        return normalized;
+    }
+
+    private static final class VersionedIndex {
+        private final TagBitmapIndex index;
+        private long version;
+
+        private VersionedIndex(long version, TagBitmapIndex index) {
+            this.version = version;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package cz.cvut.fel.budgetplannerbackend.statement;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Buffered source of characters with one character of lookahead, counting lines.
+ * Reading one character at a time from a {@link Reader} would lock it for every character.
+ */
+final class CharSource {
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private int line = 1;
+
+    CharSource(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[Math.max(16, bufferSize)];
+    }
+
+    /**
+     * @return The next character, or -1 at the end of the input.
+     */
+    int read() throws IOException {
+        int c = peek();
+        if (c >= 0) {
+            position++;
+            if (c == '\n') {
+                line++;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * @return The next character without consuming it, or -1 at the end of the input.
+     */
+    int peek() throws IOException {
+        while (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit < 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    /**
+     * @return The number of the line the next character is on, from 1.
+     */
+    int line() {
+        return line;
+    }
+}
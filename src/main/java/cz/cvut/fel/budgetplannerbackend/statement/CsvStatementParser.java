@@ -0,0 +1,214 @@
+package cz.cvut.fel.budgetplannerbackend.statement;
+
+import cz.cvut.fel.budgetplannerbackend.config.StatementImportProperties.Profile;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parser of CSV statements as described by RFC 4180, with the delimiter, columns, date format and decimal
+ * separator of a bank profile. Fields may be quoted, and quoted fields may contain delimiters, line breaks
+ * and doubled quotes. Columns are named by the header row or given by their index from 0.
+ */
+public final class CsvStatementParser implements StatementParser {
+
+    // Longer fields are most likely an unterminated quote swallowing the rest of the file.
+    private static final int MAX_FIELD_LENGTH = 10_000;
+    // Bounds the memory of a row of delimiters only, which no field length limit catches.
+    private static final int MAX_FIELDS = 1_000;
+
+    private final CharSource source;
+    private final Profile profile;
+    private final DateTimeFormatter dateFormatter;
+    private boolean started;
+    private int dateColumn;
+    private int amountColumn = -1;
+    private int debitColumn = -1;
+    private int creditColumn = -1;
+    private int[] descriptionColumns;
+    private int rowLine; // The line the last row read started on.
+
+    /**
+     * @param reader     The reader of the statement.
+     * @param profile    The profile of the bank.
+     * @param bufferSize The number of characters read from the reader at once.
+     * @throws IllegalArgumentException If the date format of the profile is invalid.
+     */
+    public CsvStatementParser(Reader reader, Profile profile, int bufferSize) {
+        this.source = new CharSource(reader, bufferSize);
+        this.profile = profile;
+        this.dateFormatter = DateTimeFormatter.ofPattern(profile.getDateFormat(), Locale.ROOT);
+    }
+
+    @Override
+    public StatementEntry next() throws IOException {
+        if (!started) {
+            start();
+            started = true;
+        }
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (isBlank(row));
+        return toEntry(row, rowLine);
+    }
+
+    // Skips the leading rows and resolves the columns, by the header row if there is one.
+    private void start() throws IOException {
+        if (source.peek() == '\uFEFF') {
+            source.read(); // Byte order mark.
+        }
+        for (int i = 0; i < profile.getSkipLines(); i++) {
+            readRow();
+        }
+        Map<String, Integer> header = new HashMap<>();
+        if (profile.isHeader()) {
+            List<String> names = readRow();
+            for (int i = 0; names != null && i < names.size(); i++) {
+                header.putIfAbsent(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+        dateColumn = column(profile.getDateColumn(), header);
+        if (isSet(profile.getAmountColumn())) {
+            amountColumn = column(profile.getAmountColumn(), header);
+        } else {
+            debitColumn = column(profile.getDebitColumn(), header);
+            creditColumn = column(profile.getCreditColumn(), header);
+        }
+        descriptionColumns = new int[profile.getDescriptionColumns().size()];
+        for (int i = 0; i < descriptionColumns.length; i++) {
+            descriptionColumns[i] = column(profile.getDescriptionColumns().get(i), header);
+        }
+    }
+
+    private static int column(String name, Map<String, Integer> header) throws IOException {
+        if (!isSet(name)) {
+            throw new IOException("A column of the profile is not set");
+        }
+        String key = name.trim().toLowerCase(Locale.ROOT);
+        Integer index = header.get(key);
+        if (index != null) {
+            return index;
+        }
+        if (key.chars().allMatch(Character::isDigit)) {
+            return Integer.parseInt(key);
+        }
+        throw new IOException("Column '" + name + "' is not in the header of the statement");
+    }
+
+    // Reads the fields of the next row, or returns null at the end of the input.
+    private List<String> readRow() throws IOException {
+        int c = source.read();
+        if (c < 0) {
+            return null;
+        }
+        rowLine = source.line() - (c == '\n' ? 1 : 0);
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (c < 0) {
+                fields.add(field.toString());
+                return fields;
+            }
+            if (quoted) {
+                if (c == '"' && source.peek() == '"') {
+                    source.read();
+                    field.append('"');
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == profile.getDelimiter()) {
+                fields.add(field.toString());
+                field.setLength(0);
+                if (fields.size() >= MAX_FIELDS) {
+                    throw new IOException("Row at line " + rowLine + " has more than " + MAX_FIELDS + " fields");
+                }
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && source.peek() == '\n') {
+                    source.read();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            if (field.length() > MAX_FIELD_LENGTH) {
+                throw new IOException("Field of row at line " + rowLine + " is too long, is a quote not closed?");
+            }
+            c = source.read();
+        }
+    }
+
+    private StatementEntry toEntry(List<String> row, int line) throws StatementFormatException {
+        String dateText = field(row, dateColumn, line);
+        LocalDateTime date;
+        try {
+            TemporalAccessor parsed = dateFormatter.parseBest(dateText, LocalDateTime::from, LocalDate::from);
+            date = parsed instanceof LocalDateTime dateTime ? dateTime : ((LocalDate) parsed).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new StatementFormatException("Invalid date '" + dateText + "' at line " + line);
+        }
+        BigDecimal amount;
+        if (amountColumn >= 0) {
+            amount = amount(field(row, amountColumn, line), line);
+        } else {
+            String debit = field(row, debitColumn, line);
+            String credit = field(row, creditColumn, line);
+            if (debit.isEmpty() && credit.isEmpty()) {
+                throw new StatementFormatException("Missing amount at line " + line);
+            }
+            amount = (credit.isEmpty() ? BigDecimal.ZERO : amount(credit, line).abs())
+                    .subtract(debit.isEmpty() ? BigDecimal.ZERO : amount(debit, line).abs());
+        }
+        StringBuilder description = new StringBuilder();
+        for (int column : descriptionColumns) {
+            String part = column < row.size() ? row.get(column).trim() : "";
+            if (!part.isEmpty()) {
+                description.append(description.isEmpty() ? "" : " ").append(part);
+            }
+        }
+        return new StatementEntry(date, amount, description.toString());
+    }
+
+    private BigDecimal amount(String text, int line) throws StatementFormatException {
+        BigDecimal amount = StatementParsers.parseAmount(text, profile.getDecimalSeparator());
+        if (amount == null) {
+            throw new StatementFormatException("Invalid amount '" + text + "' at line " + line);
+        }
+        return amount;
+    }
+
+    private static String field(List<String> row, int column, int line) throws StatementFormatException {
+        if (column >= row.size()) {
+            throw new StatementFormatException("Missing column " + column + " at line " + line);
+        }
+        return row.get(column).trim();
+    }
+
+    private static boolean isBlank(List<String> row) {
+        return row.stream().allMatch(String::isBlank);
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,140 @@
+package cz.cvut.fel.budgetplannerbackend.statement;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Parser of the transactions of OFX statements, both OFX 1.x, which is SGML with unclosed elements, and
+ * OFX 2.x, which is XML. The markup is tokenized into tags and text without building a tree: every STMTTRN
+ * aggregate becomes an entry dated by its DTPOSTED, with the amount TRNAMT and the description NAME and MEMO.
+ * Everything else, including the headers, is skipped.
+ */
+public final class OfxStatementParser implements StatementParser {
+
+    // Longer tags or values are not OFX.
+    private static final int MAX_TOKEN_LENGTH = 1_000;
+
+    private final CharSource source;
+
+    /**
+     * @param reader     The reader of the statement.
+     * @param bufferSize The number of characters read from the reader at once.
+     */
+    public OfxStatementParser(Reader reader, int bufferSize) {
+        this.source = new CharSource(reader, bufferSize);
+    }
+
+    @Override
+    public StatementEntry next() throws IOException {
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                return readTransaction();
+            }
+        }
+        return null;
+    }
+
+    private StatementEntry readTransaction() throws IOException {
+        int line = source.line();
+        String amount = null;
+        String posted = null;
+        String name = null;
+        String memo = null;
+        String tag;
+        while (!"/STMTTRN".equals(tag = nextTag())) {
+            if (tag == null) {
+                throw new IOException("Transaction at line " + line + " is not closed");
+            }
+            switch (tag) {
+                case "TRNAMT" -> amount = text();
+                case "DTPOSTED" -> posted = text();
+                case "NAME" -> name = text();
+                case "MEMO" -> memo = text();
+                default -> {
+                    // Other elements and closing tags are skipped.
+                }
+            }
+        }
+        LocalDateTime date = date(posted);
+        if (date == null) {
+            throw new StatementFormatException("Invalid date '" + posted + "' of transaction at line " + line);
+        }
+        // Some banks write decimal commas, although OFX requires a decimal point.
+        BigDecimal value = amount == null ? null
+                : StatementParsers.parseAmount(amount, amount.indexOf('.') < 0 ? ',' : '.');
+        if (value == null) {
+            throw new StatementFormatException("Invalid amount '" + amount + "' of transaction at line " + line);
+        }
+        String description = name != null ? name : "";
+        if (memo != null && !memo.isEmpty() && !memo.equals(name)) {
+            description = description.isEmpty() ? memo : description + " " + memo;
+        }
+        return new StatementEntry(date, value, description);
+    }
+
+    // The name of the next tag in upper case, closing tags starting with '/', or null at the end of the input.
+    private String nextTag() throws IOException {
+        while (true) {
+            int c;
+            do {
+                c = source.read();
+            } while (c >= 0 && c != '<');
+            if (c < 0) {
+                return null;
+            }
+            StringBuilder tag = new StringBuilder();
+            while ((c = source.read()) >= 0 && c != '>') {
+                if (tag.length() == MAX_TOKEN_LENGTH) {
+                    throw new IOException("Tag at line " + source.line() + " is too long");
+                }
+                tag.append((char) c);
+            }
+            // Processing instructions, declarations and comments.
+            if (!tag.isEmpty() && tag.charAt(0) != '?' && tag.charAt(0) != '!') {
+                return tag.toString().trim().toUpperCase(Locale.ROOT);
+            }
+        }
+    }
+
+    // The text up to the next tag, trimmed and with the XML entities replaced.
+    private String text() throws IOException {
+        StringBuilder text = new StringBuilder();
+        while (source.peek() >= 0 && source.peek() != '<') {
+            if (text.length() == MAX_TOKEN_LENGTH) {
+                throw new IOException("Value at line " + source.line() + " is too long");
+            }
+            text.append((char) source.read());
+        }
+        return text.toString().trim()
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&nbsp;", " ")
+                .replace("&amp;", "&");
+    }
+
+    // OFX dates are YYYYMMDD, optionally followed by HHMMSS, milliseconds and a time zone, which is ignored.
+    private static LocalDateTime date(String text) {
+        if (text == null || text.length() < 8) {
+            return null;
+        }
+        try {
+            int year = Integer.parseInt(text.substring(0, 4));
+            int month = Integer.parseInt(text.substring(4, 6));
+            int day = Integer.parseInt(text.substring(6, 8));
+            if (text.length() >= 14 && text.substring(8, 14).chars().allMatch(Character::isDigit)) {
+                return LocalDateTime.of(year, month, day, Integer.parseInt(text.substring(8, 10)),
+                        Integer.parseInt(text.substring(10, 12)), Integer.parseInt(text.substring(12, 14)));
+            }
+            return LocalDateTime.of(year, month, day, 0, 0);
+        } catch (NumberFormatException | DateTimeException e) {
+            return null;
+        }
+    }
+}
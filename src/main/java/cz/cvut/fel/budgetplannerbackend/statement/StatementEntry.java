@@ -0,0 +1,12 @@
+package cz.cvut.fel.budgetplannerbackend.statement;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * @param date        The date of the entry.
+ * @param amount      The amount, negative for money leaving the account.
+ * @param description The description, possibly empty.
+ */
+public record StatementEntry(LocalDateTime date, BigDecimal amount, String description) {
+}
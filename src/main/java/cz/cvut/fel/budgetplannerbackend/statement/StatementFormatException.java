@@ -0,0 +1,13 @@
+package cz.cvut.fel.budgetplannerbackend.statement;
+
+import java.io.IOException;
+
+/**
+ * Thrown for an invalid entry of a statement, which the parser skipped.
+ */
+public class StatementFormatException extends IOException {
+
+    public StatementFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package cz.cvut.fel.budgetplannerbackend.statement;
+
+import java.io.IOException;
+
+/**
+ * Pull parser of the entries of a bank statement. Parsers read their input incrementally and only hold
+ * the entry being parsed, so statements of any size are parsed in bounded memory.
+ */
+public interface StatementParser {
+
+    /**
+     * Parses the next entry. After a {@link StatementFormatException} the invalid entry is skipped
+     * and parsing can continue; any other exception ends parsing.
+     *
+     * @return The entry, or null at the end of the statement.
+     * @throws StatementFormatException If the entry is invalid.
+     * @throws IOException              If the statement cannot be read or is malformed beyond the entry.
+     */
+    StatementEntry next() throws IOException;
+}
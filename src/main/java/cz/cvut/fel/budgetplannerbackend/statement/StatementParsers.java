@@ -0,0 +1,69 @@
+package cz.cvut.fel.budgetplannerbackend.statement;
+
+import cz.cvut.fel.budgetplannerbackend.config.StatementImportProperties.Profile;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Creates the statement parser of a bank profile over a byte channel.
+ */
+public final class StatementParsers {
+
+    private StatementParsers() {
+    }
+
+    /**
+     * Opens a parser reading a statement from a channel, decoded with the charset of the profile.
+     * Bytes invalid in the charset are replaced rather than failing the statement.
+     *
+     * @param channel    The channel of the statement, closed by the caller.
+     * @param profile    The profile of the bank.
+     * @param bufferSize The number of bytes and characters buffered while reading.
+     * @return The parser of the format of the profile.
+     * @throws IllegalArgumentException If the profile is invalid.
+     */
+    public static StatementParser open(ReadableByteChannel channel, Profile profile, int bufferSize) {
+        CharsetDecoder decoder = profile.getCharset().newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        Reader reader = Channels.newReader(channel, decoder, bufferSize);
+        return switch (profile.getFormat()) {
+            case CSV -> new CsvStatementParser(reader, profile, bufferSize);
+            case OFX -> new OfxStatementParser(reader, bufferSize);
+        };
+    }
+
+    /**
+     * Parses an amount as written in statements: whitespace, currency symbols and grouping separators are
+     * ignored, and the sign may lead or trail.
+     *
+     * @param text             The amount.
+     * @param decimalSeparator The decimal separator, '.' or ','; the other one is a grouping separator.
+     * @return The amount, or null if the text is not one.
+     */
+    public static BigDecimal parseAmount(String text, char decimalSeparator) {
+        StringBuilder digits = new StringBuilder(text.length());
+        boolean negative = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c == decimalSeparator) {
+                digits.append('.');
+            } else if (c == '-' || c == '\u2212') { // A hyphen or a minus sign.
+                negative = !negative;
+            }
+        }
+        try {
+            BigDecimal amount = new BigDecimal(digits.toString());
+            return negative ? amount.negate() : amount;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
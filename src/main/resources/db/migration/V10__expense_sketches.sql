@@ -0,0 +1,60 @@
+-- Mergeable t-digest sketches of the expense amounts per (dashboard, month, category, member).
+-- A month's sketches are valid while built_generation equals generation; every change of the expenses
+-- of a month bumps its generation in the changing transaction, and the sketches are rebuilt on demand.
+CREATE TABLE expense_sketch_months (
+    dashboard_id BIGINT NOT NULL,
+    month DATE NOT NULL,
+    generation BIGINT NOT NULL DEFAULT 0,
+    built_generation BIGINT,
+    PRIMARY KEY (dashboard_id, month),
+    FOREIGN KEY (dashboard_id) REFERENCES dashboards(id) ON DELETE CASCADE
+);
+
+CREATE TABLE expense_sketches (
+    id BIGSERIAL PRIMARY KEY,
+    dashboard_id BIGINT NOT NULL,
+    month DATE NOT NULL,
+    category_id BIGINT,
+    user_id BIGINT NOT NULL,
+    record_count BIGINT NOT NULL,
+    max_amount NUMERIC(19,2) NOT NULL,
+    digest BYTEA NOT NULL,
+    FOREIGN KEY (dashboard_id, month) REFERENCES expense_sketch_months(dashboard_id, month) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_expense_sketches_dashboard_month ON expense_sketches (dashboard_id, month);
+
+-- Statement-level, so that bulk statements bump every affected month once instead of once per row.
+CREATE FUNCTION bump_expense_sketch_months() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO expense_sketch_months (dashboard_id, month, generation)
+        SELECT DISTINCT dashboard_id, date_trunc('month', date)::DATE, 1 FROM new_rows WHERE type = 'EXPENSE'
+        ON CONFLICT (dashboard_id, month) DO UPDATE SET generation = expense_sketch_months.generation + 1;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO expense_sketch_months (dashboard_id, month, generation)
+        SELECT DISTINCT dashboard_id, date_trunc('month', date)::DATE, 1 FROM old_rows WHERE type = 'EXPENSE'
+        ON CONFLICT (dashboard_id, month) DO UPDATE SET generation = expense_sketch_months.generation + 1;
+    ELSE
+        -- Only updates of the sketched columns count; change tracking stamps records without changing them.
+        INSERT INTO expense_sketch_months (dashboard_id, month, generation)
+        SELECT DISTINCT changed.dashboard_id, date_trunc('month', changed.date)::DATE, 1
+        FROM old_rows o
+        JOIN new_rows n ON n.id = o.id
+        CROSS JOIN LATERAL (VALUES (o.dashboard_id, o.date, o.type), (n.dashboard_id, n.date, n.type)) AS changed (dashboard_id, date, type)
+        WHERE changed.type = 'EXPENSE'
+          AND (o.amount, o.type, o.date, o.category_id) IS DISTINCT FROM (n.amount, n.type, n.date, n.category_id)
+        ON CONFLICT (dashboard_id, month) DO UPDATE SET generation = expense_sketch_months.generation + 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER financial_records_expense_sketches_insert AFTER INSERT ON financial_records
+    REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_expense_sketch_months();
+CREATE TRIGGER financial_records_expense_sketches_update AFTER UPDATE ON financial_records
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_expense_sketch_months();
+CREATE TRIGGER financial_records_expense_sketches_delete AFTER DELETE ON financial_records
+    REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_expense_sketch_months();
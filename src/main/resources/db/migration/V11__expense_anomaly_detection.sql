@@ -0,0 +1,17 @@
+-- Checkpoints of the exponentially weighted mean and variance of the expense amounts per (dashboard, category),
+-- kept in memory by the application and written here periodically. Uncategorized expenses use category_id 0.
+CREATE TABLE expense_anomaly_statistics (
+    dashboard_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    mean DOUBLE PRECISION NOT NULL,
+    variance DOUBLE PRECISION NOT NULL,
+    sample_count BIGINT NOT NULL,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (dashboard_id, category_id),
+    FOREIGN KEY (dashboard_id) REFERENCES dashboards(id) ON DELETE CASCADE
+);
+
+-- The z-score of an expense against the statistics of its category when it was created or last changed,
+-- null for income and for expenses of categories with too short a history.
+ALTER TABLE financial_records ADD COLUMN anomaly_score DOUBLE PRECISION;
+ALTER TABLE financial_records ADD COLUMN anomalous BOOLEAN NOT NULL DEFAULT FALSE;
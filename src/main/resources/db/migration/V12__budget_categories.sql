@@ -0,0 +1,5 @@
+-- Budgets may be limited to one category, e.g. the per-category budgets proposed by the allocation optimizer.
+ALTER TABLE budgets ADD COLUMN category_id BIGINT;
+ALTER TABLE budgets ADD CONSTRAINT fk_budgets_category FOREIGN KEY (category_id) REFERENCES categories(id);
+
+CREATE INDEX idx_budgets_category_id ON budgets (category_id);
@@ -0,0 +1,51 @@
+-- Expenses paid by every member of a dashboard, the input of the settle-up balances. The totals are kept
+-- current by statement-level triggers that apply the net change of each statement, so reading the balances
+-- of a dashboard never scans its records.
+CREATE TABLE dashboard_member_expenses (
+    dashboard_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    paid NUMERIC(19,2) NOT NULL,
+    PRIMARY KEY (dashboard_id, user_id),
+    FOREIGN KEY (dashboard_id) REFERENCES dashboards(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+INSERT INTO dashboard_member_expenses (dashboard_id, user_id, paid)
+SELECT dashboard_id, user_id, SUM(amount) FROM financial_records WHERE type = 'EXPENSE' GROUP BY dashboard_id, user_id;
+
+CREATE FUNCTION apply_member_expense_changes() RETURNS TRIGGER AS $$
+BEGIN
+    -- Rows are upserted in key order, so concurrent statements lock them in the same order.
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO dashboard_member_expenses (dashboard_id, user_id, paid)
+        SELECT dashboard_id, user_id, SUM(amount) FROM new_rows WHERE type = 'EXPENSE'
+        GROUP BY dashboard_id, user_id ORDER BY dashboard_id, user_id
+        ON CONFLICT (dashboard_id, user_id) DO UPDATE SET paid = dashboard_member_expenses.paid + EXCLUDED.paid;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO dashboard_member_expenses (dashboard_id, user_id, paid)
+        SELECT dashboard_id, user_id, -SUM(amount) FROM old_rows WHERE type = 'EXPENSE'
+        GROUP BY dashboard_id, user_id ORDER BY dashboard_id, user_id
+        ON CONFLICT (dashboard_id, user_id) DO UPDATE SET paid = dashboard_member_expenses.paid + EXCLUDED.paid;
+    ELSE
+        -- Only updates of the summed columns count; change tracking stamps records without changing them.
+        INSERT INTO dashboard_member_expenses (dashboard_id, user_id, paid)
+        SELECT changed.dashboard_id, changed.user_id, SUM(changed.amount)
+        FROM old_rows o
+        JOIN new_rows n ON n.id = o.id
+        CROSS JOIN LATERAL (VALUES (o.dashboard_id, o.user_id, -o.amount, o.type), (n.dashboard_id, n.user_id, n.amount, n.type))
+            AS changed (dashboard_id, user_id, amount, type)
+        WHERE changed.type = 'EXPENSE'
+          AND (o.amount, o.type, o.user_id, o.dashboard_id) IS DISTINCT FROM (n.amount, n.type, n.user_id, n.dashboard_id)
+        GROUP BY changed.dashboard_id, changed.user_id ORDER BY changed.dashboard_id, changed.user_id
+        ON CONFLICT (dashboard_id, user_id) DO UPDATE SET paid = dashboard_member_expenses.paid + EXCLUDED.paid;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER financial_records_member_expenses_insert AFTER INSERT ON financial_records
+    REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION apply_member_expense_changes();
+CREATE TRIGGER financial_records_member_expenses_update AFTER UPDATE ON financial_records
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION apply_member_expense_changes();
+CREATE TRIGGER financial_records_member_expenses_delete AFTER DELETE ON financial_records
+    REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION apply_member_expense_changes();
@@ -0,0 +1,36 @@
+-- Templates of records repeating on a schedule (rent, salaries, subscriptions). The scheduler materializes
+-- every occurrence up to now as a financial record and moves next_run_at to the following occurrence;
+-- next_run_at is null once the schedule has ended.
+CREATE TABLE recurring_transactions (
+    id BIGINT PRIMARY KEY,
+    dashboard_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    category_id BIGINT,
+    amount NUMERIC(19,2) NOT NULL,
+    type VARCHAR(25) NOT NULL,
+    description VARCHAR(500),
+    frequency VARCHAR(16) NOT NULL,
+    interval_count INT NOT NULL DEFAULT 1 CHECK (interval_count >= 1),
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE,
+    next_run_at TIMESTAMP WITHOUT TIME ZONE,
+    FOREIGN KEY (dashboard_id) REFERENCES dashboards(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE SET NULL
+);
+
+-- Ids are allocated in blocks of 50 like the other entities (see V5).
+CREATE SEQUENCE recurring_transactions_id_seq INCREMENT BY 50 OWNED BY recurring_transactions.id;
+ALTER TABLE recurring_transactions ALTER COLUMN id SET DEFAULT nextval('recurring_transactions_id_seq');
+
+-- The scheduler loads the templates due within its horizon; ended schedules are not indexed.
+CREATE INDEX idx_recurring_transactions_next_run_at ON recurring_transactions (next_run_at) WHERE next_run_at IS NOT NULL;
+CREATE INDEX idx_recurring_transactions_dashboard_id ON recurring_transactions (dashboard_id);
+
+-- A materialized record remembers its template; at most one record per template and occurrence date,
+-- so materializing an occurrence again is a no-op. The unique index contains the partition key (date),
+-- as required on a partitioned table. Manual records have no template and are not constrained.
+ALTER TABLE financial_records ADD COLUMN recurring_transaction_id BIGINT;
+ALTER TABLE financial_records ADD CONSTRAINT fk_financial_records_recurring_transaction
+    FOREIGN KEY (recurring_transaction_id) REFERENCES recurring_transactions(id) ON DELETE SET NULL;
+CREATE UNIQUE INDEX uq_financial_records_recurring_occurrence ON financial_records (recurring_transaction_id, date);
@@ -0,0 +1,27 @@
+-- Rules assigning a category to records created without one. Rules are tried in ascending priority, then id;
+-- the first rule whose record type, amount range and description pattern all match wins. A rule without
+-- pattern matches any description. Rules are deleted with their category.
+CREATE TABLE categorization_rules (
+    id BIGINT PRIMARY KEY,
+    dashboard_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    match_type VARCHAR(16) NOT NULL,
+    pattern VARCHAR(200),
+    record_type VARCHAR(25),
+    min_amount NUMERIC(19,2),
+    max_amount NUMERIC(19,2),
+    priority INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (dashboard_id) REFERENCES dashboards(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE,
+    CHECK (min_amount IS NULL OR max_amount IS NULL OR min_amount <= max_amount)
+);
+
+-- Ids are allocated in blocks of 50 like the other entities (see V5).
+CREATE SEQUENCE categorization_rules_id_seq INCREMENT BY 50 OWNED BY categorization_rules.id;
+ALTER TABLE categorization_rules ALTER COLUMN id SET DEFAULT nextval('categorization_rules_id_seq');
+
+CREATE INDEX idx_categorization_rules_dashboard_id ON categorization_rules (dashboard_id, priority, id);
+CREATE INDEX idx_categorization_rules_category_id ON categorization_rules (category_id);
+
+-- Applying the rules to the history only reads the uncategorized records of a dashboard.
+CREATE INDEX idx_financial_records_uncategorized ON financial_records (dashboard_id, date) WHERE category_id IS NULL;
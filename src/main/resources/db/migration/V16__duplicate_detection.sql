@@ -0,0 +1,12 @@
+-- Duplicate detection. The fingerprint is a 64-bit hash of the type, amount and normalized description of a record,
+-- computed by the application; records without description have none. duplicate_of_id is the earlier record a record
+-- is suspected to duplicate. It has no foreign key, which would have to include the partition key (date); it is
+-- cleared by the application when the earlier record is deleted.
+ALTER TABLE financial_records ADD COLUMN fingerprint BIGINT;
+ALTER TABLE financial_records ADD COLUMN duplicate_of_id BIGINT;
+
+-- Records with the same fingerprint within a few days of a new record; the date lets PostgreSQL prune partitions.
+CREATE INDEX idx_financial_records_fingerprint ON financial_records (dashboard_id, fingerprint, date) WHERE fingerprint IS NOT NULL;
+
+-- Suspected duplicates of a dashboard, and the duplicates of a deleted record.
+CREATE INDEX idx_financial_records_duplicate_of ON financial_records (dashboard_id, duplicate_of_id) WHERE duplicate_of_id IS NOT NULL;
@@ -0,0 +1,28 @@
+-- Imports of bank statement files, processed in the background. The counters and the read position are updated
+-- with every committed batch of records, so the progress of an import can be polled from any node.
+CREATE TABLE statement_imports (
+    id BIGSERIAL PRIMARY KEY,
+    dashboard_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    profile VARCHAR(64) NOT NULL,
+    file_name VARCHAR(255),
+    status VARCHAR(16) NOT NULL,
+    skip_duplicates BOOLEAN NOT NULL DEFAULT FALSE,
+    bytes_total BIGINT NOT NULL,
+    bytes_read BIGINT NOT NULL DEFAULT 0,
+    records_imported INT NOT NULL DEFAULT 0,
+    records_invalid INT NOT NULL DEFAULT 0,
+    duplicates_flagged INT NOT NULL DEFAULT 0,
+    duplicates_skipped INT NOT NULL DEFAULT 0,
+    error VARCHAR(500),
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    finished_at TIMESTAMP WITHOUT TIME ZONE,
+    FOREIGN KEY (dashboard_id) REFERENCES dashboards (id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_statement_imports_dashboard_id ON statement_imports (dashboard_id, created_at);
+
+-- Unfinished imports are failed once they stop making progress, e.g. because their node stopped.
+CREATE INDEX idx_statement_imports_unfinished ON statement_imports (updated_at) WHERE finished_at IS NULL;
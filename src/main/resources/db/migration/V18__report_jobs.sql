@@ -0,0 +1,27 @@
+-- Reports generated in the background into files on disk. A job is unfinished until finished_at is set; the file
+-- of a finished job, and the job itself, are deleted once expires_at has passed.
+CREATE TABLE report_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    dashboard_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    type VARCHAR(32) NOT NULL,
+    year INT,
+    status VARCHAR(16) NOT NULL,
+    file_name VARCHAR(255),
+    file_size BIGINT,
+    rows_written INT NOT NULL DEFAULT 0,
+    error VARCHAR(500),
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    finished_at TIMESTAMP WITHOUT TIME ZONE,
+    expires_at TIMESTAMP WITHOUT TIME ZONE,
+    FOREIGN KEY (dashboard_id) REFERENCES dashboards (id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_report_jobs_dashboard_user ON report_jobs (dashboard_id, user_id, created_at);
+
+-- Counts the unfinished jobs of a user against the per-user limit, and finds the stale ones.
+CREATE INDEX idx_report_jobs_unfinished ON report_jobs (user_id, updated_at) WHERE finished_at IS NULL;
+
+CREATE INDEX idx_report_jobs_expires_at ON report_jobs (expires_at) WHERE expires_at IS NOT NULL;
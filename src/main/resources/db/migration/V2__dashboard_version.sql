@@ -0,0 +1,3 @@
+-- Per-dashboard change counter used for ETags on the dashboard collection endpoints.
+-- Bumped once per transaction that modifies records, categories, budgets, goals or priorities of the dashboard.
+ALTER TABLE dashboards ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,27 @@
+-- Delta synchronization: every dashboard-scoped row carries the dashboard version of the transaction
+-- that last changed it (change_seq); deletions leave a tombstone stamped the same way.
+ALTER TABLE financial_records ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE financial_records ADD COLUMN updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE categories ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE categories ADD COLUMN updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE budgets ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE budgets ADD COLUMN updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE financial_goals ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE financial_goals ADD COLUMN updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+CREATE INDEX idx_financial_records_dashboard_change_seq ON financial_records (dashboard_id, change_seq);
+CREATE INDEX idx_categories_dashboard_change_seq ON categories (dashboard_id, change_seq);
+CREATE INDEX idx_budgets_dashboard_change_seq ON budgets (dashboard_id, change_seq);
+CREATE INDEX idx_financial_goals_dashboard_change_seq ON financial_goals (dashboard_id, change_seq);
+
+CREATE TABLE sync_tombstones (
+    id BIGSERIAL PRIMARY KEY,
+    dashboard_id BIGINT NOT NULL,
+    entity_type VARCHAR(32) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    FOREIGN KEY (dashboard_id) REFERENCES dashboards (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_sync_tombstones_dashboard_change_seq ON sync_tombstones (dashboard_id, change_seq);
@@ -0,0 +1,8 @@
+-- Ids of entities created in bulk are taken from their sequences in blocks of 50 (Hibernate pooled optimizer),
+-- so inserts no longer need the generated key back one row at a time and can be sent as JDBC batches.
+-- Rows inserted through the column defaults simply skip ahead by 50 as well.
+ALTER SEQUENCE categories_id_seq INCREMENT BY 50;
+ALTER SEQUENCE financial_records_id_seq INCREMENT BY 50;
+ALTER SEQUENCE category_priorities_id_seq INCREMENT BY 50;
+ALTER SEQUENCE budgets_id_seq INCREMENT BY 50;
+ALTER TABLE financial_goals ALTER COLUMN id SET INCREMENT BY 50;
@@ -0,0 +1,7 @@
+-- Full-text search over record descriptions.
+-- The 'simple' configuration only lowercases words: descriptions are mostly merchant names and mixed languages,
+-- which language-specific stemming would mangle.
+ALTER TABLE financial_records
+    ADD COLUMN description_tsv TSVECTOR GENERATED ALWAYS AS (to_tsvector('simple', COALESCE(description, ''))) STORED;
+
+CREATE INDEX idx_financial_records_description_tsv ON financial_records USING GIN (description_tsv);
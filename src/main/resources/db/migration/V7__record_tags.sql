@@ -0,0 +1,18 @@
+-- Dashboard-scoped tag dictionary and the tags of financial records.
+CREATE TABLE tags (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(64) NOT NULL,
+    dashboard_id BIGINT NOT NULL,
+    FOREIGN KEY (dashboard_id) REFERENCES dashboards(id) ON DELETE CASCADE,
+    UNIQUE (dashboard_id, name)
+);
+
+CREATE TABLE financial_record_tags (
+    financial_record_id BIGINT NOT NULL,
+    tag_id BIGINT NOT NULL,
+    PRIMARY KEY (financial_record_id, tag_id),
+    FOREIGN KEY (financial_record_id) REFERENCES financial_records(id) ON DELETE CASCADE,
+    FOREIGN KEY (tag_id) REFERENCES tags(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_financial_record_tags_tag_id ON financial_record_tags (tag_id);
@@ -0,0 +1,19 @@
+-- Parent/child categories. The closure table holds one row per (ancestor, descendant) pair,
+-- including the zero-depth row of every category to itself.
+ALTER TABLE categories ADD COLUMN parent_id BIGINT;
+ALTER TABLE categories ADD CONSTRAINT fk_categories_parent FOREIGN KEY (parent_id) REFERENCES categories(id);
+
+CREATE TABLE category_closure (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    FOREIGN KEY (ancestor_id) REFERENCES categories(id) ON DELETE CASCADE,
+    FOREIGN KEY (descendant_id) REFERENCES categories(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_category_closure_descendant_id ON category_closure (descendant_id, ancestor_id);
+CREATE INDEX idx_financial_records_category_id ON financial_records (category_id);
+
+INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+SELECT id, id, 0 FROM categories;
@@ -0,0 +1,87 @@
+-- Range partitioning of financial_records by date, one partition per month.
+-- Partitions are created ahead of time by ensure_financial_records_partition(), which the application calls
+-- on a schedule; records dated outside every monthly partition land in the default partition.
+
+-- The primary key of a partitioned table must contain the partition key, so the record ID alone can no longer
+-- be the target of a foreign key. Hibernate deletes the tag rows of removed records itself.
+ALTER TABLE financial_record_tags DROP CONSTRAINT financial_record_tags_financial_record_id_fkey;
+
+ALTER TABLE financial_records RENAME TO financial_records_unpartitioned;
+ALTER SEQUENCE financial_records_id_seq OWNED BY NONE; -- Keep the sequence when the old table is dropped.
+
+CREATE TABLE financial_records (
+    id BIGINT NOT NULL DEFAULT nextval('financial_records_id_seq'),
+    user_id BIGINT NOT NULL,
+    dashboard_id BIGINT NOT NULL,
+    amount NUMERIC(19,2) NOT NULL,
+    category_id BIGINT,
+    date TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    description VARCHAR(500),
+    type VARCHAR(25) NOT NULL,
+    change_seq BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    description_tsv TSVECTOR GENERATED ALWAYS AS (to_tsvector('simple', COALESCE(description, ''))) STORED,
+    PRIMARY KEY (id, date),
+    FOREIGN KEY (user_id) REFERENCES users(id),
+    FOREIGN KEY (dashboard_id) REFERENCES dashboards(id),
+    FOREIGN KEY (category_id) REFERENCES categories(id)
+) PARTITION BY RANGE (date);
+
+ALTER SEQUENCE financial_records_id_seq OWNED BY financial_records.id;
+
+CREATE TABLE financial_records_default PARTITION OF financial_records DEFAULT;
+
+-- Creates the partition of the month containing month_start unless it exists, and returns whether it was created.
+-- Records of that month stored in the default partition before are moved into the new partition.
+CREATE FUNCTION ensure_financial_records_partition(month_start DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    range_start DATE := date_trunc('month', month_start);
+    range_end DATE := date_trunc('month', month_start) + INTERVAL '1 month';
+    partition_name TEXT := 'financial_records_p' || to_char(date_trunc('month', month_start), 'YYYY_MM');
+    columns TEXT;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    -- Serialize creation between application nodes, then check again.
+    PERFORM pg_advisory_xact_lock(hashtext('financial_records_partitions'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE financial_records INCLUDING DEFAULTS INCLUDING GENERATED)', partition_name);
+    SELECT string_agg(quote_ident(attname), ', ' ORDER BY attnum) INTO columns
+    FROM pg_attribute
+    WHERE attrelid = 'financial_records'::regclass AND attnum > 0 AND NOT attisdropped AND attgenerated = '';
+    EXECUTE format('WITH moved AS (DELETE FROM financial_records_default WHERE date >= $1 AND date < $2 RETURNING %s) '
+                   'INSERT INTO %I (%s) SELECT %s FROM moved', columns, partition_name, columns, columns)
+        USING range_start, range_end;
+    EXECUTE format('ALTER TABLE financial_records ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Monthly partitions from the oldest record (at most ten years back) to three months ahead.
+DO $$
+BEGIN
+    PERFORM ensure_financial_records_partition(month::DATE)
+    FROM generate_series(
+             date_trunc('month', GREATEST(LEAST(COALESCE((SELECT MIN(date) FROM financial_records_unpartitioned), now()), now()),
+                                          now() - INTERVAL '10 years')),
+             date_trunc('month', now()) + INTERVAL '3 months',
+             INTERVAL '1 month') AS month;
+END
+$$;
+
+INSERT INTO financial_records (id, user_id, dashboard_id, amount, category_id, date, description, type, change_seq, updated_at)
+SELECT id, user_id, dashboard_id, amount, category_id, date, description, type, change_seq, updated_at
+FROM financial_records_unpartitioned;
+
+DROP TABLE financial_records_unpartitioned;
+
+-- Indexes on the partitioned table are created on every partition, including future ones.
+CREATE INDEX idx_financial_records_dashboard_date ON financial_records (dashboard_id, date);
+CREATE INDEX idx_financial_records_dashboard_change_seq ON financial_records (dashboard_id, change_seq);
+CREATE INDEX idx_financial_records_category_id ON financial_records (category_id);
+CREATE INDEX idx_financial_records_description_tsv ON financial_records USING GIN (description_tsv);
@@ -0,0 +1,80 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickAutomatonTest {
+
+    private static List<Integer> matches(AhoCorasickAutomaton automaton, String text) {
+        return automaton.matches(text).stream().boxed().toList();
+    }
+
+    @Test
+    void matches_FindsOverlappingAndNestedPatterns() {
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(List.of("he", "she", "his", "hers"));
+
+        assertEquals(List.of(0, 1, 3), matches(automaton, "ushers"));
+        assertEquals(List.of(2), matches(automaton, "this"));
+        assertTrue(matches(automaton, "hxs").isEmpty());
+    }
+
+    @Test
+    void matches_IgnoresCaseAndUnknownCharacters() {
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(List.of("Netflix", "café"));
+
+        assertEquals(List.of(0), matches(automaton, "NETFLIX.COM 12/05 €"));
+        assertEquals(List.of(1), matches(automaton, "CAFÉ ÖLSTÜBCHEN"));
+    }
+
+    @Test
+    void matches_EmptyPatternsAndNullTextNeverMatch() {
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(List.of("", "rent"));
+
+        assertEquals(List.of(1), matches(automaton, "Rent March"));
+        assertTrue(automaton.matches(null).isEmpty());
+        assertTrue(new AhoCorasickAutomaton(List.of()).matches("anything").isEmpty());
+    }
+
+    @Test
+    void stateCount_SharesCommonPrefixes() {
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(List.of("tesco", "tesla", "test"));
+
+        assertEquals(1 + 3 + 2 + 2 + 1, automaton.stateCount()); // root, "tes", "co", "la", "t"
+    }
+
+    @Test
+    void matches_AgreesWithNaiveSearch() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<String> patterns = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(8); i++) {
+                patterns.add(randomString(random, 1 + random.nextInt(4)));
+            }
+            String text = randomString(random, random.nextInt(40));
+            BitSet expected = new BitSet();
+            for (int i = 0; i < patterns.size(); i++) {
+                if (text.toLowerCase(Locale.ROOT).contains(patterns.get(i).toLowerCase(Locale.ROOT))) {
+                    expected.set(i);
+                }
+            }
+
+            assertEquals(expected, new AhoCorasickAutomaton(patterns).matches(text), () -> patterns + " in " + text);
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            char c = (char) ('a' + random.nextInt(3));
+            builder.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BootstrapGoalSimulationTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void simulate_ConstantHistoryIsDeterministic() {
+        BootstrapGoalSimulation.Result result = BootstrapGoalSimulation.simulate(new double[]{100}, 500, 1000, 6, 5000, 1, pool);
+
+        assertEquals(5000, result.paths());
+        assertEquals(5000, result.reached());
+        assertEquals(1, result.probability());
+        assertEquals(1100, result.quantile(0), 1e-9);
+        assertEquals(1100, result.quantile(1), 1e-9);
+    }
+
+    @Test
+    void simulate_TargetReachedBeforeDeadlineCounts() {
+        // Every path rises to the target in the first month and falls below it afterwards.
+        BootstrapGoalSimulation.Result result = BootstrapGoalSimulation.simulate(new double[]{100}, 0, 100, 1, 10, 1, pool);
+        BootstrapGoalSimulation.Result falling = BootstrapGoalSimulation.simulate(new double[]{-50}, 100, 100, 3, 10, 1, pool);
+
+        assertEquals(1, result.probability());
+        assertEquals(1, falling.probability());
+        assertEquals(-50, falling.quantile(0.5), 1e-9);
+    }
+
+    @Test
+    void simulate_ProbabilityMatchesBinomialOdds() {
+        // Two months of +-100 from 0 reach 200 only with two rises: 1/4; 100 after the first rise: 1/2.
+        BootstrapGoalSimulation.Result twoRises = BootstrapGoalSimulation.simulate(new double[]{100, -100}, 0, 200, 2, 40000, 3, pool);
+        BootstrapGoalSimulation.Result oneRise = BootstrapGoalSimulation.simulate(new double[]{100, -100}, 0, 100, 2, 40000, 3, pool);
+
+        assertEquals(0.25, twoRises.probability(), 0.01);
+        assertEquals(0.5, oneRise.probability(), 0.01);
+        assertEquals(-200, twoRises.quantile(0.1), 1e-9);
+        assertEquals(200, twoRises.quantile(0.9), 1e-9);
+    }
+
+    @Test
+    void simulate_SameSeedGivesSameResultOnAnyPool() {
+        double[] history = {120.5, -80, 300, -15.25, 42};
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            BootstrapGoalSimulation.Result parallel = BootstrapGoalSimulation.simulate(history, 1000, 3000, 24, 20000, 42, pool);
+            BootstrapGoalSimulation.Result sequential = BootstrapGoalSimulation.simulate(history, 1000, 3000, 24, 20000, 42, single);
+
+            assertEquals(parallel.reached(), sequential.reached());
+            assertArrayEquals(parallel.finalAmounts(), sequential.finalAmounts());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void simulate_NoMonthsKeepsCurrentAmount() {
+        BootstrapGoalSimulation.Result result = BootstrapGoalSimulation.simulate(new double[]{100}, 50, 100, 0, 10, 1, pool);
+
+        assertEquals(0, result.probability());
+        assertEquals(50, result.quantile(0.5), 1e-9);
+    }
+
+    @Test
+    void simulate_RejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> BootstrapGoalSimulation.simulate(new double[0], 0, 100, 1, 10, 1, pool));
+        assertThrows(IllegalArgumentException.class, () -> BootstrapGoalSimulation.simulate(new double[]{1}, 0, 100, -1, 10, 1, pool));
+        assertThrows(IllegalArgumentException.class, () -> BootstrapGoalSimulation.simulate(new double[]{1}, 0, 100, 1, 0, 1, pool));
+    }
+}
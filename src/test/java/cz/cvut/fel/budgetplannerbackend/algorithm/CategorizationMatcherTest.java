@@ -0,0 +1,65 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategorizationMatcherTest {
+
+    private static CategorizationMatcher.Rule<String> contains(String pattern) {
+        return new CategorizationMatcher.Rule<>(pattern, false, null, null, null);
+    }
+
+    @Test
+    void match_ReturnsFirstMatchingRuleInOrder() {
+        CategorizationMatcher<String> matcher = new CategorizationMatcher<>(List.of(
+                contains("uber eats"),
+                contains("uber"),
+                new CategorizationMatcher.Rule<>("^SPOTIFY\\s+P\\d+", true, null, null, null)));
+
+        assertEquals(0, matcher.match("UBER EATS Prague", "EXPENSE", BigDecimal.TEN));
+        assertEquals(1, matcher.match("Uber trip", "EXPENSE", BigDecimal.TEN));
+        assertEquals(2, matcher.match("Spotify P1234567", "EXPENSE", BigDecimal.TEN));
+        assertEquals(-1, matcher.match("Card payment SPOTIFY", "EXPENSE", BigDecimal.TEN));
+        assertEquals(-1, matcher.match(null, "EXPENSE", BigDecimal.TEN));
+    }
+
+    @Test
+    void match_ChecksKindAndAmountRange() {
+        CategorizationMatcher<String> matcher = new CategorizationMatcher<>(List.of(
+                new CategorizationMatcher.Rule<>("acme", false, "INCOME", new BigDecimal("1000"), null),
+                new CategorizationMatcher.Rule<>(null, false, "EXPENSE", null, new BigDecimal("5.00")),
+                new CategorizationMatcher.Rule<>("acme", false, null, null, null)));
+
+        assertEquals(0, matcher.match("ACME salary", "INCOME", new BigDecimal("1000.00")));
+        assertEquals(2, matcher.match("ACME refund", "INCOME", new BigDecimal("12.00")));
+        assertEquals(1, matcher.match("ACME coffee", "EXPENSE", new BigDecimal("4.50")));
+        assertEquals(2, matcher.match("ACME hardware", "EXPENSE", null));
+        assertEquals(-1, matcher.match("Bakery", "EXPENSE", new BigDecimal("5.01")));
+    }
+
+    @Test
+    void match_GivesUpCatastrophicallyBacktrackingRegularExpressions() {
+        CategorizationMatcher<String> matcher = new CategorizationMatcher<>(List.of(
+                new CategorizationMatcher.Rule<>("(a+)+$", true, null, null, null),
+                contains("aaa")));
+        String description = "a".repeat(40) + "!"; // 2^40 ways to split the a's before failing at the "!".
+
+        int match = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> matcher.match(description, "EXPENSE", BigDecimal.TEN));
+
+        assertEquals(1, match);
+        assertEquals(0, matcher.match("a".repeat(40), "EXPENSE", BigDecimal.TEN));
+    }
+
+    @Test
+    void constructor_RejectsInvalidRegularExpressions() {
+        List<CategorizationMatcher.Rule<String>> rules = List.of(new CategorizationMatcher.Rule<>("(unclosed", true, null, null, null));
+
+        assertThrows(PatternSyntaxException.class, () -> new CategorizationMatcher<>(rules));
+    }
+}
@@ -0,0 +1,92 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExponentialMovingStatisticsTest {
+
+    @Test
+    void zScore_UnknownOrShortHistoryIsNaN() {
+        ExponentialMovingStatistics statistics = new ExponentialMovingStatistics();
+        assertTrue(Double.isNaN(statistics.zScore(1, 2, 10, 1, 1)));
+
+        statistics.update(1, 2, 10, 0.1);
+
+        assertTrue(Double.isNaN(statistics.zScore(1, 2, 10, 2, 1)));
+        assertEquals(0, statistics.zScore(1, 2, 10, 1, 1), 1e-9);
+        assertTrue(Double.isNaN(statistics.zScore(2, 1, 10, 1, 1)));
+    }
+
+    @Test
+    void update_ConvergesToMeanAndDeviation() {
+        Random random = new Random(3);
+        ExponentialMovingStatistics statistics = new ExponentialMovingStatistics();
+        for (int i = 0; i < 5000; i++) {
+            statistics.update(1, 1, 100 + random.nextGaussian() * 10, 0.01);
+        }
+
+        // Mean 100 and standard deviation 10: a value of 130 lies about three deviations above the mean.
+        assertEquals(3, statistics.zScore(1, 1, 130, 1, 1), 0.5);
+        assertEquals(0, statistics.zScore(1, 1, 100, 1, 1), 0.5);
+    }
+
+    @Test
+    void zScore_UsesMinimumDeviationForConstantValues() {
+        ExponentialMovingStatistics statistics = new ExponentialMovingStatistics();
+        for (int i = 0; i < 10; i++) {
+            statistics.update(1, 1, 50, 0.1);
+        }
+
+        assertEquals(5, statistics.zScore(1, 1, 60, 1, 2), 1e-9);
+    }
+
+    @Test
+    void update_KeepsManyKeysApartAndDrainsDirtyOnce() {
+        ExponentialMovingStatistics statistics = new ExponentialMovingStatistics();
+        for (long dashboard = 1; dashboard <= 100; dashboard++) {
+            for (long category = 0; category < 10; category++) {
+                statistics.update(dashboard, category, dashboard * 1000 + category, 0.5);
+            }
+        }
+        statistics.putIfAbsent(500, 0, 1, 0, 1);
+
+        assertEquals(1001, statistics.size());
+        assertEquals(0, statistics.zScore(42, 7, 42007, 1, 1), 1e-9);
+        List<Long> drained = new ArrayList<>();
+        statistics.drainDirty((first, second, mean, variance, count) -> drained.add(first * 1000 + second));
+        assertEquals(1000, drained.size()); // Restored statistics are not dirty.
+        statistics.drainDirty((first, second, mean, variance, count) -> fail("Drained twice"));
+    }
+
+    @Test
+    void putIfAbsent_KeepsExistingStatistics() {
+        ExponentialMovingStatistics statistics = new ExponentialMovingStatistics();
+        statistics.update(1, 1, 10, 0.1);
+
+        assertFalse(statistics.putIfAbsent(1, 1, 99, 0, 5));
+        assertEquals(0, statistics.zScore(1, 1, 10, 1, 1), 1e-9);
+        assertTrue(statistics.putIfAbsent(1, 2, 99, 4, 5));
+        assertEquals(0.5, statistics.zScore(1, 2, 100, 5, 1), 1e-9);
+    }
+
+    @Test
+    void removeAll_RemovesOnlyTheFirstKey() {
+        ExponentialMovingStatistics statistics = new ExponentialMovingStatistics();
+        for (long category = 0; category < 50; category++) {
+            statistics.update(1, category, 1, 0.1);
+            statistics.update(2, category, 2, 0.1);
+        }
+
+        statistics.removeAll(1);
+
+        assertEquals(50, statistics.size());
+        assertFalse(statistics.contains(1, 3));
+        assertTrue(statistics.contains(2, 3));
+        assertEquals(0, statistics.zScore(2, 49, 2, 1, 1), 1e-9);
+    }
+}
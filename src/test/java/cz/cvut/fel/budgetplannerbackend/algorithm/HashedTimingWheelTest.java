@@ -0,0 +1,97 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private static List<String> advance(HashedTimingWheel<String> wheel, long nowMillis) {
+        List<String> expired = new ArrayList<>();
+        wheel.advance(nowMillis, expired::add);
+        return expired;
+    }
+
+    @Test
+    void advance_ExpiresKeysInTickOrder() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 8, 0);
+        wheel.schedule("late", 55);
+        wheel.schedule("early", 12);
+        wheel.schedule("now", 3);
+
+        assertEquals(List.of("now"), advance(wheel, 9));
+        assertEquals(List.of("early"), advance(wheel, 49));
+        assertEquals(List.of("late"), advance(wheel, 50));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_KeysBeyondOneTurnWaitForTheirTurn() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 4, 0);
+        wheel.schedule("two turns", 95); // Same slot as tick 1 and 5, but due at tick 9.
+
+        assertTrue(advance(wheel, 89).isEmpty());
+        assertTrue(wheel.contains("two turns"));
+        assertEquals(List.of("two turns"), advance(wheel, 90));
+    }
+
+    @Test
+    void schedule_PastDeadlineExpiresWithTheNextTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 8, 1000);
+        assertTrue(advance(wheel, 1005).isEmpty());
+
+        wheel.schedule("missed", 0);
+
+        assertEquals(List.of("missed"), advance(wheel, 1010));
+    }
+
+    @Test
+    void schedule_ReplacesAndCancelsPreviousDeadline() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 8, 0);
+        wheel.schedule("moved", 20);
+        wheel.schedule("moved", 60);
+        wheel.schedule("cancelled", 20);
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("unknown"));
+
+        assertTrue(advance(wheel, 59).isEmpty());
+        assertEquals(List.of("moved"), advance(wheel, 60));
+    }
+
+    @Test
+    void advance_ExpiresRandomKeysWithinTheirTick() {
+        Random random = new Random(11);
+        long tick = 7;
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(tick, 64, 0);
+        long[] deadlines = new long[5000];
+        for (int key = 0; key < deadlines.length; key++) {
+            deadlines[key] = random.nextInt(10_000);
+            wheel.schedule(key, deadlines[key]);
+        }
+
+        boolean[] expired = new boolean[deadlines.length];
+        long now = 0;
+        while (wheel.size() > 0) {
+            now += random.nextInt(50);
+            long currentTick = now / tick;
+            wheel.advance(now, key -> {
+                assertFalse(expired[key]);
+                assertTrue(deadlines[key] / tick <= currentTick, "Key " + key + " expired before its tick");
+                expired[key] = true;
+            });
+            for (int key = 0; key < deadlines.length; key++) {
+                assertTrue(expired[key] || deadlines[key] / tick > currentTick, "Key " + key + " did not expire in its tick");
+            }
+        }
+    }
+
+    @Test
+    void constructor_RejectsInvalidTicks() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<>(0, 8, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<>(10, 0, 0));
+    }
+}
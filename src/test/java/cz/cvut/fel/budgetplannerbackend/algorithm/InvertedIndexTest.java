@@ -0,0 +1,64 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.add(1, "Rent for March");
+        index.add(2, "Albert groceries");
+        index.add(3, "Netflix subscription");
+        index.add(4, "Rent, rent deposit");
+        index.add(5, null);
+    }
+
+    private List<Long> ids(List<InvertedIndex.Hit> hits) {
+        return hits.stream().map(InvertedIndex.Hit::id).toList();
+    }
+
+    @Test
+    void tokenize_SplitsOnNonAlphanumericCharactersAndLowercases() {
+        assertEquals(List.of("nákup", "albert", "2024"), InvertedIndex.tokenize("Nákup: ALBERT (2024)"));
+        assertTrue(InvertedIndex.tokenize("  -- ").isEmpty());
+    }
+
+    @Test
+    void search_MatchesWordPrefixes() {
+        assertEquals(List.of(2L), ids(index.search(List.of("alb"))));
+        assertEquals(List.of(3L), ids(index.search(List.of("netflix"))));
+        assertTrue(index.search(List.of("bert")).isEmpty());
+    }
+
+    @Test
+    void search_RequiresAllTerms() {
+        assertEquals(List.of(1L), ids(index.search(List.of("rent", "march"))));
+        assertTrue(index.search(List.of("rent", "netflix")).isEmpty());
+    }
+
+    @Test
+    void search_RanksMoreOccurrencesHigher() {
+        List<InvertedIndex.Hit> hits = index.search(List.of("rent"));
+
+        assertEquals(List.of(4L, 1L), ids(hits));
+        assertTrue(hits.get(0).rank() > hits.get(1).rank());
+    }
+
+    @Test
+    void search_OrdersEqualRanksByDescendingId() {
+        InvertedIndex equal = new InvertedIndex();
+        equal.add(7, "Coffee");
+        equal.add(9, "Coffee");
+        equal.add(8, "Coffee");
+
+        assertEquals(List.of(9L, 8L, 7L), ids(equal.search(List.of("coffee"))));
+    }
+}
@@ -0,0 +1,78 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LargestTriangleThreeBucketsTest {
+
+    private static double[] range(int size) {
+        double[] x = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i;
+        }
+        return x;
+    }
+
+    @Test
+    void select_KeepsAllPointsUpToThreshold() {
+        assertArrayEquals(new int[]{0, 1, 2, 3}, LargestTriangleThreeBuckets.select(range(4), new double[][]{{1, 2, 3, 4}}, 5));
+    }
+
+    @Test
+    void select_KeepsFirstLastAndOnePointPerBucket() {
+        double[] y = new double[1000];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = Math.sin(i / 10.0);
+        }
+
+        int[] selected = LargestTriangleThreeBuckets.select(range(y.length), new double[][]{y}, 50);
+
+        assertEquals(50, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(999, selected[49]);
+        for (int i = 1; i < selected.length; i++) {
+            assertTrue(selected[i] > selected[i - 1]);
+        }
+    }
+
+    @Test
+    void select_KeepsSpikes() {
+        double[] y = new double[100];
+        y[37] = 1000;
+        y[71] = -500;
+
+        int[] selected = LargestTriangleThreeBuckets.select(range(y.length), new double[][]{y}, 10);
+
+        assertTrue(contains(selected, 37));
+        assertTrue(contains(selected, 71));
+    }
+
+    @Test
+    void select_KeepsSpikesOfEverySeries() {
+        double[] income = new double[100];
+        double[] expense = new double[100];
+        income[20] = 800;
+        expense[60] = 900;
+
+        int[] selected = LargestTriangleThreeBuckets.select(range(100), new double[][]{income, expense}, 8);
+
+        assertTrue(contains(selected, 20));
+        assertTrue(contains(selected, 60));
+    }
+
+    @Test
+    void select_RejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> LargestTriangleThreeBuckets.select(range(10), new double[][]{new double[10]}, 2));
+        assertThrows(IllegalArgumentException.class, () -> LargestTriangleThreeBuckets.select(range(10), new double[][]{new double[9]}, 5));
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,57 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashIndexTest {
+
+    @Test
+    void signature_EstimatesJaccardSimilarity() {
+        MinHashIndex<String> index = new MinHashIndex<>(64, 2);
+        int[] text = index.signature("grocery store prague");
+
+        assertEquals(1.0, MinHashIndex.similarity(text, index.signature("grocery store prague")));
+        assertTrue(MinHashIndex.similarity(text, index.signature("grocery store praha")) > 0.5);
+        assertTrue(MinHashIndex.similarity(text, index.signature("monthly rent payment")) < 0.2);
+        assertNull(index.signature(""));
+        assertNotNull(index.signature("ab")); // Shorter than a shingle.
+    }
+
+    @Test
+    void candidates_FindsSimilarEntriesOfSamePartition() {
+        MinHashIndex<String> index = new MinHashIndex<>(16, 2);
+        index.add(1, 100, index.signature("netflix subscription"), "a");
+        index.add(2, 100, index.signature("monthly rent payment"), "b");
+        index.add(3, 200, index.signature("netflix subscription"), "c");
+
+        List<MinHashIndex.Match<String>> matches = index.candidates(100, index.signature("netflix subscriptions"));
+
+        assertEquals(1, matches.size());
+        assertEquals(1, matches.get(0).id());
+        assertEquals("a", matches.get(0).value());
+        assertTrue(matches.get(0).similarity() > 0.7);
+    }
+
+    @Test
+    void add_ReplacesAndRemoveDropsEntries() {
+        MinHashIndex<String> index = new MinHashIndex<>(8, 2);
+        index.add(1, 5, index.signature("coffee"), "old");
+        index.add(1, 5, index.signature("coffee"), "new");
+
+        assertEquals(1, index.size());
+        assertEquals("new", index.candidates(5, index.signature("coffee")).get(0).value());
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertEquals(0, index.size());
+        assertTrue(index.candidates(5, index.signature("coffee")).isEmpty());
+    }
+
+    @Test
+    void constructor_RejectsEmptySignature() {
+        assertThrows(IllegalArgumentException.class, () -> new MinHashIndex<>(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> new MinHashIndex<>(4, 0));
+    }
+}
@@ -0,0 +1,121 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The benchmark only runs when the number of categories is given, e.g.
+ * {@code mvn test -Dtest=PriorityBudgetAllocatorTest -Dbenchmark.categories=500}.
+ */
+class PriorityBudgetAllocatorTest {
+
+    @Test
+    void allocate_WithoutBindingMinimumsSplitsByWeight() {
+        long[] amounts = PriorityBudgetAllocator.allocate(1000, new double[]{1, 3, 6}, new long[]{0, 0, 0});
+
+        assertArrayEquals(new long[]{100, 300, 600}, amounts);
+    }
+
+    @Test
+    void allocate_BindingMinimumsLeaveTheRestByWeight() {
+        // The first category's share of 500 would be 250, below its minimum of 700.
+        long[] amounts = PriorityBudgetAllocator.allocate(1000, new double[]{1, 1, 2}, new long[]{700, 0, 0});
+
+        assertArrayEquals(new long[]{700, 100, 200}, amounts);
+    }
+
+    @Test
+    void allocate_CategoriesWithoutWeightGetTheirMinimum() {
+        long[] amounts = PriorityBudgetAllocator.allocate(1000, new double[]{0, 2, 3}, new long[]{150, 0, 0});
+
+        assertArrayEquals(new long[]{150, 340, 510}, amounts);
+    }
+
+    @Test
+    void allocate_WithoutAnyWeightSplitsEqually() {
+        long[] amounts = PriorityBudgetAllocator.allocate(900, new double[]{0, 0, 0}, new long[]{0, 0, 0});
+
+        assertArrayEquals(new long[]{300, 300, 300}, amounts);
+    }
+
+    @Test
+    void allocate_RoundsToTheTotalExactly() {
+        long[] amounts = PriorityBudgetAllocator.allocate(100, new double[]{1, 1, 1}, new long[]{0, 0, 0});
+
+        assertEquals(100, Arrays.stream(amounts).sum());
+        assertArrayEquals(new long[]{33, 33, 33}, Arrays.stream(amounts).map(amount -> Math.min(amount, 33)).toArray());
+    }
+
+    @Test
+    void allocate_ManyCategoriesSatisfyOptimalityConditions() {
+        Random random = new Random(11);
+        int n = 500;
+        double[] weights = new double[n];
+        long[] minimums = new long[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(10);
+            minimums[i] = random.nextInt(20_000);
+        }
+        long total = Arrays.stream(minimums).sum() * 2;
+
+        long[] amounts = PriorityBudgetAllocator.allocate(total, weights, minimums);
+
+        // Categories above their minimum get amounts proportional to their weights; the others would get less.
+        assertEquals(total, Arrays.stream(amounts).sum());
+        double lambda = 0;
+        for (int i = 0; i < n; i++) {
+            assertTrue(amounts[i] >= minimums[i]);
+            if (weights[i] > 0 && amounts[i] > minimums[i] + 1) {
+                lambda = amounts[i] / weights[i];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (weights[i] == 0) {
+                assertEquals(minimums[i], amounts[i]);
+            } else if (amounts[i] > minimums[i] + 1) {
+                assertEquals(lambda * weights[i], amounts[i], 1.0);
+            } else {
+                assertTrue(lambda * weights[i] <= minimums[i] + 1);
+            }
+        }
+    }
+
+    @Test
+    void allocate_RejectsMinimumsAboveTotal() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PriorityBudgetAllocator.allocate(100, new double[]{1, 1}, new long[]{60, 50}));
+        assertThrows(IllegalArgumentException.class,
+                () -> PriorityBudgetAllocator.allocate(100, new double[0], new long[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> PriorityBudgetAllocator.allocate(100, new double[]{-1}, new long[]{0}));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.categories", matches = "\\d+")
+    void benchmarkAllocation() {
+        int n = Integer.parseInt(System.getProperty("benchmark.categories"));
+        int iterations = Integer.getInteger("benchmark.iterations", 10_000);
+        Random random = new Random(7);
+        double[] weights = new double[n];
+        long[] minimums = new long[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = random.nextDouble() * 10;
+            minimums[i] = random.nextInt(50_000);
+        }
+        long total = Arrays.stream(minimums).sum() * 3 / 2;
+        for (int i = 0; i < iterations; i++) {
+            PriorityBudgetAllocator.allocate(total, weights, minimums); // Warm-up.
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            PriorityBudgetAllocator.allocate(total, weights, minimums);
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / iterations;
+        System.out.printf("Allocated %d categories in %.1f us on average%n", n, micros);
+    }
+}
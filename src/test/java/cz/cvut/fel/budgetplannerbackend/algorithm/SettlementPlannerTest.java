@@ -0,0 +1,65 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementPlannerTest {
+
+    private static long[] apply(long[] balances, List<SettlementPlanner.Transfer> transfers) {
+        long[] remaining = balances.clone();
+        for (SettlementPlanner.Transfer transfer : transfers) {
+            assertTrue(transfer.amount() > 0);
+            remaining[transfer.from()] += transfer.amount();
+            remaining[transfer.to()] -= transfer.amount();
+        }
+        return remaining;
+    }
+
+    @Test
+    void settle_SettledGroupNeedsNoTransfers() {
+        assertTrue(SettlementPlanner.settle(new long[]{0, 0, 0}).isEmpty());
+        assertTrue(SettlementPlanner.settle(new long[0]).isEmpty());
+    }
+
+    @Test
+    void settle_LargestDebtorPaysLargestCreditor() {
+        List<SettlementPlanner.Transfer> transfers = SettlementPlanner.settle(new long[]{-50, 80, -30});
+
+        assertEquals(List.of(new SettlementPlanner.Transfer(0, 1, 50), new SettlementPlanner.Transfer(2, 1, 30)), transfers);
+    }
+
+    @Test
+    void settle_MatchingDebtsTakeOneTransferEach() {
+        List<SettlementPlanner.Transfer> transfers = SettlementPlanner.settle(new long[]{100, -100, 40, -40});
+
+        assertEquals(2, transfers.size());
+        assertArrayEquals(new long[4], apply(new long[]{100, -100, 40, -40}, transfers));
+    }
+
+    @Test
+    void settle_LargeGroupNeedsFewerTransfersThanMembers() {
+        Random random = new Random(5);
+        int n = 1000;
+        long[] balances = new long[n];
+        long sum = 0;
+        for (int i = 0; i < n - 1; i++) {
+            balances[i] = random.nextInt(200_001) - 100_000;
+            sum += balances[i];
+        }
+        balances[n - 1] = -sum;
+
+        List<SettlementPlanner.Transfer> transfers = SettlementPlanner.settle(balances);
+
+        assertTrue(transfers.size() <= n - 1);
+        assertArrayEquals(new long[n], apply(balances, transfers));
+    }
+
+    @Test
+    void settle_RejectsUnbalancedInput() {
+        assertThrows(IllegalArgumentException.class, () -> SettlementPlanner.settle(new long[]{10, -5}));
+    }
+}
@@ -0,0 +1,96 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TDigestTest {
+
+    private static double exact(double[] sorted, double q) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(q * sorted.length))];
+    }
+
+    @Test
+    void quantile_EmptyDigestIsNaN() {
+        TDigest digest = new TDigest();
+
+        assertTrue(Double.isNaN(digest.quantile(0.5)));
+        assertTrue(Double.isNaN(digest.max()));
+        assertEquals(0, digest.size());
+    }
+
+    @Test
+    void quantile_SmallSetsAreExactAtTheEnds() {
+        TDigest digest = new TDigest();
+        digest.add(3);
+        digest.add(1);
+        digest.add(2);
+
+        assertEquals(1, digest.quantile(0), 1e-9);
+        assertEquals(2, digest.quantile(0.5), 1e-9);
+        assertEquals(3, digest.quantile(1), 1e-9);
+        assertEquals(3, digest.size());
+    }
+
+    @Test
+    void quantile_EstimatesSkewedDistribution() {
+        Random random = new Random(7);
+        TDigest digest = new TDigest();
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian() * 1.5 + 3); // Long right tail, like expenses.
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        // Accuracy is measured in rank: the estimate must lie between the exact quantiles q - 0.5% and q + 0.5%.
+        for (double q : new double[]{0.1, 0.5, 0.9, 0.99}) {
+            double estimate = digest.quantile(q);
+            assertTrue(estimate >= exact(values, q - 0.005) && estimate <= exact(values, q + 0.005), "q=" + q);
+        }
+        assertEquals(values[values.length - 1], digest.max());
+        assertEquals(values[0], digest.min());
+    }
+
+    @Test
+    void add_MergedDigestsMatchOneDigest() {
+        Random random = new Random(11);
+        TDigest whole = new TDigest();
+        TDigest merged = new TDigest();
+        for (int part = 0; part < 12; part++) {
+            TDigest month = new TDigest();
+            for (int i = 0; i < 5_000; i++) {
+                double value = random.nextDouble() * 1000 * (part + 1);
+                month.add(value);
+                whole.add(value);
+            }
+            merged.add(month);
+        }
+
+        assertEquals(whole.size(), merged.size());
+        assertEquals(whole.max(), merged.max());
+        for (double q : new double[]{0.5, 0.9}) {
+            assertEquals(whole.quantile(q), merged.quantile(q), whole.quantile(q) * 0.02, "q=" + q);
+        }
+    }
+
+    @Test
+    void toBytes_RoundTripsTheDigest() {
+        TDigest digest = new TDigest();
+        for (int i = 1; i <= 10_000; i++) {
+            digest.add(i);
+        }
+
+        byte[] bytes = digest.toBytes();
+        TDigest restored = TDigest.fromBytes(bytes);
+
+        assertTrue(bytes.length < 10_000 * 16 / 10, "The digest should be much smaller than the values");
+        assertEquals(digest.size(), restored.size());
+        assertEquals(digest.quantile(0.9), restored.quantile(0.9), 1e-9);
+        assertEquals(10_000, restored.max());
+        assertThrows(IllegalArgumentException.class, () -> TDigest.fromBytes(new byte[]{1, 2, 3}));
+    }
+}
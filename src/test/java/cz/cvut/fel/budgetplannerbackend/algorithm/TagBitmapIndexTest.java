@@ -0,0 +1,77 @@
+package cz.cvut.fel.budgetplannerbackend.algorithm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagBitmapIndexTest {
+
+    private static final long FOOD = 1;
+    private static final long WORK = 2;
+    private static final long TRIP = 3;
+
+    private TagBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TagBitmapIndex();
+        index.put(10, List.of(FOOD));
+        index.put(11, List.of(FOOD, WORK));
+        index.put(12, List.of(WORK, TRIP));
+        index.put(13, List.of());
+        index.put(5_000_000_000L, List.of(FOOD, TRIP));
+    }
+
+    private List<Long> filter(List<Long> all, List<Long> any, List<Long> none) {
+        return index.filter(all, any, none).stream().boxed().toList();
+    }
+
+    @Test
+    void filter_AllRequiresEveryTag() {
+        assertEquals(List.of(11L), filter(List.of(FOOD, WORK), List.of(), List.of()));
+        assertEquals(List.of(), filter(List.of(FOOD, 99L), List.of(), List.of()));
+    }
+
+    @Test
+    void filter_AnyRequiresOneOfTheTags() {
+        assertEquals(List.of(11L, 12L, 5_000_000_000L), filter(List.of(), List.of(WORK, TRIP), List.of()));
+    }
+
+    @Test
+    void filter_NoneExcludesTagsFromAllRecords() {
+        assertEquals(List.of(12L, 13L), filter(List.of(), List.of(), List.of(FOOD)));
+    }
+
+    @Test
+    void filter_CombinesConditions() {
+        assertEquals(List.of(11L), filter(List.of(FOOD), List.of(WORK, TRIP), List.of(TRIP)));
+    }
+
+    @Test
+    void put_ReplacesTagsOfExistingRecord() {
+        index.put(10, List.of(TRIP));
+
+        assertEquals(List.of(11L, 5_000_000_000L), filter(List.of(FOOD), List.of(), List.of()));
+        assertEquals(List.of(10L, 12L, 5_000_000_000L), filter(List.of(TRIP), List.of(), List.of()));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void remove_DropsRecordFromAllBitmaps() {
+        index.remove(11);
+
+        assertEquals(List.of(), filter(List.of(FOOD, WORK), List.of(), List.of()));
+        assertEquals(List.of(10L, 12L, 13L, 5_000_000_000L), filter(List.of(), List.of(), List.of(99L)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void filter_ReturnsIndependentCopy() {
+        index.filter(List.of(), List.of(), List.of()).removeLong(10);
+
+        assertEquals(5, index.filter(List.of(), List.of(), List.of()).getLongCardinality());
+    }
+}
@@ -0,0 +1,93 @@
+package cz.cvut.fel.budgetplannerbackend.config.datasource;
+
+import cz.cvut.fel.budgetplannerbackend.Application;
+import cz.cvut.fel.budgetplannerbackend.entity.Category;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the application against a primary and a lagging replica, two databases of one embedded PostgreSQL
+ * where the replica has not seen the latest change yet, and checks that replica reads do not reach the
+ * second-level cache.
+ */
+class ReplicaCacheIntegrationTest {
+
+    private static final long CATEGORY_ID = 1000;
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext application;
+
+    @BeforeAll
+    static void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE DATABASE replica");
+        seed(postgres.getPostgresDatabase(), "Food");
+        seed(postgres.getDatabase("postgres", "replica"), "Groceries"); // The rename has not been replayed yet.
+        // Command line arguments take precedence over the environment variables referenced by application.properties.
+        application = new SpringApplicationBuilder(Application.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--replica-datasource.url=" + postgres.getJdbcUrl("postgres", "replica"),
+                "--replica-datasource.username=postgres",
+                "--replica-datasource.password=",
+                "--jwt.secret=dGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQ=");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (application != null) {
+            application.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    private static void seed(DataSource dataSource, String categoryName) {
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (id, user_name, user_email, user_password) VALUES (1000, 'u', 'u@example.com', 'p')");
+        jdbc.update("INSERT INTO dashboards (id, title, user_id) VALUES (1000, 'Household', 1000)");
+        jdbc.update("INSERT INTO categories (id, name, dashboard_id) VALUES (?, ?, 1000)", CATEGORY_ID, categoryName);
+    }
+
+    private String readCategoryName(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> application.getBean(EntityManager.class).find(Category.class, CATEGORY_ID).getName());
+    }
+
+    private boolean isCached() {
+        return application.getBean(EntityManagerFactory.class).getCache().contains(Category.class, CATEGORY_ID);
+    }
+
+    @Test
+    void testReplicaReadsDoNotPopulateSecondLevelCache() {
+        assertTrue(application.getBean(ReplicaRoutingDataSource.class).isReplicaAvailable());
+
+        assertEquals("Groceries", readCategoryName(true));
+        assertFalse(isCached());
+
+        assertEquals("Food", readCategoryName(false));
+        assertTrue(isCached());
+        // Cached entities loaded from the primary are still read by replica sessions.
+        assertEquals("Food", readCategoryName(true));
+    }
+}
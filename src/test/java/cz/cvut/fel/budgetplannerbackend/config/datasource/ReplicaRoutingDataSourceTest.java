@@ -0,0 +1,139 @@
+package cz.cvut.fel.budgetplannerbackend.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, 5000, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        routingDataSource.restoreReadOnlyTarget(null);
+    }
+
+    private void replicaLag(double seconds) throws SQLException {
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.getDouble(1)).thenReturn(seconds);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    private double routes(String target, String transaction) {
+        return meterRegistry.get("budget_planner.datasource.routing").tag("target", target).tag("transaction", transaction).counter().count();
+    }
+
+    @Test
+    void getConnection_ReadWriteTransactionUsesPrimary() throws SQLException {
+        replicaLag(0);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertEquals(1, routes("primary", "read-write"));
+    }
+
+    @Test
+    void getConnection_ReadOnlyTransactionUsesReplica() throws SQLException {
+        replicaLag(0.5);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, routingDataSource.getConnection());
+        assertTrue(routingDataSource.isReplicaAvailable());
+        assertEquals(1, routes("replica", "read-only"));
+        assertEquals(0.5, meterRegistry.get("budget_planner.datasource.replica.lag").gauge().value());
+    }
+
+    @Test
+    void getConnection_LaggingReplicaFallsBackToPrimary() throws SQLException {
+        replicaLag(30);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertFalse(routingDataSource.isReplicaAvailable());
+        assertEquals(1, routes("primary", "read-only"));
+    }
+
+    @Test
+    void getConnection_UnreachableReplicaFallsBackToPrimary() throws SQLException {
+        replicaLag(0);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertFalse(routingDataSource.isReplicaAvailable());
+        assertEquals(0, meterRegistry.get("budget_planner.datasource.replica.available").gauge().value());
+    }
+
+    @Test
+    void checkReplicaLag_RestoresReplicaWhenItCatchesUp() throws SQLException {
+        replicaLag(30);
+        assertFalse(routingDataSource.isReplicaAvailable());
+
+        when(resultSet.getDouble(1)).thenReturn(1.0);
+        routingDataSource.checkReplicaLag();
+
+        assertTrue(routingDataSource.isReplicaAvailable());
+    }
+
+    @Test
+    void getConnection_TransactionBegunWhileReplicaLaggedStaysOnPrimary() throws SQLException {
+        replicaLag(30);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Boolean previous = routingDataSource.chooseReadOnlyTarget();
+
+        when(resultSet.getDouble(1)).thenReturn(1.0);
+        routingDataSource.checkReplicaLag(); // Caught up before the first statement of the transaction.
+
+        assertFalse(routingDataSource.isReplicaChosen());
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        routingDataSource.restoreReadOnlyTarget(previous);
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+}
@@ -0,0 +1,184 @@
+package cz.cvut.fel.budgetplannerbackend.config.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The benchmark only runs when the number of requests per thread is given, e.g.
+ * {@code mvn test -Dtest=SamplingTurboFilterTest -Dbenchmark.requests=20000}.
+ */
+class SamplingTurboFilterTest {
+
+    private LoggerContext loggerContext;
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.DEBUG);
+        filter = new SamplingTurboFilter();
+        filter.setContext(loggerContext);
+        filter.addLoggerPrefix("cz.cvut.fel.budgetplannerbackend.service");
+        filter.setLevel("INFO");
+        filter.setSampleRate(4);
+        filter.start();
+    }
+
+    @Test
+    void decide_KeepsEveryNthEventOfMatchingLogger() {
+        Logger logger = loggerContext.getLogger("cz.cvut.fel.budgetplannerbackend.service.implementation.BudgetServiceImpl");
+
+        int passed = 0;
+        for (int i = 0; i < 100; i++) {
+            if (filter.decide(null, logger, Level.INFO, "msg", null, null) != FilterReply.DENY) {
+                passed++;
+            }
+        }
+
+        assertEquals(25, passed);
+    }
+
+    @Test
+    void decide_CountsEachLoggerSeparately() {
+        Logger first = loggerContext.getLogger("cz.cvut.fel.budgetplannerbackend.service.A");
+        Logger second = loggerContext.getLogger("cz.cvut.fel.budgetplannerbackend.service.B");
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, first, Level.INFO, "msg", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, second, Level.INFO, "msg", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, first, Level.INFO, "msg", null, null));
+    }
+
+    @Test
+    void decide_NeverSamplesWarningsOrExceptions() {
+        Logger logger = loggerContext.getLogger("cz.cvut.fel.budgetplannerbackend.service.A");
+        filter.decide(null, logger, Level.INFO, "msg", null, null);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.WARN, "msg", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "msg", null, new IllegalStateException()));
+        }
+    }
+
+    @Test
+    void decide_IgnoresOtherLoggersAndDisabledLevels() {
+        Logger other = loggerContext.getLogger("org.springframework.web.Servlet");
+        Logger service = loggerContext.getLogger("cz.cvut.fel.budgetplannerbackend.service.A");
+        service.setLevel(Level.INFO);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.INFO, "msg", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, service, Level.DEBUG, "msg", null, null));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.requests", matches = "\\d+")
+    void benchmarkRequestLatency(@TempDir Path directory) throws Exception {
+        int requests = Integer.parseInt(System.getProperty("benchmark.requests"));
+        int threads = Integer.getInteger("benchmark.threads", 8);
+        // Every run writes to a file. The synchronous unsampled run is the baseline, the async and sampled runs change one
+        // of the two each, async+sampled is the pipeline of logback-spring.xml, and off logs nothing.
+        benchmark("synchronous", requests, threads, directory.resolve("sync.log"), false, 1, Level.INFO);
+        benchmark("async", requests, threads, directory.resolve("async.log"), true, 1, Level.INFO);
+        benchmark("sampled", requests, threads, directory.resolve("sampled.log"), false, 10, Level.INFO);
+        benchmark("async+sampled", requests, threads, directory.resolve("async-sampled.log"), true, 10, Level.INFO);
+        benchmark("off", requests, threads, directory.resolve("off.log"), false, 1, Level.OFF);
+    }
+
+    private static void benchmark(String label, int requests, int threads, Path file, boolean async, int sampleRate, Level level)
+            throws Exception {
+        LoggerContext context = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setDiscardingThreshold(1638);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.addLoggerPrefix("cz.cvut.fel.budgetplannerbackend.controller");
+        filter.addLoggerPrefix("cz.cvut.fel.budgetplannerbackend.service");
+        filter.addLoggerPrefix("cz.cvut.fel.budgetplannerbackend.security");
+        filter.setSampleRate(sampleRate);
+        filter.start();
+        context.addTurboFilter(filter);
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(level);
+        root.addAppender(appender);
+        Logger security = context.getLogger("cz.cvut.fel.budgetplannerbackend.security.jwt.JwtAuthenticationFilter");
+        Logger controller = context.getLogger("cz.cvut.fel.budgetplannerbackend.controller.FinancialRecordController");
+        Logger service = context.getLogger("cz.cvut.fel.budgetplannerbackend.service.implementation.FinancialRecordServiceImpl");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    long[] nanos = new long[requests];
+                    for (int i = -requests; i < requests; i++) { // The first half only warms up.
+                        long begin = System.nanoTime();
+                        // The log statements of a typical request around some handler work.
+                        security.debug("Authenticated user {}", i);
+                        controller.info("Received request to get financial records for dashboard with id: {}", i);
+                        long work = 0;
+                        for (int j = 0; j < 2_000; j++) {
+                            work = work * 31 + j;
+                        }
+                        service.info("Found {} financial records for dashboard id: {}", work & 0xff, i);
+                        controller.info("Returning financial records for dashboard with id: {}", i);
+                        if (i >= 0) {
+                            nanos[i] = System.nanoTime() - begin;
+                        }
+                    }
+                    return nanos;
+                }));
+            }
+            long[] all = new long[requests * threads];
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(results.get(t).get(), 0, all, t * requests, requests);
+            }
+            Arrays.sort(all);
+            System.out.printf("%-14s p50 %8.2f us  p99 %8.2f us  p99.9 %8.2f us%n", label, all[all.length / 2] / 1e3,
+                    all[all.length * 99 / 100] / 1e3, all[(int) (all.length * 999L / 1000)] / 1e3);
+        } finally {
+            executor.shutdown();
+            context.stop();
+        }
+    }
+}
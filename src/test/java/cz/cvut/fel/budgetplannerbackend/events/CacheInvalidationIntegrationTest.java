@@ -0,0 +1,159 @@
+package cz.cvut.fel.budgetplannerbackend.events;
+
+import cz.cvut.fel.budgetplannerbackend.Application;
+import cz.cvut.fel.budgetplannerbackend.entity.Category;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two application nodes against one embedded PostgreSQL and checks that a change committed
+ * on one node evicts the second-level cache of the other.
+ */
+class CacheInvalidationIntegrationTest {
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    private Long dashboardId;
+    private Long categoryId;
+
+    @BeforeAll
+    static void startNodes() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() throws IOException {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        // Command line arguments take precedence over the environment variables referenced by application.properties.
+        return new SpringApplicationBuilder(Application.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--jwt.secret=dGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQ=",
+                "--cache-invalidation.poll-timeout=200",
+                "--cache-invalidation.initial-backoff=100");
+    }
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbc = nodeA.getBean(JdbcTemplate.class);
+        String name = "user-" + System.nanoTime();
+        Long userId = jdbc.queryForObject("INSERT INTO users (user_name, user_email, user_password) VALUES (?, ?, ?) RETURNING id",
+                Long.class, name, name + "@example.com", "password");
+        dashboardId = jdbc.queryForObject("INSERT INTO dashboards (title, user_id) VALUES (?, ?) RETURNING id",
+                Long.class, "Household", userId);
+        categoryId = jdbc.queryForObject("INSERT INTO categories (name, dashboard_id) VALUES (?, ?) RETURNING id",
+                Long.class, "Groceries", dashboardId);
+    }
+
+    @Test
+    void testCommittedChangeEvictsCacheOfOtherNode() {
+        assertEquals("Groceries", readCategoryName(nodeB));
+        assertTrue(isCached(nodeB));
+
+        inTransaction(nodeA, entityManager -> {
+            entityManager.find(Category.class, categoryId).setName("Food");
+            nodeA.getBean(DashboardChangeTracker.class).markChanged(dashboardId);
+        });
+
+        awaitTrue(() -> !isCached(nodeB));
+        assertEquals("Food", readCategoryName(nodeB));
+    }
+
+    @Test
+    void testRolledBackChangeKeepsCacheOfOtherNode() throws InterruptedException {
+        readCategoryName(nodeB);
+
+        new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            nodeA.getBean(EntityManager.class).find(Category.class, categoryId).setName("Food");
+            nodeA.getBean(DashboardChangeTracker.class).markChanged(dashboardId);
+            nodeA.getBean(EntityManager.class).flush();
+            status.setRollbackOnly();
+        });
+
+        Thread.sleep(1000);
+        assertTrue(isCached(nodeB));
+    }
+
+    @Test
+    void testListenerReconnectsAndEvictsMissedChanges() {
+        readCategoryName(nodeB);
+        JdbcTemplate jdbc = nodeA.getBean(JdbcTemplate.class);
+
+        jdbc.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                CacheInvalidationListener.APPLICATION_NAME);
+
+        awaitTrue(() -> !isCached(nodeB));
+        awaitTrue(() -> jdbc.queryForObject("SELECT count(*) FROM pg_stat_activity WHERE application_name = ?",
+                Long.class, CacheInvalidationListener.APPLICATION_NAME) == 2);
+
+        // The reconnected listener receives new changes again.
+        readCategoryName(nodeB);
+        inTransaction(nodeA, entityManager -> {
+            entityManager.find(Category.class, categoryId).setName("Food");
+            nodeA.getBean(DashboardChangeTracker.class).markChanged(dashboardId);
+        });
+        awaitTrue(() -> !isCached(nodeB));
+    }
+
+    private String readCategoryName(ConfigurableApplicationContext node) {
+        return new TransactionTemplate(node.getBean(PlatformTransactionManager.class))
+                .execute(status -> node.getBean(EntityManager.class).find(Category.class, categoryId).getName());
+    }
+
+    private boolean isCached(ConfigurableApplicationContext node) {
+        return node.getBean(EntityManagerFactory.class).getCache().contains(Category.class, categoryId);
+    }
+
+    private void inTransaction(ConfigurableApplicationContext node, Consumer<EntityManager> work) {
+        new TransactionTemplate(node.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> work.accept(node.getBean(EntityManager.class)));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 10 seconds");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting");
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package cz.cvut.fel.budgetplannerbackend.events;
+
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECachedEntityType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.SyncTombstoneRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardChangeTrackerTest {
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+
+    @Mock
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @InjectMocks
+    private DashboardChangeTracker dashboardChangeTracker;
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        TransactionSynchronizationManager.unbindResourceIfPossible(dashboardChangeTracker);
+    }
+
+    private void commit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+    }
+
+    @Test
+    void beforeCommit_RecordChangeDoesNotEvictDashboard() {
+        when(dashboardRepository.findVersion(1L)).thenReturn(Optional.of(5L));
+
+        dashboardChangeTracker.markUpserted(ESyncEntityType.FINANCIAL_RECORD, 10L, 1L);
+        commit();
+
+        verify(dashboardRepository).stampChanges(ESyncEntityType.FINANCIAL_RECORD, Set.of(10L), 5L);
+        verify(cacheInvalidationBus, never()).publish(eq(ECachedEntityType.DASHBOARD), any(), any());
+    }
+
+    @Test
+    void beforeCommit_InvalidatedDashboardIsEvicted() {
+        when(dashboardRepository.findVersion(1L)).thenReturn(Optional.of(5L));
+
+        dashboardChangeTracker.markChanged(1L);
+        dashboardChangeTracker.markInvalidated(1L, ECachedEntityType.DASHBOARD);
+        commit();
+
+        verify(cacheInvalidationBus).publish(ECachedEntityType.DASHBOARD, 1L, Set.of(1L));
+    }
+
+    @Test
+    void beforeCommit_BulkUpsertIsStampedOnceAndEvictsWholeRegion() {
+        when(dashboardRepository.findVersion(1L)).thenReturn(Optional.of(5L));
+
+        dashboardChangeTracker.markBulkUpserted(ESyncEntityType.BUDGET, 1L);
+        dashboardChangeTracker.markBulkUpserted(ESyncEntityType.BUDGET, 1L);
+        commit();
+
+        verify(dashboardRepository).incrementVersion(1L);
+        verify(dashboardRepository).stampPendingChanges(ESyncEntityType.BUDGET, 1L, 5L);
+        verify(dashboardRepository, never()).stampChanges(any(), any(), anyLong());
+        verify(cacheInvalidationBus).publish(ECachedEntityType.BUDGET, 1L, null);
+    }
+}
@@ -0,0 +1,162 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.Application;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.repository.CategoryHierarchyRepository.SubtreeTotal;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the closure table maintained by {@link CategoryHierarchyRepositoryImpl} on an embedded PostgreSQL.
+ */
+class CategoryHierarchyIntegrationTest {
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext application;
+    private static CategoryRepository categoryRepository;
+    private static TransactionTemplate transactionTemplate;
+    private static JdbcTemplate jdbc;
+
+    private Long userId;
+    private Long dashboardId;
+
+    @BeforeAll
+    static void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        // Command line arguments take precedence over the environment variables referenced by application.properties.
+        application = new SpringApplicationBuilder(Application.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--jwt.secret=dGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQ=");
+        categoryRepository = application.getBean(CategoryRepository.class);
+        transactionTemplate = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+        jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (application != null) {
+            application.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        String name = "user-" + System.nanoTime();
+        userId = jdbc.queryForObject("INSERT INTO users (user_name, user_email, user_password) VALUES (?, ?, 'p') RETURNING id",
+                Long.class, name, name + "@example.com");
+        dashboardId = jdbc.queryForObject("INSERT INTO dashboards (title, user_id) VALUES ('Household', ?) RETURNING id", Long.class, userId);
+    }
+
+    private Long createCategory(String name, Long parentId) {
+        Long categoryId = jdbc.queryForObject("INSERT INTO categories (name, dashboard_id, parent_id) VALUES (?, ?, ?) RETURNING id",
+                Long.class, name, dashboardId, parentId);
+        transactionTemplate.executeWithoutResult(status -> categoryRepository.insertIntoHierarchy(categoryId, parentId));
+        return categoryId;
+    }
+
+    private void insertRecord(Long categoryId, ERecordType type, String amount) {
+        jdbc.update("INSERT INTO financial_records (user_id, dashboard_id, category_id, amount, date, description, type) "
+                        + "VALUES (?, ?, ?, ?, ?, 'Record', ?)", userId, dashboardId, categoryId, new BigDecimal(amount),
+                Timestamp.valueOf(LocalDateTime.now()), type.name());
+    }
+
+    private Set<String> closureRows(Long... categoryIds) {
+        Set<String> rows = new HashSet<>();
+        for (Long categoryId : categoryIds) {
+            jdbc.query("SELECT ancestor_id, descendant_id, depth FROM category_closure WHERE descendant_id = ?",
+                    resultSet -> {
+                        rows.add(resultSet.getLong(1) + ">" + resultSet.getLong(2) + ":" + resultSet.getInt(3));
+                    }, categoryId);
+        }
+        return rows;
+    }
+
+    private static String path(Long ancestorId, Long descendantId, int depth) {
+        return ancestorId + ">" + descendantId + ":" + depth;
+    }
+
+    @Test
+    void testInsertAddsPathsFromEveryAncestor() {
+        Long a = createCategory("A", null);
+        Long b = createCategory("B", a);
+        Long c = createCategory("C", b);
+
+        assertEquals(Set.of(path(a, a, 0), path(b, b, 0), path(a, b, 1), path(c, c, 0), path(b, c, 1), path(a, c, 2)),
+                closureRows(a, b, c));
+        assertEquals(Set.of(a, b, c), new HashSet<>(categoryRepository.findSubtreeIds(a)));
+        assertTrue(categoryRepository.isInSubtree(a, c));
+        assertFalse(categoryRepository.isInSubtree(c, a));
+    }
+
+    @Test
+    void testMoveSubtreeRewritesPathsAndTotals() {
+        Long a = createCategory("A", null);
+        Long b = createCategory("B", a);
+        Long c = createCategory("C", b);
+        Long d = createCategory("D", a);
+        Long e = createCategory("E", null);
+        insertRecord(c, ERecordType.EXPENSE, "10");
+        insertRecord(b, ERecordType.EXPENSE, "5");
+        insertRecord(d, ERecordType.EXPENSE, "7");
+        insertRecord(a, ERecordType.INCOME, "1");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            categoryRepository.lockHierarchy(dashboardId);
+            categoryRepository.moveSubtree(b, e);
+        });
+
+        // The paths inside the moved subtree are kept, the paths from A are replaced by paths from E.
+        assertEquals(Set.of(path(a, a, 0), path(d, d, 0), path(a, d, 1), path(e, e, 0),
+                        path(b, b, 0), path(e, b, 1), path(c, c, 0), path(b, c, 1), path(e, c, 2)),
+                closureRows(a, b, c, d, e));
+        assertEquals(Set.of(new SubtreeTotal(a, ERecordType.EXPENSE, new BigDecimal("7.00")),
+                        new SubtreeTotal(a, ERecordType.INCOME, new BigDecimal("1.00")),
+                        new SubtreeTotal(b, ERecordType.EXPENSE, new BigDecimal("15.00")),
+                        new SubtreeTotal(c, ERecordType.EXPENSE, new BigDecimal("10.00")),
+                        new SubtreeTotal(d, ERecordType.EXPENSE, new BigDecimal("7.00")),
+                        new SubtreeTotal(e, ERecordType.EXPENSE, new BigDecimal("15.00"))),
+                new HashSet<>(categoryRepository.sumSubtreeTotals(dashboardId, null)));
+        assertEquals(List.of(new SubtreeTotal(e, ERecordType.EXPENSE, new BigDecimal("15.00"))),
+                categoryRepository.sumSubtreeTotals(dashboardId, e));
+
+        // Moving to the top level drops every path from outside the subtree.
+        transactionTemplate.executeWithoutResult(status -> categoryRepository.moveSubtree(b, null));
+        assertEquals(Set.of(path(b, b, 0), path(c, c, 0), path(b, c, 1)), closureRows(b, c));
+    }
+
+    @Test
+    void testLockHierarchyBlocksOtherTransactions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            categoryRepository.lockHierarchy(dashboardId);
+            assertThrows(DataAccessException.class, () -> jdbc.queryForList("SELECT id FROM dashboards WHERE id = ? FOR UPDATE NOWAIT",
+                    dashboardId));
+        });
+
+        assertEquals(1, jdbc.queryForList("SELECT id FROM dashboards WHERE id = ? FOR UPDATE NOWAIT", dashboardId).size());
+    }
+}
@@ -0,0 +1,177 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the monthly partitioning of financial_records on an embedded PostgreSQL.
+ * <p>
+ * The benchmark comparing the partitioned table with an unpartitioned copy only runs when the number of rows
+ * to seed is given, e.g. {@code mvn test -Dtest=FinancialRecordPartitioningIntegrationTest -Dbenchmark.rows=50000000}.
+ */
+class FinancialRecordPartitioningIntegrationTest {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("financial_records_(p\\d{4}_\\d{2}|default)");
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+    private static Long userId;
+    private static Long dashboardId;
+    private static LocalDateTime thisMonth;
+
+    @BeforeAll
+    static void migrate() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        thisMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+
+        // Records created before the partitioning migration have to survive it.
+        Flyway.configure().dataSource(postgres.getPostgresDatabase()).target("8").load().migrate();
+        userId = jdbc.queryForObject("INSERT INTO users (user_name, user_email, user_password) VALUES ('u', 'u@example.com', 'p') RETURNING id", Long.class);
+        dashboardId = jdbc.queryForObject("INSERT INTO dashboards (title, user_id) VALUES ('Household', ?) RETURNING id", Long.class, userId);
+        insertRecord(thisMonth.plusDays(3), "Rent");
+        insertRecord(thisMonth.minusMonths(2).plusDays(10), "Groceries");
+        insertRecord(thisMonth.minusYears(15), "Very old record");
+        Flyway.configure().dataSource(postgres.getPostgresDatabase()).load().migrate();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    private static Long insertRecord(LocalDateTime date, String description) {
+        return jdbc.queryForObject("INSERT INTO financial_records (user_id, dashboard_id, amount, date, description, type) "
+                + "VALUES (?, ?, 10, ?, ?, 'EXPENSE') RETURNING id", Long.class, userId, dashboardId, Timestamp.valueOf(date), description);
+    }
+
+    private static String partitionOf(String description) {
+        return jdbc.queryForObject("SELECT tableoid::regclass::text FROM financial_records WHERE description = ?", String.class, description);
+    }
+
+    private static String partitionName(LocalDateTime month) {
+        return String.format("financial_records_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    @Test
+    void testMigrationMovesExistingRecordsIntoMonthlyPartitions() {
+        assertEquals(partitionName(thisMonth), partitionOf("Rent"));
+        assertEquals(partitionName(thisMonth.minusMonths(2)), partitionOf("Groceries"));
+        assertEquals("financial_records_default", partitionOf("Very old record")); // Older than ten years.
+        assertNotNull(jdbc.queryForObject("SELECT to_regclass(?)", String.class, partitionName(thisMonth.plusMonths(3))));
+        assertNotNull(jdbc.queryForObject("SELECT description_tsv FROM financial_records WHERE description = 'Rent'", String.class));
+
+        // The ID sequence survives the replaced table.
+        Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM financial_records WHERE description <> 'New'", Long.class);
+        assertTrue(insertRecord(thisMonth, "New") > maxId);
+    }
+
+    @Test
+    void testEnsurePartitionMovesRecordsFromDefaultPartition() {
+        LocalDateTime future = thisMonth.plusYears(2);
+        insertRecord(future.plusDays(1), "Future record");
+        assertEquals("financial_records_default", partitionOf("Future record"));
+
+        Boolean created = jdbc.queryForObject("SELECT ensure_financial_records_partition(?)", Boolean.class, future.toLocalDate().plusDays(5));
+        Boolean createdAgain = jdbc.queryForObject("SELECT ensure_financial_records_partition(?)", Boolean.class, future.toLocalDate());
+
+        assertEquals(Boolean.TRUE, created);
+        assertEquals(Boolean.FALSE, createdAgain);
+        assertEquals(partitionName(future), partitionOf("Future record"));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM financial_records WHERE description = 'Future record'", Integer.class));
+    }
+
+    @Test
+    void testDateRangeQueryReadsOnlyOverlappingPartitions() {
+        List<String> plan = jdbc.queryForList("EXPLAIN SELECT SUM(amount) FROM financial_records "
+                + "WHERE dashboard_id = ? AND date >= ? AND date < ?", String.class,
+                dashboardId, Timestamp.valueOf(thisMonth.plusDays(1)), Timestamp.valueOf(thisMonth.plusDays(20)));
+
+        assertEquals(List.of(partitionName(thisMonth)), scannedPartitions(plan));
+    }
+
+    private static List<String> scannedPartitions(List<String> plan) {
+        List<String> partitions = new ArrayList<>();
+        for (String line : plan) {
+            Matcher matcher = PARTITION_NAME.matcher(line);
+            if (line.contains(" on ") && matcher.find() && !partitions.contains(matcher.group())) {
+                partitions.add(matcher.group());
+            }
+        }
+        return partitions;
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.rows", matches = "\\d+")
+    void benchmarkDateRangeQueries() {
+        long rows = Long.parseLong(System.getProperty("benchmark.rows"));
+        int dashboards = Integer.getInteger("benchmark.dashboards", 10_000);
+        int iterations = Integer.getInteger("benchmark.iterations", 200);
+        LocalDateTime start = thisMonth.minusYears(5);
+
+        jdbc.update("INSERT INTO dashboards (title, user_id) SELECT 'Benchmark ' || i, ? FROM generate_series(1, ?) i", userId, dashboards);
+        Long firstDashboard = jdbc.queryForObject("SELECT MIN(id) FROM dashboards WHERE title LIKE 'Benchmark %'", Long.class);
+        long seeded = System.nanoTime();
+        jdbc.update("INSERT INTO financial_records (user_id, dashboard_id, amount, date, description, type) "
+                        + "SELECT ?, ? + (i % ?), (i % 1000) + 0.5, ?::timestamp + (random() * interval '5 years'), 'Record ' || i, "
+                        + "CASE WHEN i % 5 = 0 THEN 'INCOME' ELSE 'EXPENSE' END FROM generate_series(1, ?) i",
+                userId, firstDashboard, dashboards, Timestamp.valueOf(start), rows);
+        // The same rows in an ordinary table with the indexes it had before the partitioning.
+        jdbc.execute("CREATE TABLE financial_records_flat AS SELECT id, user_id, dashboard_id, amount, category_id, date, description, "
+                + "type, change_seq FROM financial_records");
+        jdbc.execute("ALTER TABLE financial_records_flat ADD PRIMARY KEY (id)");
+        jdbc.execute("CREATE INDEX ON financial_records_flat (dashboard_id, change_seq)");
+        jdbc.execute("VACUUM ANALYZE financial_records");
+        jdbc.execute("VACUUM ANALYZE financial_records_flat");
+        System.out.printf("Seeded %d records in %d s%n", rows, (System.nanoTime() - seeded) / 1_000_000_000);
+
+        benchmark("partitioned", "financial_records", firstDashboard, dashboards, iterations, start);
+        benchmark("unpartitioned", "financial_records_flat", firstDashboard, dashboards, iterations, start);
+        // Separates the effect of the new (dashboard_id, date) index from the effect of the partitioning.
+        jdbc.execute("CREATE INDEX ON financial_records_flat (dashboard_id, date)");
+        jdbc.execute("ANALYZE financial_records_flat");
+        benchmark("unpartitioned+index", "financial_records_flat", firstDashboard, dashboards, iterations, start);
+    }
+
+    private static void benchmark(String label, String table, long firstDashboard, int dashboards, int iterations, LocalDateTime start) {
+        String list = "SELECT id, amount, date, description FROM %s WHERE dashboard_id = ? AND date >= ? AND date < ? ORDER BY date DESC, id DESC";
+        String sum = "SELECT type, SUM(amount) FROM %s WHERE dashboard_id = ? AND date >= ? AND date < ? GROUP BY type";
+        for (String query : List.of(list, sum)) {
+            Random random = new Random(42); // Every variant answers the same ranges.
+            long[] nanos = new long[iterations];
+            for (int i = -iterations; i < iterations; i++) { // The first half only warms up the caches.
+                long dashboard = firstDashboard + random.nextInt(dashboards);
+                LocalDateTime from = start.plusMonths(random.nextInt(58)).plusDays(random.nextInt(28));
+                LocalDateTime to = from.plusDays(1 + random.nextInt(60));
+                long begin = System.nanoTime();
+                jdbc.queryForList(String.format(query, table), dashboard, Timestamp.valueOf(from), Timestamp.valueOf(to));
+                if (i >= 0) {
+                    nanos[i] = System.nanoTime() - begin;
+                }
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%-20s %-4s p50 %8.2f ms  p95 %8.2f ms  p99 %8.2f ms%n", label, query == list ? "list" : "sum",
+                    nanos[iterations / 2] / 1e6, nanos[iterations * 95 / 100] / 1e6, nanos[iterations * 99 / 100] / 1e6);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the statement-level triggers of the V13 migration, which keep dashboard_member_expenses equal to the
+ * expenses paid by every member, on an embedded PostgreSQL.
+ */
+class MemberExpenseTriggersIntegrationTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+    private static LocalDateTime thisMonth;
+
+    private Long alice;
+    private Long bob;
+    private Long dashboardId;
+
+    @BeforeAll
+    static void migrate() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        thisMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        Flyway.configure().dataSource(postgres.getPostgresDatabase()).load().migrate();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        alice = insertUser();
+        bob = insertUser();
+        dashboardId = jdbc.queryForObject("INSERT INTO dashboards (title, user_id) VALUES ('Flat', ?) RETURNING id", Long.class, alice);
+    }
+
+    private static Long insertUser() {
+        String name = "user-" + System.nanoTime();
+        return jdbc.queryForObject("INSERT INTO users (user_name, user_email, user_password) VALUES (?, ?, 'p') RETURNING id",
+                Long.class, name, name + "@example.com");
+    }
+
+    private Long insertRecord(Long userId, String amount, String type, LocalDateTime date) {
+        return jdbc.queryForObject("INSERT INTO financial_records (user_id, dashboard_id, amount, date, description, type) "
+                + "VALUES (?, ?, ?, ?, 'Record', ?) RETURNING id", Long.class, userId, dashboardId, new BigDecimal(amount),
+                Timestamp.valueOf(date), type);
+    }
+
+    // The maintained totals, compared with the totals summed from the records.
+    private Map<Long, BigDecimal> assertPaidMatchesRecords() {
+        Map<Long, BigDecimal> paid = new HashMap<>();
+        jdbc.query("SELECT user_id, paid FROM dashboard_member_expenses WHERE dashboard_id = ? AND paid <> 0",
+                resultSet -> {
+                    paid.put(resultSet.getLong(1), resultSet.getBigDecimal(2));
+                }, dashboardId);
+        Map<Long, BigDecimal> summed = new HashMap<>();
+        jdbc.query("SELECT user_id, SUM(amount) FROM financial_records WHERE dashboard_id = ? AND type = 'EXPENSE' GROUP BY user_id",
+                resultSet -> {
+                    summed.put(resultSet.getLong(1), resultSet.getBigDecimal(2));
+                }, dashboardId);
+        assertEquals(summed, paid);
+        return paid;
+    }
+
+    @Test
+    void testInsertAddsExpensesOfEveryPayer() {
+        jdbc.update("INSERT INTO financial_records (user_id, dashboard_id, amount, date, description, type) VALUES "
+                        + "(?, ?, 30, ?, 'Rent', 'EXPENSE'), (?, ?, 12.50, ?, 'Food', 'EXPENSE'), (?, ?, 100, ?, 'Salary', 'INCOME')",
+                alice, dashboardId, Timestamp.valueOf(thisMonth), bob, dashboardId, Timestamp.valueOf(thisMonth),
+                alice, dashboardId, Timestamp.valueOf(thisMonth));
+        insertRecord(alice, "5", "EXPENSE", thisMonth.plusDays(1));
+
+        assertEquals(Map.of(alice, new BigDecimal("35.00"), bob, new BigDecimal("12.50")), assertPaidMatchesRecords());
+    }
+
+    @Test
+    void testUpdateAppliesChangedAmountPayerAndType() {
+        Long rent = insertRecord(alice, "30", "EXPENSE", thisMonth);
+        Long salary = insertRecord(bob, "100", "INCOME", thisMonth);
+
+        jdbc.update("UPDATE financial_records SET amount = 40 WHERE id = ?", rent);
+        assertEquals(Map.of(alice, new BigDecimal("40.00")), assertPaidMatchesRecords());
+
+        jdbc.update("UPDATE financial_records SET user_id = ? WHERE id = ?", bob, rent);
+        assertEquals(Map.of(bob, new BigDecimal("40.00")), assertPaidMatchesRecords());
+
+        jdbc.update("UPDATE financial_records SET type = 'EXPENSE' WHERE id = ?", salary);
+        jdbc.update("UPDATE financial_records SET description = 'Unchanged totals' WHERE dashboard_id = ?", dashboardId);
+        assertEquals(Map.of(bob, new BigDecimal("140.00")), assertPaidMatchesRecords());
+    }
+
+    @Test
+    void testDateMovedAcrossPartitionsKeepsTotals() {
+        Long rent = insertRecord(alice, "30", "EXPENSE", thisMonth.plusDays(2));
+        String partition = "SELECT tableoid::regclass::text FROM financial_records WHERE id = ?";
+        String before = jdbc.queryForObject(partition, String.class, rent);
+
+        jdbc.update("UPDATE financial_records SET date = ? WHERE id = ?", Timestamp.valueOf(thisMonth.minusMonths(2)), rent);
+        assertNotEquals(before, jdbc.queryForObject(partition, String.class, rent));
+        assertEquals(Map.of(alice, new BigDecimal("30.00")), assertPaidMatchesRecords());
+
+        jdbc.update("UPDATE financial_records SET date = ?, amount = 25 WHERE id = ?", Timestamp.valueOf(thisMonth), rent);
+        assertEquals(Map.of(alice, new BigDecimal("25.00")), assertPaidMatchesRecords());
+    }
+
+    @Test
+    void testDeleteSubtractsExpenses() {
+        insertRecord(alice, "30", "EXPENSE", thisMonth);
+        Long food = insertRecord(bob, "12.50", "EXPENSE", thisMonth);
+        insertRecord(bob, "7.50", "EXPENSE", thisMonth.minusMonths(1));
+
+        jdbc.update("DELETE FROM financial_records WHERE id = ?", food);
+        assertEquals(Map.of(alice, new BigDecimal("30.00"), bob, new BigDecimal("7.50")), assertPaidMatchesRecords());
+
+        jdbc.update("DELETE FROM financial_records WHERE dashboard_id = ? AND user_id = ?", dashboardId, bob);
+        assertEquals(Map.of(alice, new BigDecimal("30.00")), assertPaidMatchesRecords());
+    }
+}
@@ -0,0 +1,169 @@
+package cz.cvut.fel.budgetplannerbackend.repository;
+
+import cz.cvut.fel.budgetplannerbackend.entity.Budget;
+import cz.cvut.fel.budgetplannerbackend.entity.Category;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.User;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk JPQL statements bypass the persistence context, so these tests check that Hibernate
+ * still invalidates the affected second-level cache regions and query results.
+ * Every step runs in its own transaction because cache entries are only published on commit.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheInvalidationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private FinancialRecordRepository financialRecordRepository;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private Long dashboardId;
+    private Long categoryId;
+    private Long budgetId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = new User(null, "cache-user", "cache@example.com", "password", LocalDateTime.now());
+            entityManager.persist(user);
+            Dashboard dashboard = new Dashboard(null, "Dashboard", "Cached dashboard", LocalDateTime.now(), user);
+            entityManager.persist(dashboard);
+            Category category = new Category(null, "Food", "Groceries", dashboard, null);
+            entityManager.persist(category);
+            Budget budget = new Budget(null, dashboard, "Monthly", 1000.0, LocalDate.now(), LocalDate.now().plusMonths(1), null);
+            entityManager.persist(budget);
+            entityManager.persist(new FinancialRecord(null, user, dashboard, BigDecimal.TEN, category,
+                    ERecordType.EXPENSE, LocalDateTime.now(), "Lunch", new HashSet<>(), null, false, null, null, null));
+            dashboardId = dashboard.getId();
+            categoryId = category.getId();
+            budgetId = budget.getId();
+        });
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM FinancialRecord").executeUpdate();
+            entityManager.createQuery("DELETE FROM Budget").executeUpdate();
+            entityManager.createQuery("DELETE FROM Category").executeUpdate();
+            entityManager.createQuery("DELETE FROM Dashboard").executeUpdate();
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void categoryQueryResults_AreServedFromCache() {
+        transactionTemplate.executeWithoutResult(status -> categoryRepository.findAllByDashboardId(dashboardId));
+        transactionTemplate.executeWithoutResult(status ->
+                assertEquals(1, categoryRepository.findAllByDashboardId(dashboardId).size()));
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertTrue(entityManagerFactory.getCache().contains(Category.class, categoryId));
+    }
+
+    @Test
+    void categoryDeleteByDashboardId_InvalidatesEntityAndQueryCache() {
+        transactionTemplate.executeWithoutResult(status ->
+                assertEquals(1, categoryRepository.findAllByDashboardId(dashboardId).size()));
+        assertTrue(entityManagerFactory.getCache().contains(Category.class, categoryId));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            financialRecordRepository.setCategoryToNullByCategoryId(categoryId);
+            categoryRepository.deleteByDashboardId(dashboardId);
+        });
+
+        assertFalse(entityManagerFactory.getCache().contains(Category.class, categoryId));
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(categoryRepository.findAllByDashboardId(dashboardId).isEmpty());
+            assertTrue(categoryRepository.findById(categoryId).isEmpty());
+        });
+    }
+
+    @Test
+    void budgetDeleteByDashboardId_InvalidatesEntityAndQueryCache() {
+        transactionTemplate.executeWithoutResult(status ->
+                assertEquals(1, budgetRepository.findAllByDashboardId(dashboardId).size()));
+        assertTrue(entityManagerFactory.getCache().contains(Budget.class, budgetId));
+
+        transactionTemplate.executeWithoutResult(status -> budgetRepository.deleteByDashboardId(dashboardId));
+
+        assertFalse(entityManagerFactory.getCache().contains(Budget.class, budgetId));
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(budgetRepository.findAllByDashboardId(dashboardId).isEmpty());
+            assertTrue(budgetRepository.findById(budgetId).isEmpty());
+        });
+    }
+
+    @Test
+    void setCategoryToNullByCategoryId_InvalidatesRecordQueriesOnly() {
+        transactionTemplate.executeWithoutResult(status -> {
+            categoryRepository.findAllByDashboardId(dashboardId);
+            assertEquals(1L, countRecordsInCategory());
+        });
+        transactionTemplate.executeWithoutResult(status -> assertEquals(1L, countRecordsInCategory()));
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        transactionTemplate.executeWithoutResult(status -> financialRecordRepository.setCategoryToNullByCategoryId(categoryId));
+
+        transactionTemplate.executeWithoutResult(status -> assertEquals(0L, countRecordsInCategory()));
+        // The update only touches financial_records, so cached categories stay valid.
+        assertTrue(entityManagerFactory.getCache().contains(Category.class, categoryId));
+    }
+
+    private Long countRecordsInCategory() {
+        return entityManager.createQuery(
+                        "SELECT COUNT(fr) FROM FinancialRecord fr WHERE fr.category.id = :categoryId", Long.class)
+                .setParameter("categoryId", categoryId)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getSingleResult();
+    }
+}
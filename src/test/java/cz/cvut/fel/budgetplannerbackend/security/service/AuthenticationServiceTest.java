@@ -3,6 +3,7 @@ package cz.cvut.fel.budgetplannerbackend.security.service;
 import cz.cvut.fel.budgetplannerbackend.dto.UserDto;
 import cz.cvut.fel.budgetplannerbackend.entity.User;
 import cz.cvut.fel.budgetplannerbackend.mapper.UserMapper;
+import cz.cvut.fel.budgetplannerbackend.metrics.BusinessMetrics;
 import cz.cvut.fel.budgetplannerbackend.security.jwt.JwtTokenProvider;
 import cz.cvut.fel.budgetplannerbackend.security.model.authentication.AuthenticationRequest;
 import cz.cvut.fel.budgetplannerbackend.security.model.registration.RegistrationRequest;
@@ -40,6 +41,9 @@ class AuthenticationServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private BusinessMetrics businessMetrics;
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -60,6 +64,7 @@ class AuthenticationServiceTest {
         assertEquals(expectedToken, result);
         Mockito.verify(authenticationManager).authenticate(any());
         Mockito.verify(jwtTokenProvider).generateToken(any(UserDetails.class));
+        Mockito.verify(businessMetrics).loginAttempt(true);
     }
 
     @Test
@@ -0,0 +1,170 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.AnomalyDetectionProperties;
+import cz.cvut.fel.budgetplannerbackend.entity.Category;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.repository.ExpenseAnomalyRepository.AnomalyScore;
+import cz.cvut.fel.budgetplannerbackend.repository.ExpenseAnomalyRepository.AnomalyStatistics;
+import cz.cvut.fel.budgetplannerbackend.repository.ExpenseAnomalyRepository.ScoredExpense;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static cz.cvut.fel.budgetplannerbackend.repository.ExpenseAnomalyRepository.UNCATEGORIZED;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnomalyDetectionServiceImplTest {
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AnomalyDetectionServiceImpl anomalyDetectionService;
+
+    private final Long dashboardId = 1L;
+    private final Dashboard dashboard = new Dashboard();
+    private final Category category = new Category();
+
+    @BeforeEach
+    void setUp() {
+        dashboard.setId(dashboardId);
+        category.setId(7L);
+        AnomalyDetectionProperties properties = new AnomalyDetectionProperties();
+        properties.setMinSamples(3);
+        anomalyDetectionService = new AnomalyDetectionServiceImpl(financialRecordRepository, securityUtils, transactionManager, properties);
+    }
+
+    private FinancialRecord expense(String amount, Category recordCategory) {
+        FinancialRecord financialRecord = new FinancialRecord();
+        financialRecord.setDashboard(dashboard);
+        financialRecord.setCategory(recordCategory);
+        financialRecord.setType(ERecordType.EXPENSE);
+        financialRecord.setAmount(new BigDecimal(amount));
+        return financialRecord;
+    }
+
+    @Test
+    void scoreExpense_IncomeIsNotScored() {
+        FinancialRecord income = expense("100.00", category);
+        income.setType(ERecordType.INCOME);
+        income.setAnomalyScore(4.0);
+        income.setAnomalous(true);
+
+        anomalyDetectionService.scoreExpense(income);
+
+        assertNull(income.getAnomalyScore());
+        assertFalse(income.isAnomalous());
+        verifyNoInteractions(financialRecordRepository);
+    }
+
+    @Test
+    void scoreExpense_FlagsOutlierOnceCategoryHasHistory() {
+        when(financialRecordRepository.findAnomalyStatistics(dashboardId, 7L)).thenReturn(Optional.empty());
+        List<FinancialRecord> usual = new ArrayList<>();
+        for (String amount : new String[]{"100.00", "104.00", "96.00", "102.00", "98.00"}) {
+            FinancialRecord financialRecord = expense(amount, category);
+            anomalyDetectionService.scoreExpense(financialRecord);
+            usual.add(financialRecord);
+        }
+        FinancialRecord outlier = expense("500.00", category);
+        FinancialRecord otherCategory = expense("500.00", null);
+
+        anomalyDetectionService.scoreExpense(outlier);
+        anomalyDetectionService.scoreExpense(otherCategory);
+
+        assertNull(usual.get(2).getAnomalyScore()); // Only two expenses seen before.
+        assertNotNull(usual.get(3).getAnomalyScore());
+        assertTrue(usual.stream().noneMatch(FinancialRecord::isAnomalous));
+        assertTrue(outlier.isAnomalous());
+        assertTrue(outlier.getAnomalyScore() > 3);
+        assertNull(otherCategory.getAnomalyScore());
+        verify(financialRecordRepository, times(1)).findAnomalyStatistics(dashboardId, 7L);
+    }
+
+    @Test
+    void scoreExpense_RestoresCheckpointedStatistics() {
+        when(financialRecordRepository.findAnomalyStatistics(dashboardId, UNCATEGORIZED))
+                .thenReturn(Optional.of(new AnomalyStatistics(dashboardId, UNCATEGORIZED, 100, 25, 20)));
+        FinancialRecord financialRecord = expense("130.00", null);
+
+        anomalyDetectionService.scoreExpense(financialRecord);
+
+        assertEquals(6.0, financialRecord.getAnomalyScore());
+        assertTrue(financialRecord.isAnomalous());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void checkpointStatistics_WritesUpdatedStatisticsOnce() {
+        when(financialRecordRepository.findAnomalyStatistics(dashboardId, 7L)).thenReturn(Optional.empty());
+        anomalyDetectionService.scoreExpense(expense("10.00", category));
+        anomalyDetectionService.scoreExpense(expense("20.00", category));
+
+        assertEquals(1, anomalyDetectionService.checkpointStatistics());
+        assertEquals(0, anomalyDetectionService.checkpointStatistics());
+
+        ArgumentCaptor<Collection<AnomalyStatistics>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(financialRecordRepository, times(1)).saveAnomalyStatistics(saved.capture());
+        AnomalyStatistics statistics = saved.getValue().iterator().next();
+        assertEquals(7L, statistics.categoryId());
+        assertEquals(2, statistics.sampleCount());
+        assertEquals(11.0, statistics.mean(), 1e-9);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recomputeAnomalyScores_ReplaysExpensesInDateOrder() {
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<ScoredExpense> expenses = List.of(
+                new ScoredExpense(1L, date, 7L, new BigDecimal("100.00"), null, false),
+                new ScoredExpense(2L, date.plusDays(1), 7L, new BigDecimal("100.00"), null, false),
+                new ScoredExpense(3L, date.plusDays(2), 7L, new BigDecimal("100.00"), null, false),
+                new ScoredExpense(4L, date.plusDays(3), 7L, new BigDecimal("150.00"), null, false),
+                new ScoredExpense(5L, date.plusDays(4), UNCATEGORIZED, new BigDecimal("5.00"), 9.0, true));
+        doAnswer(invocation -> {
+            Consumer<ScoredExpense> action = invocation.getArgument(1);
+            expenses.forEach(action);
+            return null;
+        }).when(financialRecordRepository).forEachExpenseByDate(eq(dashboardId), any(Consumer.class));
+
+        int rescored = anomalyDetectionService.recomputeAnomalyScores(dashboardId);
+
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        ArgumentCaptor<Collection<AnomalyScore>> scores = ArgumentCaptor.forClass(Collection.class);
+        verify(financialRecordRepository).updateAnomalyScores(scores.capture());
+        // Three equal amounts have no deviation, so the minimum deviation of 1 applies.
+        assertEquals(List.of(new AnomalyScore(4L, date.plusDays(3), 50.0, true), new AnomalyScore(5L, date.plusDays(4), null, false)),
+                List.copyOf(scores.getValue()));
+        assertEquals(2, rescored);
+        ArgumentCaptor<Collection<AnomalyStatistics>> statistics = ArgumentCaptor.forClass(Collection.class);
+        verify(financialRecordRepository).replaceAnomalyStatistics(eq(dashboardId), statistics.capture());
+        assertEquals(2, statistics.getValue().size());
+        assertEquals(0, anomalyDetectionService.checkpointStatistics()); // Recomputed statistics are already stored.
+    }
+}
@@ -0,0 +1,54 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fixtures of the tests of services running their jobs with {@link BackgroundJobs}.
+ */
+final class BackgroundJobTestSupport {
+
+    static final Long JOB_ID = 10L;
+
+    private BackgroundJobTestSupport() {
+    }
+
+    /**
+     * Lets the mocked repository of a job store the saved job under {@link #JOB_ID} and find it by that ID.
+     *
+     * @param repository The mocked repository.
+     * @param type       The class of the job.
+     * @param setId      Sets the ID of a job.
+     * @param stored     Receives the saved job.
+     */
+    static <T> void givenRepositoryStoresJob(JpaRepository<T, Long> repository, Class<T> type, BiConsumer<T, Long> setId, Consumer<T> stored) {
+        AtomicReference<T> job = new AtomicReference<>();
+        when(repository.save(any(type))).thenAnswer(invocation -> {
+            T saved = invocation.getArgument(0);
+            setId.accept(saved, JOB_ID);
+            job.set(saved);
+            stored.accept(saved);
+            return saved;
+        });
+        lenient().when(repository.findById(JOB_ID)).thenAnswer(invocation -> Optional.ofNullable(job.get()));
+    }
+
+    /**
+     * Waits until the executor ran all jobs queued so far, accepting no further ones.
+     */
+    static void awaitJobs(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,98 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static cz.cvut.fel.budgetplannerbackend.service.implementation.BackgroundJobTestSupport.awaitJobs;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackgroundJobsTest {
+
+    @TempDir
+    private Path directory;
+
+    private final ExecutorService executor = BackgroundJobs.boundedExecutor(1, 1, "test-job-");
+    private final BackgroundJobs jobs = new BackgroundJobs(executor);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch running = new CountDownLatch(1);
+    private final List<List<Long>> touched = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        jobs.shutdown();
+    }
+
+    // Keeps the only thread busy until the running latch is released.
+    private void givenThreadIsBusy() throws InterruptedException {
+        jobs.execute(1L, null, () -> {
+            started.countDown();
+            try {
+                running.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+    }
+
+    private int failStale() {
+        return jobs.failStale(60_000, (ids, now) -> touched.add(ids), (before, now) -> {
+            assertEquals(now.minusMinutes(1), before);
+            return 3;
+        });
+    }
+
+    @Test
+    void failStale_TouchesJobsWaitingForAThreadFirst() throws InterruptedException {
+        givenThreadIsBusy();
+        jobs.execute(2L, null, () -> { });
+
+        assertEquals(3, failStale());
+        assertEquals(List.of(List.of(2L)), touched);
+
+        running.countDown();
+        awaitJobs(executor);
+        failStale();
+        assertEquals(1, touched.size()); // Nothing waits any more.
+    }
+
+    @Test
+    void execute_TooManyWaiting_ThrowsAndForgetsTheJob() throws InterruptedException {
+        givenThreadIsBusy();
+        jobs.execute(2L, null, () -> { });
+
+        assertThrows(RejectedExecutionException.class, () -> jobs.execute(3L, null, () -> { }));
+
+        failStale();
+        assertEquals(List.of(List.of(2L)), touched);
+    }
+
+    @Test
+    void shutdown_DeletesFilesOfJobsThatNeverRan() throws IOException, InterruptedException {
+        givenThreadIsBusy();
+        Path file = Files.writeString(directory.resolve("statement.csv"), "x");
+        jobs.execute(2L, file, () -> fail("The job must not run"));
+
+        jobs.shutdown();
+
+        assertFalse(Files.exists(file));
+        assertTrue(executor.isShutdown());
+    }
+
+    @Test
+    void truncate_KeepsShortTexts() {
+        assertNull(BackgroundJobs.truncate(null, 3));
+        assertEquals("abc", BackgroundJobs.truncate("abc", 3));
+        assertEquals("abc", BackgroundJobs.truncate("abcd", 3));
+    }
+}
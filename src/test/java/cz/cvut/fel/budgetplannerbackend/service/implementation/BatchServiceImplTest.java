@@ -0,0 +1,135 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.budgetplannerbackend.dto.CategoryDto;
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialGoalDto;
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.dto.batch.BatchOperationDto;
+import cz.cvut.fel.budgetplannerbackend.dto.batch.BatchResultDto;
+import cz.cvut.fel.budgetplannerbackend.entity.User;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EBatchEntityType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EBatchOperationType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.exceptions.BatchOperationException;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchServiceImplTest {
+
+    @Mock
+    private FinancialRecordServiceImpl financialRecordService;
+
+    @Mock
+    private CategoryServiceImpl categoryService;
+
+    @Mock
+    private BudgetServiceImpl budgetService;
+
+    @Mock
+    private FinancialGoalServiceImpl financialGoalService;
+
+    @Mock
+    private CategoryPriorityServiceImpl categoryPriorityService;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private BatchServiceImpl batchService;
+
+    @Test
+    void executeBatch_resolvesReferencesToEntitiesCreatedEarlier() {
+        when(categoryService.createCategory(eq(3L), any(CategoryDto.class))).thenReturn(new CategoryDto(41L, "Food", null, null, null));
+        when(financialRecordService.createFinancialRecord(eq(3L), any(FinancialRecordDto.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        List<BatchOperationDto> operations = List.of(
+                new BatchOperationDto("food", EBatchEntityType.CATEGORY, EBatchOperationType.CREATE, null,
+                        objectMapper.createObjectNode().put("name", "Food")),
+                new BatchOperationDto(null, EBatchEntityType.FINANCIAL_RECORD, EBatchOperationType.CREATE, null,
+                        objectMapper.createObjectNode().put("amount", 12.5).put("type", "EXPENSE")
+                                .set("category", objectMapper.createObjectNode().put("id", "$food"))));
+
+        List<BatchResultDto> results = batchService.executeBatch(3L, operations);
+
+        assertEquals(2, results.size());
+        assertEquals(201, results.get(0).status());
+        assertEquals("food", results.get(0).ref());
+        ArgumentCaptor<FinancialRecordDto> captor = ArgumentCaptor.forClass(FinancialRecordDto.class);
+        verify(financialRecordService).createFinancialRecord(eq(3L), captor.capture());
+        assertEquals(41L, captor.getValue().category().id());
+        assertEquals(ERecordType.EXPENSE, captor.getValue().type());
+        assertEquals(0, new BigDecimal("12.5").compareTo(captor.getValue().amount()));
+        verify(securityUtils, times(1)).checkDashboardAccess(3L, EAccessLevel.EDITOR);
+    }
+
+    @Test
+    void executeBatch_failedOperation_reportsRolledBackResults() {
+        when(financialGoalService.createFinancialGoal(eq(3L), any(FinancialGoalDto.class))).thenReturn(new FinancialGoalDto(7L, 3L, "Car", 100.0, 0.0, null));
+        doThrow(new EntityNotFoundException("Budget", 99L)).when(budgetService).deleteBudget(3L, 99L);
+        List<BatchOperationDto> operations = List.of(
+                new BatchOperationDto(null, EBatchEntityType.FINANCIAL_GOAL, EBatchOperationType.CREATE, null,
+                        objectMapper.createObjectNode().put("title", "Car")),
+                new BatchOperationDto(null, EBatchEntityType.BUDGET, EBatchOperationType.DELETE, 99L, null),
+                new BatchOperationDto(null, EBatchEntityType.CATEGORY, EBatchOperationType.DELETE, 5L, null));
+
+        BatchOperationException exception = assertThrows(BatchOperationException.class, () -> batchService.executeBatch(3L, operations));
+
+        assertEquals(404, exception.getStatus());
+        assertEquals(2, exception.getResults().size());
+        assertEquals(424, exception.getResults().get(0).status());
+        assertEquals(404, exception.getResults().get(1).status());
+        verifyNoInteractions(categoryService);
+    }
+
+    @Test
+    void executeBatch_updateWithoutId_failsWithBadRequest() {
+        List<BatchOperationDto> operations = List.of(
+                new BatchOperationDto(null, EBatchEntityType.BUDGET, EBatchOperationType.UPDATE, null, objectMapper.createObjectNode()));
+
+        BatchOperationException exception = assertThrows(BatchOperationException.class, () -> batchService.executeBatch(3L, operations));
+
+        assertEquals(400, exception.getStatus());
+        verifyNoInteractions(budgetService);
+    }
+
+    @Test
+    void executeBatch_categoryPriorityDelete_isScopedToCurrentUserAndDashboard() {
+        User user = new User();
+        user.setId(5L);
+        when(securityUtils.getCurrentUser()).thenReturn(user);
+        List<BatchOperationDto> operations = List.of(
+                new BatchOperationDto(null, EBatchEntityType.CATEGORY_PRIORITY, EBatchOperationType.DELETE, null,
+                        objectMapper.createObjectNode().put("categoryId", 4L).put("dashboardId", 99L)));
+
+        List<BatchResultDto> results = batchService.executeBatch(3L, operations);
+
+        assertEquals(204, results.get(0).status());
+        verify(categoryPriorityService).deleteCategoryPriorityByUserCategoryAndDashboard(5L, 4L, 3L);
+    }
+
+    @Test
+    void executeBatch_emptyBatch_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> batchService.executeBatch(3L, List.of()));
+        verifyNoInteractions(securityUtils);
+    }
+}
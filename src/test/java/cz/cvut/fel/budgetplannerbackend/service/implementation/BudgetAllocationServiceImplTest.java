@@ -0,0 +1,181 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.BudgetAllocationProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.allocation.BudgetAllocationRequestDto;
+import cz.cvut.fel.budgetplannerbackend.dto.allocation.CategoryAllocationDto;
+import cz.cvut.fel.budgetplannerbackend.entity.Budget;
+import cz.cvut.fel.budgetplannerbackend.entity.Category;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
+import cz.cvut.fel.budgetplannerbackend.repository.BudgetRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.CategoryPriorityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetAllocationServiceImplTest {
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private CategoryPriorityService categoryPriorityService;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
+    private BudgetAllocationServiceImpl budgetAllocationService;
+
+    private final Long dashboardId = 1L;
+    private final Dashboard dashboard = new Dashboard();
+    private final List<Category> categories = new ArrayList<>();
+    private final LocalDateTime historyEnd = YearMonth.now().atDay(1).atStartOfDay();
+
+    @BeforeEach
+    void setUp() {
+        dashboard.setId(dashboardId);
+        for (long id = 1; id <= 3; id++) {
+            Category category = new Category();
+            category.setId(id);
+            category.setName("Category " + id);
+            categories.add(category);
+        }
+        BudgetAllocationProperties properties = new BudgetAllocationProperties();
+        properties.setHistoryMonths(6);
+        properties.setMinimumSpendRatio(0.5);
+        budgetAllocationService = new BudgetAllocationServiceImpl(budgetRepository, categoryRepository, dashboardRepository,
+                financialRecordRepository, categoryPriorityService, securityUtils, dashboardChangeTracker, properties);
+    }
+
+    // Spend over the history whose minimum for the given period is the given amount.
+    private BigDecimal spendFor(double minimum, LocalDate start, LocalDate end) {
+        double historyDays = ChronoUnit.DAYS.between(historyEnd.minusMonths(6), historyEnd);
+        double periodDays = ChronoUnit.DAYS.between(start, end) + 1;
+        return BigDecimal.valueOf(minimum / 0.5 * historyDays / periodDays);
+    }
+
+    @Test
+    void allocateBudgets_PreviewSplitsByPriorityAboveMinimums() {
+        LocalDate start = LocalDate.of(2026, 11, 1);
+        LocalDate end = LocalDate.of(2026, 11, 30);
+        when(categoryRepository.findAllByDashboardId(dashboardId)).thenReturn(categories);
+        when(categoryPriorityService.calculateCategoryPriorities(dashboardId)).thenReturn(Map.of(1L, 1.0, 2L, 3.0));
+        List<Object[]> spend = new ArrayList<>();
+        spend.add(new Object[]{3L, spendFor(200, start, end)});
+        when(financialRecordRepository.sumExpensesByCategoryAndDateRange(dashboardId, historyEnd.minusMonths(6), historyEnd))
+                .thenReturn(spend);
+
+        List<CategoryAllocationDto> allocations = budgetAllocationService.allocateBudgets(dashboardId,
+                new BudgetAllocationRequestDto(1000.0, start, end), true);
+
+        // Category 3 has no priority and gets its minimum; the rest is split 1:3.
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        assertEquals(3, allocations.size());
+        assertEquals(200.0, allocations.get(0).amount());
+        assertEquals(600.0, allocations.get(1).amount());
+        assertEquals(200.0, allocations.get(2).amount(), 0.011);
+        assertEquals(1000.0, allocations.stream().mapToDouble(CategoryAllocationDto::amount).sum(), 1e-9);
+        assertEquals(3.0, allocations.get(1).priority());
+        assertNull(allocations.get(0).budgetId());
+        verifyNoInteractions(budgetRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void allocateBudgets_CreatesOneBudgetPerCategoryInOneSave() {
+        LocalDate start = LocalDate.of(2026, 11, 1);
+        LocalDate end = LocalDate.of(2026, 11, 30);
+        when(categoryRepository.findAllByDashboardId(dashboardId)).thenReturn(categories);
+        when(categoryPriorityService.calculateCategoryPriorities(dashboardId)).thenReturn(Map.of());
+        when(financialRecordRepository.sumExpensesByCategoryAndDateRange(any(), any(), any())).thenReturn(List.of());
+        when(dashboardRepository.findById(dashboardId)).thenReturn(Optional.of(dashboard));
+        when(budgetRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Budget> budgets = invocation.getArgument(0);
+            for (int i = 0; i < budgets.size(); i++) {
+                budgets.get(i).setId(100L + i);
+            }
+            return budgets;
+        });
+
+        List<CategoryAllocationDto> allocations = budgetAllocationService.allocateBudgets(dashboardId,
+                new BudgetAllocationRequestDto(100.0, start, end), false);
+
+        ArgumentCaptor<List<Budget>> captor = ArgumentCaptor.forClass(List.class);
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        verify(budgetRepository, times(1)).saveAll(captor.capture());
+        List<Budget> budgets = captor.getValue();
+        assertEquals(3, budgets.size());
+        assertEquals("Category 1", budgets.get(0).getTitle());
+        assertSame(categories.get(0), budgets.get(0).getCategory());
+        assertSame(dashboard, budgets.get(0).getDashboard());
+        assertEquals(start, budgets.get(0).getStartDate());
+        assertEquals(end, budgets.get(0).getEndDate());
+        assertEquals(100.0, budgets.stream().mapToDouble(Budget::getTotalAmount).sum(), 1e-9);
+        assertEquals(List.of(100L, 101L, 102L), allocations.stream().map(CategoryAllocationDto::budgetId).toList());
+        verify(dashboardChangeTracker).markChanged(dashboardId);
+    }
+
+    @Test
+    void allocateBudgets_TotalBelowMinimums() {
+        LocalDate start = LocalDate.of(2026, 11, 1);
+        LocalDate end = LocalDate.of(2026, 11, 30);
+        when(categoryRepository.findAllByDashboardId(dashboardId)).thenReturn(categories);
+        when(categoryPriorityService.calculateCategoryPriorities(dashboardId)).thenReturn(Map.of());
+        List<Object[]> spend = new ArrayList<>();
+        spend.add(new Object[]{1L, spendFor(800, start, end)});
+        when(financialRecordRepository.sumExpensesByCategoryAndDateRange(any(), any(), any())).thenReturn(spend);
+
+        assertThrows(IllegalArgumentException.class, () -> budgetAllocationService.allocateBudgets(dashboardId,
+                new BudgetAllocationRequestDto(500.0, start, end), false));
+        verifyNoInteractions(budgetRepository);
+    }
+
+    @Test
+    void allocateBudgets_RejectsInvalidRequests() {
+        LocalDate start = LocalDate.of(2026, 11, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> budgetAllocationService.allocateBudgets(dashboardId,
+                new BudgetAllocationRequestDto(0.0, start, start), true));
+        assertThrows(IllegalArgumentException.class, () -> budgetAllocationService.allocateBudgets(dashboardId,
+                new BudgetAllocationRequestDto(100.0, start, start.minusDays(1)), true));
+        when(categoryRepository.findAllByDashboardId(dashboardId)).thenReturn(List.of());
+        assertThrows(IllegalArgumentException.class, () -> budgetAllocationService.allocateBudgets(dashboardId,
+                new BudgetAllocationRequestDto(100.0, start, start), true));
+    }
+}
@@ -7,9 +7,11 @@ import cz.cvut.fel.budgetplannerbackend.dto.DashboardDto;
 import cz.cvut.fel.budgetplannerbackend.entity.Budget;
 import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.mapper.BudgetMapper;
 import cz.cvut.fel.budgetplannerbackend.repository.BudgetRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
 import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,12 +38,18 @@ class BudgetServiceImplTest {
     @Mock
     private DashboardRepository dashboardRepository;
 
+    @Mock
+    private CategoryRepository categoryRepository;
+
     @Mock
     private BudgetMapper budgetMapper;
 
     @Mock
     private SecurityUtils securityUtils;
 
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
     @InjectMocks
     private BudgetServiceImpl budgetService;
 
@@ -66,7 +74,7 @@ class BudgetServiceImplTest {
         testBudget.setEndDate(LocalDate.now().plusDays(30));
         testBudget.setDashboard(testDashboard);
 
-        testBudgetDto = new BudgetDto(1L, testDashboardDto, "Test Budget", 1000.0, LocalDate.now(), LocalDate.now().plusDays(30));
+        testBudgetDto = new BudgetDto(1L, testDashboardDto, "Test Budget", 1000.0, LocalDate.now(), LocalDate.now().plusDays(30), null);
     }
 
     @Test
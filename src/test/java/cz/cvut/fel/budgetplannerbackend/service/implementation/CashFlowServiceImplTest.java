@@ -0,0 +1,221 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.CashFlowProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.cashflow.CashFlowPointDto;
+import cz.cvut.fel.budgetplannerbackend.dto.cashflow.CashFlowSeriesDto;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ETimeBucket;
+import cz.cvut.fel.budgetplannerbackend.events.FinancialRecordsChangedEvent;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CashFlowServiceImplTest {
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    private CashFlowServiceImpl cashFlowService;
+
+    private final Long dashboardId = 1L;
+    private final LocalDateTime january = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private final LocalDateTime february = january.plusMonths(1);
+    private final LocalDateTime march = january.plusMonths(2);
+    private final LocalDateTime april = january.plusMonths(3);
+
+    @BeforeEach
+    void setUp() {
+        cashFlowService = new CashFlowServiceImpl(financialRecordRepository, dashboardRepository, securityUtils, new CashFlowProperties());
+    }
+
+    private static Object[] row(LocalDateTime bucket, String type, String amount) {
+        return new Object[]{Timestamp.valueOf(bucket), type, new BigDecimal(amount)};
+    }
+
+    private void givenVersion(long version) {
+        when(dashboardRepository.findVersion(dashboardId)).thenReturn(Optional.of(version));
+    }
+
+    private CashFlowSeriesDto firstQuarter() {
+        return cashFlowService.findCashFlowSeries(dashboardId, january.plusDays(9), april, ETimeBucket.MONTH, null);
+    }
+
+    @Test
+    void findCashFlowSeries_FillsGapsWithEmptyBuckets() {
+        givenVersion(5L);
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "month", january, april)).thenReturn(List.of(
+                row(january, "INCOME", "100.00"), row(january, "EXPENSE", "40.00"), row(march, "EXPENSE", "10.00")));
+
+        CashFlowSeriesDto series = firstQuarter();
+
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        assertEquals(january, series.from()); // Extended to whole buckets.
+        assertEquals(april, series.to());
+        assertFalse(series.downsampled());
+        assertEquals(List.of(
+                new CashFlowPointDto(january, new BigDecimal("100.00"), new BigDecimal("40.00")),
+                new CashFlowPointDto(february, BigDecimal.ZERO, BigDecimal.ZERO),
+                new CashFlowPointDto(march, BigDecimal.ZERO, new BigDecimal("10.00"))), series.points());
+    }
+
+    @Test
+    void findCashFlowSeries_AlignsWeeksToMonday() {
+        givenVersion(5L);
+        LocalDateTime monday = LocalDateTime.of(2020, 1, 6, 0, 0);
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "week", monday, monday.plusWeeks(2))).thenReturn(List.of());
+
+        CashFlowSeriesDto series = cashFlowService.findCashFlowSeries(dashboardId, monday.plusDays(2), monday.plusDays(8), ETimeBucket.WEEK, null);
+
+        assertEquals(List.of(monday, monday.plusWeeks(1)), series.points().stream().map(CashFlowPointDto::start).toList());
+    }
+
+    @Test
+    void findCashFlowSeries_CachesClosedBuckets() {
+        givenVersion(5L);
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "month", january, april))
+                .thenReturn(List.<Object[]>of(row(february, "INCOME", "5.00")));
+
+        CashFlowSeriesDto first = firstQuarter();
+        CashFlowSeriesDto second = firstQuarter();
+
+        assertEquals(first, second);
+        verify(financialRecordRepository, times(1)).sumAmountsByBucketAndType(any(), anyString(), any(), any());
+    }
+
+    @Test
+    void findCashFlowSeries_LoadsOnlyBucketsMissingInCache() {
+        givenVersion(5L);
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "month", january, march)).thenReturn(List.of());
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "month", march, april.plusMonths(1)))
+                .thenReturn(List.<Object[]>of(row(april, "INCOME", "7.00")));
+
+        cashFlowService.findCashFlowSeries(dashboardId, january, march, ETimeBucket.MONTH, null);
+        CashFlowSeriesDto series = cashFlowService.findCashFlowSeries(dashboardId, january, april.plusMonths(1), ETimeBucket.MONTH, null);
+
+        assertEquals(4, series.points().size());
+        assertEquals(new BigDecimal("7.00"), series.points().get(3).income());
+    }
+
+    @Test
+    void findCashFlowSeries_AlwaysLoadsTheCurrentBucket() {
+        givenVersion(5L);
+        LocalDateTime thisMonth = ETimeBucket.MONTH.truncate(LocalDateTime.now());
+        LocalDateTime lastMonth = thisMonth.minusMonths(1);
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "month", lastMonth, thisMonth.plusMonths(1))).thenReturn(List.of());
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "month", thisMonth, thisMonth.plusMonths(1))).thenReturn(List.of());
+
+        cashFlowService.findCashFlowSeries(dashboardId, lastMonth, thisMonth.plusMonths(1), ETimeBucket.MONTH, null);
+        cashFlowService.findCashFlowSeries(dashboardId, lastMonth, thisMonth.plusMonths(1), ETimeBucket.MONTH, null);
+
+        verify(financialRecordRepository).sumAmountsByBucketAndType(dashboardId, "month", lastMonth, thisMonth.plusMonths(1));
+        verify(financialRecordRepository).sumAmountsByBucketAndType(dashboardId, "month", thisMonth, thisMonth.plusMonths(1));
+    }
+
+    @Test
+    void onFinancialRecordsChanged_DropsBucketsFromBackdatedChange() {
+        givenVersion(5L);
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "month", january, april)).thenReturn(List.of());
+        firstQuarter();
+
+        cashFlowService.onFinancialRecordsChanged(new FinancialRecordsChangedEvent(dashboardId, 6L, Set.of(10L), february.plusDays(14)));
+        givenVersion(6L);
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "month", february, april))
+                .thenReturn(List.<Object[]>of(row(february, "EXPENSE", "20.00")));
+        CashFlowSeriesDto series = firstQuarter();
+
+        assertEquals(new BigDecimal("20.00"), series.points().get(1).expense());
+        verify(financialRecordRepository, times(1)).sumAmountsByBucketAndType(dashboardId, "month", january, april);
+    }
+
+    @Test
+    void onFinancialRecordsChanged_KeepsBucketsBeforeChange() {
+        givenVersion(5L);
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "month", january, april)).thenReturn(List.of());
+        firstQuarter();
+
+        cashFlowService.onFinancialRecordsChanged(new FinancialRecordsChangedEvent(dashboardId, 6L, Set.of(10L), LocalDateTime.now()));
+        givenVersion(6L);
+        firstQuarter();
+
+        verify(financialRecordRepository, times(1)).sumAmountsByBucketAndType(any(), anyString(), any(), any());
+    }
+
+    @Test
+    void onFinancialRecordsChanged_DropsAllBucketsWithoutDateOrAfterGap() {
+        givenVersion(5L);
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "month", january, april)).thenReturn(List.of());
+        firstQuarter();
+
+        cashFlowService.onFinancialRecordsChanged(new FinancialRecordsChangedEvent(dashboardId, 6L, Set.of(10L), null));
+        givenVersion(6L);
+        firstQuarter();
+        cashFlowService.onFinancialRecordsChanged(new FinancialRecordsChangedEvent(dashboardId, 8L, Set.of(11L), LocalDateTime.now()));
+        givenVersion(8L);
+        firstQuarter();
+
+        verify(financialRecordRepository, times(3)).sumAmountsByBucketAndType(dashboardId, "month", january, april);
+    }
+
+    @Test
+    void findCashFlowSeries_ReloadsAfterChangesNotSeenByThisNode() {
+        givenVersion(5L);
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "month", january, april)).thenReturn(List.of());
+        firstQuarter();
+
+        givenVersion(7L);
+        firstQuarter();
+
+        verify(financialRecordRepository, times(2)).sumAmountsByBucketAndType(dashboardId, "month", january, april);
+    }
+
+    @Test
+    void findCashFlowSeries_DownsamplesLongSeries() {
+        givenVersion(5L);
+        LocalDateTime end = january.plusDays(1000);
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "day", january, end))
+                .thenReturn(List.<Object[]>of(row(january.plusDays(500), "EXPENSE", "999.00")));
+
+        CashFlowSeriesDto series = cashFlowService.findCashFlowSeries(dashboardId, january, end, ETimeBucket.DAY, 100);
+
+        assertTrue(series.downsampled());
+        assertEquals(100, series.points().size());
+        assertEquals(january, series.points().get(0).start());
+        assertEquals(end.minusDays(1), series.points().get(99).start());
+        assertTrue(series.points().contains(new CashFlowPointDto(january.plusDays(500), BigDecimal.ZERO, new BigDecimal("999.00"))));
+    }
+
+    @Test
+    void findCashFlowSeries_RejectsInvalidRequests() {
+        assertThrows(IllegalArgumentException.class,
+                () -> cashFlowService.findCashFlowSeries(dashboardId, april, january, ETimeBucket.MONTH, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> cashFlowService.findCashFlowSeries(dashboardId, january, april, ETimeBucket.MONTH, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> cashFlowService.findCashFlowSeries(dashboardId, january, january.plusYears(100), ETimeBucket.DAY, null));
+        verifyNoInteractions(financialRecordRepository);
+    }
+}
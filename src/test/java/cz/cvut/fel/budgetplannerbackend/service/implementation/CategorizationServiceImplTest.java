@@ -0,0 +1,232 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.CategorizationProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.CategorizationRuleDto;
+import cz.cvut.fel.budgetplannerbackend.entity.CategorizationRule;
+import cz.cvut.fel.budgetplannerbackend.entity.Category;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECachedEntityType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECategorizationMatchType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
+import cz.cvut.fel.budgetplannerbackend.mapper.CategorizationRuleMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.CategorizationRuleRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.RecordCategorizationRepository.RecordCategory;
+import cz.cvut.fel.budgetplannerbackend.repository.RecordCategorizationRepository.UncategorizedRecord;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategorizationServiceImplTest {
+
+    @Mock
+    private CategorizationRuleRepository categorizationRuleRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private CategorizationRuleMapper categorizationRuleMapper;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CategorizationServiceImpl categorizationService;
+
+    private final Long dashboardId = 1L;
+    private final Dashboard dashboard = new Dashboard();
+    private final Category groceries = category(7L);
+    private final Category salary = category(8L);
+
+    @BeforeEach
+    void setUp() {
+        dashboard.setId(dashboardId);
+        CategorizationProperties properties = new CategorizationProperties();
+        properties.setMaxRules(2);
+        properties.setChunkSize(2);
+        categorizationService = new CategorizationServiceImpl(categorizationRuleRepository, categoryRepository, dashboardRepository,
+                financialRecordRepository, categorizationRuleMapper, securityUtils, dashboardChangeTracker, transactionManager, properties);
+    }
+
+    private static Category category(Long id) {
+        Category category = new Category();
+        category.setId(id);
+        return category;
+    }
+
+    private CategorizationRule rule(Long id, Category category, ECategorizationMatchType matchType, String pattern, ERecordType recordType) {
+        return new CategorizationRule(id, dashboard, category, matchType, pattern, recordType, null, null, 0);
+    }
+
+    private FinancialRecord record(String description, ERecordType type, Category category) {
+        FinancialRecord financialRecord = new FinancialRecord();
+        financialRecord.setDashboard(dashboard);
+        financialRecord.setDescription(description);
+        financialRecord.setType(type);
+        financialRecord.setAmount(new BigDecimal("25.00"));
+        financialRecord.setCategory(category);
+        return financialRecord;
+    }
+
+    @Test
+    void categorize_AssignsCategoryOfFirstMatchingRule() {
+        when(categorizationRuleRepository.findAllByDashboardIdOrderByPriorityAscIdAsc(dashboardId)).thenReturn(List.of(
+                rule(1L, salary, ECategorizationMatchType.CONTAINS, "acme", ERecordType.INCOME),
+                rule(2L, groceries, ECategorizationMatchType.REGEX, "^(tesco|lidl)\\b", null)));
+
+        FinancialRecord shopping = record("LIDL Praha 4", ERecordType.EXPENSE, null);
+        FinancialRecord unmatched = record("ACME refund", ERecordType.EXPENSE, null);
+        FinancialRecord categorized = record("Tesco", ERecordType.EXPENSE, salary);
+        categorizationService.categorize(shopping);
+        categorizationService.categorize(unmatched);
+        categorizationService.categorize(categorized);
+
+        assertSame(groceries, shopping.getCategory());
+        assertNull(unmatched.getCategory());
+        assertSame(salary, categorized.getCategory());
+        verify(categorizationRuleRepository, times(2)).findAllByDashboardIdOrderByPriorityAscIdAsc(dashboardId);
+    }
+
+    @Test
+    void categorizeAll_LoadsRulesOncePerDashboard() {
+        when(categorizationRuleRepository.findAllByDashboardIdOrderByPriorityAscIdAsc(dashboardId)).thenReturn(List.of(
+                rule(2L, groceries, ECategorizationMatchType.REGEX, "^(tesco|lidl)\\b", null)));
+
+        FinancialRecord first = record("Tesco Express", ERecordType.EXPENSE, null);
+        FinancialRecord second = record("Lidl", ERecordType.EXPENSE, null);
+        FinancialRecord unmatched = record("Rent", ERecordType.EXPENSE, null);
+        categorizationService.categorizeAll(List.of(first, second, unmatched));
+
+        assertSame(groceries, first.getCategory());
+        assertSame(groceries, second.getCategory());
+        assertNull(unmatched.getCategory());
+        verify(categorizationRuleRepository, times(1)).findAllByDashboardIdOrderByPriorityAscIdAsc(dashboardId);
+    }
+
+    @Test
+    void categorize_RecompilesWhenRulesChange() {
+        when(categorizationRuleRepository.findAllByDashboardIdOrderByPriorityAscIdAsc(dashboardId))
+                .thenReturn(List.of(rule(1L, groceries, ECategorizationMatchType.CONTAINS, "market", null)))
+                .thenReturn(List.of(rule(1L, groceries, ECategorizationMatchType.CONTAINS, "bakery", null)));
+
+        FinancialRecord first = record("Bakery", ERecordType.EXPENSE, null);
+        FinancialRecord second = record("Bakery", ERecordType.EXPENSE, null);
+        categorizationService.categorize(first);
+        categorizationService.categorize(second);
+
+        assertNull(first.getCategory());
+        assertSame(groceries, second.getCategory());
+    }
+
+    @Test
+    void createCategorizationRule_ValidatesAndInvalidatesCachedRules() {
+        when(categorizationRuleRepository.countByDashboardId(dashboardId)).thenReturn(0L);
+        when(dashboardRepository.findById(dashboardId)).thenReturn(Optional.of(dashboard));
+        when(categoryRepository.findByIdAndDashboardId(7L, dashboardId)).thenReturn(Optional.of(groceries));
+        when(categorizationRuleRepository.save(any(CategorizationRule.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        categorizationService.createCategorizationRule(dashboardId,
+                new CategorizationRuleDto(null, null, 7L, null, "albert", ERecordType.EXPENSE, null, new BigDecimal("500"), null));
+
+        ArgumentCaptor<CategorizationRule> saved = ArgumentCaptor.forClass(CategorizationRule.class);
+        verify(categorizationRuleRepository).save(saved.capture());
+        assertEquals(ECategorizationMatchType.CONTAINS, saved.getValue().getMatchType());
+        assertSame(groceries, saved.getValue().getCategory());
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        verify(dashboardChangeTracker).markInvalidated(dashboardId, ECachedEntityType.CATEGORIZATION_RULE);
+    }
+
+    @Test
+    void createCategorizationRule_RejectsInvalidRules() {
+        when(categorizationRuleRepository.countByDashboardId(dashboardId)).thenReturn(0L, 0L, 2L);
+        when(dashboardRepository.findById(dashboardId)).thenReturn(Optional.of(dashboard));
+
+        assertThrows(IllegalArgumentException.class, () -> categorizationService.createCategorizationRule(dashboardId,
+                new CategorizationRuleDto(null, null, 7L, ECategorizationMatchType.REGEX, "[unclosed", null, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> categorizationService.createCategorizationRule(dashboardId,
+                new CategorizationRuleDto(null, null, 7L, null, null, null, new BigDecimal("10"), new BigDecimal("5"), null)));
+        assertThrows(IllegalArgumentException.class, () -> categorizationService.createCategorizationRule(dashboardId,
+                new CategorizationRuleDto(null, null, 7L, null, "too many", null, null, null, null)));
+        verify(categorizationRuleRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyCategorizationRules_CategorizesMatchingRecordsInChunks() {
+        when(categorizationRuleRepository.findAllByDashboardIdOrderByPriorityAscIdAsc(dashboardId))
+                .thenReturn(List.of(rule(1L, groceries, ECategorizationMatchType.CONTAINS, "market", ERecordType.EXPENSE)));
+        LocalDateTime date = LocalDateTime.of(2024, 3, 1, 12, 0);
+        doAnswer(invocation -> {
+            Consumer<UncategorizedRecord> action = invocation.getArgument(1);
+            action.accept(new UncategorizedRecord(10L, date, ERecordType.EXPENSE, BigDecimal.ONE, "Market hall"));
+            action.accept(new UncategorizedRecord(11L, date.plusDays(1), ERecordType.INCOME, BigDecimal.ONE, "Market refund"));
+            action.accept(new UncategorizedRecord(12L, date.plusDays(2), ERecordType.EXPENSE, BigDecimal.ONE, "Farmers market"));
+            action.accept(new UncategorizedRecord(13L, date.plusDays(3), ERecordType.EXPENSE, BigDecimal.ONE, "MARKET"));
+            return null;
+        }).when(financialRecordRepository).forEachUncategorizedRecord(eq(dashboardId), any());
+        List<List<RecordCategory>> chunks = new ArrayList<>();
+        when(financialRecordRepository.categorizeRecords(any())).thenAnswer(invocation -> {
+            List<RecordCategory> chunk = List.copyOf((Collection<RecordCategory>) invocation.getArgument(0));
+            chunks.add(chunk);
+            // Record 13 was categorized by someone else meanwhile.
+            return chunk.stream().map(RecordCategory::id).filter(id -> id != 13L).toList();
+        });
+
+        int categorized = categorizationService.applyCategorizationRules(dashboardId);
+
+        assertEquals(2, categorized);
+        assertEquals(List.of(List.of(new RecordCategory(10L, date, 7L), new RecordCategory(12L, date.plusDays(2), 7L)),
+                List.of(new RecordCategory(13L, date.plusDays(3), 7L))), chunks);
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        verify(dashboardChangeTracker).markUpserted(ESyncEntityType.FINANCIAL_RECORD, 10L, dashboardId);
+        verify(dashboardChangeTracker).markUpserted(ESyncEntityType.FINANCIAL_RECORD, 12L, dashboardId);
+        verify(dashboardChangeTracker, never()).markUpserted(ESyncEntityType.FINANCIAL_RECORD, 13L, dashboardId);
+        verify(dashboardChangeTracker, times(1)).markChanged(dashboardId);
+        verify(dashboardChangeTracker).markRecordDate(dashboardId, date);
+    }
+
+    @Test
+    void applyCategorizationRules_WithoutRulesReadsNoRecords() {
+        when(categorizationRuleRepository.findAllByDashboardIdOrderByPriorityAscIdAsc(dashboardId)).thenReturn(List.of());
+
+        assertEquals(0, categorizationService.applyCategorizationRules(dashboardId));
+        verifyNoInteractions(financialRecordRepository);
+    }
+}
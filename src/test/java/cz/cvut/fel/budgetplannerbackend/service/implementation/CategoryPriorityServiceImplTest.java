@@ -6,6 +6,7 @@ import cz.cvut.fel.budgetplannerbackend.dto.CategoryPriorityDto;
 import cz.cvut.fel.budgetplannerbackend.entity.*;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.ERole;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.mapper.CategoryPriorityMapper;
 import cz.cvut.fel.budgetplannerbackend.repository.*;
 import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
@@ -17,6 +18,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -48,6 +50,9 @@ class CategoryPriorityServiceImplTest {
     @Mock
     private SecurityUtils securityUtils;
 
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
     @InjectMocks
     private CategoryPriorityServiceImpl categoryPriorityService;
 
@@ -276,6 +281,28 @@ class CategoryPriorityServiceImplTest {
 //        verify(financialRecordRepository, times(1)).sumIncomeByUserIdAndDashboardId(eq(3L), eq(1L));
 //    }
 
+    @Test
+    void testCalculateCategoryPriorities() {
+        Category otherCategory = new Category();
+        otherCategory.setId(2L);
+        CategoryPriority otherPriority = new CategoryPriority();
+        otherPriority.setUser(user1);
+        otherPriority.setCategory(otherCategory);
+        otherPriority.setDashboard(testDashboard);
+        otherPriority.setPriority(2);
+        when(categoryPriorityRepository.findByDashboardId(1L)).thenReturn(List.of(categoryPriority1, categoryPriority2, otherPriority));
+        when(dashboardRoleRepository.findByUserIdAndDashboardId(1L, 1L)).thenReturn(Optional.of(dashboardRole1));
+        when(dashboardRoleRepository.findByUserIdAndDashboardId(2L, 1L)).thenReturn(Optional.of(dashboardRole2));
+
+        Map<Long, Double> result = categoryPriorityService.calculateCategoryPriorities(1L);
+
+        // Without income the weights are half the role weights: 0.35 for the employee and 0.15 for the student.
+        assertEquals(Map.of(1L, 4.4, 2L, 2.0), result);
+        verify(securityUtils, times(1)).checkDashboardAccess(1L, EAccessLevel.VIEWER);
+        verify(dashboardRoleRepository, times(1)).findByUserIdAndDashboardId(1L, 1L);
+        verify(dashboardRoleRepository, times(1)).findByUserIdAndDashboardId(2L, 1L);
+    }
+
     @Test
     void testGetCategoryPriorities() {
         doNothing().when(securityUtils).checkDashboardAccess(anyLong(), eq(EAccessLevel.VIEWER));
@@ -3,16 +3,22 @@ package cz.cvut.fel.budgetplannerbackend.service.implementation;
 import static org.junit.jupiter.api.Assertions.*;
 
 import cz.cvut.fel.budgetplannerbackend.dto.CategoryDto;
+import cz.cvut.fel.budgetplannerbackend.dto.CategoryRollupDto;
 import cz.cvut.fel.budgetplannerbackend.dto.DashboardDto;
 import cz.cvut.fel.budgetplannerbackend.entity.Category;
 import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ECachedEntityType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.mapper.CategoryMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.CategorizationRuleRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.CategoryHierarchyRepository.SubtreeTotal;
 import cz.cvut.fel.budgetplannerbackend.repository.CategoryPriorityRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
-import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
 import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +26,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -40,7 +47,7 @@ class CategoryServiceImplTest {
     private DashboardRepository dashboardRepository;
 
     @Mock
-    private FinancialRecordRepository financialRecordRepository;
+    private CategorizationRuleRepository categorizationRuleRepository;
 
     @Mock
     private CategoryMapper categoryMapper;
@@ -48,6 +55,9 @@ class CategoryServiceImplTest {
     @Mock
     private SecurityUtils securityUtils;
 
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -70,7 +80,7 @@ class CategoryServiceImplTest {
         testCategory.setDescription("Test Description");
         testCategory.setDashboard(testDashboard);
 
-        testCategoryDto = new CategoryDto(1L, "Test Category", "Test Description", testDashboardDto);
+        testCategoryDto = new CategoryDto(1L, "Test Category", "Test Description", testDashboardDto, null);
     }
 
     @Test
@@ -126,6 +136,7 @@ class CategoryServiceImplTest {
         verify(securityUtils, times(1)).checkDashboardAccess(anyLong(), eq(EAccessLevel.EDITOR));
         verify(dashboardRepository, times(1)).findById(anyLong());
         verify(categoryRepository, times(1)).save(any(Category.class));
+        verify(dashboardChangeTracker, times(1)).markChanged(1L);
     }
 
     @Test
@@ -168,14 +179,25 @@ class CategoryServiceImplTest {
     void testDeleteCategory() {
         doNothing().when(securityUtils).checkDashboardAccess(anyLong(), eq(EAccessLevel.EDITOR));
         when(categoryRepository.findByIdAndDashboardId(anyLong(), anyLong())).thenReturn(Optional.of(testCategory));
+        when(categoryRepository.findSubtreeIds(1L)).thenReturn(List.of(1L, 2L, 3L));
 
         categoryService.deleteCategory(1L, 1L);
 
         verify(securityUtils, times(1)).checkDashboardAccess(anyLong(), eq(EAccessLevel.EDITOR));
+        verify(categoryRepository, times(1)).lockHierarchy(1L);
         verify(categoryRepository, times(1)).findByIdAndDashboardId(anyLong(), anyLong());
-        verify(categoryPriorityRepository, times(1)).deleteByCategoryId(anyLong());
-        verify(financialRecordRepository, times(1)).setCategoryToNullByCategoryId(anyLong());
-        verify(categoryRepository, times(1)).delete(any(Category.class));
+        verify(categoryPriorityRepository, times(1)).deleteByCategoryIdIn(List.of(1L, 2L, 3L));
+        verify(dashboardRepository, times(1)).clearCategories(ESyncEntityType.FINANCIAL_RECORD, List.of(1L, 2L, 3L));
+        verify(dashboardChangeTracker, times(1)).markBulkUpserted(ESyncEntityType.FINANCIAL_RECORD, 1L);
+        verify(dashboardRepository, times(1)).clearCategories(ESyncEntityType.BUDGET, List.of(1L, 2L, 3L));
+        verify(dashboardChangeTracker, times(1)).markBulkUpserted(ESyncEntityType.BUDGET, 1L);
+        verify(dashboardChangeTracker, never()).markUpserted(any(), anyLong(), anyLong());
+        verify(categorizationRuleRepository, times(1)).deleteByCategoryIdIn(List.of(1L, 2L, 3L));
+        verify(dashboardChangeTracker, times(1)).markInvalidated(1L, ECachedEntityType.CATEGORIZATION_RULE);
+        verify(dashboardChangeTracker, times(3)).markDeleted(eq(ESyncEntityType.CATEGORY), anyLong(), eq(1L));
+        verify(categoryRepository, times(1)).deleteAllByIdIn(List.of(1L, 2L, 3L));
+        verify(categoryRepository, never()).delete(any(Category.class));
+        verify(dashboardChangeTracker, times(1)).markChanged(anyLong());
     }
 
     @Test
@@ -187,4 +209,101 @@ class CategoryServiceImplTest {
         verify(securityUtils, times(1)).checkDashboardAccess(anyLong(), eq(EAccessLevel.EDITOR));
         verify(categoryRepository, times(1)).findByIdAndDashboardId(anyLong(), anyLong());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCreateCategory_WithParent() {
+        Category parent = new Category(5L, "Housing", null, testDashboard, null);
+        CategoryDto childDto = new CategoryDto(null, "Rent", null, null, 5L);
+        when(dashboardRepository.findById(1L)).thenReturn(Optional.of(testDashboard));
+        when(categoryMapper.toEntity(childDto)).thenReturn(testCategory);
+        when(categoryRepository.findByIdAndDashboardId(5L, 1L)).thenReturn(Optional.of(parent));
+        when(categoryRepository.save(testCategory)).thenReturn(testCategory);
+
+        categoryService.createCategory(1L, childDto);
+
+        assertSame(parent, testCategory.getParent());
+        verify(categoryRepository, times(1)).lockHierarchy(1L);
+        verify(categoryRepository, times(1)).insertIntoHierarchy(1L, 5L);
+    }
+
+    @Test
+    void testCreateCategory_ParentNotFound() {
+        CategoryDto childDto = new CategoryDto(null, "Rent", null, null, 5L);
+        when(dashboardRepository.findById(1L)).thenReturn(Optional.of(testDashboard));
+        when(categoryMapper.toEntity(childDto)).thenReturn(testCategory);
+        when(categoryRepository.findByIdAndDashboardId(5L, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> categoryService.createCategory(1L, childDto));
+        verify(categoryRepository, never()).save(any(Category.class));
+        verify(categoryRepository, never()).insertIntoHierarchy(any(), any());
+    }
+
+    @Test
+    void testMoveCategory() {
+        Category parent = new Category(5L, "Housing", null, testDashboard, null);
+        when(categoryRepository.findByIdAndDashboardId(1L, 1L)).thenReturn(Optional.of(testCategory));
+        when(categoryRepository.findByIdAndDashboardId(5L, 1L)).thenReturn(Optional.of(parent));
+        when(categoryRepository.isInSubtree(1L, 5L)).thenReturn(false);
+        when(categoryRepository.save(testCategory)).thenReturn(testCategory);
+
+        categoryService.moveCategory(1L, 1L, 5L);
+
+        assertSame(parent, testCategory.getParent());
+        verify(securityUtils, times(1)).checkDashboardAccess(1L, EAccessLevel.EDITOR);
+        verify(categoryRepository, times(1)).lockHierarchy(1L);
+        verify(categoryRepository, times(1)).moveSubtree(1L, 5L);
+        verify(dashboardChangeTracker, times(1)).markChanged(1L);
+    }
+
+    @Test
+    void testMoveCategory_ToTopLevel() {
+        testCategory.setParent(new Category(5L, "Housing", null, testDashboard, null));
+        when(categoryRepository.findByIdAndDashboardId(1L, 1L)).thenReturn(Optional.of(testCategory));
+        when(categoryRepository.save(testCategory)).thenReturn(testCategory);
+
+        categoryService.moveCategory(1L, 1L, null);
+
+        assertNull(testCategory.getParent());
+        verify(categoryRepository, times(1)).moveSubtree(1L, null);
+        verify(categoryRepository, never()).isInSubtree(any(), any());
+    }
+
+    @Test
+    void testMoveCategory_UnderOwnDescendant() {
+        Category child = new Category(7L, "Rent", null, testDashboard, testCategory);
+        when(categoryRepository.findByIdAndDashboardId(1L, 1L)).thenReturn(Optional.of(testCategory));
+        when(categoryRepository.findByIdAndDashboardId(7L, 1L)).thenReturn(Optional.of(child));
+        when(categoryRepository.isInSubtree(1L, 7L)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> categoryService.moveCategory(1L, 1L, 7L));
+        verify(categoryRepository, never()).moveSubtree(any(), any());
+        verify(dashboardChangeTracker, never()).markChanged(anyLong());
+    }
+
+    @Test
+    void testMoveCategory_SameParentIsNoOp() {
+        when(categoryRepository.findByIdAndDashboardId(1L, 1L)).thenReturn(Optional.of(testCategory));
+
+        categoryService.moveCategory(1L, 1L, null);
+
+        verify(categoryRepository, never()).moveSubtree(any(), any());
+        verify(dashboardChangeTracker, never()).markChanged(anyLong());
+    }
+
+    @Test
+    void testFindCategoryRollupsByDashboardId() {
+        Category child = new Category(7L, "Rent", null, testDashboard, testCategory);
+        when(categoryRepository.findAllByDashboardId(1L)).thenReturn(List.of(testCategory, child));
+        when(categoryRepository.sumSubtreeTotals(1L, null)).thenReturn(List.of(
+                new SubtreeTotal(1L, ERecordType.EXPENSE, new BigDecimal("150.00")),
+                new SubtreeTotal(1L, ERecordType.INCOME, new BigDecimal("20.00")),
+                new SubtreeTotal(7L, ERecordType.EXPENSE, new BigDecimal("100.00"))));
+
+        List<CategoryRollupDto> rollups = categoryService.findCategoryRollupsByDashboardId(1L);
+
+        assertEquals(List.of(
+                new CategoryRollupDto(1L, null, new BigDecimal("20.00"), new BigDecimal("150.00")),
+                new CategoryRollupDto(7L, 1L, BigDecimal.ZERO, new BigDecimal("100.00"))), rollups);
+        verify(securityUtils, times(1)).checkDashboardAccess(1L, EAccessLevel.VIEWER);
+    }
+}
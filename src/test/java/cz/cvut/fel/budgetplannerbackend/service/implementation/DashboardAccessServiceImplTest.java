@@ -5,6 +5,7 @@ import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
 import cz.cvut.fel.budgetplannerbackend.entity.DashboardAccess;
 import cz.cvut.fel.budgetplannerbackend.entity.User;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.repository.AccessLevelRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.DashboardAccessRepository;
@@ -36,6 +37,9 @@ class DashboardAccessServiceImplTest {
     @Mock
     private DashboardRepository dashboardRepository;
 
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
     @Mock
     private AccessLevelRepository accessLevelRepository;
 
@@ -79,6 +83,7 @@ class DashboardAccessServiceImplTest {
         // Assert
         verify(dashboardAccessRepository, times(1)).findByUserIdAndDashboardId(testUser.getId(), testDashboard.getId());
         verify(dashboardAccessRepository, times(1)).save(any(DashboardAccess.class));
+        verify(dashboardChangeTracker).markMembersChanged(testDashboard.getId());
     }
 
     @Test
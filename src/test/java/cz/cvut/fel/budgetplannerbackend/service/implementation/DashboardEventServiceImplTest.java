@@ -0,0 +1,90 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.DashboardEventsProperties;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangedEvent;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardEventServiceImplTest {
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    private final List<Runnable> dispatchTasks = new ArrayList<>();
+
+    private DashboardEventServiceImpl dashboardEventService;
+
+    @BeforeEach
+    void setUp() {
+        DashboardEventsProperties properties = new DashboardEventsProperties();
+        properties.setBufferSize(3);
+        // Dispatch tasks are collected instead of run, which simulates a subscriber that does not keep up.
+        dashboardEventService = new DashboardEventServiceImpl(securityUtils, properties, dispatchTasks::add);
+    }
+
+    @Test
+    void subscribe_checksViewerAccess() {
+        SseEmitter emitter = dashboardEventService.subscribe(3L);
+
+        assertNotNull(emitter);
+        verify(securityUtils).checkDashboardAccess(3L, EAccessLevel.VIEWER);
+        assertEquals(1, dashboardEventService.getSubscriberCount(3L));
+    }
+
+    @Test
+    void subscribe_withoutAccess_throwsAccessDeniedException() {
+        doThrow(new AccessDeniedException("Access to dashboard is denied")).when(securityUtils).checkDashboardAccess(3L, EAccessLevel.VIEWER);
+
+        assertThrows(AccessDeniedException.class, () -> dashboardEventService.subscribe(3L));
+        assertEquals(0, dashboardEventService.getSubscriberCount(3L));
+    }
+
+    @Test
+    void onDashboardChanged_schedulesOneDrainPerSubscriber() {
+        dashboardEventService.subscribe(3L);
+
+        dashboardEventService.onDashboardChanged(new DashboardChangedEvent(3L, 7L, Set.of(ESyncEntityType.BUDGET), false));
+
+        // The connected comment and the change share one pending drain task.
+        assertEquals(1, dispatchTasks.size());
+        assertEquals(1, dashboardEventService.getSubscriberCount(3L));
+    }
+
+    @Test
+    void onDashboardChanged_slowSubscriber_isEvicted() {
+        dashboardEventService.subscribe(3L);
+
+        for (long token = 1; token <= 3; token++) {
+            dashboardEventService.onDashboardChanged(new DashboardChangedEvent(3L, token, Set.of(ESyncEntityType.FINANCIAL_RECORD), false));
+        }
+
+        assertEquals(0, dashboardEventService.getSubscriberCount(3L));
+    }
+
+    @Test
+    void onDashboardChanged_otherDashboard_isIgnored() {
+        dashboardEventService.subscribe(3L);
+
+        dashboardEventService.onDashboardChanged(new DashboardChangedEvent(4L, 1L, Set.of(ESyncEntityType.CATEGORY), false));
+        dashboardEventService.onDashboardChanged(new DashboardChangedEvent(4L, 2L, Set.of(ESyncEntityType.CATEGORY), false));
+        dashboardEventService.onDashboardChanged(new DashboardChangedEvent(4L, 3L, Set.of(ESyncEntityType.CATEGORY), false));
+
+        assertEquals(1, dashboardEventService.getSubscriberCount(3L));
+    }
+}
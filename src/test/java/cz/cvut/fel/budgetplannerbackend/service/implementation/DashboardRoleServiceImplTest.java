@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 
 import cz.cvut.fel.budgetplannerbackend.entity.*;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.ERole;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.repository.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -32,6 +33,9 @@ class DashboardRoleServiceImplTest {
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
     @InjectMocks
     private DashboardRoleServiceImpl dashboardRoleService;
 
@@ -67,6 +71,7 @@ class DashboardRoleServiceImplTest {
         // Assert
         verify(dashboardRoleRepository, times(1)).save(any(DashboardRole.class));
         verify(dashboardRoleRepository, times(1)).findByUserIdAndDashboardId(testUser.getId(), testDashboard.getId());
+        verify(dashboardChangeTracker).markMembersChanged(testDashboard.getId());
     }
 
     @Test
@@ -7,6 +7,7 @@ import cz.cvut.fel.budgetplannerbackend.dto.DashboardDto;
 import cz.cvut.fel.budgetplannerbackend.entity.*;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.ERole;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
 import cz.cvut.fel.budgetplannerbackend.mapper.DashboardMapper;
 import cz.cvut.fel.budgetplannerbackend.repository.*;
@@ -21,6 +22,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -39,6 +41,9 @@ class DashboardServiceImplTest {
     @Mock
     private SecurityUtils securityUtils;
 
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
     @Mock
     AccessLevelRepository accessLevelRepository;
 
@@ -54,6 +59,12 @@ class DashboardServiceImplTest {
     @Mock
     private BudgetRepository budgetRepository;
 
+    @Mock
+    private RecurringTransactionRepository recurringTransactionRepository;
+
+    @Mock
+    private CategorizationRuleRepository categorizationRuleRepository;
+
     @Mock
     private CategoryRepository categoryRepository;
 
@@ -75,6 +86,9 @@ class DashboardServiceImplTest {
     @Mock
     private DashboardAccessService dashboardAccessService;
 
+    @Mock
+    private TagRepository tagRepository;
+
     @InjectMocks
     private DashboardServiceImpl dashboardService;
 
@@ -236,6 +250,30 @@ class DashboardServiceImplTest {
         verify(dashboardRepository, times(1)).findById(dashboardId);
     }
 
+    @Test
+    void testGetDashboardETagForMember() {
+        // Arrange
+        Long dashboardId = 1L;
+        when(dashboardRepository.findVersionForMember(dashboardId, 1L)).thenReturn(Optional.of(7L));
+
+        // Act
+        String eTag = dashboardService.getDashboardETag(dashboardId);
+
+        // Assert
+        assertEquals("1-7", eTag);
+        verify(dashboardRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testGetDashboardETagWithoutAccess() {
+        // Arrange
+        Long dashboardId = 1L;
+        when(dashboardRepository.findVersionForMember(dashboardId, 1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> dashboardService.getDashboardETag(dashboardId));
+    }
+
     @Test
     void testCreateDashboardSuccessfully() {
         // Arrange
@@ -381,8 +419,11 @@ class DashboardServiceImplTest {
         verify(dashboardRepository, times(1)).delete(testDashboard);
         verify(categoryPriorityRepository, times(1)).deleteByDashboardId(dashboardId);
         verify(financialRecordRepository, times(1)).deleteByDashboardId(dashboardId);
+        verify(recurringTransactionRepository, times(1)).deleteByDashboardId(dashboardId);
+        verify(tagRepository, times(1)).deleteByDashboardId(dashboardId);
         verify(financialGoalRepository, times(1)).deleteByDashboardId(dashboardId);
         verify(budgetRepository, times(1)).deleteByDashboardId(dashboardId);
+        verify(categorizationRuleRepository, times(1)).deleteByDashboardId(dashboardId);
         verify(categoryRepository, times(1)).deleteByDashboardId(dashboardId);
         verify(dashboardAccessRepository, times(1)).deleteByDashboardId(dashboardId);
         verify(dashboardRoleRepository, times(1)).deleteByDashboardId(dashboardId);
@@ -456,6 +497,7 @@ class DashboardServiceImplTest {
         // Assert
         verify(dashboardAccessRepository, times(1)).save(any(DashboardAccess.class));
         verify(dashboardRoleService, times(1)).assignRoleToUserInDashboard(userToAdd.getId(), dashboardId, ERole.NONE);
+        verify(dashboardChangeTracker).markMembersChanged(dashboardId);
     }
 
     @Test
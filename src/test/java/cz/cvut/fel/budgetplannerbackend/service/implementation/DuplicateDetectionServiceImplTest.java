@@ -0,0 +1,289 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.DuplicateDetectionProperties;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.mapper.FinancialRecordMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.RecordDuplicateRepository.DescribedRecord;
+import cz.cvut.fel.budgetplannerbackend.repository.RecordDuplicateRepository.DuplicateFlag;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DuplicateDetectionServiceImplTest {
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private FinancialRecordMapper financialRecordMapper;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final DuplicateDetectionProperties properties = new DuplicateDetectionProperties();
+    private final List<Runnable> pendingBuilds = new ArrayList<>();
+    private DuplicateDetectionServiceImpl duplicateDetectionService;
+
+    private final Long dashboardId = 1L;
+    private final Dashboard dashboard = new Dashboard();
+    private final LocalDateTime date = LocalDateTime.of(2024, 5, 10, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        dashboard.setId(dashboardId);
+        duplicateDetectionService = new DuplicateDetectionServiceImpl(financialRecordRepository, financialRecordMapper, securityUtils,
+                transactionManager, properties, Runnable::run);
+    }
+
+    private DuplicateDetectionServiceImpl deferringIndexBuilds() {
+        return new DuplicateDetectionServiceImpl(financialRecordRepository, financialRecordMapper, securityUtils,
+                transactionManager, properties, pendingBuilds::add);
+    }
+
+    private FinancialRecord record(String amount, String description, LocalDateTime recordDate) {
+        FinancialRecord financialRecord = new FinancialRecord();
+        financialRecord.setDashboard(dashboard);
+        financialRecord.setType(ERecordType.EXPENSE);
+        financialRecord.setAmount(new BigDecimal(amount));
+        financialRecord.setDescription(description);
+        financialRecord.setDate(recordDate);
+        return financialRecord;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenRecords(DescribedRecord... records) {
+        doAnswer(invocation -> {
+            Consumer<DescribedRecord> action = invocation.getArgument(2);
+            List.of(records).forEach(action);
+            return null;
+        }).when(financialRecordRepository).forEachDescribedRecordByDate(eq(dashboardId), any(), any(Consumer.class));
+    }
+
+    @Test
+    void normalize_IgnoresCaseDiacriticsAndPunctuation() {
+        assertEquals("kavarna u zlate lodi", DuplicateDetectionServiceImpl.normalize("  Kavárna -- U Zlaté lodi! "));
+        assertEquals("", DuplicateDetectionServiceImpl.normalize("..."));
+        assertEquals("", DuplicateDetectionServiceImpl.normalize(null));
+        assertEquals(DuplicateDetectionServiceImpl.fingerprint(ERecordType.EXPENSE, 1250, "coffee"),
+                DuplicateDetectionServiceImpl.fingerprint(ERecordType.EXPENSE, 1250, "coffee"));
+        assertNotEquals(DuplicateDetectionServiceImpl.fingerprint(ERecordType.EXPENSE, 1250, "coffee"),
+                DuplicateDetectionServiceImpl.fingerprint(ERecordType.INCOME, 1250, "coffee"));
+    }
+
+    @Test
+    void checkDuplicate_FlagsSameFingerprintWithinWindow() {
+        when(financialRecordRepository.findEarliestByFingerprint(eq(dashboardId), anyLong(), eq(date.minusDays(3)), eq(date), isNull()))
+                .thenReturn(Optional.of(42L));
+        FinancialRecord financialRecord = record("12.50", "Coffee", date);
+
+        duplicateDetectionService.checkDuplicate(financialRecord);
+
+        assertEquals(DuplicateDetectionServiceImpl.fingerprint(ERecordType.EXPENSE, 1250, "coffee"), financialRecord.getFingerprint());
+        assertEquals(42L, financialRecord.getDuplicateOfId());
+    }
+
+    @Test
+    void checkDuplicate_FlagsSimilarDescriptionFromIndex() {
+        givenRecords(new DescribedRecord(7L, date.minusDays(1), ERecordType.EXPENSE, new BigDecimal("349.00"), "NETFLIX.COM subscription", null, null),
+                new DescribedRecord(8L, date.minusDays(1), ERecordType.EXPENSE, new BigDecimal("120.00"), "Netflix.com subscription", null, null),
+                new DescribedRecord(9L, date.minusDays(10), ERecordType.EXPENSE, new BigDecimal("349.00"), "Netflix.com subscription", null, null));
+        when(financialRecordRepository.findEarliestByFingerprint(eq(dashboardId), anyLong(), any(), any(), isNull())).thenReturn(Optional.empty());
+        FinancialRecord original = new FinancialRecord();
+        original.setId(7L);
+        when(financialRecordRepository.findAllByIdInAndDashboardId(List.of(7L), dashboardId)).thenReturn(List.of(original));
+        FinancialRecord financialRecord = record("349.00", "Netflix.com subscriptions", date);
+
+        duplicateDetectionService.checkDuplicate(financialRecord);
+
+        // Record 8 has another amount and record 9 is outside the window.
+        assertEquals(7L, financialRecord.getDuplicateOfId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void checkDuplicate_OnlyChecksFingerprintUntilIndexIsBuilt() {
+        givenRecords(new DescribedRecord(7L, date.minusDays(1), ERecordType.EXPENSE, new BigDecimal("349.00"), "NETFLIX.COM subscription", null, null));
+        when(financialRecordRepository.findEarliestByFingerprint(eq(dashboardId), anyLong(), any(), any(), isNull())).thenReturn(Optional.empty());
+        FinancialRecord original = new FinancialRecord();
+        original.setId(7L);
+        when(financialRecordRepository.findAllByIdInAndDashboardId(List.of(7L), dashboardId)).thenReturn(List.of(original));
+        DuplicateDetectionServiceImpl service = deferringIndexBuilds();
+        FinancialRecord first = record("349.00", "Netflix.com subscriptions", date);
+        FinancialRecord second = record("349.00", "Netflix.com subscriptions", date);
+
+        service.checkDuplicate(first);
+        service.checkDuplicate(second);
+
+        assertNull(first.getDuplicateOfId());
+        assertNull(second.getDuplicateOfId());
+        verify(financialRecordRepository, never()).forEachDescribedRecordByDate(any(), any(), any(Consumer.class));
+        assertEquals(1, pendingBuilds.size()); // One build per dashboard at a time.
+
+        pendingBuilds.remove(0).run();
+        FinancialRecord third = record("349.00", "Netflix.com subscriptions", date);
+        service.checkDuplicate(third);
+
+        assertEquals(7L, third.getDuplicateOfId());
+        assertTrue(pendingBuilds.isEmpty());
+    }
+
+    @Test
+    void checkDuplicate_UsesExpiredIndexWhileItIsRebuilt() {
+        givenRecords(new DescribedRecord(7L, date.minusDays(1), ERecordType.EXPENSE, new BigDecimal("349.00"), "NETFLIX.COM subscription", null, null));
+        when(financialRecordRepository.findEarliestByFingerprint(eq(dashboardId), anyLong(), any(), any(), isNull())).thenReturn(Optional.empty());
+        FinancialRecord original = new FinancialRecord();
+        original.setId(7L);
+        when(financialRecordRepository.findAllByIdInAndDashboardId(List.of(7L), dashboardId)).thenReturn(List.of(original));
+        properties.setIndexTtl(0);
+        DuplicateDetectionServiceImpl service = deferringIndexBuilds();
+        service.checkDuplicate(record("1.00", "Tea", date));
+        pendingBuilds.remove(0).run();
+        FinancialRecord financialRecord = record("349.00", "Netflix.com subscriptions", date);
+
+        service.checkDuplicate(financialRecord);
+
+        assertEquals(7L, financialRecord.getDuplicateOfId());
+        assertEquals(1, pendingBuilds.size());
+    }
+
+    @Test
+    void checkDuplicates_FlagsEarliestSameFingerprintWithOneQuery() {
+        long coffee = DuplicateDetectionServiceImpl.fingerprint(ERecordType.EXPENSE, 1250, "coffee");
+        when(financialRecordRepository.findAllByFingerprints(eq(dashboardId), any(), eq(date.minusDays(3)), eq(date.plusDays(10))))
+                .thenReturn(List.of(new DuplicateFlag(42L, date.minusDays(1), coffee, null),
+                        new DuplicateFlag(43L, date.plusDays(9), coffee, null)));
+        FinancialRecord first = record("12.50", "Coffee", date);
+        FinancialRecord second = record("12.50", "coffee!", date.plusDays(10));
+        FinancialRecord tea = record("12.50", "Tea", date.plusDays(10));
+
+        duplicateDetectionService.checkDuplicates(List.of(first, second, tea), id -> false);
+
+        assertEquals(42L, first.getDuplicateOfId());
+        assertEquals(43L, second.getDuplicateOfId()); // Record 42 is outside its window.
+        assertNull(tea.getDuplicateOfId());
+        assertNotNull(tea.getFingerprint());
+        verify(financialRecordRepository, times(1)).findAllByFingerprints(any(), any(), any(), any());
+        verify(financialRecordRepository, never()).findEarliestByFingerprint(any(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void checkDuplicates_SkipsIgnoredRecords() {
+        long coffee = DuplicateDetectionServiceImpl.fingerprint(ERecordType.EXPENSE, 1250, "coffee");
+        when(financialRecordRepository.findAllByFingerprints(eq(dashboardId), any(), any(), any()))
+                .thenReturn(List.of(new DuplicateFlag(42L, date.minusDays(1), coffee, null),
+                        new DuplicateFlag(44L, date.plusDays(1), coffee, null)));
+        FinancialRecord first = record("12.50", "Coffee", date);
+        FinancialRecord second = record("12.50", "Coffee", date.plusDays(1));
+
+        duplicateDetectionService.checkDuplicates(List.of(first, second), id -> id == 42L || id == 44L);
+
+        // Only records of the same import were found; the records of a batch are not compared with each other.
+        assertNull(first.getDuplicateOfId());
+        assertNull(second.getDuplicateOfId());
+
+        duplicateDetectionService.checkDuplicates(List.of(first), id -> id == 44L);
+
+        assertEquals(42L, first.getDuplicateOfId());
+    }
+
+    @Test
+    void checkDuplicate_BackDatedRecordDoesNotDuplicateLaterRecord() {
+        givenRecords(new DescribedRecord(7L, date.plusDays(1), ERecordType.EXPENSE, new BigDecimal("349.00"), "NETFLIX.COM subscription", null, null));
+        when(financialRecordRepository.findEarliestByFingerprint(eq(dashboardId), anyLong(), eq(date.minusDays(3)), eq(date), isNull()))
+                .thenReturn(Optional.empty());
+        FinancialRecord backDated = record("349.00", "Netflix.com subscriptions", date);
+
+        duplicateDetectionService.checkDuplicate(backDated);
+
+        // Record 7 is within the window, but it was checked against the records before it when it was saved.
+        assertNull(backDated.getDuplicateOfId());
+    }
+
+    @Test
+    void checkDuplicates_OnlyFlagsPrecedingRecords() {
+        long coffee = DuplicateDetectionServiceImpl.fingerprint(ERecordType.EXPENSE, 1250, "coffee");
+        when(financialRecordRepository.findAllByFingerprints(eq(dashboardId), any(), eq(date.minusDays(3)), eq(date)))
+                .thenReturn(List.of(new DuplicateFlag(50L, date, coffee, null)));
+        FinancialRecord earlier = record("12.50", "Coffee", date);
+        earlier.setId(40L);
+        FinancialRecord later = record("12.50", "Coffee", date);
+        later.setId(60L);
+        FinancialRecord unsaved = record("12.50", "Coffee", date);
+
+        duplicateDetectionService.checkDuplicates(List.of(earlier, later, unsaved), id -> false);
+
+        // On the same date, the record with the lower ID precedes; an unsaved record follows all.
+        assertNull(earlier.getDuplicateOfId());
+        assertEquals(50L, later.getDuplicateOfId());
+        assertEquals(50L, unsaved.getDuplicateOfId());
+    }
+
+    @Test
+    void checkDuplicate_IgnoresBlankDescriptions() {
+        FinancialRecord financialRecord = record("10.00", " - ", date);
+        financialRecord.setFingerprint(5L);
+        financialRecord.setDuplicateOfId(3L);
+
+        duplicateDetectionService.checkDuplicate(financialRecord);
+
+        assertNull(financialRecord.getFingerprint());
+        assertNull(financialRecord.getDuplicateOfId());
+        verifyNoInteractions(financialRecordRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scanDuplicates_FlagsRecordsDuplicatingEarlierOnes() {
+        long coffee = DuplicateDetectionServiceImpl.fingerprint(ERecordType.EXPENSE, 1250, "coffee");
+        givenRecords(new DescribedRecord(1L, date, ERecordType.EXPENSE, new BigDecimal("12.50"), "Coffee", coffee, null),
+                new DescribedRecord(2L, date.plusDays(1), ERecordType.EXPENSE, new BigDecimal("12.50"), "COFFEE", null, null),
+                new DescribedRecord(3L, date.plusDays(9), ERecordType.EXPENSE, new BigDecimal("12.50"), "coffee", coffee, 1L),
+                new DescribedRecord(4L, date.plusDays(9), ERecordType.INCOME, new BigDecimal("12.50"), "coffee", null, null));
+
+        int updated = duplicateDetectionService.scanDuplicates(dashboardId);
+
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        ArgumentCaptor<Collection<DuplicateFlag>> flags = ArgumentCaptor.forClass(Collection.class);
+        verify(financialRecordRepository).updateDuplicateFlags(flags.capture());
+        // Record 3 is too late for records 1 and 2, and record 4 has another type.
+        assertEquals(List.of(new DuplicateFlag(2L, date.plusDays(1), coffee, 1L), new DuplicateFlag(3L, date.plusDays(9), coffee, null),
+                        new DuplicateFlag(4L, date.plusDays(9), DuplicateDetectionServiceImpl.fingerprint(ERecordType.INCOME, 1250, "coffee"), null)),
+                List.copyOf(flags.getValue()));
+        assertEquals(3, updated);
+    }
+
+    @Test
+    void forgetRecord_ClearsFlagsOfItsDuplicates() {
+        duplicateDetectionService.forgetRecord(dashboardId, 7L);
+
+        verify(financialRecordRepository).clearDuplicatesOf(dashboardId, 7L);
+    }
+}
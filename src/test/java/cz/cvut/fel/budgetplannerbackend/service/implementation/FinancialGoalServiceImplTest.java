@@ -6,6 +6,7 @@ import cz.cvut.fel.budgetplannerbackend.dto.FinancialGoalDto;
 import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
 import cz.cvut.fel.budgetplannerbackend.entity.FinancialGoal;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.mapper.FinancialGoalMapper;
 import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.FinancialGoalRepository;
@@ -41,6 +42,9 @@ class FinancialGoalServiceImplTest {
     @Mock
     private SecurityUtils securityUtils;
 
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
     @InjectMocks
     private FinancialGoalServiceImpl financialGoalService;
 
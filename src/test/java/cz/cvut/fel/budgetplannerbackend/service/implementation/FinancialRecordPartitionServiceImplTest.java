@@ -0,0 +1,78 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.RecordPartitionProperties;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FinancialRecordPartitionServiceImplTest {
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    private final RecordPartitionProperties properties = new RecordPartitionProperties();
+    private final DataSourceProperties dataSourceProperties = new DataSourceProperties();
+    private FinancialRecordPartitionServiceImpl partitionService;
+    private final LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+
+    @BeforeEach
+    void setUp() {
+        dataSourceProperties.setUrl("jdbc:postgresql://localhost:5432/budget");
+        partitionService = new FinancialRecordPartitionServiceImpl(financialRecordRepository, properties, dataSourceProperties);
+    }
+
+    @Test
+    void testMaintainPartitionsCreatesUpcomingAndBackDatedMonths() {
+        LocalDate backDated = currentMonth.minusYears(2);
+        when(financialRecordRepository.findMonthsInDefaultPartition(currentMonth.minusMonths(120), currentMonth))
+                .thenReturn(List.of(backDated));
+        when(financialRecordRepository.ensureMonthlyPartition(any())).thenReturn(true);
+        when(financialRecordRepository.ensureMonthlyPartition(currentMonth)).thenReturn(false); // Created by another node.
+
+        int created = partitionService.maintainPartitions();
+
+        assertEquals(4, created);
+        verify(financialRecordRepository).ensureMonthlyPartition(backDated);
+        for (int i = 0; i <= 3; i++) {
+            verify(financialRecordRepository).ensureMonthlyPartition(currentMonth.plusMonths(i));
+        }
+    }
+
+    @Test
+    void testMaintainPartitionsContinuesAfterFailure() {
+        when(financialRecordRepository.findMonthsInDefaultPartition(any(), any())).thenReturn(List.of());
+        when(financialRecordRepository.ensureMonthlyPartition(any())).thenReturn(true);
+        when(financialRecordRepository.ensureMonthlyPartition(currentMonth.plusMonths(1))).thenThrow(new IllegalStateException("lock timeout"));
+
+        assertEquals(3, partitionService.maintainPartitions());
+        verify(financialRecordRepository).ensureMonthlyPartition(currentMonth.plusMonths(3));
+    }
+
+    @Test
+    void testMaintainPartitionsSkipsOtherDatabases() {
+        dataSourceProperties.setUrl("jdbc:h2:mem:budget");
+
+        assertEquals(0, partitionService.maintainPartitions());
+        verifyNoInteractions(financialRecordRepository);
+    }
+
+    @Test
+    void testMaintainPartitionsCanBeDisabled() {
+        properties.setEnabled(false);
+
+        assertEquals(0, partitionService.maintainPartitions());
+        verifyNoInteractions(financialRecordRepository);
+    }
+}
@@ -3,17 +3,26 @@ package cz.cvut.fel.budgetplannerbackend.service.implementation;
 import cz.cvut.fel.budgetplannerbackend.dto.CategoryDto;
 import cz.cvut.fel.budgetplannerbackend.dto.DashboardDto;
 import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.dto.RecordTotalsDto;
 import cz.cvut.fel.budgetplannerbackend.entity.Category;
 import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
 import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.Tag;
 import cz.cvut.fel.budgetplannerbackend.entity.User;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
 import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
 import cz.cvut.fel.budgetplannerbackend.mapper.FinancialRecordMapper;
+import cz.cvut.fel.budgetplannerbackend.metrics.BusinessMetrics;
 import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
 import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
 import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.AnomalyDetectionService;
+import cz.cvut.fel.budgetplannerbackend.service.CategorizationService;
+import cz.cvut.fel.budgetplannerbackend.service.DuplicateDetectionService;
+import cz.cvut.fel.budgetplannerbackend.service.TagService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,8 +33,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -49,6 +60,24 @@ class FinancialRecordServiceImplTest {
     @Mock
     private SecurityUtils securityUtils;
 
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
+    @Mock
+    private BusinessMetrics businessMetrics;
+
+    @Mock
+    private TagService tagService;
+
+    @Mock
+    private AnomalyDetectionService anomalyDetectionService;
+
+    @Mock
+    private CategorizationService categorizationService;
+
+    @Mock
+    private DuplicateDetectionService duplicateDetectionService;
+
     @InjectMocks
     private FinancialRecordServiceImpl financialRecordService;
 
@@ -76,10 +105,14 @@ class FinancialRecordServiceImplTest {
                 testUser.getId(),
                 new DashboardDto(testDashboard.getId(), "Test Dashboard", "Description", LocalDateTime.now(), testUser.getId()),
                 new BigDecimal("100.0"),
-                new CategoryDto(testCategory.getId(), "Test Category", "Description", null),
+                new CategoryDto(testCategory.getId(), "Test Category", "Description", null, null),
                 ERecordType.EXPENSE,
                 LocalDateTime.now(),
-                "Test Description"
+                "Test Description",
+                null,
+                null,
+                false,
+                null
         );
     }
 
@@ -131,10 +164,10 @@ class FinancialRecordServiceImplTest {
         Long categoryId = 1L;
         User testUser = new User(userId, "testUser", "test@example.com", "password", LocalDateTime.now());
         Dashboard testDashboard = new Dashboard(dashboardId, "Test Dashboard", "Description", LocalDateTime.now(), testUser);
-        Category testCategory = new Category(categoryId, "Test Category", "Description", testDashboard);
+        Category testCategory = new Category(categoryId, "Test Category", "Description", testDashboard, null);
         FinancialRecordDto financialRecordDto = new FinancialRecordDto(null, userId, new DashboardDto(dashboardId, "Test Dashboard", "Description", LocalDateTime.now(), userId),
-                new BigDecimal("100.00"), new CategoryDto(categoryId, "Test Category", "Description", new DashboardDto(dashboardId, "Test Dashboard", "Description", LocalDateTime.now(), userId)),
-                ERecordType.INCOME, LocalDateTime.now(), "Description");
+                new BigDecimal("100.00"), new CategoryDto(categoryId, "Test Category", "Description", new DashboardDto(dashboardId, "Test Dashboard", "Description", LocalDateTime.now(), userId), null),
+                ERecordType.INCOME, LocalDateTime.now(), "Description", null, null, false, null);
 
         when(securityUtils.getCurrentUser()).thenReturn(testUser);
         doNothing().when(securityUtils).checkDashboardAccess(anyLong(), eq(EAccessLevel.EDITOR));
@@ -154,6 +187,10 @@ class FinancialRecordServiceImplTest {
         assertNotNull(createdRecord);
         assertEquals(financialRecordDto.amount(), createdRecord.amount());
         verify(financialRecordRepository, times(1)).save(any(FinancialRecord.class));
+        verify(businessMetrics, times(1)).recordCreated(ERecordType.INCOME);
+        verify(categorizationService, times(1)).categorize(any(FinancialRecord.class));
+        verify(anomalyDetectionService, times(1)).scoreExpense(any(FinancialRecord.class));
+        verify(duplicateDetectionService, times(1)).checkDuplicate(any(FinancialRecord.class));
     }
 
     @Test
@@ -165,11 +202,11 @@ class FinancialRecordServiceImplTest {
         Long categoryId = 1L;
         User testUser = new User(userId, "testUser", "test@example.com", "password", LocalDateTime.now());
         Dashboard testDashboard = new Dashboard(dashboardId, "Test Dashboard", "Description", LocalDateTime.now(), testUser);
-        Category testCategory = new Category(categoryId, "Test Category", "Description", testDashboard);
-        FinancialRecord testRecord = new FinancialRecord(recordId, testUser, testDashboard, new BigDecimal("100.00"), testCategory, ERecordType.INCOME, LocalDateTime.now(), "Description");
+        Category testCategory = new Category(categoryId, "Test Category", "Description", testDashboard, null);
+        FinancialRecord testRecord = new FinancialRecord(recordId, testUser, testDashboard, new BigDecimal("100.00"), testCategory, ERecordType.INCOME, LocalDateTime.now(), "Description", null, null, false, null, null, null);
         FinancialRecordDto financialRecordDto = new FinancialRecordDto(recordId, userId, new DashboardDto(dashboardId, "Test Dashboard", "Description", LocalDateTime.now(), userId),
-                new BigDecimal("150.00"), new CategoryDto(categoryId, "Test Category", "Description", new DashboardDto(dashboardId, "Test Dashboard", "Description", LocalDateTime.now(), userId)),
-                ERecordType.EXPENSE, LocalDateTime.now(), "Updated Description");
+                new BigDecimal("150.00"), new CategoryDto(categoryId, "Test Category", "Description", new DashboardDto(dashboardId, "Test Dashboard", "Description", LocalDateTime.now(), userId), null),
+                ERecordType.EXPENSE, LocalDateTime.now(), "Updated Description", null, null, false, null);
 
         doNothing().when(securityUtils).checkDashboardAccess(anyLong(), eq(EAccessLevel.EDITOR));
         when(financialRecordRepository.findByIdAndDashboardId(recordId, dashboardId)).thenReturn(Optional.of(testRecord));
@@ -185,6 +222,34 @@ class FinancialRecordServiceImplTest {
         assertEquals(financialRecordDto.amount(), updatedRecord.amount());
         assertEquals(financialRecordDto.description(), updatedRecord.description());
         verify(financialRecordRepository, times(1)).save(any(FinancialRecord.class));
+        verify(anomalyDetectionService, times(1)).scoreExpense(testRecord); // The amount and type changed.
+        verify(duplicateDetectionService, times(1)).checkDuplicate(testRecord);
+    }
+
+    @Test
+    void testUpdateFinancialRecordReplacesTags() {
+        // Arrange
+        Long dashboardId = 1L;
+        Long recordId = 1L;
+        User testUser = new User(1L, "testUser", "test@example.com", "password", LocalDateTime.now());
+        Dashboard testDashboard = new Dashboard(dashboardId, "Test Dashboard", "Description", LocalDateTime.now(), testUser);
+        FinancialRecord testRecord = new FinancialRecord(recordId, testUser, testDashboard, new BigDecimal("100.00"), null, ERecordType.INCOME, LocalDateTime.now(), "Description", new HashSet<>(), null, false, null, null, null);
+        FinancialRecordDto financialRecordDto = new FinancialRecordDto(recordId, 1L, null, new BigDecimal("100.00"), null,
+                ERecordType.INCOME, null, "Description", Set.of("Trip"), null, false, null);
+        Set<Tag> tags = Set.of(new Tag(5L, "trip", testDashboard));
+
+        when(financialRecordRepository.findByIdAndDashboardId(recordId, dashboardId)).thenReturn(Optional.of(testRecord));
+        when(tagService.resolveTags(testDashboard, Set.of("Trip"))).thenReturn(tags);
+        when(financialRecordRepository.save(testRecord)).thenReturn(testRecord);
+
+        // Act
+        financialRecordService.updateFinancialRecord(recordId, dashboardId, financialRecordDto);
+
+        // Assert
+        assertEquals(tags, testRecord.getTags());
+        verify(dashboardChangeTracker).markUpserted(ESyncEntityType.FINANCIAL_RECORD, recordId, dashboardId);
+        verify(anomalyDetectionService, never()).scoreExpense(any()); // Amount, type and category are unchanged.
+        verify(duplicateDetectionService, never()).checkDuplicate(any()); // Amount, type, date and description are unchanged.
     }
 
     @Test
@@ -203,6 +268,33 @@ class FinancialRecordServiceImplTest {
         // Assert
         verify(securityUtils, times(1)).checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
         verify(financialRecordRepository, times(1)).findByIdAndDashboardId(id, dashboardId);
+        verify(duplicateDetectionService, times(1)).forgetRecord(dashboardId, id);
         verify(financialRecordRepository, times(1)).delete(financialRecord);
     }
+
+    @Test
+    void testSumFinancialRecordsByDashboardIdAndDateRange() {
+        // Arrange
+        Long dashboardId = 1L;
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 4, 1, 0, 0);
+        when(financialRecordRepository.sumAmountsByTypeAndDateRange(dashboardId, from, to))
+                .thenReturn(List.<Object[]>of(new Object[]{ERecordType.EXPENSE, new BigDecimal("120.50")}));
+
+        // Act
+        RecordTotalsDto totals = financialRecordService.sumFinancialRecordsByDashboardIdAndDateRange(dashboardId, from, to);
+
+        // Assert
+        assertEquals(new RecordTotalsDto(from, to, BigDecimal.ZERO, new BigDecimal("120.50")), totals);
+        verify(securityUtils, times(1)).checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+    }
+
+    @Test
+    void testFindFinancialRecordsByDashboardIdAndDateRange_EmptyRange() {
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> financialRecordService.findFinancialRecordsByDashboardIdAndDateRange(1L, from, from));
+        verify(financialRecordRepository, never()).findAllByDashboardIdAndDateRange(any(), any(), any());
+    }
 }
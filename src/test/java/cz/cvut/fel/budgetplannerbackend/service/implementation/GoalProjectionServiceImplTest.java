@@ -0,0 +1,166 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.GoalProjectionProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.GoalProjectionDto;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialGoal;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialGoalRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GoalProjectionServiceImplTest {
+
+    @Mock
+    private FinancialGoalRepository financialGoalRepository;
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    private GoalProjectionServiceImpl goalProjectionService;
+
+    private final Long dashboardId = 1L;
+    private final Long goalId = 5L;
+    private final LocalDateTime currentMonth = YearMonth.now().atDay(1).atStartOfDay();
+
+    @BeforeEach
+    void setUp() {
+        GoalProjectionProperties properties = new GoalProjectionProperties();
+        properties.setPaths(4000);
+        properties.setParallelism(2);
+        goalProjectionService = new GoalProjectionServiceImpl(financialGoalRepository, financialRecordRepository,
+                dashboardRepository, securityUtils, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        goalProjectionService.shutdown();
+    }
+
+    private FinancialGoal goal(Double current, Double target, LocalDate deadline) {
+        return new FinancialGoal(goalId, null, "Car", target, current, deadline);
+    }
+
+    private static Object[] row(LocalDateTime bucket, String type, String sum) {
+        return new Object[]{Timestamp.valueOf(bucket), type, new BigDecimal(sum)};
+    }
+
+    @Test
+    void projectFinancialGoal_FromMonthlyNetCashFlow() {
+        when(dashboardRepository.findVersion(dashboardId)).thenReturn(Optional.of(3L));
+        when(financialGoalRepository.findByIdAndDashboardId(goalId, dashboardId))
+                .thenReturn(Optional.of(goal(1000.0, 1600.0, LocalDate.now().plusMonths(6))));
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row(currentMonth.minusMonths(2), "INCOME", "300.00"));
+        rows.add(row(currentMonth.minusMonths(2), "EXPENSE", "200.00"));
+        rows.add(row(currentMonth.minusMonths(1), "INCOME", "150.00"));
+        when(financialRecordRepository.sumAmountsByBucketAndType(dashboardId, "month", currentMonth.minusMonths(36), currentMonth))
+                .thenReturn(rows);
+
+        GoalProjectionDto projection = goalProjectionService.projectFinancialGoal(dashboardId, goalId);
+
+        // Every month adds 100 or 150, so 6 months add at least 600 and always reach the target.
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        assertEquals(goalId, projection.goalId());
+        assertEquals(1, projection.probability());
+        assertEquals(6, projection.months());
+        assertEquals(2, projection.historyMonths());
+        assertEquals(4000, projection.paths());
+        assertTrue(projection.p10Amount() >= 1600 && projection.p90Amount() <= 1900);
+    }
+
+    @Test
+    void projectFinancialGoal_GapsInHistoryCountAsZero() {
+        when(dashboardRepository.findVersion(dashboardId)).thenReturn(Optional.of(3L));
+        when(financialGoalRepository.findByIdAndDashboardId(goalId, dashboardId))
+                .thenReturn(Optional.of(goal(0.0, 100.0, LocalDate.now().plusMonths(1))));
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row(currentMonth.minusMonths(4), "INCOME", "100.00"));
+        when(financialRecordRepository.sumAmountsByBucketAndType(eq(dashboardId), eq("month"), any(), any())).thenReturn(rows);
+
+        GoalProjectionDto projection = goalProjectionService.projectFinancialGoal(dashboardId, goalId);
+
+        // One of the four months since the first record had income: a single month reaches the target a quarter of the time.
+        assertEquals(4, projection.historyMonths());
+        assertEquals(0.25, projection.probability(), 0.03);
+    }
+
+    @Test
+    void projectFinancialGoal_WithoutHistoryUsesCurrentAmount() {
+        when(dashboardRepository.findVersion(dashboardId)).thenReturn(Optional.of(3L));
+        when(financialGoalRepository.findByIdAndDashboardId(goalId, dashboardId))
+                .thenReturn(Optional.of(goal(200.0, 100.0, LocalDate.now().plusYears(1))));
+        when(financialRecordRepository.sumAmountsByBucketAndType(eq(dashboardId), eq("month"), any(), any())).thenReturn(List.of());
+
+        GoalProjectionDto projection = goalProjectionService.projectFinancialGoal(dashboardId, goalId);
+
+        assertEquals(1, projection.probability());
+        assertEquals(0, projection.historyMonths());
+        assertEquals(0, projection.paths());
+        assertEquals(200.0, projection.medianAmount());
+    }
+
+    @Test
+    void projectFinancialGoal_CachedUntilVersionChanges() {
+        when(dashboardRepository.findVersion(dashboardId)).thenReturn(Optional.of(3L)).thenReturn(Optional.of(3L)).thenReturn(Optional.of(4L));
+        when(financialGoalRepository.findByIdAndDashboardId(goalId, dashboardId))
+                .thenReturn(Optional.of(goal(0.0, 100.0, LocalDate.now().plusMonths(3))));
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row(currentMonth.minusMonths(1), "INCOME", "50.00"));
+        when(financialRecordRepository.sumAmountsByBucketAndType(eq(dashboardId), eq("month"), any(), any())).thenReturn(rows);
+
+        GoalProjectionDto first = goalProjectionService.projectFinancialGoal(dashboardId, goalId);
+        GoalProjectionDto second = goalProjectionService.projectFinancialGoal(dashboardId, goalId);
+        goalProjectionService.projectFinancialGoal(dashboardId, goalId);
+
+        assertSame(first, second);
+        verify(financialGoalRepository, times(2)).findByIdAndDashboardId(goalId, dashboardId);
+        verify(financialRecordRepository, times(2)).sumAmountsByBucketAndType(eq(dashboardId), eq("month"), any(), any());
+    }
+
+    @Test
+    void projectFinancialGoal_GoalNotFound() {
+        when(dashboardRepository.findVersion(dashboardId)).thenReturn(Optional.of(3L));
+        when(financialGoalRepository.findByIdAndDashboardId(goalId, dashboardId)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> goalProjectionService.projectFinancialGoal(dashboardId, goalId));
+    }
+
+    @Test
+    void projectFinancialGoal_RequiresTargetAndDeadline() {
+        when(dashboardRepository.findVersion(dashboardId)).thenReturn(Optional.of(3L));
+        when(financialGoalRepository.findByIdAndDashboardId(goalId, dashboardId))
+                .thenReturn(Optional.of(goal(0.0, 100.0, null)));
+
+        assertThrows(IllegalArgumentException.class, () -> goalProjectionService.projectFinancialGoal(dashboardId, goalId));
+        verifyNoInteractions(financialRecordRepository);
+    }
+}
@@ -0,0 +1,175 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.budgetplannerbackend.config.IdempotencyProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialGoalDto;
+import cz.cvut.fel.budgetplannerbackend.entity.IdempotencyKey;
+import cz.cvut.fel.budgetplannerbackend.entity.User;
+import cz.cvut.fel.budgetplannerbackend.exceptions.IdempotencyKeyReuseException;
+import cz.cvut.fel.budgetplannerbackend.repository.IdempotencyKeyRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    private final FinancialGoalDto request = new FinancialGoalDto(null, 3L, "Car", 1000.0, 0.0, LocalDate.of(2030, 1, 1));
+    private final FinancialGoalDto created = new FinancialGoalDto(9L, 3L, "Car", 1000.0, 0.0, LocalDate.of(2030, 1, 1));
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setPurgeBatchSize(2);
+        idempotencyService = new IdempotencyServiceImpl(idempotencyKeyRepository, securityUtils, objectMapper, transactionManager, properties);
+        User user = new User();
+        user.setId(5L);
+        lenient().when(securityUtils.getCurrentUser()).thenReturn(user);
+    }
+
+    @Test
+    void execute_firstRequest_runsActionAndStoresResponse() {
+        when(idempotencyKeyRepository.findByUserIdAndScopeAndKey(5L, "financial-goals:3", "abc")).thenReturn(Optional.empty());
+
+        IdempotencyService.Result<FinancialGoalDto> result = idempotencyService.execute("financial-goals:3", "abc", request, FinancialGoalDto.class, () -> created);
+
+        assertFalse(result.replayed());
+        assertEquals(created, result.body());
+        ArgumentCaptor<IdempotencyKey> captor = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository).saveAndFlush(captor.capture());
+        assertEquals(5L, captor.getValue().getUserId());
+        assertEquals("abc", captor.getValue().getKey());
+        assertTrue(captor.getValue().getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void execute_retriedRequest_replaysFromMemoryWithoutRunningAction() {
+        when(idempotencyKeyRepository.findByUserIdAndScopeAndKey(5L, "financial-goals:3", "abc")).thenReturn(Optional.empty());
+        AtomicInteger invocations = new AtomicInteger();
+
+        idempotencyService.execute("financial-goals:3", "abc", request, FinancialGoalDto.class, () -> {
+            invocations.incrementAndGet();
+            return created;
+        });
+        IdempotencyService.Result<FinancialGoalDto> retry = idempotencyService.execute("financial-goals:3", "abc", request, FinancialGoalDto.class, () -> {
+            invocations.incrementAndGet();
+            return created;
+        });
+
+        assertTrue(retry.replayed());
+        assertEquals(created, retry.body());
+        assertEquals(1, invocations.get());
+        verify(idempotencyKeyRepository, times(1)).findByUserIdAndScopeAndKey(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void execute_keyStoredInDatabase_replaysStoredResponse() throws Exception {
+        IdempotencyServiceImpl other = new IdempotencyServiceImpl(idempotencyKeyRepository, securityUtils, objectMapper, transactionManager, new IdempotencyProperties());
+        when(idempotencyKeyRepository.findByUserIdAndScopeAndKey(5L, "financial-goals:3", "abc")).thenReturn(Optional.empty());
+        other.execute("financial-goals:3", "abc", request, FinancialGoalDto.class, () -> created);
+        ArgumentCaptor<IdempotencyKey> captor = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository).saveAndFlush(captor.capture());
+        when(idempotencyKeyRepository.findByUserIdAndScopeAndKey(5L, "financial-goals:3", "abc")).thenReturn(Optional.of(captor.getValue()));
+
+        IdempotencyService.Result<FinancialGoalDto> result = idempotencyService.execute("financial-goals:3", "abc", request, FinancialGoalDto.class, () -> {
+            throw new AssertionError("Action must not run for a stored key");
+        });
+
+        assertTrue(result.replayed());
+        assertEquals(created, result.body());
+    }
+
+    @Test
+    void execute_keyReusedForDifferentRequest_throwsIdempotencyKeyReuseException() {
+        when(idempotencyKeyRepository.findByUserIdAndScopeAndKey(5L, "financial-goals:3", "abc")).thenReturn(Optional.empty());
+        idempotencyService.execute("financial-goals:3", "abc", request, FinancialGoalDto.class, () -> created);
+        FinancialGoalDto differentRequest = new FinancialGoalDto(null, 3L, "House", 5000.0, 0.0, LocalDate.of(2035, 1, 1));
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> idempotencyService.execute("financial-goals:3", "abc", differentRequest, FinancialGoalDto.class, () -> created));
+    }
+
+    @Test
+    void execute_blankKey_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.execute("financial-goals:3", " ", request, FinancialGoalDto.class, () -> created));
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void execute_concurrentDuplicates_runActionOnce() throws Exception {
+        when(idempotencyKeyRepository.findByUserIdAndScopeAndKey(5L, "financial-goals:3", "abc")).thenReturn(Optional.empty());
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<IdempotencyService.Result<FinancialGoalDto>> first = CompletableFuture.supplyAsync(
+                () -> idempotencyService.execute("financial-goals:3", "abc", request, FinancialGoalDto.class, () -> {
+                    invocations.incrementAndGet();
+                    entered.countDown();
+                    await(release);
+                    return created;
+                }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<IdempotencyService.Result<FinancialGoalDto>> second = CompletableFuture.supplyAsync(
+                () -> idempotencyService.execute("financial-goals:3", "abc", request, FinancialGoalDto.class, () -> {
+                    invocations.incrementAndGet();
+                    return created;
+                }));
+        release.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+        assertTrue(second.get(5, TimeUnit.SECONDS).replayed());
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void purgeExpiredKeys_deletesInBatchesUntilBacklogIsEmpty() {
+        when(idempotencyKeyRepository.deleteExpiredBatch(any(LocalDateTime.class), anyInt())).thenReturn(2, 2, 1);
+
+        idempotencyService.purgeExpiredKeys();
+
+        verify(idempotencyKeyRepository, times(3)).deleteExpiredBatch(any(LocalDateTime.class), eq(2));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.dto.search.RecordSearchPageDto;
+import cz.cvut.fel.budgetplannerbackend.dto.search.RecordSearchResultDto;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.mapper.FinancialRecordMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordSearchRepository.SearchHit;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecordSearchServiceImplTest {
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+
+    @Mock
+    private FinancialRecordMapper financialRecordMapper;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @Mock
+    private DataSourceProperties dataSourceProperties;
+
+    @InjectMocks
+    private RecordSearchServiceImpl recordSearchService;
+
+    private final Long dashboardId = 1L;
+
+    private FinancialRecord record(long id, String description) {
+        FinancialRecord record = new FinancialRecord();
+        record.setId(id);
+        record.setDescription(description);
+        return record;
+    }
+
+    private void mockRecordLoading(List<FinancialRecord> records) {
+        when(financialRecordRepository.findAllByIdInAndDashboardId(anyCollection(), eq(dashboardId))).thenAnswer(invocation -> {
+            Collection<?> ids = invocation.getArgument(0);
+            return records.stream().filter(record -> ids.contains(record.getId())).toList();
+        });
+        lenient().when(financialRecordMapper.toDto(any(FinancialRecord.class))).thenAnswer(invocation -> {
+            FinancialRecord record = invocation.getArgument(0);
+            return new FinancialRecordDto(record.getId(), null, null, null, null, null, null, record.getDescription(), null, null, false, null);
+        });
+    }
+
+    private List<Long> ids(RecordSearchPageDto page) {
+        return page.results().stream().map(RecordSearchResultDto::record).map(FinancialRecordDto::id).toList();
+    }
+
+    @Test
+    void testSearchOnPostgresUsesFullTextQuery() {
+        when(dataSourceProperties.getUrl()).thenReturn("jdbc:postgresql://localhost/budget");
+        when(financialRecordRepository.searchByDescription(dashboardId, "rent:* & march:*", null, null, 3))
+                .thenReturn(List.of(new SearchHit(7L, 0.5f), new SearchHit(3L, 0.2f)));
+        mockRecordLoading(List.of(record(3, "Rent March"), record(7, "Rent march rent")));
+
+        RecordSearchPageDto page = recordSearchService.searchFinancialRecords(dashboardId, "Rent, March!", null, 2);
+
+        assertEquals(List.of(7L, 3L), ids(page));
+        assertEquals(0.5f, page.results().get(0).rank());
+        assertNull(page.nextCursor());
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+    }
+
+    @Test
+    void testSearchOnPostgresContinuesAfterCursor() {
+        when(dataSourceProperties.getUrl()).thenReturn("jdbc:postgresql://localhost/budget");
+        when(financialRecordRepository.searchByDescription(dashboardId, "rent:*", 0.25f, 9L, 2))
+                .thenReturn(List.of(new SearchHit(4L, 0.25f), new SearchHit(2L, 0.1f)));
+        mockRecordLoading(List.of(record(4, "Rent"), record(2, "Rent deposit")));
+
+        String cursor = RecordSearchServiceImpl.encodeCursor(new SearchHit(9L, 0.25f));
+        RecordSearchPageDto page = recordSearchService.searchFinancialRecords(dashboardId, "rent", cursor, 1);
+
+        assertEquals(List.of(4L), ids(page));
+        SearchHit next = RecordSearchServiceImpl.decodeCursor(page.nextCursor());
+        assertEquals(4L, next.id());
+        assertEquals(0.25f, next.rank());
+    }
+
+    @Test
+    void testSearchInMemoryPagesThroughAllMatches() {
+        when(dataSourceProperties.getUrl()).thenReturn("jdbc:h2:mem:test");
+        when(dashboardRepository.findVersion(dashboardId)).thenReturn(Optional.of(5L));
+        List<FinancialRecord> records = List.of(record(1, "Rent"), record(2, "Netflix"), record(3, "Rent"), record(4, "Rent rent"));
+        when(financialRecordRepository.findAllByDashboardId(dashboardId)).thenReturn(records);
+        mockRecordLoading(records);
+
+        RecordSearchPageDto first = recordSearchService.searchFinancialRecords(dashboardId, "rent", null, 2);
+        RecordSearchPageDto second = recordSearchService.searchFinancialRecords(dashboardId, "rent", first.nextCursor(), 2);
+
+        assertEquals(List.of(4L, 3L), ids(first));
+        assertEquals(List.of(1L), ids(second));
+        assertNull(second.nextCursor());
+        // The index is only rebuilt when the dashboard version changes.
+        verify(financialRecordRepository, times(1)).findAllByDashboardId(dashboardId);
+        verify(financialRecordRepository, never()).searchByDescription(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testSearchInMemoryRebuildsIndexAfterChange() {
+        when(dataSourceProperties.getUrl()).thenReturn("jdbc:h2:mem:test");
+        when(dashboardRepository.findVersion(dashboardId)).thenReturn(Optional.of(1L)).thenReturn(Optional.of(2L));
+        List<FinancialRecord> records = List.of(record(1, "Rent"), record(2, "Rent"));
+        when(financialRecordRepository.findAllByDashboardId(dashboardId)).thenReturn(records.subList(0, 1)).thenReturn(records);
+        mockRecordLoading(records);
+
+        assertEquals(List.of(1L), ids(recordSearchService.searchFinancialRecords(dashboardId, "rent", null, 10)));
+        assertEquals(List.of(2L, 1L), ids(recordSearchService.searchFinancialRecords(dashboardId, "rent", null, 10)));
+    }
+
+    @Test
+    void testSearchRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> recordSearchService.searchFinancialRecords(dashboardId, " ?! ", null, 10));
+        assertThrows(IllegalArgumentException.class, () -> recordSearchService.searchFinancialRecords(dashboardId, "rent", null, 0));
+        assertThrows(IllegalArgumentException.class, () -> recordSearchService.searchFinancialRecords(dashboardId, "rent", "not a cursor", 10));
+        verifyNoInteractions(financialRecordRepository);
+    }
+
+    @Test
+    void testSearchWithoutAccess() {
+        doThrow(new AccessDeniedException("Denied")).when(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+
+        assertThrows(AccessDeniedException.class, () -> recordSearchService.searchFinancialRecords(dashboardId, "rent", null, 10));
+        verifyNoInteractions(financialRecordRepository);
+    }
+}
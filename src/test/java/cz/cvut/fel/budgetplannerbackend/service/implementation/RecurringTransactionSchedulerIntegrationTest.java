@@ -0,0 +1,129 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.Application;
+import cz.cvut.fel.budgetplannerbackend.service.RecurringTransactionSchedulerService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that concurrent materializers create every occurrence of the recurring transactions exactly once
+ * on an embedded PostgreSQL.
+ */
+class RecurringTransactionSchedulerIntegrationTest {
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext application;
+    private static RecurringTransactionSchedulerService schedulerService;
+    private static TransactionTemplate transactionTemplate;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        // Command line arguments take precedence over the environment variables referenced by application.properties.
+        // The scheduled ticks are switched off; the test materializes itself, a few occurrences per transaction.
+        application = new SpringApplicationBuilder(Application.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--jwt.secret=dGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQ=",
+                "--recurring-transactions.enabled=false",
+                "--recurring-transactions.max-catch-up=4");
+        schedulerService = application.getBean(RecurringTransactionSchedulerService.class);
+        transactionTemplate = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+        jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (application != null) {
+            application.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void materialize_ConcurrentMaterializersCreateEveryOccurrenceOnce() throws Exception {
+        String name = "user-" + System.nanoTime();
+        Long userId = jdbc.queryForObject("INSERT INTO users (user_name, user_email, user_password) VALUES (?, ?, 'p') RETURNING id",
+                Long.class, name, name + "@example.com");
+        Long dashboardId = jdbc.queryForObject("INSERT INTO dashboards (title, user_id) VALUES ('Household', ?) RETURNING id", Long.class, userId);
+        // 21 daily occurrences up to now, all within the partition of the current month.
+        LocalDateTime start = LocalDate.now().withDayOfMonth(1).atTime(9, 0);
+        LocalDateTime now = start.plusDays(20).withHour(12);
+        List<Long> templateIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            templateIds.add(jdbc.queryForObject("INSERT INTO recurring_transactions (dashboard_id, user_id, amount, type, description, "
+                            + "frequency, start_date, next_run_at) VALUES (?, ?, 5, 'EXPENSE', 'Coffee', 'DAILY', ?, ?) RETURNING id",
+                    Long.class, dashboardId, userId, Timestamp.valueOf(start), Timestamp.valueOf(start)));
+        }
+        // An occurrence materialized before is not created again.
+        jdbc.update("INSERT INTO financial_records (user_id, dashboard_id, amount, date, description, type, recurring_transaction_id) "
+                + "VALUES (?, ?, 5, ?, 'Coffee', 'EXPENSE', ?)", userId, dashboardId, Timestamp.valueOf(start.plusDays(3)), templateIds.get(0));
+
+        CountDownLatch ready = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<Integer>> materializers = new ArrayList<>();
+        try {
+            for (int t = 0; t < 2; t++) {
+                materializers.add(executor.submit(() -> {
+                    List<Long> ids = new ArrayList<>(templateIds);
+                    ready.countDown();
+                    ready.await();
+                    int created = 0;
+                    // Both materializers go on until nothing is due, catching up a few occurrences per transaction.
+                    while (countDue(templateIds, now) > 0) {
+                        Collections.shuffle(ids);
+                        created += transactionTemplate.execute(status -> schedulerService.materialize(ids, now));
+                    }
+                    return created;
+                }));
+            }
+            int created = 0;
+            for (Future<Integer> materializer : materializers) {
+                created += materializer.get();
+            }
+
+            assertEquals(20 * 21 - 1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+        String ids = String.join(",", templateIds.stream().map(String::valueOf).toList());
+        assertEquals(List.of(), jdbc.queryForList("SELECT recurring_transaction_id, date FROM financial_records WHERE recurring_transaction_id IN ("
+                + ids + ") GROUP BY recurring_transaction_id, date HAVING count(*) > 1"));
+        assertEquals(List.of(21), jdbc.queryForList("SELECT DISTINCT count(*)::int FROM financial_records WHERE recurring_transaction_id IN ("
+                + ids + ") GROUP BY recurring_transaction_id", Integer.class));
+        assertEquals(List.of(Timestamp.valueOf(start.plusDays(21))), jdbc.queryForList(
+                "SELECT DISTINCT next_run_at FROM recurring_transactions WHERE id IN (" + ids + ")", Timestamp.class));
+    }
+
+    private static long countDue(List<Long> templateIds, LocalDateTime now) {
+        String ids = String.join(",", templateIds.stream().map(String::valueOf).toList());
+        return jdbc.queryForObject("SELECT count(*) FROM recurring_transactions WHERE id IN (" + ids + ") AND next_run_at <= ?",
+                Long.class, Timestamp.valueOf(now));
+    }
+}
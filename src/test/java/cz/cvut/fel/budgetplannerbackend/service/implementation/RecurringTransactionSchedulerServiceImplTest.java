@@ -0,0 +1,184 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.RecurringTransactionProperties;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.RecurringTransaction;
+import cz.cvut.fel.budgetplannerbackend.entity.User;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecurrenceFrequency;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
+import cz.cvut.fel.budgetplannerbackend.metrics.BusinessMetrics;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.RecurringTransactionRepository;
+import cz.cvut.fel.budgetplannerbackend.service.AnomalyDetectionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecurringTransactionSchedulerServiceImplTest {
+
+    @Mock
+    private RecurringTransactionRepository recurringTransactionRepository;
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private AnomalyDetectionService anomalyDetectionService;
+
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
+    @Mock
+    private BusinessMetrics businessMetrics;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final RecurringTransactionProperties properties = new RecurringTransactionProperties();
+    private final DataSourceProperties dataSourceProperties = new DataSourceProperties();
+    private RecurringTransactionSchedulerServiceImpl schedulerService;
+
+    private final Long dashboardId = 1L;
+    private final Long templateId = 9L;
+
+    @BeforeEach
+    void setUp() {
+        properties.setTickDuration(1);
+        dataSourceProperties.setUrl("jdbc:postgresql://localhost/budget");
+        schedulerService = new RecurringTransactionSchedulerServiceImpl(recurringTransactionRepository, financialRecordRepository,
+                anomalyDetectionService, dashboardChangeTracker, businessMetrics, properties, dataSourceProperties, transactionManager);
+    }
+
+    private RecurringTransaction template(ERecurrenceFrequency frequency, LocalDateTime start, LocalDateTime end, LocalDateTime nextRunAt) {
+        Dashboard dashboard = new Dashboard();
+        dashboard.setId(dashboardId);
+        return new RecurringTransaction(templateId, dashboard, new User(), null, new BigDecimal("800.00"), ERecordType.EXPENSE,
+                "Rent", frequency, 1, start, end, nextRunAt);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FinancialRecord> savedRecords() {
+        ArgumentCaptor<List<FinancialRecord>> captor = ArgumentCaptor.forClass(List.class);
+        verify(financialRecordRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void materialize_CatchesUpMissedOccurrences() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 31, 9, 0);
+        RecurringTransaction rent = template(ERecurrenceFrequency.MONTHLY, start, null, start);
+        when(recurringTransactionRepository.lockDue(List.of(templateId), LocalDateTime.of(2026, 4, 15, 0, 0))).thenReturn(List.of(rent));
+
+        int created = schedulerService.materialize(List.of(templateId), LocalDateTime.of(2026, 4, 15, 0, 0));
+
+        assertEquals(3, created);
+        List<FinancialRecord> records = savedRecords();
+        assertEquals(List.of(start, LocalDateTime.of(2026, 2, 28, 9, 0), LocalDateTime.of(2026, 3, 31, 9, 0)),
+                records.stream().map(FinancialRecord::getDate).toList());
+        assertTrue(records.stream().allMatch(record -> record.getRecurringTransaction() == rent && record.getType() == ERecordType.EXPENSE));
+        assertEquals(LocalDateTime.of(2026, 4, 30, 9, 0), rent.getNextRunAt());
+        verify(anomalyDetectionService, times(3)).scoreExpense(any());
+        verify(dashboardChangeTracker).markChanged(dashboardId);
+        verify(dashboardChangeTracker).markRecordDate(dashboardId, start);
+    }
+
+    @Test
+    void materialize_SkipsOccurrencesThatHaveRecords() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 31, 9, 0);
+        LocalDateTime now = LocalDateTime.of(2026, 4, 15, 0, 0);
+        when(recurringTransactionRepository.lockDue(List.of(templateId), now))
+                .thenReturn(List.of(template(ERecurrenceFrequency.MONTHLY, start, null, start)));
+        List<Object[]> existing = new ArrayList<>();
+        existing.add(new Object[]{templateId, LocalDateTime.of(2026, 2, 28, 9, 0)});
+        when(financialRecordRepository.findRecurringOccurrences(List.of(templateId), start, now)).thenReturn(existing);
+
+        assertEquals(2, schedulerService.materialize(List.of(templateId), now));
+        assertEquals(List.of(start, LocalDateTime.of(2026, 3, 31, 9, 0)), savedRecords().stream().map(FinancialRecord::getDate).toList());
+    }
+
+    @Test
+    void materialize_EndsScheduleAfterEndDate() {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 0, 0);
+        RecurringTransaction subscription = template(ERecurrenceFrequency.WEEKLY, start, start.plusDays(10), start);
+        when(recurringTransactionRepository.lockDue(anyCollection(), any())).thenReturn(List.of(subscription));
+
+        assertEquals(2, schedulerService.materialize(List.of(templateId), LocalDateTime.of(2026, 6, 1, 0, 0)));
+        assertNull(subscription.getNextRunAt());
+    }
+
+    @Test
+    void materialize_LimitsOccurrencesPerTransaction() {
+        properties.setMaxCatchUp(5);
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 0, 0);
+        RecurringTransaction daily = template(ERecurrenceFrequency.DAILY, start, null, start);
+        when(recurringTransactionRepository.lockDue(anyCollection(), any())).thenReturn(List.of(daily));
+
+        assertEquals(5, schedulerService.materialize(List.of(templateId), LocalDateTime.of(2026, 4, 1, 0, 0)));
+        assertEquals(start.plusDays(5), daily.getNextRunAt()); // Still due; continued with the next tick.
+    }
+
+    @Test
+    void materialize_TemplatesNoLongerDueAreSkipped() {
+        when(recurringTransactionRepository.lockDue(anyCollection(), any())).thenReturn(List.of());
+
+        assertEquals(0, schedulerService.materialize(List.of(templateId), LocalDateTime.now()));
+        verifyNoInteractions(financialRecordRepository, dashboardChangeTracker);
+    }
+
+    @Test
+    void materialize_RetriesTemplatesLockedByAnotherTransaction() {
+        properties.setRetryDelay(0);
+        LocalDateTime now = LocalDateTime.now();
+        when(recurringTransactionRepository.lockDue(anyCollection(), any())).thenReturn(List.of());
+        List<Object[]> nextRuns = new ArrayList<>();
+        nextRuns.add(new Object[]{templateId, now.minusDays(1)});
+        when(recurringTransactionRepository.findNextRuns(List.of(templateId))).thenReturn(nextRuns);
+        when(recurringTransactionRepository.tryLockScheduler()).thenReturn(true);
+
+        assertEquals(0, schedulerService.materialize(List.of(templateId), now));
+        schedulerService.materializeDue();
+
+        verify(recurringTransactionRepository, times(2)).lockDue(eq(List.of(templateId)), any());
+    }
+
+    @Test
+    void materializeDue_RetriesWhileAnotherNodeHoldsTheLock() {
+        schedulerService.schedule(templateId, LocalDateTime.now().minusDays(1));
+        when(recurringTransactionRepository.tryLockScheduler()).thenReturn(false, true);
+
+        assertEquals(0, schedulerService.materializeDue());
+        verify(recurringTransactionRepository, never()).lockDue(anyCollection(), any());
+
+        assertEquals(0, schedulerService.materializeDue());
+        verify(recurringTransactionRepository).lockDue(eq(List.of(templateId)), any());
+    }
+
+    @Test
+    void materializeDue_DisabledOutsidePostgres() {
+        dataSourceProperties.setUrl("jdbc:h2:mem:test");
+        schedulerService.schedule(templateId, LocalDateTime.now().minusDays(1));
+
+        assertEquals(0, schedulerService.materializeDue());
+        assertEquals(0, schedulerService.loadHorizon());
+        verifyNoInteractions(recurringTransactionRepository);
+    }
+}
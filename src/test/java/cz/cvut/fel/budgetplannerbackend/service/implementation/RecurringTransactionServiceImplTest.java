@@ -0,0 +1,147 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.dto.RecurringTransactionDto;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.RecurringTransaction;
+import cz.cvut.fel.budgetplannerbackend.entity.User;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecurrenceFrequency;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.mapper.RecurringTransactionMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.RecurringTransactionRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.RecurringTransactionSchedulerService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecurringTransactionServiceImplTest {
+
+    @Mock
+    private RecurringTransactionRepository recurringTransactionRepository;
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private RecurringTransactionMapper recurringTransactionMapper;
+
+    @Mock
+    private RecurringTransactionSchedulerService recurringTransactionSchedulerService;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @InjectMocks
+    private RecurringTransactionServiceImpl recurringTransactionService;
+
+    private final Long dashboardId = 1L;
+    private final Long id = 9L;
+
+    private static RecurringTransactionDto dto(ERecurrenceFrequency frequency, Integer interval, LocalDateTime start, LocalDateTime end) {
+        return new RecurringTransactionDto(null, null, null, new BigDecimal("800.00"), ERecordType.EXPENSE, "Rent",
+                frequency, interval, start, end, null);
+    }
+
+    @Test
+    void createRecurringTransaction_FirstRunIsTheStartDate() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 31, 9, 0, 0, 123_000_000);
+        when(dashboardRepository.findById(dashboardId)).thenReturn(Optional.of(new Dashboard()));
+        when(securityUtils.getCurrentUser()).thenReturn(new User());
+        when(recurringTransactionRepository.save(any())).thenAnswer(invocation -> {
+            RecurringTransaction saved = invocation.getArgument(0);
+            saved.setId(id);
+            return saved;
+        });
+
+        recurringTransactionService.createRecurringTransaction(dashboardId, dto(ERecurrenceFrequency.MONTHLY, null, start, null));
+
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        verify(recurringTransactionRepository).save(argThat(saved -> saved.getInterval() == 1
+                && saved.getStartDate().equals(start.truncatedTo(ChronoUnit.SECONDS))
+                && saved.getNextRunAt().equals(saved.getStartDate())));
+        verify(recurringTransactionSchedulerService).schedule(id, start.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void createRecurringTransaction_RejectsInvalidSchedules() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 31, 9, 0);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                recurringTransactionService.createRecurringTransaction(dashboardId, dto(null, 1, start, null)));
+        when(dashboardRepository.findById(dashboardId)).thenReturn(Optional.of(new Dashboard()));
+        assertThrows(IllegalArgumentException.class, () ->
+                recurringTransactionService.createRecurringTransaction(dashboardId, dto(ERecurrenceFrequency.DAILY, 0, start, null)));
+        assertThrows(IllegalArgumentException.class, () ->
+                recurringTransactionService.createRecurringTransaction(dashboardId, dto(ERecurrenceFrequency.DAILY, 1, start, start.minusDays(1))));
+        verify(recurringTransactionRepository, never()).save(any());
+    }
+
+    @Test
+    void updateRecurringTransaction_ChangedScheduleAppliesFromNow() {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(10);
+        RecurringTransaction rent = new RecurringTransaction(id, new Dashboard(), new User(), null, new BigDecimal("800.00"),
+                ERecordType.EXPENSE, "Rent", ERecurrenceFrequency.MONTHLY, 1, start, null, start.plusMonths(1));
+        when(recurringTransactionRepository.findByIdAndDashboardId(id, dashboardId)).thenReturn(Optional.of(rent));
+        when(recurringTransactionRepository.save(rent)).thenReturn(rent);
+
+        recurringTransactionService.updateRecurringTransaction(dashboardId, id,
+                new RecurringTransactionDto(null, null, null, null, null, null, ERecurrenceFrequency.WEEKLY, null, null, null, null));
+
+        assertEquals(start.plusWeeks(2), rent.getNextRunAt());
+        verify(recurringTransactionSchedulerService).schedule(id, start.plusWeeks(2));
+    }
+
+    @Test
+    void updateRecurringTransaction_OtherChangesKeepTheNextRun() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 31, 9, 0);
+        RecurringTransaction rent = new RecurringTransaction(id, new Dashboard(), new User(), null, new BigDecimal("800.00"),
+                ERecordType.EXPENSE, "Rent", ERecurrenceFrequency.MONTHLY, 1, start, null, start.plusMonths(3));
+        when(recurringTransactionRepository.findByIdAndDashboardId(id, dashboardId)).thenReturn(Optional.of(rent));
+        when(recurringTransactionRepository.save(rent)).thenReturn(rent);
+
+        recurringTransactionService.updateRecurringTransaction(dashboardId, id,
+                new RecurringTransactionDto(null, null, null, new BigDecimal("850.00"), null, null, null, null, null, null, null));
+
+        assertEquals(new BigDecimal("850.00"), rent.getAmount());
+        assertEquals(start.plusMonths(3), rent.getNextRunAt());
+        verifyNoInteractions(recurringTransactionSchedulerService);
+    }
+
+    @Test
+    void deleteRecurringTransaction_CancelsTheSchedule() {
+        RecurringTransaction rent = new RecurringTransaction();
+        when(recurringTransactionRepository.findByIdAndDashboardId(id, dashboardId)).thenReturn(Optional.of(rent));
+
+        recurringTransactionService.deleteRecurringTransaction(dashboardId, id);
+
+        verify(recurringTransactionRepository).delete(rent);
+        verify(recurringTransactionSchedulerService).cancel(id);
+    }
+
+    @Test
+    void deleteRecurringTransaction_NotFound() {
+        when(recurringTransactionRepository.findByIdAndDashboardId(id, dashboardId)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> recurringTransactionService.deleteRecurringTransaction(dashboardId, id));
+        verifyNoInteractions(recurringTransactionSchedulerService);
+    }
+}
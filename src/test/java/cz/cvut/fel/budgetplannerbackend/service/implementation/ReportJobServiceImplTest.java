@@ -0,0 +1,258 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.ReportProperties;
+import cz.cvut.fel.budgetplannerbackend.entity.ReportJob;
+import cz.cvut.fel.budgetplannerbackend.entity.User;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EReportJobStatus;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EReportType;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.mapper.ReportJobMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.RecordReportRepository.CategoryMonthTotal;
+import cz.cvut.fel.budgetplannerbackend.repository.RecordReportRepository.ReportRecord;
+import cz.cvut.fel.budgetplannerbackend.repository.ReportJobRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.ReportJobService.ReportFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static cz.cvut.fel.budgetplannerbackend.service.implementation.BackgroundJobTestSupport.awaitJobs;
+import static cz.cvut.fel.budgetplannerbackend.service.implementation.BackgroundJobTestSupport.givenRepositoryStoresJob;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceImplTest {
+
+    @Mock
+    private ReportJobRepository reportJobRepository;
+
+    @Mock
+    private ReportJobMapper reportJobMapper;
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private final ReportProperties properties = new ReportProperties();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Long dashboardId = 1L;
+    private final User user = new User();
+    private ReportJob reportJob;
+    private ReportJobServiceImpl reportJobService;
+
+    @BeforeEach
+    void setUp() {
+        user.setId(7L);
+        properties.setDirectory(directory.toString());
+        reportJobService = new ReportJobServiceImpl(reportJobRepository, reportJobMapper, financialRecordRepository, securityUtils,
+                properties, transactionManager, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportJobService.shutdown();
+    }
+
+    private void givenJobIsStored() {
+        when(securityUtils.getCurrentUser()).thenReturn(user);
+        givenRepositoryStoresJob(reportJobRepository, ReportJob.class, ReportJob::setId, stored -> reportJob = stored);
+    }
+
+    private void startReport(EReportType type, Integer year) throws InterruptedException {
+        reportJobService.startReport(dashboardId, type, year);
+        awaitJobs(executor);
+    }
+
+    private String readReport() throws IOException {
+        return Files.readString(directory.resolve(reportJob.getFileName()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void startReport_RecordsCsv_StreamsEscapedRowsIntoFile() throws InterruptedException, IOException {
+        givenJobIsStored();
+        doAnswer(invocation -> {
+            Consumer<ReportRecord> action = invocation.getArgument(1);
+            action.accept(new ReportRecord(3L, LocalDateTime.of(2024, 3, 1, 12, 0), ERecordType.EXPENSE, new BigDecimal("12.50"),
+                    "Food", "Lunch, \"special\"", "Alice"));
+            action.accept(new ReportRecord(4L, LocalDateTime.of(2024, 3, 2, 9, 30), ERecordType.INCOME, new BigDecimal("100"),
+                    null, "=HYPERLINK(\"x\")", "Bob"));
+            return null;
+        }).when(financialRecordRepository).forEachReportRecord(eq(dashboardId), any(Consumer.class));
+
+        startReport(EReportType.RECORDS_CSV, 2024);
+
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        verify(reportJobRepository).lockUser(7L);
+        assertNull(reportJob.getYear());
+        assertEquals(EReportJobStatus.COMPLETED, reportJob.getStatus());
+        assertEquals(2, reportJob.getRowsWritten());
+        assertEquals("id,date,type,amount,category,description,user\n"
+                + "3,2024-03-01T12:00,EXPENSE,12.50,Food,\"Lunch, \"\"special\"\"\",Alice\n"
+                + "4,2024-03-02T09:30,INCOME,100,,\"'=HYPERLINK(\"\"x\"\")\",Bob\n", readReport());
+        assertEquals(Files.size(directory.resolve(reportJob.getFileName())), reportJob.getFileSize());
+        assertEquals(reportJob.getFinishedAt().plusNanos(properties.getTtl() * 1_000_000), reportJob.getExpiresAt());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count()); // The temporary file was renamed.
+        }
+    }
+
+    @Test
+    void startReport_CategoryYear_WritesOneRowPerCategoryAndType() throws InterruptedException, IOException {
+        givenJobIsStored();
+        when(financialRecordRepository.findCategoryMonthTotals(dashboardId, LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 1, 1, 0, 0))).thenReturn(List.of(
+                new CategoryMonthTotal(null, null, ERecordType.EXPENSE, 2, new BigDecimal("5"), 1),
+                new CategoryMonthTotal(2L, "Food", ERecordType.EXPENSE, 1, new BigDecimal("10.50"), 2),
+                new CategoryMonthTotal(2L, "Food", ERecordType.EXPENSE, 12, new BigDecimal("4"), 1),
+                new CategoryMonthTotal(2L, "Food", ERecordType.INCOME, 3, new BigDecimal("1"), 1)));
+
+        startReport(EReportType.CATEGORY_YEAR, 2024);
+
+        assertEquals(EReportJobStatus.COMPLETED, reportJob.getStatus());
+        assertEquals(3, reportJob.getRowsWritten());
+        assertEquals("category,type,Jan,Feb,Mar,Apr,May,Jun,Jul,Aug,Sep,Oct,Nov,Dec,total,records\n"
+                + ",EXPENSE,0,5,0,0,0,0,0,0,0,0,0,0,5,1\n"
+                + "Food,EXPENSE,10.50,0,0,0,0,0,0,0,0,0,0,4,14.50,3\n"
+                + "Food,INCOME,0,0,1,0,0,0,0,0,0,0,0,0,1,1\n", readReport());
+    }
+
+    @Test
+    void startReport_GenerationFails_DeletesPartialFileAndFailsJob() throws InterruptedException, IOException {
+        givenJobIsStored();
+        when(financialRecordRepository.findCategoryMonthTotals(eq(dashboardId), any(), any()))
+                .thenThrow(new IllegalStateException("Connection lost"));
+
+        startReport(EReportType.CATEGORY_YEAR, 2024);
+
+        assertEquals(EReportJobStatus.FAILED, reportJob.getStatus());
+        assertEquals("Connection lost", reportJob.getError());
+        assertNull(reportJob.getFileName());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void startReport_TooManyUnfinishedJobs_ThrowsIllegalStateException() {
+        when(securityUtils.getCurrentUser()).thenReturn(user);
+        when(reportJobRepository.countByUserIdAndFinishedAtIsNull(7L)).thenReturn((long) properties.getMaxJobsPerUser());
+
+        assertThrows(IllegalStateException.class, () -> reportJobService.startReport(dashboardId, EReportType.RECORDS_CSV, null));
+
+        verify(reportJobRepository).lockUser(7L);
+        verify(reportJobRepository, never()).save(any());
+    }
+
+    @Test
+    void startReport_CategoryYearWithoutYear_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> reportJobService.startReport(dashboardId, EReportType.CATEGORY_YEAR, null));
+
+        verify(reportJobRepository, never()).save(any());
+    }
+
+    @Test
+    void startReport_QueueFull_FailsJobAndRethrows() {
+        ExecutorService fullExecutor = mock(ExecutorService.class);
+        doThrow(new RejectedExecutionException()).when(fullExecutor).execute(any());
+        reportJobService = new ReportJobServiceImpl(reportJobRepository, reportJobMapper, financialRecordRepository, securityUtils,
+                properties, transactionManager, fullExecutor);
+        givenJobIsStored();
+
+        assertThrows(RejectedExecutionException.class, () -> reportJobService.startReport(dashboardId, EReportType.RECORDS_CSV, null));
+
+        assertEquals(EReportJobStatus.FAILED, reportJob.getStatus());
+        assertNotNull(reportJob.getExpiresAt());
+    }
+
+    @Test
+    void findReportFile_NotCompleted_ThrowsEntityNotFoundException() {
+        when(securityUtils.getCurrentUser()).thenReturn(user);
+        ReportJob running = new ReportJob();
+        running.setStatus(EReportJobStatus.RUNNING);
+        when(reportJobRepository.findByIdAndDashboardIdAndUserId(10L, dashboardId, 7L)).thenReturn(Optional.of(running));
+
+        assertThrows(EntityNotFoundException.class, () -> reportJobService.findReportFile(dashboardId, 10L));
+    }
+
+    @Test
+    void findReportFile_Completed_ReturnsFileWithDownloadName() throws IOException {
+        when(securityUtils.getCurrentUser()).thenReturn(user);
+        Files.writeString(directory.resolve("report-10-a.csv"), "category\n");
+        ReportJob completed = new ReportJob();
+        completed.setType(EReportType.CATEGORY_YEAR);
+        completed.setYear(2024);
+        completed.setStatus(EReportJobStatus.COMPLETED);
+        completed.setFileName("report-10-a.csv");
+        when(reportJobRepository.findByIdAndDashboardIdAndUserId(10L, dashboardId, 7L)).thenReturn(Optional.of(completed));
+
+        ReportFile reportFile = reportJobService.findReportFile(dashboardId, 10L);
+
+        assertEquals(directory.resolve("report-10-a.csv"), reportFile.path());
+        assertEquals("categories-1-2024.csv", reportFile.fileName());
+    }
+
+    @Test
+    void cleanupReports_DeletesExpiredJobsWithFilesAndOrphanedFiles() throws IOException {
+        Path expiredFile = Files.writeString(directory.resolve("report-1-a.csv"), "x");
+        Path orphanedFile = Files.writeString(directory.resolve("report-2-b.csv.part"), "x");
+        Path recentFile = Files.writeString(directory.resolve("report-3-c.csv"), "x");
+        Files.setLastModifiedTime(orphanedFile, FileTime.fromMillis(0));
+        ReportJob expired = new ReportJob();
+        expired.setFileName("report-1-a.csv");
+        List<ReportJob> expiredJobs = List.of(expired);
+        when(reportJobRepository.findAllByExpiresAtBefore(any())).thenReturn(expiredJobs);
+
+        assertEquals(1, reportJobService.cleanupReports());
+
+        verify(reportJobRepository).failUnfinishedBefore(any(), any(), any(), eq("The report stopped making progress"));
+        verify(reportJobRepository, never()).touchQueued(any(), any()); // No job is waiting.
+        verify(reportJobRepository).deleteAll(expiredJobs);
+        assertFalse(Files.exists(expiredFile));
+        assertFalse(Files.exists(orphanedFile));
+        assertTrue(Files.exists(recentFile));
+    }
+
+    @Test
+    void csv_QuotesSeparatorsAndNeutralizesFormulas() {
+        assertEquals("", ReportJobServiceImpl.csv(null));
+        assertEquals("Plain text", ReportJobServiceImpl.csv("Plain text"));
+        assertEquals("\"a\nb\"", ReportJobServiceImpl.csv("a\nb"));
+        assertEquals("'+420 123", ReportJobServiceImpl.csv("+420 123"));
+        assertEquals("'@SUM(A1)", ReportJobServiceImpl.csv("@SUM(A1)"));
+    }
+}
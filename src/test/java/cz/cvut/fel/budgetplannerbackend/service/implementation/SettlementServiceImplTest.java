@@ -0,0 +1,147 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.dto.settlement.MemberBalanceDto;
+import cz.cvut.fel.budgetplannerbackend.dto.settlement.SettlementDto;
+import cz.cvut.fel.budgetplannerbackend.dto.settlement.SettlementTransferDto;
+import cz.cvut.fel.budgetplannerbackend.entity.DashboardAccess;
+import cz.cvut.fel.budgetplannerbackend.entity.DashboardRole;
+import cz.cvut.fel.budgetplannerbackend.entity.Role;
+import cz.cvut.fel.budgetplannerbackend.entity.User;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERole;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardAccessRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRoleRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.UserRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementServiceImplTest {
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private DashboardAccessRepository dashboardAccessRepository;
+
+    @Mock
+    private DashboardRoleRepository dashboardRoleRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @InjectMocks
+    private SettlementServiceImpl settlementService;
+
+    private final Long dashboardId = 1L;
+    private final User alice = user(1L, "alice");
+    private final User bob = user(2L, "bob");
+    private final User carol = user(3L, "carol");
+
+    @BeforeEach
+    void setUp() {
+        when(dashboardAccessRepository.findAllWithUserByDashboardId(dashboardId))
+                .thenReturn(List.of(access(alice), access(bob), access(carol)));
+    }
+
+    private static User user(Long id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setUserName(name);
+        return user;
+    }
+
+    private static DashboardAccess access(User user) {
+        DashboardAccess access = new DashboardAccess();
+        access.setUser(user);
+        return access;
+    }
+
+    private static DashboardRole role(User user, ERole name) {
+        Role role = new Role();
+        role.setName(name);
+        DashboardRole dashboardRole = new DashboardRole();
+        dashboardRole.setUser(user);
+        dashboardRole.setRole(role);
+        return dashboardRole;
+    }
+
+    private void paid(Object[]... rows) {
+        when(financialRecordRepository.findMemberExpenses(dashboardId)).thenReturn(new ArrayList<>(List.of(rows)));
+    }
+
+    @Test
+    void findSettlement_SharesExpensesEqually() {
+        paid(new Object[]{1L, new BigDecimal("90.00")}, new Object[]{2L, new BigDecimal("30.00")});
+
+        SettlementDto settlement = settlementService.findSettlement(dashboardId, false);
+
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        verifyNoInteractions(dashboardRoleRepository);
+        assertEquals(new BigDecimal("120.00"), settlement.totalPaid());
+        assertEquals(List.of(new BigDecimal("50.00"), new BigDecimal("-10.00"), new BigDecimal("-40.00")),
+                settlement.balances().stream().map(MemberBalanceDto::balance).toList());
+        assertEquals(List.of(new SettlementTransferDto(3L, "carol", 1L, "alice", new BigDecimal("40.00")),
+                new SettlementTransferDto(2L, "bob", 1L, "alice", new BigDecimal("10.00"))), settlement.transfers());
+    }
+
+    @Test
+    void findSettlement_WeightsSharesByRole() {
+        paid(new Object[]{1L, new BigDecimal("100.00")});
+        when(dashboardRoleRepository.findAllByDashboardId(dashboardId))
+                .thenReturn(List.of(role(alice, ERole.EMPLOYEE), role(bob, ERole.STUDENT)));
+
+        SettlementDto settlement = settlementService.findSettlement(dashboardId, true);
+
+        // Weights 0.7, 0.3 and 0.1 for carol without a role.
+        assertEquals(List.of(0.7, 0.3, 0.1), settlement.balances().stream().map(MemberBalanceDto::weight).toList());
+        assertEquals(List.of(new BigDecimal("63.64"), new BigDecimal("27.27"), new BigDecimal("9.09")),
+                settlement.balances().stream().map(MemberBalanceDto::share).toList());
+        assertEquals(new BigDecimal("36.36"), settlement.transfers().stream().map(SettlementTransferDto::amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+    }
+
+    @Test
+    void findSettlement_FormerMembersAreOwedWithoutShare() {
+        User dave = user(4L, "dave");
+        paid(new Object[]{4L, new BigDecimal("30.00")});
+        when(userRepository.findAllById(List.of(4L))).thenReturn(List.of(dave));
+
+        SettlementDto settlement = settlementService.findSettlement(dashboardId, false);
+
+        assertEquals(4, settlement.balances().size());
+        MemberBalanceDto former = settlement.balances().get(3);
+        assertEquals(4L, former.userId());
+        assertEquals(new BigDecimal("0.00"), former.share());
+        assertEquals(new BigDecimal("30.00"), former.balance());
+        assertEquals(3, settlement.transfers().size());
+        assertTrue(settlement.transfers().stream().allMatch(transfer -> transfer.toUserId().equals(4L)));
+    }
+
+    @Test
+    void findSettlement_WithoutExpensesNothingIsOwed() {
+        paid();
+
+        SettlementDto settlement = settlementService.findSettlement(dashboardId, false);
+
+        assertEquals(new BigDecimal("0.00"), settlement.totalPaid());
+        assertTrue(settlement.balances().stream().allMatch(balance -> balance.balance().signum() == 0));
+        assertTrue(settlement.transfers().isEmpty());
+    }
+}
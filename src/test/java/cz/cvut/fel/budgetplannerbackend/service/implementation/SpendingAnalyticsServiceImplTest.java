@@ -0,0 +1,152 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.algorithm.TDigest;
+import cz.cvut.fel.budgetplannerbackend.dto.analytics.SpendingBreakdownDto;
+import cz.cvut.fel.budgetplannerbackend.dto.analytics.SpendingStatisticsDto;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.repository.ExpenseSketchRepository.Expense;
+import cz.cvut.fel.budgetplannerbackend.repository.ExpenseSketchRepository.ExpenseSketch;
+import cz.cvut.fel.budgetplannerbackend.repository.ExpenseSketchRepository.SketchMonth;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpendingAnalyticsServiceImplTest {
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @InjectMocks
+    private SpendingAnalyticsServiceImpl spendingAnalyticsService;
+
+    private final Long dashboardId = 1L;
+    private final YearMonth january = YearMonth.of(2024, 1);
+    private final LocalDate jan = january.atDay(1);
+    private final LocalDate feb = jan.plusMonths(1);
+    private final LocalDate mar = jan.plusMonths(2);
+
+    private static ExpenseSketch sketch(LocalDate month, Long categoryId, Long userId, double... amounts) {
+        TDigest digest = new TDigest();
+        double max = 0;
+        for (double amount : amounts) {
+            digest.add(amount);
+            max = Math.max(max, amount);
+        }
+        return new ExpenseSketch(month, categoryId, userId, amounts.length, BigDecimal.valueOf(max).setScale(2), digest.toBytes());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenExpenses(LocalDate from, LocalDate to, Expense... expenses) {
+        doAnswer(invocation -> {
+            Consumer<Expense> action = invocation.getArgument(3);
+            List.of(expenses).forEach(action);
+            return null;
+        }).when(financialRecordRepository).forEachExpense(eq(dashboardId), eq(from), eq(to), any(Consumer.class));
+    }
+
+    private static Expense expense(LocalDate month, Long categoryId, Long userId, String amount) {
+        return new Expense(month, categoryId, userId, new BigDecimal(amount));
+    }
+
+    @Test
+    void findSpendingBreakdown_MergesStoredSketches() {
+        when(financialRecordRepository.findSketchMonths(dashboardId, jan, mar))
+                .thenReturn(List.of(new SketchMonth(jan, 3, 3L), new SketchMonth(feb, 1, 1L)));
+        when(financialRecordRepository.findSketches(dashboardId, List.of(jan, feb))).thenReturn(List.of(
+                sketch(jan, 10L, 100L, 10, 20, 30), sketch(feb, 10L, 200L, 40, 50), sketch(feb, null, 100L, 5)));
+
+        SpendingBreakdownDto breakdown = spendingAnalyticsService.findSpendingBreakdown(dashboardId, january, january.plusMonths(1));
+
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+        verify(financialRecordRepository, never()).forEachExpense(any(), any(), any(), any());
+        assertEquals(List.of(
+                new SpendingStatisticsDto(null, null, 1, new BigDecimal("5.00"), new BigDecimal("5.00"), new BigDecimal("5.00")),
+                new SpendingStatisticsDto(10L, null, 5, new BigDecimal("30.00"), new BigDecimal("50.00"), new BigDecimal("50.00"))),
+                breakdown.categories());
+        assertEquals(List.of(100L, 200L), breakdown.members().stream().map(SpendingStatisticsDto::userId).toList());
+        assertEquals(4, breakdown.members().get(0).count());
+        assertEquals(new BigDecimal("30.00"), breakdown.members().get(0).max());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findSpendingBreakdown_RebuildsAndStoresStaleMonths() {
+        // January is valid, February changed since it was built and March was never built.
+        when(financialRecordRepository.findSketchMonths(dashboardId, jan, mar.plusMonths(1)))
+                .thenReturn(List.of(new SketchMonth(jan, 2, 2L), new SketchMonth(feb, 5, 4L)));
+        when(financialRecordRepository.findSketches(dashboardId, List.of(jan))).thenReturn(List.of(sketch(jan, 10L, 100L, 10)));
+        givenExpenses(feb, mar.plusMonths(1),
+                expense(feb, 10L, 100L, "20.00"), expense(feb, 10L, 100L, "30.00"), expense(mar, 11L, 100L, "7.50"));
+        when(financialRecordRepository.claimSketchMonth(eq(dashboardId), any(), anyLong())).thenReturn(true);
+
+        SpendingBreakdownDto breakdown = spendingAnalyticsService.findSpendingBreakdown(dashboardId, january, january.plusMonths(2));
+
+        verify(financialRecordRepository).claimSketchMonth(dashboardId, feb, 5);
+        verify(financialRecordRepository).claimSketchMonth(dashboardId, mar, 0);
+        ArgumentCaptor<Collection<ExpenseSketch>> stored = ArgumentCaptor.forClass(Collection.class);
+        verify(financialRecordRepository).replaceSketches(eq(dashboardId), eq(feb), stored.capture());
+        ExpenseSketch february = stored.getValue().iterator().next();
+        assertEquals(2, february.recordCount());
+        assertEquals(new BigDecimal("30.00"), february.maxAmount());
+        assertEquals(List.of(new SpendingStatisticsDto(10L, null, 3, new BigDecimal("20.00"), new BigDecimal("30.00"), new BigDecimal("30.00")),
+                new SpendingStatisticsDto(11L, null, 1, new BigDecimal("7.50"), new BigDecimal("7.50"), new BigDecimal("7.50"))),
+                breakdown.categories());
+    }
+
+    @Test
+    void findSpendingBreakdown_UsesRebuiltSketchesWhenAnotherTransactionStoredThem() {
+        when(financialRecordRepository.findSketchMonths(dashboardId, jan, feb)).thenReturn(List.of());
+        givenExpenses(jan, feb, expense(jan, null, 100L, "12.00"));
+        when(financialRecordRepository.claimSketchMonth(dashboardId, jan, 0)).thenReturn(false);
+
+        SpendingBreakdownDto breakdown = spendingAnalyticsService.findSpendingBreakdown(dashboardId, january, january);
+
+        verify(financialRecordRepository, never()).replaceSketches(any(), any(), any());
+        assertEquals(1, breakdown.categories().size());
+        assertEquals(new BigDecimal("12.00"), breakdown.categories().get(0).max());
+    }
+
+    @Test
+    void findSpendingBreakdown_StoresEmptyMonths() {
+        when(financialRecordRepository.findSketchMonths(dashboardId, jan, feb)).thenReturn(List.of());
+        givenExpenses(jan, feb);
+        when(financialRecordRepository.claimSketchMonth(dashboardId, jan, 0)).thenReturn(true);
+
+        SpendingBreakdownDto breakdown = spendingAnalyticsService.findSpendingBreakdown(dashboardId, january, january);
+
+        verify(financialRecordRepository).replaceSketches(dashboardId, jan, List.of());
+        assertEquals(List.of(), breakdown.categories());
+        assertEquals(List.of(), breakdown.members());
+    }
+
+    @Test
+    void findSpendingBreakdown_RejectsInvalidRanges() {
+        assertThrows(IllegalArgumentException.class,
+                () -> spendingAnalyticsService.findSpendingBreakdown(dashboardId, january, january.minusMonths(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> spendingAnalyticsService.findSpendingBreakdown(dashboardId, january, january.plusMonths(SpendingAnalyticsServiceImpl.MAX_MONTHS)));
+        verifyNoInteractions(financialRecordRepository);
+    }
+}
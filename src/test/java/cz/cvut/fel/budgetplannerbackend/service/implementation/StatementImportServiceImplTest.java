@@ -0,0 +1,255 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.StatementImportProperties;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.StatementImport;
+import cz.cvut.fel.budgetplannerbackend.entity.User;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ERecordType;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EStatementImportStatus;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
+import cz.cvut.fel.budgetplannerbackend.mapper.StatementImportMapper;
+import cz.cvut.fel.budgetplannerbackend.metrics.BusinessMetrics;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.StatementImportRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.UserRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import cz.cvut.fel.budgetplannerbackend.service.AnomalyDetectionService;
+import cz.cvut.fel.budgetplannerbackend.service.CategorizationService;
+import cz.cvut.fel.budgetplannerbackend.service.DuplicateDetectionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+
+import static cz.cvut.fel.budgetplannerbackend.service.implementation.BackgroundJobTestSupport.JOB_ID;
+import static cz.cvut.fel.budgetplannerbackend.service.implementation.BackgroundJobTestSupport.awaitJobs;
+import static cz.cvut.fel.budgetplannerbackend.service.implementation.BackgroundJobTestSupport.givenRepositoryStoresJob;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatementImportServiceImplTest {
+
+    @Mock
+    private StatementImportRepository statementImportRepository;
+
+    @Mock
+    private StatementImportMapper statementImportMapper;
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CategorizationService categorizationService;
+
+    @Mock
+    private DuplicateDetectionService duplicateDetectionService;
+
+    @Mock
+    private AnomalyDetectionService anomalyDetectionService;
+
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
+    @Mock
+    private BusinessMetrics businessMetrics;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final StatementImportProperties properties = new StatementImportProperties();
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService parseExecutor = Executors.newSingleThreadExecutor();
+    private final Long dashboardId = 1L;
+    private final Dashboard dashboard = new Dashboard();
+    private final User user = new User();
+    private final List<FinancialRecord> saved = new ArrayList<>();
+    private StatementImport statementImport;
+    private StatementImportServiceImpl statementImportService;
+
+    @BeforeEach
+    void setUp() {
+        dashboard.setId(dashboardId);
+        user.setId(7L);
+        properties.setBatchSize(2);
+        properties.setQueueCapacity(1);
+        properties.getProfiles().put("generic-csv", new StatementImportProperties.Profile());
+        statementImportService = new StatementImportServiceImpl(statementImportRepository, statementImportMapper, financialRecordRepository,
+                dashboardRepository, userRepository, categorizationService, duplicateDetectionService, anomalyDetectionService,
+                dashboardChangeTracker, businessMetrics, securityUtils, properties, transactionManager, importExecutor, parseExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statementImportService.shutdown();
+    }
+
+    private void givenImportIsStored() {
+        when(securityUtils.getCurrentUser()).thenReturn(user);
+        givenRepositoryStoresJob(statementImportRepository, StatementImport.class, StatementImport::setId, stored -> statementImport = stored);
+    }
+
+    private void givenRecordsAreSaved() {
+        when(dashboardRepository.findById(dashboardId)).thenReturn(Optional.of(dashboard));
+        when(userRepository.getReferenceById(7L)).thenReturn(user);
+        AtomicLong ids = new AtomicLong(100);
+        when(financialRecordRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<FinancialRecord> records = invocation.getArgument(0);
+            records.forEach(financialRecord -> financialRecord.setId(ids.incrementAndGet()));
+            saved.addAll(records);
+            return records;
+        });
+    }
+
+    private void startImport(String csv, boolean skipDuplicates) throws InterruptedException {
+        statementImportService.startImport(dashboardId, "generic-csv", "statement.csv",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), skipDuplicates);
+        awaitJobs(importExecutor);
+    }
+
+    @Test
+    void startImport_WritesParsedBatchesAndTracksProgress() throws InterruptedException {
+        givenImportIsStored();
+        givenRecordsAreSaved();
+        String csv = "date,description,amount\n"
+                + "2024-03-05,Rent,-1200\n"
+                + "2024-03-01,Salary,3000\n"
+                + "someday,Invalid,1\n"
+                + "2024-03-07,Coffee,-3.50\n"
+                + "2024-03-08,,-10\n"
+                + "2024-03-09,Book,-20\n";
+
+        startImport(csv, false);
+
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        verify(financialRecordRepository, times(3)).saveAll(anyList());
+        assertEquals(5, saved.size());
+        assertEquals(ERecordType.EXPENSE, saved.get(0).getType());
+        assertEquals(0, saved.get(0).getAmount().compareTo(new BigDecimal("1200")));
+        assertEquals(ERecordType.INCOME, saved.get(1).getType());
+        assertNull(saved.get(3).getDescription());
+        assertSame(user, saved.get(0).getUser());
+        verify(categorizationService, times(3)).categorizeAll(anyList());
+        verify(anomalyDetectionService, times(5)).scoreExpense(any());
+        verify(dashboardChangeTracker).markRecordDate(dashboardId, LocalDateTime.of(2024, 3, 1, 0, 0));
+
+        assertEquals(EStatementImportStatus.COMPLETED, statementImport.getStatus());
+        assertEquals(5, statementImport.getRecordsImported());
+        assertEquals(1, statementImport.getRecordsInvalid());
+        assertTrue(statementImport.getError().contains("line 4"));
+        assertEquals(csv.length(), statementImport.getBytesRead());
+        assertNotNull(statementImport.getFinishedAt());
+    }
+
+    @Test
+    void startImport_SkipsDuplicatesOfExistingRecordsOnly() throws InterruptedException {
+        givenImportIsStored();
+        givenRecordsAreSaved();
+        doAnswer(invocation -> {
+            List<FinancialRecord> records = invocation.getArgument(0);
+            LongPredicate ignored = invocation.getArgument(1);
+            for (FinancialRecord financialRecord : records) {
+                if ("Rent".equals(financialRecord.getDescription())) {
+                    financialRecord.setDuplicateOfId(50L); // Existed before the import.
+                } else if ("Coffee".equals(financialRecord.getDescription()) && !saved.isEmpty() && !ignored.test(saved.get(0).getId())) {
+                    financialRecord.setDuplicateOfId(saved.get(0).getId()); // The first coffee of this import, in an earlier batch.
+                }
+            }
+            return null;
+        }).when(duplicateDetectionService).checkDuplicates(anyList(), any());
+
+        startImport("date,description,amount\n2024-03-01,Coffee,-3\n2024-03-02,Rent,-1200\n2024-03-03,Coffee,-3\n", true);
+
+        assertEquals(List.of("Coffee", "Coffee"), saved.stream().map(FinancialRecord::getDescription).toList());
+        assertTrue(saved.stream().allMatch(financialRecord -> financialRecord.getDuplicateOfId() == null));
+        assertEquals(EStatementImportStatus.COMPLETED, statementImport.getStatus());
+        assertEquals(2, statementImport.getRecordsImported());
+        assertEquals(1, statementImport.getDuplicatesSkipped());
+        assertEquals(0, statementImport.getDuplicatesFlagged());
+    }
+
+    @Test
+    void startImport_FailsAfterTooManyInvalidEntries() throws InterruptedException {
+        givenImportIsStored();
+        properties.setMaxInvalidRecords(1);
+
+        startImport("date,description,amount\nx,a,1\ny,b,2\n2024-03-01,c,3\n", false);
+
+        assertEquals(EStatementImportStatus.FAILED, statementImport.getStatus());
+        assertTrue(statementImport.getError().startsWith("Too many invalid entries"));
+        verify(financialRecordRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void startImport_UnknownProfile_ThrowsIllegalArgumentException() {
+        when(securityUtils.getCurrentUser()).thenReturn(user);
+
+        assertThrows(IllegalArgumentException.class, () -> statementImportService.startImport(dashboardId, "unknown", null,
+                new ByteArrayInputStream(new byte[]{1}), false));
+
+        verify(statementImportRepository, never()).save(any());
+    }
+
+    @Test
+    void startImport_QueueFull_FailsImportAndThrowsIllegalStateException() {
+        ExecutorService fullExecutor = mock(ExecutorService.class);
+        doThrow(new RejectedExecutionException()).when(fullExecutor).execute(any());
+        statementImportService = new StatementImportServiceImpl(statementImportRepository, statementImportMapper, financialRecordRepository,
+                dashboardRepository, userRepository, categorizationService, duplicateDetectionService, anomalyDetectionService,
+                dashboardChangeTracker, businessMetrics, securityUtils, properties, transactionManager, fullExecutor, parseExecutor);
+        givenImportIsStored();
+
+        assertThrows(IllegalStateException.class, () -> statementImportService.startImport(dashboardId, "generic-csv", null,
+                new ByteArrayInputStream("date,description,amount\n".getBytes(StandardCharsets.UTF_8)), false));
+
+        assertEquals(EStatementImportStatus.FAILED, statementImport.getStatus());
+        assertNotNull(statementImport.getFinishedAt());
+    }
+
+    @Test
+    void failStaleImports_TouchesImportsWaitingForAThread() {
+        ExecutorService busyExecutor = mock(ExecutorService.class); // Accepts the import without running it.
+        statementImportService = new StatementImportServiceImpl(statementImportRepository, statementImportMapper, financialRecordRepository,
+                dashboardRepository, userRepository, categorizationService, duplicateDetectionService, anomalyDetectionService,
+                dashboardChangeTracker, businessMetrics, securityUtils, properties, transactionManager, busyExecutor, parseExecutor);
+        givenImportIsStored();
+        statementImportService.startImport(dashboardId, "generic-csv", null,
+                new ByteArrayInputStream("date,description,amount\n2024-03-01,Rent,-1200\n".getBytes(StandardCharsets.UTF_8)), false);
+
+        statementImportService.failStaleImports();
+
+        verify(statementImportRepository).touchQueued(eq(List.of(JOB_ID)), any());
+        verify(statementImportRepository).failUnfinishedBefore(any(), any(), eq("The import stopped making progress"));
+    }
+}
@@ -0,0 +1,144 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.dto.BudgetDto;
+import cz.cvut.fel.budgetplannerbackend.dto.DashboardChangesDto;
+import cz.cvut.fel.budgetplannerbackend.dto.SyncTombstoneDto;
+import cz.cvut.fel.budgetplannerbackend.entity.Budget;
+import cz.cvut.fel.budgetplannerbackend.entity.SyncTombstone;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.mapper.BudgetMapper;
+import cz.cvut.fel.budgetplannerbackend.mapper.CategoryMapper;
+import cz.cvut.fel.budgetplannerbackend.mapper.FinancialGoalMapper;
+import cz.cvut.fel.budgetplannerbackend.mapper.FinancialRecordMapper;
+import cz.cvut.fel.budgetplannerbackend.mapper.SyncTombstoneMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.BudgetRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.CategoryRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialGoalRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.SyncTombstoneRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncServiceImplTest {
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private FinancialGoalRepository financialGoalRepository;
+
+    @Mock
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Mock
+    private FinancialRecordMapper financialRecordMapper;
+
+    @Mock
+    private CategoryMapper categoryMapper;
+
+    @Mock
+    private BudgetMapper budgetMapper;
+
+    @Mock
+    private FinancialGoalMapper financialGoalMapper;
+
+    @Mock
+    private SyncTombstoneMapper syncTombstoneMapper;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @InjectMocks
+    private SyncServiceImpl syncService;
+
+    @Test
+    void testFindChangesSinceToken() {
+        Budget budget = new Budget();
+        budget.setId(3L);
+        BudgetDto budgetDto = new BudgetDto(3L, null, "Groceries", 500.0, LocalDate.now(), LocalDate.now().plusDays(30), null);
+        SyncTombstone tombstone = new SyncTombstone(1L, 1L, ESyncEntityType.CATEGORY, 9L, 12L, LocalDateTime.now());
+        SyncTombstoneDto tombstoneDto = new SyncTombstoneDto(ESyncEntityType.CATEGORY, 9L, 12L, tombstone.getDeletedAt());
+
+        when(dashboardRepository.findVersion(1L)).thenReturn(Optional.of(12L));
+        when(budgetRepository.findChangedSince(1L, 10L)).thenReturn(List.of(budget));
+        when(budgetMapper.toDto(budget)).thenReturn(budgetDto);
+        when(syncTombstoneRepository.findAllByDashboardIdAndChangeSeqGreaterThanOrderByChangeSeq(1L, 10L)).thenReturn(List.of(tombstone));
+        when(syncTombstoneMapper.toDto(tombstone)).thenReturn(tombstoneDto);
+
+        DashboardChangesDto changes = syncService.findChangesSince(1L, 10L);
+
+        assertEquals(12L, changes.token());
+        assertFalse(changes.fullSync());
+        assertEquals(List.of(budgetDto), changes.budgets());
+        assertEquals(List.of(tombstoneDto), changes.deleted());
+        assertTrue(changes.financialRecords().isEmpty());
+        verify(securityUtils, times(1)).checkDashboardAccess(1L, EAccessLevel.VIEWER);
+        verify(financialRecordRepository, times(1)).findChangedSince(1L, 10L);
+    }
+
+    @Test
+    void testFindChangesWithoutTokenReturnsFullSnapshot() {
+        when(dashboardRepository.findVersion(1L)).thenReturn(Optional.of(12L));
+
+        DashboardChangesDto changes = syncService.findChangesSince(1L, null);
+
+        assertTrue(changes.fullSync());
+        assertTrue(changes.deleted().isEmpty());
+        verify(categoryRepository, times(1)).findChangedSince(1L, -1L);
+        verifyNoInteractions(syncTombstoneRepository);
+    }
+
+    @Test
+    void testFindChangesWithUnknownTokenReturnsFullSnapshot() {
+        when(dashboardRepository.findVersion(1L)).thenReturn(Optional.of(12L));
+
+        DashboardChangesDto changes = syncService.findChangesSince(1L, 40L);
+
+        assertTrue(changes.fullSync());
+        verify(financialGoalRepository, times(1)).findChangedSince(1L, -1L);
+    }
+
+    @Test
+    void testFindChangesDashboardNotFound() {
+        when(dashboardRepository.findVersion(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> syncService.findChangesSince(1L, 10L));
+        verify(financialRecordRepository, never()).findChangedSince(anyLong(), anyLong());
+    }
+
+    @Test
+    void testFindChangesAccessDenied() {
+        doThrow(new AccessDeniedException("Access to dashboard is denied"))
+                .when(securityUtils).checkDashboardAccess(1L, EAccessLevel.VIEWER);
+
+        assertThrows(AccessDeniedException.class, () -> syncService.findChangesSince(1L, 10L));
+        verifyNoInteractions(dashboardRepository);
+    }
+}
@@ -0,0 +1,215 @@
+package cz.cvut.fel.budgetplannerbackend.service.implementation;
+
+import cz.cvut.fel.budgetplannerbackend.config.TagProperties;
+import cz.cvut.fel.budgetplannerbackend.dto.FinancialRecordDto;
+import cz.cvut.fel.budgetplannerbackend.entity.Dashboard;
+import cz.cvut.fel.budgetplannerbackend.entity.FinancialRecord;
+import cz.cvut.fel.budgetplannerbackend.entity.Tag;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.EAccessLevel;
+import cz.cvut.fel.budgetplannerbackend.entity.enums.ESyncEntityType;
+import cz.cvut.fel.budgetplannerbackend.events.DashboardChangeTracker;
+import cz.cvut.fel.budgetplannerbackend.events.FinancialRecordsChangedEvent;
+import cz.cvut.fel.budgetplannerbackend.exceptions.EntityNotFoundException;
+import cz.cvut.fel.budgetplannerbackend.mapper.FinancialRecordMapper;
+import cz.cvut.fel.budgetplannerbackend.mapper.TagMapper;
+import cz.cvut.fel.budgetplannerbackend.repository.DashboardRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.FinancialRecordRepository;
+import cz.cvut.fel.budgetplannerbackend.repository.TagRepository;
+import cz.cvut.fel.budgetplannerbackend.security.utils.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TagServiceImplTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private FinancialRecordRepository financialRecordRepository;
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+
+    @Mock
+    private TagMapper tagMapper;
+
+    @Mock
+    private FinancialRecordMapper financialRecordMapper;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @Mock
+    private DashboardChangeTracker dashboardChangeTracker;
+
+    private TagServiceImpl tagService;
+
+    private final Long dashboardId = 1L;
+    private Dashboard dashboard;
+    private final Tag food = new Tag(1L, "food", null);
+    private final Tag work = new Tag(2L, "work", null);
+
+    @BeforeEach
+    void setUp() {
+        tagService = new TagServiceImpl(tagRepository, financialRecordRepository, dashboardRepository, tagMapper,
+                financialRecordMapper, securityUtils, dashboardChangeTracker, new TagProperties());
+        dashboard = new Dashboard();
+        dashboard.setId(dashboardId);
+    }
+
+    private static Object[] row(long recordId, Long tagId) {
+        return new Object[]{recordId, tagId};
+    }
+
+    private void mockRecords() {
+        when(financialRecordRepository.findAllByIdInAndDashboardId(anyCollection(), eq(dashboardId))).thenAnswer(invocation -> {
+            Collection<?> ids = invocation.getArgument(0);
+            List<FinancialRecord> records = new ArrayList<>();
+            for (Object id : ids) {
+                FinancialRecord record = new FinancialRecord();
+                record.setId((Long) id);
+                record.setDate(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays((Long) id));
+                records.add(record);
+            }
+            return records;
+        });
+        when(financialRecordMapper.toDto(any(FinancialRecord.class))).thenAnswer(invocation -> {
+            FinancialRecord record = invocation.getArgument(0);
+            return new FinancialRecordDto(record.getId(), null, null, null, null, null, record.getDate(), null, null, null, false, null);
+        });
+    }
+
+    private List<Long> ids(List<FinancialRecordDto> records) {
+        return records.stream().map(FinancialRecordDto::id).toList();
+    }
+
+    @Test
+    void testFilterByTagsUsesCachedBitmaps() {
+        when(dashboardRepository.findVersion(dashboardId)).thenReturn(Optional.of(3L));
+        when(tagRepository.findAllByDashboardIdAndNameIn(eq(dashboardId), anyCollection())).thenReturn(List.of(food, work));
+        when(tagRepository.findTagAssignmentsByDashboardId(dashboardId))
+                .thenReturn(List.<Object[]>of(row(10, 1L), row(11, 1L), row(11, 2L), row(12, 2L), row(13, null)));
+        mockRecords();
+
+        List<FinancialRecordDto> foodAndWork = tagService.filterFinancialRecordsByTags(dashboardId, Set.of("Food", "work"), null, null);
+        List<FinancialRecordDto> notFood = tagService.filterFinancialRecordsByTags(dashboardId, null, null, Set.of("food"));
+
+        assertEquals(List.of(11L), ids(foodAndWork));
+        assertEquals(List.of(13L, 12L), ids(notFood)); // Newest first.
+        verify(tagRepository, times(1)).findTagAssignmentsByDashboardId(dashboardId);
+        verify(securityUtils, times(2)).checkDashboardAccess(dashboardId, EAccessLevel.VIEWER);
+    }
+
+    @Test
+    void testFilterAppliesCommittedChangesIncrementally() {
+        when(dashboardRepository.findVersion(dashboardId)).thenReturn(Optional.of(3L)).thenReturn(Optional.of(4L));
+        when(tagRepository.findAllByDashboardIdAndNameIn(eq(dashboardId), anyCollection())).thenReturn(List.of(food));
+        when(tagRepository.findTagAssignmentsByDashboardId(dashboardId)).thenReturn(List.<Object[]>of(row(10, 1L), row(11, 1L)));
+        when(tagRepository.findTagAssignmentsByRecordIds(Set.of(11L, 12L))).thenReturn(List.<Object[]>of(row(12, 1L)));
+        mockRecords();
+
+        assertEquals(List.of(11L, 10L), ids(tagService.filterFinancialRecordsByTags(dashboardId, Set.of("food"), null, null)));
+        // Record 11 was deleted and record 12 tagged in the transaction that produced version 4.
+        tagService.onFinancialRecordsChanged(new FinancialRecordsChangedEvent(dashboardId, 4L, Set.of(11L, 12L), null));
+
+        assertEquals(List.of(12L, 10L), ids(tagService.filterFinancialRecordsByTags(dashboardId, Set.of("food"), null, null)));
+        verify(tagRepository, times(1)).findTagAssignmentsByDashboardId(dashboardId);
+    }
+
+    @Test
+    void testFilterRebuildsIndexAfterMissedChange() {
+        when(dashboardRepository.findVersion(dashboardId)).thenReturn(Optional.of(3L)).thenReturn(Optional.of(5L));
+        when(tagRepository.findAllByDashboardIdAndNameIn(eq(dashboardId), anyCollection())).thenReturn(List.of(food));
+        when(tagRepository.findTagAssignmentsByDashboardId(dashboardId)).thenReturn(List.<Object[]>of(row(10, 1L)))
+                .thenReturn(List.<Object[]>of(row(10, 1L), row(14, 1L)));
+        mockRecords();
+
+        tagService.filterFinancialRecordsByTags(dashboardId, Set.of("food"), null, null);
+        // Version 4 was committed on another node, so version 5 cannot be applied on top of version 3.
+        tagService.onFinancialRecordsChanged(new FinancialRecordsChangedEvent(dashboardId, 5L, Set.of(14L), null));
+
+        assertEquals(List.of(14L, 10L), ids(tagService.filterFinancialRecordsByTags(dashboardId, Set.of("food"), null, null)));
+        verify(tagRepository, times(2)).findTagAssignmentsByDashboardId(dashboardId);
+        verify(tagRepository, never()).findTagAssignmentsByRecordIds(any());
+    }
+
+    @Test
+    void testFilterWithUnknownRequiredTagReturnsNothing() {
+        when(tagRepository.findAllByDashboardIdAndNameIn(eq(dashboardId), anyCollection())).thenReturn(List.of(food));
+
+        assertTrue(tagService.filterFinancialRecordsByTags(dashboardId, Set.of("food", "unknown"), null, null).isEmpty());
+        verifyNoInteractions(financialRecordRepository);
+    }
+
+    @Test
+    void testFilterWithoutTagsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> tagService.filterFinancialRecordsByTags(dashboardId, null, Set.of(), null));
+        assertThrows(IllegalArgumentException.class, () -> tagService.filterFinancialRecordsByTags(dashboardId, Set.of(" "), null, null));
+    }
+
+    @Test
+    void testResolveTagsCreatesMissingTags() {
+        when(tagRepository.findAllByDashboardIdAndNameIn(dashboardId, Set.of("food", "trip"))).thenReturn(List.of(food));
+        when(tagRepository.save(any(Tag.class))).thenAnswer(invocation -> {
+            Tag tag = invocation.getArgument(0);
+            tag.setId(3L);
+            return tag;
+        });
+
+        Set<Tag> tags = tagService.resolveTags(dashboard, Set.of(" Food", "TRIP "));
+
+        assertEquals(2, tags.size());
+        assertTrue(tags.contains(food));
+        verify(tagRepository).save(argThat(tag -> tag.getName().equals("trip") && tag.getDashboard() == dashboard));
+    }
+
+    @Test
+    void testResolveTagsRejectsTooManyTags() {
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < 21; i++) {
+            names.add("tag" + i);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> tagService.resolveTags(dashboard, names));
+        verifyNoInteractions(tagRepository);
+    }
+
+    @Test
+    void testDeleteTagReportsAffectedRecords() {
+        when(tagRepository.findByIdAndDashboardId(1L, dashboardId)).thenReturn(Optional.of(food));
+        when(tagRepository.findRecordIdsByTagId(1L)).thenReturn(List.of(10L, 11L));
+
+        tagService.deleteTag(dashboardId, 1L);
+
+        verify(securityUtils).checkDashboardAccess(dashboardId, EAccessLevel.EDITOR);
+        verify(dashboardChangeTracker).markUpserted(ESyncEntityType.FINANCIAL_RECORD, 10L, dashboardId);
+        verify(dashboardChangeTracker).markUpserted(ESyncEntityType.FINANCIAL_RECORD, 11L, dashboardId);
+        verify(tagRepository).delete(food);
+        verify(dashboardChangeTracker).markChanged(dashboardId);
+    }
+
+    @Test
+    void testDeleteTagNotFound() {
+        when(tagRepository.findByIdAndDashboardId(9L, dashboardId)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> tagService.deleteTag(dashboardId, 9L));
+        verify(tagRepository, never()).delete(any());
+    }
+}
@@ -0,0 +1,122 @@
+package cz.cvut.fel.budgetplannerbackend.statement;
+
+import cz.cvut.fel.budgetplannerbackend.config.StatementImportProperties.Profile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvStatementParserTest {
+
+    @Test
+    void next_ParsesQuotedFieldsByHeaderNames() throws IOException {
+        String csv = "\uFEFFDate,Description,Amount\r\n"
+                + "2024-03-01,\"Rent, March\",-1200.50\r\n"
+                + "2024-03-02,\"Say \"\"hi\"\"\nsecond line\",2000\r\n"
+                + "\r\n"
+                + "2024-03-03,Coffee,-3.2\r\n";
+        CsvStatementParser parser = new CsvStatementParser(new StringReader(csv), new Profile(), 4); // A tiny buffer.
+
+        StatementEntry rent = parser.next();
+        assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0), rent.date());
+        assertEquals(new BigDecimal("-1200.50"), rent.amount());
+        assertEquals("Rent, March", rent.description());
+        assertEquals("Say \"hi\"\nsecond line", parser.next().description());
+        assertEquals(new BigDecimal("-3.2"), parser.next().amount()); // The blank row is skipped.
+        assertNull(parser.next());
+    }
+
+    @Test
+    void next_CombinesDebitAndCreditColumnsOfBankDialect() throws IOException {
+        Profile profile = new Profile();
+        profile.setDelimiter(';');
+        profile.setSkipLines(1);
+        profile.setDateColumn("Datum");
+        profile.setDateFormat("dd.MM.yyyy");
+        profile.setAmountColumn("");
+        profile.setDebitColumn("Debit");
+        profile.setCreditColumn("Credit");
+        profile.setDecimalSeparator(',');
+        profile.setDescriptionColumns(List.of("Counterparty", "Message"));
+        String csv = "Account 123456789/0100\n"
+                + "Datum;Counterparty;Message;Debit;Credit\n"
+                + "05.02.2024;Albert;Groceries;1 234,50;\n"
+                + "06.02.2024;Employer;;;42 000,00\n";
+        CsvStatementParser parser = new CsvStatementParser(new StringReader(csv), profile, 64);
+
+        StatementEntry groceries = parser.next();
+        assertEquals(LocalDateTime.of(2024, 2, 5, 0, 0), groceries.date());
+        assertEquals(new BigDecimal("-1234.50"), groceries.amount());
+        assertEquals("Albert Groceries", groceries.description());
+        StatementEntry salary = parser.next();
+        assertEquals(new BigDecimal("42000.00"), salary.amount());
+        assertEquals("Employer", salary.description());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void next_UsesColumnIndexesWithoutHeader() throws IOException {
+        Profile profile = new Profile();
+        profile.setHeader(false);
+        profile.setDateColumn("2");
+        profile.setDateFormat("yyyy-MM-dd HH:mm");
+        profile.setAmountColumn("0");
+        profile.setDescriptionColumns(List.of("1"));
+        CsvStatementParser parser = new CsvStatementParser(new StringReader("15.5,Book,2024-01-10 14:30"), profile, 64);
+
+        StatementEntry entry = parser.next();
+        assertEquals(LocalDateTime.of(2024, 1, 10, 14, 30), entry.date());
+        assertEquals(new BigDecimal("15.5"), entry.amount());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void next_SkipsInvalidRowsAndContinues() throws IOException {
+        String csv = "date,description,amount\n"
+                + "yesterday,Invalid date,10\n"
+                + "2024-03-01,Invalid amount,ten\n"
+                + "2024-03-02,Missing amount\n"
+                + "2024-03-03,Valid,10\n";
+        CsvStatementParser parser = new CsvStatementParser(new StringReader(csv), new Profile(), 64);
+
+        StatementFormatException invalidDate = assertThrows(StatementFormatException.class, parser::next);
+        assertTrue(invalidDate.getMessage().contains("line 2"));
+        assertThrows(StatementFormatException.class, parser::next);
+        assertThrows(StatementFormatException.class, parser::next);
+        assertEquals("Valid", parser.next().description());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void next_FailsOnMissingHeaderColumn() {
+        CsvStatementParser parser = new CsvStatementParser(new StringReader("when,what,how much\n"), new Profile(), 64);
+
+        IOException exception = assertThrows(IOException.class, parser::next);
+        assertFalse(exception instanceof StatementFormatException);
+    }
+
+    @Test
+    void next_FailsOnRowWithTooManyFields() throws IOException {
+        String csv = "Date,Description,Amount\n"
+                + "2024-03-01,Rent,-1200\n"
+                + ",".repeat(100_000) + "\n";
+        CsvStatementParser parser = new CsvStatementParser(new StringReader(csv), new Profile(), 64);
+
+        assertNotNull(parser.next());
+        IOException exception = assertThrows(IOException.class, parser::next);
+        assertFalse(exception instanceof StatementFormatException);
+        assertTrue(exception.getMessage().contains("line 3"));
+    }
+
+    @Test
+    void parseAmount_IgnoresSymbolsAndGrouping() {
+        assertEquals(new BigDecimal("-1234.56"), StatementParsers.parseAmount("1,234.56 USD-", '.'));
+        assertEquals(new BigDecimal("-1234.56"), StatementParsers.parseAmount("\u22121.234,56 CZK", ','));
+        assertNull(StatementParsers.parseAmount("n/a", '.'));
+    }
+}
@@ -0,0 +1,63 @@
+package cz.cvut.fel.budgetplannerbackend.statement;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfxStatementParserTest {
+
+    @Test
+    void next_ParsesSgmlTransactions() throws IOException {
+        String ofx = "OFXHEADER:100\nDATA:OFXSGML\nVERSION:102\n\n"
+                + "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n"
+                + "<DTSTART>20240101\n"
+                + "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20240105120000.000[-5:EST]\n<TRNAMT>-42.10\n"
+                + "<FITID>1\n<NAME>Grocery &amp; Co\n<MEMO>Card payment\n</STMTTRN>\n"
+                + "<STMTTRN>\n<TRNTYPE>CREDIT\n<DTPOSTED>20240110\n<TRNAMT>1500,00\n<NAME>Salary\n<MEMO>Salary\n</STMTTRN>\n"
+                + "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n";
+        OfxStatementParser parser = new OfxStatementParser(new StringReader(ofx), 8);
+
+        StatementEntry groceries = parser.next();
+        assertEquals(LocalDateTime.of(2024, 1, 5, 12, 0), groceries.date());
+        assertEquals(new BigDecimal("-42.10"), groceries.amount());
+        assertEquals("Grocery & Co Card payment", groceries.description());
+        StatementEntry salary = parser.next();
+        assertEquals(LocalDateTime.of(2024, 1, 10, 0, 0), salary.date());
+        assertEquals(new BigDecimal("1500.00"), salary.amount()); // A decimal comma.
+        assertEquals("Salary", salary.description()); // The memo repeats the name.
+        assertNull(parser.next());
+    }
+
+    @Test
+    void next_ParsesXmlTransactions() throws IOException {
+        String ofx = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<?OFX OFXHEADER=\"200\" VERSION=\"220\"?>\n"
+                + "<!-- Exported statement -->\n"
+                + "<OFX><STMTTRN><DTPOSTED>20240301</DTPOSTED><TRNAMT>-9.99</TRNAMT><NAME>Streaming</NAME></STMTTRN></OFX>";
+        OfxStatementParser parser = new OfxStatementParser(new StringReader(ofx), 64);
+
+        StatementEntry entry = parser.next();
+        assertEquals(new BigDecimal("-9.99"), entry.amount());
+        assertEquals("Streaming", entry.description());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void next_SkipsInvalidTransactionsAndFailsOnTruncatedStatement() throws IOException {
+        String ofx = "<STMTTRN><DTPOSTED>2024<TRNAMT>-1</STMTTRN>"
+                + "<STMTTRN><DTPOSTED>20240301<TRNAMT>abc</STMTTRN>"
+                + "<STMTTRN><DTPOSTED>20240302<TRNAMT>5</STMTTRN>"
+                + "<STMTTRN><DTPOSTED>20240303";
+        OfxStatementParser parser = new OfxStatementParser(new StringReader(ofx), 64);
+
+        assertThrows(StatementFormatException.class, parser::next);
+        assertThrows(StatementFormatException.class, parser::next);
+        assertEquals(new BigDecimal("5"), parser.next().amount());
+        IOException exception = assertThrows(IOException.class, parser::next);
+        assertFalse(exception instanceof StatementFormatException);
+    }
+}